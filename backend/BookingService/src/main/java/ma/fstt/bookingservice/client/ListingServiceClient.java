@@ -1,9 +1,14 @@
 package ma.fstt.bookingservice.client;
 
+import ma.fstt.bookingservice.dto.PriceQuoteRequestDTO;
+import ma.fstt.bookingservice.dto.PropertyBatchRequestDTO;
+import ma.fstt.bookingservice.response.PriceQuoteDTO;
 import ma.fstt.bookingservice.response.PropertyDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import java.util.List;
 
 @FeignClient(
@@ -16,6 +21,14 @@ public interface ListingServiceClient {
     PropertyDTO getProperty(@PathVariable("id") String id); // Changé Long -> String
 
 
+    // ✅ Chargement groupé : ordre des IDs conservé, IDs inconnus absents de la réponse
+    @PostMapping("/properties/batch")
+    List<PropertyDTO> getPropertiesBatch(@RequestBody PropertyBatchRequestDTO request);
+
     @GetMapping("/properties/owner/{ownerId}/property-ids")
     List<String> getPropertyIdsByOwner(@PathVariable("ownerId") String ownerId);
+
+    // ✅ Devis groupés (calendrier de prix) : une réponse par entrée, même ordre
+    @PostMapping("/properties/pricing/quote")
+    List<PriceQuoteDTO> quote(@RequestBody PriceQuoteRequestDTO request);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package ma.fstt.bookingservice.controller;
 
+import ma.fstt.bookingservice.dto.BookedRangeDTO;
 import ma.fstt.bookingservice.dto.BookingRequestDTO;
 import ma.fstt.bookingservice.dto.BookingResponseDTO;
 import ma.fstt.bookingservice.dto.HostBookingDTO;
@@ -8,10 +9,12 @@ import ma.fstt.bookingservice.service.BookingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -71,6 +74,24 @@ public class BookingController {
         }
     }
 
+    /**
+     * ✅ NEW: Périodes réservées d'une propriété (public, sans données locataire)
+     * Appelé par l'agrégation "page détail" du Gateway ; fenêtre par défaut : 180 jours
+     */
+    @GetMapping("/property/{propertyId}/booked-dates")
+    public ResponseEntity<List<BookedRangeDTO>> getBookedDates(
+            @PathVariable String propertyId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusDays(180);
+        if (!end.isAfter(start) || end.isAfter(start.plusYears(2))) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(bookingService.getBookedRanges(propertyId, start, end));
+    }
+
     /**
      * Get all bookings for the authenticated tenant
      * ✅ CORRECTION : tenantId reçu comme String
@@ -0,0 +1,20 @@
+package ma.fstt.bookingservice.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * DTO public de disponibilité : une période réservée (sans données locataire)
+ * endDate = jour de départ, exclusif (même convention que Booking)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookedRangeDTO {
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+}
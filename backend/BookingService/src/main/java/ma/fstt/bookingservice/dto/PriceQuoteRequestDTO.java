@@ -0,0 +1,28 @@
+package ma.fstt.bookingservice.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * ✅ Requête de devis groupés vers ListingService (POST /properties/pricing/quote)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceQuoteRequestDTO {
+
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+        private String propertyId;
+        private LocalDate checkIn;
+        private LocalDate checkOut;
+    }
+}
@@ -0,0 +1,17 @@
+package ma.fstt.bookingservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * ✅ Chargement groupé de propriétés vers ListingService (POST /properties/batch)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PropertyBatchRequestDTO {
+
+    private List<String> propertyIds;
+}
@@ -0,0 +1,28 @@
+package ma.fstt.bookingservice.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * ✅ Devis d'un séjour calculé par ListingService (saisons, week-ends, remises, prix fixes)
+ * error renseigné si la property est introuvable ou les dates refusées.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PriceQuoteDTO {
+    private String propertyId;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+    private Integer nights;
+    private BigDecimal subtotal;
+    private BigDecimal discount;
+    private BigDecimal total;
+    private BigDecimal averageNightlyPrice;
+    private String error;
+}
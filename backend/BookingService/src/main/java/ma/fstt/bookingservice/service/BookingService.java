@@ -1,13 +1,15 @@
 package ma.fstt.bookingservice.service;
 
 import ma.fstt.bookingservice.client.AuthServiceClient;
+import ma.fstt.bookingservice.dto.BookedRangeDTO;
 import ma.fstt.bookingservice.dto.BookingRequestDTO;
 import ma.fstt.bookingservice.dto.BookingResponseDTO;
 import ma.fstt.bookingservice.entities.Tenant;
 import ma.fstt.bookingservice.dto.HostBookingDTO;
+import ma.fstt.bookingservice.dto.PriceQuoteRequestDTO;
 import ma.fstt.bookingservice.repository.BookingRepository;
 import ma.fstt.bookingservice.repository.TenantRepository;
-import ma.fstt.bookingservice.response.PropertyDTO;
+import ma.fstt.bookingservice.response.PriceQuoteDTO;
 import ma.fstt.bookingservice.response.WalletStatusDTO;
 import ma.fstt.bookingservice.exception.*;
 import ma.fstt.bookingservice.model.Booking;
@@ -27,6 +29,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 @Service
@@ -34,6 +37,12 @@ import java.util.List;
 @Slf4j
 public class BookingService {
 
+    // On considère aussi AWAITING_PAYMENT comme "bloquant"
+    private static final List<BookingStatus> BLOCKING_STATUSES = List.of(
+            BookingStatus.AWAITING_PAYMENT,
+            BookingStatus.CONFIRMED
+    );
+
     private final BookingRepository bookingRepository;
     private final AuthServiceClient authServiceClient;
     private final ListingServiceClient listingServiceClient;
@@ -71,17 +80,13 @@ public class BookingService {
         // Step 2: Check Property Availability
         checkAvailability(request.getPropertyId(), request.getStartDate(), request.getEndDate());
 
-        // Step 3: Fetch Current Price from ListingService (Snapshot Pattern + Circuit Breaker)
-        // ✅ CORRECTION: Passer directement le String propertyId (pas de conversion en Long)
-        PropertyDTO property = fetchPropertyPricing(request.getPropertyId());
-
-        // Step 4: Calculate Total Price
-        long numberOfNights = ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate());
-        BigDecimal totalPrice = property.getPrice().multiply(BigDecimal.valueOf(numberOfNights));
+        // Step 3 + 4: Quote the stay from ListingService (Snapshot Pattern + Circuit Breaker)
+        // ✅ Un seul appel : prix par nuit du calendrier (saisons, week-ends, prix fixes) + remise longue durée
+        PriceQuoteDTO quote = fetchPriceQuote(request.getPropertyId(), request.getStartDate(), request.getEndDate());
+        BigDecimal totalPrice = quote.getTotal();
 
-        // ✅ CORRECTION: Log sans property.getCurrency() pour éviter les NullPointerException
-        log.info("Calculated price: {} nights × {} ETH = {} ETH",
-                numberOfNights, property.getPrice(), totalPrice);
+        log.info("Quoted price: {} nights, subtotal {} - discount {} = {} ETH",
+                quote.getNights(), quote.getSubtotal(), quote.getDiscount(), totalPrice);
 
         // Step 5: Create Booking with AWAITING_PAYMENT status
         Booking booking = Booking.builder()
@@ -91,7 +96,7 @@ public class BookingService {
                 .endDate(request.getEndDate())
                 .status(BookingStatus.AWAITING_PAYMENT)
                 .tenantWalletAddress(tenantWallet)
-                .pricePerNight(property.getPrice())
+                .pricePerNight(quote.getAverageNightlyPrice())  // Moyenne par nuit (prix variables selon les dates)
                 .totalPrice(totalPrice)
                 .currency("ETH")  // ✅ CORRECTION: Force "ETH" au lieu de property.getCurrency()
                 .build();
@@ -262,14 +267,8 @@ public class BookingService {
      * ✅ CORRECTION: propertyId est maintenant un String
      */
     private void checkAvailability(String propertyId, LocalDate startDate, LocalDate endDate) {
-        // On considère aussi AWAITING_PAYMENT comme "bloquant"
-        List<BookingStatus> activeStatuses = List.of(
-                BookingStatus.AWAITING_PAYMENT,
-                BookingStatus.CONFIRMED
-        );
-
         List<Booking> overlappingBookings = bookingRepository.findOverlappingBookings(
-                propertyId, startDate, endDate, activeStatuses
+                propertyId, startDate, endDate, BLOCKING_STATUSES
         );
 
         if (!overlappingBookings.isEmpty()) {
@@ -281,36 +280,51 @@ public class BookingService {
     }
 
     /**
-     * ✅ CORRECTION: Fetch property pricing avec String propertyId
+     * ✅ Devis du séjour calculé par ListingService (POST /properties/pricing/quote)
      * 🔄 PROTECTION : Circuit Breaker pour gérer l'indisponibilité de ListingService
      */
-    @CircuitBreaker(name = "listingService", fallbackMethod = "getPropertyFallback")
-    private PropertyDTO fetchPropertyPricing(String propertyId) {
+    @CircuitBreaker(name = "listingService", fallbackMethod = "getPriceQuoteFallback")
+    private PriceQuoteDTO fetchPriceQuote(String propertyId, LocalDate startDate, LocalDate endDate) {
         try {
-            PropertyDTO property = listingServiceClient.getProperty(propertyId);
+            PriceQuoteRequestDTO request = PriceQuoteRequestDTO.builder()
+                    .items(List.of(PriceQuoteRequestDTO.Item.builder()
+                            .propertyId(propertyId)
+                            .checkIn(startDate)
+                            .checkOut(endDate)
+                            .build()))
+                    .build();
+
+            List<PriceQuoteDTO> quotes = listingServiceClient.quote(request);
+            if (quotes == null || quotes.isEmpty()) {
+                throw new BookingException("Unable to fetch property pricing");
+            }
+
+            PriceQuoteDTO quote = quotes.get(0);
+            if (quote.getError() != null) {
+                if (quote.getError().contains("not found")) {
+                    throw new PropertyNotFoundException("Property not found with ID: " + propertyId);
+                }
+                throw new BookingException(quote.getError());
+            }
 
-            if (property.getPrice() == null || property.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
+            if (quote.getTotal() == null || quote.getTotal().compareTo(BigDecimal.ZERO) <= 0) {
                 throw new BookingException("Property does not have a valid price");
             }
 
-            // ✅ CORRECTION: Log sans property.getCurrency() car il peut être null
-            log.info("Fetched property pricing: {} ETH/night", property.getPrice());
-            return property;
+            log.info("Fetched price quote: {} ETH for {} nights", quote.getTotal(), quote.getNights());
+            return quote;
 
-        } catch (FeignException.NotFound e) {
-            throw new PropertyNotFoundException("Property not found with ID: " + propertyId);
         } catch (FeignException e) {
-            log.error("Error fetching property pricing: {}", e.getMessage());
-            throw new BookingException("Unable to fetch property details", e);
+            log.error("Error fetching price quote: {}", e.getMessage());
+            throw new BookingException("Unable to fetch property pricing", e);
         }
     }
 
     /**
-     * ✅ CORRECTION: FALLBACK avec String propertyId
      * Méthode de secours si ListingService est indisponible
      * Appelée automatiquement par le Circuit Breaker
      */
-    private PropertyDTO getPropertyFallback(String propertyId, Exception e) {
+    private PriceQuoteDTO getPriceQuoteFallback(String propertyId, LocalDate startDate, LocalDate endDate, Exception e) {
         log.error("❌ ListingService circuit breaker activated for property {}: {}",
                 propertyId, e.getMessage());
         throw new ServiceUnavailableException(
@@ -328,6 +342,21 @@ public class BookingService {
                 .toList();
     }
 
+    /**
+     * ✅ Périodes réservées d'une propriété sur [from, to) (calendrier de la page détail)
+     */
+    @Transactional(readOnly = true)
+    public List<BookedRangeDTO> getBookedRanges(String propertyId, LocalDate from, LocalDate to) {
+        return bookingRepository.findOverlappingBookings(propertyId, from, to, BLOCKING_STATUSES)
+                .stream()
+                .map(booking -> BookedRangeDTO.builder()
+                        .startDate(booking.getStartDate())
+                        .endDate(booking.getEndDate())
+                        .build())
+                .sorted(Comparator.comparing(BookedRangeDTO::getStartDate))
+                .toList();
+    }
+
     /**
      * ✅ Get booking by ID
      */
@@ -0,0 +1,7 @@
+package ma.fstt.listingservice.cache;
+
+/**
+ * ✅ Réponse JSON déjà sérialisée + son ETag (fort)
+ */
+public record CachedResponse(byte[] body, String etag) {
+}
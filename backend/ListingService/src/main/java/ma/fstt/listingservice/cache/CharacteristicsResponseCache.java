@@ -0,0 +1,44 @@
+package ma.fstt.listingservice.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * ✅ Liste GET /characteristics sérialisée une seule fois (ETag = hash du contenu)
+ * Invalidée à chaque création / modification / suppression (local + fanout).
+ */
+@Component
+public class CharacteristicsResponseCache {
+
+    private volatile CachedResponse current;
+
+    // Incrémenté à chaque invalidation : un chargement commencé avant n'est pas publié
+    private final AtomicLong generation = new AtomicLong();
+
+    public CachedResponse get(Supplier<byte[]> loader) {
+        CachedResponse cached = current;
+        if (cached != null) {
+            return cached;
+        }
+
+        long startGeneration = generation.get();
+        byte[] body = loader.get();
+        cached = new CachedResponse(body, ETags.ofContent(body));
+
+        synchronized (this) {
+            if (generation.get() == startGeneration) {
+                current = cached;
+            }
+        }
+        return cached;
+    }
+
+    public void evict() {
+        synchronized (this) {
+            generation.incrementAndGet();
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ma.fstt.listingservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import ma.fstt.listingservice.repositories.OwnerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * ✅ Cache owner : userId → walletAddress (vérifications wallet sans accès DB)
+ *
+ * Tenu à jour par les événements wallet / user (voir OwnerWalletChangedEvent) ;
+ * le TTL borne la durée de vie d'une entrée qu'une invalidation aurait manquée.
+ * Un owner inexistant n'est pas mis en cache : sa création sera visible dès l'événement suivant.
+ * Les diffusions passent par un pool asynchrone et peuvent arriver dans le désordre : une mise à jour
+ * n'est appliquée que si sa walletVersion n'est pas plus ancienne que celle en cache, et seulement
+ * sur une entrée présente (sinon la prochaine lecture recharge la ligne à jour depuis la base).
+ */
+@Component
+public class OwnerWalletCache {
+
+    private static final Logger log = LoggerFactory.getLogger(OwnerWalletCache.class);
+
+    /**
+     * walletAddress null ou vide : l'owner existe mais n'a pas connecté de wallet
+     */
+    public record OwnerWallet(String walletAddress, long walletVersion) {
+        public boolean hasWallet() {
+            return walletAddress != null && !walletAddress.trim().isEmpty();
+        }
+    }
+
+    private final OwnerRepository ownerRepository;
+    private final Cache<String, OwnerWallet> cache;
+
+    public OwnerWalletCache(OwnerRepository ownerRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${listing.cache.owner.max-size:20000}") long maxSize,
+                            @Value("${listing.cache.owner.ttl-seconds:600}") long ttlSeconds) {
+        this.ownerRepository = ownerRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "owner.wallet");
+
+        log.info("✅ Owner wallet cache ready: maxSize={}, ttl={}s", maxSize, ttlSeconds);
+    }
+
+    /**
+     * Optional vide si l'owner n'existe pas
+     */
+    public Optional<OwnerWallet> find(String userId) {
+        return Optional.ofNullable(cache.get(userId, id -> ownerRepository.findByUserId(id)
+                .map(owner -> new OwnerWallet(owner.getWalletAddress(),
+                        owner.getWalletVersion() == null ? 0 : owner.getWalletVersion()))
+                .orElse(null)));
+    }
+
+    public void put(String userId, String walletAddress, long walletVersion) {
+        cache.asMap().computeIfPresent(userId, (id, current) -> walletVersion >= current.walletVersion()
+                ? new OwnerWallet(walletAddress, walletVersion)
+                : current);
+    }
+}
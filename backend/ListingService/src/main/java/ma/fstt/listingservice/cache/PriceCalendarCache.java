@@ -0,0 +1,56 @@
+package ma.fstt.listingservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import ma.fstt.listingservice.pricing.PriceCalendar;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * ✅ Calendriers de prix compilés par propertyId
+ *
+ * Évincé à chaque écriture sur la property ou ses règles (voir PropertyCacheInvalidationListener) ;
+ * le TTL fait glisser la fenêtre compilée avec la date du jour.
+ */
+@Component
+public class PriceCalendarCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceCalendarCache.class);
+
+    private final Cache<String, PriceCalendar> cache;
+
+    public PriceCalendarCache(MeterRegistry meterRegistry,
+                              @Value("${listing.pricing.cache.max-size:20000}") long maxSize,
+                              @Value("${listing.pricing.cache.ttl-minutes:360}") long ttlMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "property.price-calendar");
+
+        log.info("✅ Price calendar cache ready: maxSize={}, ttl={}min", maxSize, ttlMinutes);
+    }
+
+    /**
+     * Les calendriers absents sont compilés en un seul appel au loader (requêtes groupées)
+     */
+    public Map<String, PriceCalendar> getAll(Set<String> propertyIds,
+                                             Function<Set<? extends String>, Map<String, PriceCalendar>> loader) {
+        return cache.getAll(propertyIds, loader);
+    }
+
+    public void evict(String propertyId) {
+        cache.invalidate(propertyId);
+    }
+}
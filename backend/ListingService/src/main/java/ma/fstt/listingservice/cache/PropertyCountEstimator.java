@@ -0,0 +1,57 @@
+package ma.fstt.listingservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ma.fstt.listingservice.entities.PropertyStatus;
+import ma.fstt.listingservice.repositories.PropertyCardRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * ✅ Totaux APPROXIMATIFS pour le mode slice (withEstimate=true)
+ *
+ * Le COUNT réel est exécuté au plus une fois par clé et par TTL ; entre-temps la
+ * valeur en cache est renvoyée telle quelle. Pour la recherche géographique, les
+ * coordonnées sont arrondies (~1 km) pour que les recherches voisines partagent l'estimation.
+ */
+@Component
+public class PropertyCountEstimator {
+
+    private final PropertyCardRepository propertyCardRepository;
+    private final Cache<String, Long> estimates;
+
+    public PropertyCountEstimator(PropertyCardRepository propertyCardRepository,
+                                  @Value("${listing.cache.count-estimate.ttl-seconds:120}") long ttlSeconds) {
+        this.propertyCardRepository = propertyCardRepository;
+        this.estimates = Caffeine.newBuilder()
+                .maximumSize(5_000)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public long estimateActive() {
+        return estimates.get("active",
+                k -> propertyCardRepository.countByStatus(PropertyStatus.ACTIVE));
+    }
+
+    public long estimateSearch(String city, String type, BigDecimal minPrice,
+                               BigDecimal maxPrice, Integer nbOfGuests) {
+        String key = "search|" + Objects.toString(city, "") + "|" + Objects.toString(type, "") + "|"
+                + Objects.toString(minPrice, "") + "|" + Objects.toString(maxPrice, "") + "|"
+                + Objects.toString(nbOfGuests, "");
+        return estimates.get(key, k -> propertyCardRepository.countSearch(
+                city, type, minPrice, maxPrice, nbOfGuests, PropertyStatus.ACTIVE));
+    }
+
+    public long estimateNearby(Double latitude, Double longitude, Double radius) {
+        double lat = Math.round(latitude * 100) / 100.0;
+        double lon = Math.round(longitude * 100) / 100.0;
+        String key = "nearby|" + lat + "|" + lon + "|" + radius;
+        return estimates.get(key, k -> propertyCardRepository.countNearby(
+                lat, lon, radius, PropertyStatus.ACTIVE.name()));
+    }
+}
@@ -0,0 +1,101 @@
+package ma.fstt.listingservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * ✅ Cache local (Caffeine, W-TinyLFU) des réponses GET /properties/{propertyId}
+ * déjà sérialisées en JSON, avec leur ETag.
+ *
+ * Invalidation : voir PropertyCacheInvalidationListener (après commit + fanout RabbitMQ).
+ * Le TTL n'est qu'un filet de sécurité si un message d'invalidation est perdu.
+ */
+@Component
+public class PropertyResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PropertyResponseCache.class);
+
+    private final Cache<String, CachedResponse> cache;
+
+    // Incrémenté AVANT chaque invalidation : un chargement commencé avant ne peut plus être inséré après
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PropertyResponseCache(MeterRegistry meterRegistry,
+                                 @Value("${listing.cache.property.max-size:10000}") long maxSize,
+                                 @Value("${listing.cache.property.ttl-seconds:600}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        // Expose cache.gets{result=hit|miss}, cache.evictions, cache.size ... via /actuator/metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "property.response");
+
+        log.info("✅ Property response cache ready: maxSize={}, ttl={}s", maxSize, ttlSeconds);
+    }
+
+    /**
+     * Retourne le JSON en cache, ou le calcule (une seule fois par clé en concurrence).
+     * Les exceptions du loader (ex: property introuvable) ne sont pas mises en cache.
+     */
+    public CachedResponse get(String propertyId, Function<String, CachedResponse> loader) {
+        return cache.get(propertyId, loader);
+    }
+
+    /**
+     * Version bulk : les absents sont chargés en un appel. Une invalidation (AFTER_COMMIT) survenue
+     * pendant le chargement empêche l'insertion des valeurs lues : elles sont renvoyées mais pas
+     * mises en cache, sinon la version périmée resterait servie jusqu'au TTL.
+     */
+    public Map<String, CachedResponse> getAll(Collection<String> propertyIds,
+                                              Function<List<String>, Map<String, CachedResponse>> bulkLoader) {
+        Map<String, CachedResponse> result = new HashMap<>(propertyIds.size() * 2);
+        List<String> missing = new ArrayList<>();
+        for (String propertyId : propertyIds) {
+            CachedResponse cached = cache.getIfPresent(propertyId);
+            if (cached != null) {
+                result.put(propertyId, cached);
+            } else {
+                missing.add(propertyId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long stamp = invalidations.get();
+        Map<String, CachedResponse> loaded = bulkLoader.apply(missing);
+        loaded.forEach((propertyId, response) -> {
+            // compute : exclusif avec invalidate() sur la même clé
+            cache.asMap().compute(propertyId, (id, current) -> invalidations.get() == stamp ? response : current);
+            result.put(propertyId, response);
+        });
+        return result;
+    }
+
+    public void evict(String propertyId) {
+        invalidations.incrementAndGet();
+        cache.invalidate(propertyId);
+    }
+
+    public void evictAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+}
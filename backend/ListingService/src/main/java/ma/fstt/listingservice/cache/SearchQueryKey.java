@@ -0,0 +1,38 @@
+package ma.fstt.listingservice.cache;
+
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+
+/**
+ * ✅ Clé normalisée d'une recherche : deux requêtes équivalentes partagent la même entrée
+ * (espaces / chaînes vides ignorés, 100 == 100.00 pour les prix, tri sous forme canonique).
+ * Les valeurs normalisées sont aussi celles passées à la requête SQL.
+ */
+public record SearchQueryKey(String city, String type, BigDecimal minPrice, BigDecimal maxPrice,
+                             Integer nbOfGuests, int page, int size, String sort) {
+
+    public static SearchQueryKey of(String city, String type, BigDecimal minPrice, BigDecimal maxPrice,
+                                    Integer nbOfGuests, Pageable pageable) {
+        return new SearchQueryKey(
+                normalizeText(city),
+                normalizeText(type),
+                normalizePrice(minPrice),
+                normalizePrice(maxPrice),
+                nbOfGuests,
+                pageable.getPageNumber(),
+                pageable.getPageSize(),
+                pageable.getSort().toString());
+    }
+
+    public static String normalizeText(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    private static BigDecimal normalizePrice(BigDecimal value) {
+        return value == null ? null : value.stripTrailingZeros();
+    }
+}
@@ -0,0 +1,69 @@
+package ma.fstt.listingservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * ✅ Cache des résultats de recherche : liste ORDONNÉE des propertyId d'une page + total
+ *
+ * Les properties sont rechargées par id à chaque lecture (données toujours à jour) ;
+ * seuls le filtrage, le tri et le COUNT sont évités.
+ * Invalidation sélective par ville (voir PropertyCacheInvalidationListener) : une recherche
+ * sans ville peut contenir n'importe quelle property, elle est donc toujours invalidée.
+ */
+@Component
+public class SearchResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchResultCache.class);
+
+    public record CachedSearch(List<String> propertyIds, long total) {
+        public CachedSearch {
+            propertyIds = List.copyOf(propertyIds);
+        }
+    }
+
+    private final Cache<SearchQueryKey, CachedSearch> cache;
+
+    public SearchResultCache(MeterRegistry meterRegistry,
+                             @Value("${listing.cache.search.max-size:2000}") long maxSize,
+                             @Value("${listing.cache.search.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "property.search");
+
+        log.info("✅ Search result cache ready: maxSize={}, ttl={}s", maxSize, ttlSeconds);
+    }
+
+    public CachedSearch get(SearchQueryKey key, Function<SearchQueryKey, CachedSearch> loader) {
+        return cache.get(key, loader);
+    }
+
+    /**
+     * Invalide les recherches qui peuvent contenir une property de ces villes
+     */
+    public void evictCities(Collection<String> cities) {
+        List<String> normalized = cities.stream()
+                .map(SearchQueryKey::normalizeText)
+                .toList();
+        cache.asMap().keySet().removeIf(key -> key.city() == null || normalized.contains(key.city()));
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
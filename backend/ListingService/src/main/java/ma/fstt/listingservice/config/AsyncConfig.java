@@ -0,0 +1,70 @@
+package ma.fstt.listingservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ✅ Executors dédiés aux traitements I/O (S3), CPU (images) et effets de bord après commit
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * Effets de bord des écritures (RabbitMQ, suppressions S3) exécutés APRÈS COMMIT :
+     * la connexion DB est rendue au pool sans attendre le réseau.
+     * File pleine = exécution sur le thread appelant (ralentit, mais aucun événement perdu).
+     * Utilisé via @Async("sideEffectExecutor").
+     */
+    @Bean
+    public ThreadPoolTaskExecutor sideEffectExecutor(
+            @Value("${listing.side-effects.threads:4}") int threads,
+            @Value("${listing.side-effects.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("side-effects-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // Arrêt propre : on laisse partir les messages déjà en file
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Uploads S3 : un virtual thread par image, la concurrence réelle est bornée
+     * par un sémaphore dans ImageStorageService (aws.s3.upload.max-concurrency).
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService imageUploadExecutor() {
+        return Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("s3-upload-", 0).factory());
+    }
+
+    /**
+     * Génération des variantes d'images : CPU + mémoire (décodage), donc pool
+     * de threads plateforme FIXE et file bornée. File pleine = tâche rejetée
+     * (l'original reste utilisable, voir ImageVariantService).
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService imageProcessingExecutor(
+            @Value("${listing.images.processing.threads:2}") int threads,
+            @Value("${listing.images.processing.queue-capacity:200}") int queueCapacity) {
+        return new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("image-variants-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -34,6 +34,17 @@ public class RabbitMQConfig {
     public static final String WALLET_UPDATED_ROUTING_KEY = "user.wallet.updated";
     public static final String WALLET_DISCONNECTED_ROUTING_KEY = "user.wallet.disconnected";
 
+    // ========== NETTOYAGE S3 APRÈS SUPPRESSION (file persistante + retry différé) ==========
+    public static final String PROPERTY_EXCHANGE = "property.exchange";
+    public static final String PROPERTY_IMAGES_CLEANUP_QUEUE = "property.images.cleanup.queue";
+    public static final String PROPERTY_IMAGES_CLEANUP_ROUTING_KEY = "property.images.cleanup";
+    public static final String PROPERTY_IMAGES_CLEANUP_RETRY_QUEUE = "property.images.cleanup.retry.queue";
+    public static final String PROPERTY_IMAGES_CLEANUP_PARKING_QUEUE = "property.images.cleanup.parking.queue";
+    public static final int PROPERTY_IMAGES_CLEANUP_RETRY_DELAY_MS = 60_000;
+
+    // ========== INVALIDATION CACHE PROPERTIES (toutes les replicas) ==========
+    public static final String PROPERTY_CACHE_FANOUT_EXCHANGE = "property.cache.fanout";
+
     // Exchange Bean
     @Bean
     public TopicExchange userExchange() {
@@ -122,6 +133,64 @@ public class RabbitMQConfig {
                 .with(WALLET_DISCONNECTED_ROUTING_KEY);
     }
 
+    // ========== NETTOYAGE IMAGES S3 ==========
+    // Échec → dead-letter vers la file retry (TTL) → retour sur la file principale après le délai
+    @Bean
+    public TopicExchange propertyExchange() {
+        return new TopicExchange(PROPERTY_EXCHANGE);
+    }
+
+    @Bean
+    public Queue propertyImagesCleanupQueue() {
+        return QueueBuilder.durable(PROPERTY_IMAGES_CLEANUP_QUEUE)
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(PROPERTY_IMAGES_CLEANUP_RETRY_QUEUE)
+                .build();
+    }
+
+    @Bean
+    public Queue propertyImagesCleanupRetryQueue() {
+        return QueueBuilder.durable(PROPERTY_IMAGES_CLEANUP_RETRY_QUEUE)
+                .ttl(PROPERTY_IMAGES_CLEANUP_RETRY_DELAY_MS)
+                .deadLetterExchange(PROPERTY_EXCHANGE)
+                .deadLetterRoutingKey(PROPERTY_IMAGES_CLEANUP_ROUTING_KEY)
+                .build();
+    }
+
+    // Messages abandonnés après N tentatives : à inspecter / rejouer manuellement
+    @Bean
+    public Queue propertyImagesCleanupParkingQueue() {
+        return new Queue(PROPERTY_IMAGES_CLEANUP_PARKING_QUEUE, true);
+    }
+
+    @Bean
+    public Binding propertyImagesCleanupBinding(Queue propertyImagesCleanupQueue, TopicExchange propertyExchange) {
+        return BindingBuilder
+                .bind(propertyImagesCleanupQueue)
+                .to(propertyExchange)
+                .with(PROPERTY_IMAGES_CLEANUP_ROUTING_KEY);
+    }
+
+    // ========== INVALIDATION CACHE (FANOUT) ==========
+    // Une queue anonyme (exclusive, auto-delete) par replica : chaque instance reçoit toutes les invalidations
+    @Bean
+    public FanoutExchange propertyCacheFanoutExchange() {
+        return new FanoutExchange(PROPERTY_CACHE_FANOUT_EXCHANGE);
+    }
+
+    @Bean
+    public Queue propertyCacheInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding propertyCacheInvalidationBinding(Queue propertyCacheInvalidationQueue,
+                                                    FanoutExchange propertyCacheFanoutExchange) {
+        return BindingBuilder
+                .bind(propertyCacheInvalidationQueue)
+                .to(propertyCacheFanoutExchange);
+    }
+
     // Message Converter (JSON)
     @Bean
     public MessageConverter jsonMessageConverter() {
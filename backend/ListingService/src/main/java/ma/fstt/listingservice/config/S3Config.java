@@ -8,6 +8,7 @@ import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 import java.net.URI;
 
@@ -25,13 +26,19 @@ public class S3Config {
     @Value("${aws.s3.region}")
     private String region;
 
+    // ✅ Endpoint surchargeable (MinIO / stand-in S3 local), vide = endpoint AWS régional
+    @Value("${aws.s3.endpoint:}")
+    private String endpointOverride;
+
     @Bean
     public S3Client s3Client() {
         try {
             AwsBasicCredentials awsCreds = AwsBasicCredentials.create(accessKey, secretKey);
 
             // ✅ CRITICAL FIX: Explicit endpoint URI to avoid DNS resolution issues in Docker
-            String endpoint = String.format("https://s3.%s.amazonaws.com", region);
+            String endpoint = endpointOverride != null && !endpointOverride.isBlank()
+                    ? endpointOverride
+                    : String.format("https://s3.%s.amazonaws.com", region);
 
             System.out.println("=".repeat(60));
             System.out.println("🔧 Initializing AWS S3 Client...");
@@ -64,4 +71,23 @@ public class S3Config {
             throw new RuntimeException("Failed to initialize S3 client", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * ✅ Presigner pour les uploads directs navigateur → S3 (aucun octet d'image ne transite par le service)
+     */
+    @Bean(destroyMethod = "close")
+    public S3Presigner s3Presigner() {
+        S3Presigner.Builder builder = S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(accessKey, secretKey)))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(true)
+                        .build());
+
+        if (endpointOverride != null && !endpointOverride.isBlank()) {
+            builder.endpointOverride(URI.create(endpointOverride));
+        }
+        return builder.build();
+    }
+}
@@ -25,6 +25,7 @@ public class SecurityConfig {
                         // Properties - Lecture publique
                         .requestMatchers("/properties").permitAll()                    // GET all properties
                         .requestMatchers("/properties/{id}").permitAll()               // GET property by ID
+                        .requestMatchers(HttpMethod.POST, "/properties/batch").permitAll() // Batch fetch (BookingService, frontend)
                         .requestMatchers("/properties/{id}/public").permitAll()        // GET public details
                         .requestMatchers("/properties/search").permitAll()             // Search properties
                         .requestMatchers("/properties/nearby").permitAll()             // Nearby properties
@@ -61,6 +62,18 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/properties/*/images").permitAll()    // Upload images
                         .requestMatchers(HttpMethod.DELETE, "/properties/*/images").permitAll()  // Delete images
                         .requestMatchers(HttpMethod.GET, "/properties/*/images").permitAll()     // Get images
+                        .requestMatchers(HttpMethod.POST, "/properties/*/images/presign").permitAll()  // URLs S3 présignées
+                        .requestMatchers(HttpMethod.POST, "/properties/*/images/complete").permitAll() // Confirmer upload direct
+
+                        // ========== TARIFICATION ==========
+                        .requestMatchers(HttpMethod.POST, "/properties/pricing/quote").permitAll()     // Devis (BookingService, frontend)
+                        .requestMatchers(HttpMethod.GET, "/properties/*/pricing/calendar").permitAll() // Prix par nuit
+                        .requestMatchers("/properties/*/pricing/rules").permitAll()                    // Règles (owner via Gateway)
+                        .requestMatchers(HttpMethod.POST, "/properties/price-suggestion", "/properties/price-suggestion/batch").permitAll() // Suggestion de prix
+                        .requestMatchers(HttpMethod.GET, "/properties/my-properties/price-suggestions").permitAll() // Portefeuille (JWT via Gateway)
+
+                        // ========== ACTUATOR (santé + métriques cache, réseau interne) ==========
+                        .requestMatchers("/actuator/health/**", "/actuator/metrics/**").permitAll()
 
                         // ========== COUNT ==========
                         .requestMatchers("/properties/owner/*/count").permitAll()                // Count properties by owner
@@ -1,16 +1,28 @@
 package ma.fstt.listingservice.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.fstt.listingservice.cache.CachedResponse;
+import ma.fstt.listingservice.cache.CharacteristicsResponseCache;
+import ma.fstt.listingservice.cache.ETags;
 import ma.fstt.listingservice.entities.Characteristic;
 import ma.fstt.listingservice.entities.TypeCharacteristique;
+import ma.fstt.listingservice.events.CharacteristicsChangedEvent;
 import ma.fstt.listingservice.repositories.CharacteristicRepository;
 import ma.fstt.listingservice.repositories.TypeCaracteristiqueRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,22 +37,43 @@ public class CharacteristicController {
     @Autowired
     private TypeCaracteristiqueRepository typeCaracteristiqueRepository;
 
+    @Autowired
+    private CharacteristicsResponseCache characteristicsResponseCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Catalogue quasi statique : cache navigateur/proxy court, puis revalidation par ETag
+    private static final CacheControl CHARACTERISTICS_CACHE_CONTROL =
+            CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+
     /**
      * Récupérer toutes les caractéristiques (pour que l'utilisateur puisse choisir)
+     * ✅ JSON sérialisé une seule fois + ETag (304 si If-None-Match correspond)
      */
     @GetMapping
-    public ResponseEntity<List<Characteristic>> getAllCharacteristics() {
-        List<Characteristic> characteristics = characteristicRepository.findAll();
-        return ResponseEntity.ok(characteristics);
+    public ResponseEntity<byte[]> getAllCharacteristics(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CachedResponse cached = characteristicsResponseCache.get(
+                () -> toJson(characteristicRepository.findAll()));
+        return conditionalResponse(cached.body(), cached.etag(), ifNoneMatch);
     }
 
     /**
      * Récupérer une caractéristique par ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Characteristic> getCharacteristicById(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getCharacteristicById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         return characteristicRepository.findById(id)
-                .map(ResponseEntity::ok)
+                .map(characteristic -> {
+                    byte[] body = toJson(characteristic);
+                    return conditionalResponse(body, ETags.ofContent(body), ifNoneMatch);
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -61,6 +94,7 @@ public class CharacteristicController {
             characteristic.setTypeCaracteristique(type);
 
             Characteristic saved = characteristicRepository.save(characteristic);
+            eventPublisher.publishEvent(new CharacteristicsChangedEvent(saved.getId()));
 
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Caractéristique créée avec succès");
@@ -99,6 +133,7 @@ public class CharacteristicController {
             }
 
             Characteristic updated = characteristicRepository.save(characteristic);
+            eventPublisher.publishEvent(new CharacteristicsChangedEvent(id));
             return ResponseEntity.ok(updated);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -117,6 +152,7 @@ public class CharacteristicController {
                 throw new RuntimeException("Caractéristique non trouvée");
             }
             characteristicRepository.deleteById(id);
+            eventPublisher.publishEvent(new CharacteristicsChangedEvent(id));
 
             Map<String, String> response = new HashMap<>();
             response.put("message", "Caractéristique supprimée avec succès");
@@ -128,6 +164,28 @@ public class CharacteristicController {
         }
     }
 
+    private ResponseEntity<byte[]> conditionalResponse(byte[] body, String etag, String ifNoneMatch) {
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CHARACTERISTICS_CACHE_CONTROL)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CHARACTERISTICS_CACHE_CONTROL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize characteristics", e);
+        }
+    }
+
     /**
      * Request DTO
      */
@@ -1,9 +1,12 @@
 package ma.fstt.listingservice.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import ma.fstt.listingservice.entities.Owner;
 import ma.fstt.listingservice.repositories.OwnerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -20,6 +23,12 @@ public class OwnerController {
     @Autowired
     private OwnerRepository ownerRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     /**
      * Vérifier si l'owner existe et a une wallet address
      * GET /owners/check/{userId}
@@ -76,6 +85,8 @@ public class OwnerController {
      */
     @GetMapping
     public ResponseEntity<?> getAllOwners() {
-        return ResponseEntity.ok(ownerRepository.findAll());
+        // ✅ Sérialisé dans une transaction : open-in-view est désactivé et les collections sont lazy
+        JsonNode owners = transactionTemplate.execute(status -> objectMapper.valueToTree(ownerRepository.findAll()));
+        return ResponseEntity.ok(owners);
     }
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package ma.fstt.listingservice.controller;
+
+import ma.fstt.listingservice.dto.PriceRuleDto;
+import ma.fstt.listingservice.exceptions.BusinessException;
+import ma.fstt.listingservice.exceptions.UnauthorizedException;
+import ma.fstt.listingservice.requests.PriceQuoteRequest;
+import ma.fstt.listingservice.requests.PriceSuggestionRequest;
+import ma.fstt.listingservice.responses.PriceQuoteResponse;
+import ma.fstt.listingservice.services.PricingService;
+import ma.fstt.listingservice.services.impl.PriceSuggestionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ✅ Tarification dynamique : règles par property, calendrier de prix, devis groupés
+ * et suggestion de prix (modèle chargé en process)
+ */
+@RestController
+@RequestMapping("/properties")
+public class PricingController {
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private PriceSuggestionService priceSuggestionService;
+
+    /**
+     * Règles de tarification d'une property
+     * GET /properties/{propertyId}/pricing/rules
+     */
+    @GetMapping("/{propertyId}/pricing/rules")
+    public ResponseEntity<List<PriceRuleDto>> getPriceRules(@PathVariable String propertyId) {
+        return ResponseEntity.ok(pricingService.getRules(propertyId));
+    }
+
+    /**
+     * Remplacer toutes les règles (owner uniquement)
+     * PUT /properties/{propertyId}/pricing/rules
+     */
+    @PutMapping("/{propertyId}/pricing/rules")
+    public ResponseEntity<?> replacePriceRules(
+            @PathVariable String propertyId,
+            @RequestBody List<PriceRuleDto> rules,
+            @RequestHeader("X-User-Id") String userId) {
+        try {
+            return ResponseEntity.ok(pricingService.replaceRules(propertyId, rules, userId));
+        } catch (UnauthorizedException e) {
+            return error(HttpStatus.FORBIDDEN, e.getMessage());
+        } catch (BusinessException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (RuntimeException e) {
+            HttpStatus status = e.getMessage() != null && e.getMessage().contains("not found")
+                    ? HttpStatus.NOT_FOUND
+                    : HttpStatus.BAD_REQUEST;
+            return error(status, e.getMessage());
+        }
+    }
+
+    /**
+     * Prix par nuit sur [from, to) (affichage calendrier)
+     * GET /properties/{propertyId}/pricing/calendar?from=2026-07-01&to=2026-08-01
+     */
+    @GetMapping("/{propertyId}/pricing/calendar")
+    public ResponseEntity<?> getPriceCalendar(
+            @PathVariable String propertyId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(pricingService.getCalendar(propertyId, from, to));
+        } catch (BusinessException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (RuntimeException e) {
+            return error(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    /**
+     * ✅ Devis groupés (BookingService : un appel par réservation)
+     * POST /properties/pricing/quote
+     * Une réponse par entrée, dans le même ordre ; les erreurs sont rapportées par entrée.
+     */
+    @PostMapping("/pricing/quote")
+    public ResponseEntity<?> quote(@RequestBody PriceQuoteRequest request) {
+        try {
+            List<PriceQuoteResponse> quotes = pricingService.quote(request.getItems());
+            return ResponseEntity.ok(quotes);
+        } catch (BusinessException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // ========== SUGGESTION DE PRIX ==========
+
+    /**
+     * Prix suggéré pour une property (formulaire de création)
+     * POST /properties/price-suggestion
+     */
+    @PostMapping("/price-suggestion")
+    public ResponseEntity<?> suggestPrice(@RequestBody PriceSuggestionRequest request) {
+        if (!priceSuggestionService.isAvailable()) {
+            return error(HttpStatus.SERVICE_UNAVAILABLE, "Price suggestion model is not loaded");
+        }
+        return ResponseEntity.ok(priceSuggestionService.suggest(request));
+    }
+
+    /**
+     * ✅ Scoring groupé : une suggestion par entrée, même ordre
+     * POST /properties/price-suggestion/batch
+     */
+    @PostMapping("/price-suggestion/batch")
+    public ResponseEntity<?> suggestPrices(@RequestBody List<PriceSuggestionRequest> requests) {
+        if (!priceSuggestionService.isAvailable()) {
+            return error(HttpStatus.SERVICE_UNAVAILABLE, "Price suggestion model is not loaded");
+        }
+        try {
+            return ResponseEntity.ok(priceSuggestionService.suggestAll(requests));
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * ✅ Portefeuille de l'owner connecté : prix actuel vs prix suggéré
+     * GET /properties/my-properties/price-suggestions
+     */
+    @GetMapping("/my-properties/price-suggestions")
+    public ResponseEntity<?> suggestPricesForMyProperties(@RequestHeader("X-User-Id") String userId) {
+        if (!priceSuggestionService.isAvailable()) {
+            return error(HttpStatus.SERVICE_UNAVAILABLE, "Price suggestion model is not loaded");
+        }
+        return ResponseEntity.ok(priceSuggestionService.suggestForOwner(userId));
+    }
+
+    private ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", message);
+        return ResponseEntity.status(status).body(error);
+    }
+}
@@ -1,39 +1,54 @@
 package ma.fstt.listingservice.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.fstt.listingservice.cache.CachedResponse;
+import ma.fstt.listingservice.cache.ETags;
+import ma.fstt.listingservice.cache.PropertyCountEstimator;
+import ma.fstt.listingservice.cache.PropertyResponseCache;
 import ma.fstt.listingservice.dto.PropertyDto;
+import ma.fstt.listingservice.mappers.PropertyMapper;
 import ma.fstt.listingservice.requests.PropertyRequest;
 import ma.fstt.listingservice.requests.PropertyStatusRequest;
+import ma.fstt.listingservice.repositories.projections.PropertyCardView;
 import ma.fstt.listingservice.responses.PropertyResponse;
+import ma.fstt.listingservice.responses.SliceResponse;
 import ma.fstt.listingservice.services.PropertyService;
-import ma.fstt.listingservice.services.impl.PropertyServiceImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import ma.fstt.listingservice.responses.AddImagesResponse;
+import ma.fstt.listingservice.responses.PresignedUploadResponse;
 import ma.fstt.listingservice.services.impl.ImageStorageService;
 import org.springframework.http.MediaType;
 
 import lombok.extern.slf4j.Slf4j;
-import java.util.ArrayList;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import ma.fstt.listingservice.entities.PropertyStatus;
 import ma.fstt.listingservice.requests.*;
@@ -48,6 +63,33 @@ public class PropertyController {
     @Autowired
     private ImageStorageService imageStorageService;
 
+    @Autowired
+    private PropertyMapper propertyMapper;
+
+    @Autowired
+    private PropertyResponseCache propertyResponseCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PropertyCountEstimator propertyCountEstimator;
+
+    @Value("${listing.property.batch.max-items:100}")
+    private int batchMaxItems;
+
+    // Toujours revalider (statut/prix peuvent changer) : le 304 évite de renvoyer le corps
+    private static final CacheControl PROPERTY_CACHE_CONTROL = CacheControl.noCache().cachePublic();
+
+    // ✅ Listes publiques : le navigateur revalide, les caches partagés (Gateway) gardent s-maxage secondes
+    private final CacheControl listingCacheControl;
+
+    public PropertyController(@Value("${listing.http.list-s-maxage-seconds:30}") long listSharedMaxAgeSeconds) {
+        this.listingCacheControl = CacheControl.maxAge(Duration.ZERO)
+                .cachePublic()
+                .sMaxAge(Duration.ofSeconds(listSharedMaxAgeSeconds));
+    }
+
     private static final Logger log = LoggerFactory.getLogger(PropertyController.class);
 
 
@@ -56,8 +98,7 @@ public class PropertyController {
             @RequestBody PropertyRequest propertyRequest,
             @RequestHeader("X-User-Id") String ownerId) {
         try {
-            PropertyDto propertyDto = new PropertyDto();
-            BeanUtils.copyProperties(propertyRequest, propertyDto);
+            PropertyDto propertyDto = propertyMapper.toDto(propertyRequest);
 
             PropertyDto createdProperty = propertyService.createProperty(propertyDto, ownerId);
 
@@ -77,11 +118,24 @@ public class PropertyController {
     }
 
     @GetMapping("/{propertyId}")
-    public ResponseEntity<?> getProperty(@PathVariable String propertyId) {
+    public ResponseEntity<?> getProperty(
+            @PathVariable String propertyId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            PropertyDto propertyDto = propertyService.getPropertyByPropertyId(propertyId);
-            PropertyResponse response = convertDtoToResponse(propertyDto);
-            return ResponseEntity.ok(response);
+            // ✅ Read-through : JSON déjà sérialisé en cache, invalidé après chaque écriture
+            // (property ou caractéristiques). ETag = hash du JSON : il change avec tout ce qui est rendu.
+            CachedResponse cached = propertyResponseCache.get(propertyId, this::loadPropertyJson);
+            if (ETags.matches(ifNoneMatch, cached.etag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(cached.etag())
+                        .cacheControl(PROPERTY_CACHE_CONTROL)
+                        .build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(cached.etag())
+                    .cacheControl(PROPERTY_CACHE_CONTROL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(cached.body());
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
@@ -89,6 +143,61 @@ public class PropertyController {
         }
     }
 
+    /**
+     * ✅ Chargement groupé : jusqu'à N propriétés en un aller-retour (BookingService, frontend)
+     * Réponse = tableau JSON dans l'ordre des IDs demandés, IDs inconnus ignorés.
+     * Les JSON déjà en cache sont réutilisés, les autres sont chargés en requêtes constantes.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> getPropertiesBatch(@RequestBody PropertyBatchRequest request) {
+        List<String> requested = request.getPropertyIds() == null ? List.of() : request.getPropertyIds();
+        Set<String> propertyIds = new LinkedHashSet<>(requested);
+        propertyIds.remove(null);
+        if (propertyIds.size() > batchMaxItems) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Too many propertyIds (max " + batchMaxItems + ")");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+
+        try {
+            Map<String, CachedResponse> bodies = propertyResponseCache.getAll(propertyIds, missing -> {
+                Map<String, CachedResponse> loaded = new HashMap<>(missing.size() * 2);
+                for (PropertyResponse property : propertyService.getPropertyResponses(missing)) {
+                    loaded.put(property.getPropertyId(), toCachedResponse(property));
+                }
+                return loaded;
+            });
+
+            // Concaténation des JSON déjà sérialisés (pas de re-sérialisation)
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write('[');
+            boolean first = true;
+            for (String propertyId : propertyIds) {
+                CachedResponse cached = bodies.get(propertyId);
+                if (cached == null) {
+                    continue;
+                }
+                if (!first) {
+                    out.write(',');
+                }
+                out.writeBytes(cached.body());
+                first = false;
+            }
+            out.write(']');
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out.toByteArray());
+        } catch (Exception e) {
+            log.error("❌ Batch property fetch failed: {}", e.getMessage());
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    // ✅ Listes owner : DTO complet (le tableau de bord host édite à partir de ces entrées) ;
+    // property_card ne sert que les listes / recherches publiques
     @GetMapping("/owner/{ownerId}")
     public ResponseEntity<List<PropertyResponse>> getPropertiesByOwner(@PathVariable String ownerId) {
         List<PropertyDto> properties = propertyService.getPropertiesByUserId(ownerId);
@@ -105,58 +214,88 @@ public class PropertyController {
     }
 
     @GetMapping
-    public ResponseEntity<Page<PropertyResponse>> getAllProperties(
+    public ResponseEntity<?> getAllProperties(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "DESC") String sortDir) {
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestParam(defaultValue = "false") boolean slice,
+            @RequestParam(defaultValue = "false") boolean withEstimate) {
 
         Sort sort = sortDir.equalsIgnoreCase("ASC")
                 ? Sort.by(sortBy).ascending()
                 : Sort.by(sortBy).descending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<PropertyDto> properties = propertyService.getAllValidatedProperties(pageable);
 
-        Page<PropertyResponse> responses = properties.map(this::convertDtoToResponse);
+        // ✅ Mode slice : pas de COUNT, total estimé en option
+        if (slice) {
+            Slice<PropertyCardView> properties = propertyService.getAllValidatedPropertiesSlice(pageable);
+            Long estimate = withEstimate ? propertyCountEstimator.estimateActive() : null;
+            return ResponseEntity.ok().cacheControl(listingCacheControl).body(toSliceResponse(properties, estimate));
+        }
 
-        return ResponseEntity.ok(responses);
+        // ✅ Cartes (property_card) : pas de description, collections ni jointures
+        Page<PropertyCardView> properties = propertyService.getAllValidatedProperties(pageable);
+
+        return ResponseEntity.ok().cacheControl(listingCacheControl).body(properties);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Page<PropertyResponse>> searchProperties(
+    public ResponseEntity<?> searchProperties(
             @RequestParam(required = false) String city,
             @RequestParam(required = false) String type,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) Integer nbOfGuests,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean slice,
+            @RequestParam(defaultValue = "false") boolean withEstimate) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<PropertyDto> properties = propertyService.searchProperties(
-                city, type, minPrice, maxPrice, nbOfGuests, pageable);
 
-        Page<PropertyResponse> responses = properties.map(this::convertDtoToResponse);
+        if (slice) {
+            Slice<PropertyCardView> properties = propertyService.searchPropertiesSlice(
+                    city, type, minPrice, maxPrice, nbOfGuests, pageable);
+            Long estimate = withEstimate
+                    ? propertyCountEstimator.estimateSearch(city, type, minPrice, maxPrice, nbOfGuests)
+                    : null;
+            return ResponseEntity.ok().cacheControl(listingCacheControl).body(toSliceResponse(properties, estimate));
+        }
 
-        return ResponseEntity.ok(responses);
+        Page<PropertyCardView> properties = propertyService.searchProperties(
+                city, type, minPrice, maxPrice, nbOfGuests, pageable);
+
+        return ResponseEntity.ok().cacheControl(listingCacheControl).body(properties);
     }
 
     @GetMapping("/nearby")
-    public ResponseEntity<Page<PropertyResponse>> findPropertiesNearby(
+    public ResponseEntity<?> findPropertiesNearby(
             @RequestParam Double latitude,
             @RequestParam Double longitude,
             @RequestParam(defaultValue = "10.0") Double radius,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean slice,
+            @RequestParam(defaultValue = "false") boolean withEstimate) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<PropertyDto> properties = propertyService.findPropertiesNearby(
-                latitude, longitude, radius, pageable);
 
-        Page<PropertyResponse> responses = properties.map(this::convertDtoToResponse);
+        // ✅ Évite le second scan haversine du COUNT
+        if (slice) {
+            Slice<PropertyCardView> properties = propertyService.findPropertiesNearbySlice(
+                    latitude, longitude, radius, pageable);
+            Long estimate = withEstimate
+                    ? propertyCountEstimator.estimateNearby(latitude, longitude, radius)
+                    : null;
+            return ResponseEntity.ok().cacheControl(listingCacheControl).body(toSliceResponse(properties, estimate));
+        }
 
-        return ResponseEntity.ok(responses);
+        Page<PropertyCardView> properties = propertyService.findPropertiesNearby(
+                latitude, longitude, radius, pageable);
+
+        return ResponseEntity.ok().cacheControl(listingCacheControl).body(properties);
     }
 
     @PutMapping("/{propertyId}")
@@ -165,8 +304,7 @@ public class PropertyController {
             @RequestBody PropertyRequest propertyRequest,
             @RequestHeader("X-User-Id") String ownerId) {
         try {
-            PropertyDto propertyDto = new PropertyDto();
-            BeanUtils.copyProperties(propertyRequest, propertyDto);
+            PropertyDto propertyDto = propertyMapper.toDto(propertyRequest);
 
             PropertyDto updatedProperty = propertyService.updateProperty(propertyId, propertyDto, ownerId);
 
@@ -265,15 +403,35 @@ public class PropertyController {
         return ResponseEntity.ok(response);
     }
 
-    // ✅ MÉTHODE HELPER: Conversion DTO -> Response avec mapping manuel
-    private PropertyResponse convertDtoToResponse(PropertyDto dto) {
-        PropertyResponse response = new PropertyResponse();
-        BeanUtils.copyProperties(dto, response);
+    // ✅ MÉTHODE HELPER: Charger et sérialiser une property (miss du cache)
+    private CachedResponse loadPropertyJson(String propertyId) {
+        return toCachedResponse(propertyService.getPropertyResponse(propertyId));
+    }
 
-        // ✅ FIX: Mapper manuellement userId -> ownerId
-        response.setOwnerId(dto.getUserId());
+    private CachedResponse toCachedResponse(PropertyResponse property) {
+        String propertyId = property.getPropertyId();
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(property);
+            return new CachedResponse(body, ETags.ofContent(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize property " + propertyId, e);
+        }
+    }
 
-        return response;
+    // ✅ MÉTHODE HELPER: Slice -> réponse sans total exact
+    private <T> SliceResponse<T> toSliceResponse(Slice<T> properties, Long estimatedTotal) {
+        return SliceResponse.<T>builder()
+                .content(properties.getContent())
+                .page(properties.getNumber())
+                .size(properties.getSize())
+                .hasNext(properties.hasNext())
+                .estimatedTotal(estimatedTotal)
+                .build();
+    }
+
+    // ✅ MÉTHODE HELPER: Conversion DTO -> Response (mapper généré, userId -> ownerId)
+    private PropertyResponse convertDtoToResponse(PropertyDto dto) {
+        return propertyMapper.toResponse(dto);
     }
 
     /**
@@ -432,8 +590,8 @@ public class PropertyController {
         }
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<PropertyDto> properties = ((PropertyServiceImpl) propertyService)
-                .getAllByStatus(PropertyStatus.PENDING, pageable);
+        // ✅ Revue admin : DTO complet (description, caractéristiques, toutes les images), pas la carte
+        Page<PropertyDto> properties = propertyService.getAllByStatus(PropertyStatus.PENDING, pageable);
 
         Page<PropertyResponse> responses = properties.map(this::convertDtoToResponse);
         return ResponseEntity.ok(responses);
@@ -545,6 +703,84 @@ public class PropertyController {
     }
 
 
+    /**
+     * ✅ UPLOAD DIRECT S3 (étape 1) : URLs PUT présignées, une par image
+     * POST /properties/{propertyId}/images/presign
+     * Le client envoie ensuite chaque fichier directement à S3 (uploadUrl + headers).
+     */
+    @PostMapping("/{propertyId}/images/presign")
+    public ResponseEntity<?> presignImageUploads(
+            @PathVariable String propertyId,
+            @RequestBody PresignImagesRequest request,
+            @RequestHeader("X-User-Id") String userId) {
+        try {
+            PropertyDto property = propertyService.getPropertyByPropertyId(propertyId);
+            if (!property.getUserId().equals(userId)) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "You are not authorized to modify this property");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+            }
+
+            List<PresignedUploadResponse> uploads = imageStorageService.presignUploads(propertyId, request.getFiles());
+            return ResponseEntity.ok(uploads);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            HttpStatus status = e.getMessage() != null && e.getMessage().contains("not found")
+                    ? HttpStatus.NOT_FOUND
+                    : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status).body(error);
+        }
+    }
+
+    /**
+     * ✅ UPLOAD DIRECT S3 (étape 2) : confirmer les clés envoyées et les attacher à la property
+     * POST /properties/{propertyId}/images/complete
+     * Vérification par HEAD S3 uniquement : aucun octet d'image ne transite ici.
+     */
+    @PostMapping("/{propertyId}/images/complete")
+    public ResponseEntity<?> completeImageUploads(
+            @PathVariable String propertyId,
+            @RequestBody CompleteImagesRequest request,
+            @RequestHeader("X-User-Id") String userId) {
+        try {
+            PropertyDto property = propertyService.getPropertyByPropertyId(propertyId);
+            if (!property.getUserId().equals(userId)) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "You are not authorized to modify this property");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+            }
+
+            // Idempotent : une clé déjà attachée (retry client) n'est pas ajoutée deux fois
+            List<String> newImageUrls = imageStorageService.verifyUploadedImages(propertyId, request.getKeys())
+                    .stream()
+                    .filter(url -> property.getImageFolderPath() == null || !property.getImageFolderPath().contains(url))
+                    .distinct()
+                    .collect(Collectors.toList());
+
+            PropertyDto updatedProperty = newImageUrls.isEmpty()
+                    ? property
+                    : propertyService.addImagesToProperty(propertyId, newImageUrls, userId);
+
+            AddImagesResponse response = AddImagesResponse.builder()
+                    .message("Images added successfully")
+                    .propertyId(propertyId)
+                    .addedImages(newImageUrls)
+                    .allImages(updatedProperty.getImageFolderPath())
+                    .totalImages(updatedProperty.getImageFolderPath().size())
+                    .build();
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            log.error("❌ Error completing direct upload for property {}: {}", propertyId, e.getMessage());
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            HttpStatus status = e.getMessage() != null && e.getMessage().startsWith("Property not found")
+                    ? HttpStatus.NOT_FOUND
+                    : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status).body(error);
+        }
+    }
+
     @GetMapping("/owner/{ownerId}/property-ids")
     public ResponseEntity<List<String>> getPropertyIdsByOwner(@PathVariable String ownerId) {
         log.info("📋 Fetching property IDs for owner: {}", ownerId);
@@ -564,21 +800,11 @@ public class PropertyController {
         try {
             log.info("🔍 Fetching wallet address for property: {}", propertyId);
 
-            // ✅ CORRECTION: Utiliser getPropertyByPropertyId au lieu de getPropertyById
-            PropertyDto propertyDto = propertyService.getPropertyByPropertyId(propertyId);
-
-            if (propertyDto == null) {
-                Map<String, String> error = new HashMap<>();
-                error.put("message", "Property not found");
-                error.put("propertyId", propertyId);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
-            }
-
-            // ✅ CORRECTION: Utiliser getUserId() au lieu de getOwnerId()
-            String ownerId = propertyDto.getUserId();
+            // ✅ ownerId seul depuis property_card : pas de chargement de l'entité ni de mapping
+            String ownerId = propertyService.getPropertyOwnerId(propertyId);
             if (ownerId == null) {
                 Map<String, String> error = new HashMap<>();
-                error.put("message", "Property has no owner");
+                error.put("message", "Property not found");
                 error.put("propertyId", propertyId);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
             }
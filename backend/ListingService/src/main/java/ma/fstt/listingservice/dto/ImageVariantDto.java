@@ -0,0 +1,55 @@
+package ma.fstt.listingservice.dto;
+
+import java.io.Serializable;
+
+public class ImageVariantDto implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String originalUrl;
+    private String thumbUrl;
+    private String cardUrl;
+    private String fullUrl;
+    private String format;
+
+    // Getters and Setters
+    public String getOriginalUrl() {
+        return originalUrl;
+    }
+
+    public void setOriginalUrl(String originalUrl) {
+        this.originalUrl = originalUrl;
+    }
+
+    public String getThumbUrl() {
+        return thumbUrl;
+    }
+
+    public void setThumbUrl(String thumbUrl) {
+        this.thumbUrl = thumbUrl;
+    }
+
+    public String getCardUrl() {
+        return cardUrl;
+    }
+
+    public void setCardUrl(String cardUrl) {
+        this.cardUrl = cardUrl;
+    }
+
+    public String getFullUrl() {
+        return fullUrl;
+    }
+
+    public void setFullUrl(String fullUrl) {
+        this.fullUrl = fullUrl;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+}
@@ -0,0 +1,32 @@
+package ma.fstt.listingservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ma.fstt.listingservice.entities.PriceRuleType;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * ✅ Règle de tarification (lecture et remplacement du calendrier d'une property)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceRuleDto {
+    private Long id;
+    private PriceRuleType type;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal multiplier;
+    private BigDecimal price;
+    private Integer minNights;
+    private BigDecimal discountPercent;
+    private List<DayOfWeek> daysOfWeek; // WEEKEND : vendredi + samedi par défaut
+    private Integer priority;
+}
@@ -39,6 +39,7 @@ public class PropertyDto implements Serializable {
 
     // Images
     private List<String> imageFolderPath = new ArrayList<>();
+    private List<ImageVariantDto> imageVariants = new ArrayList<>();
 
     // ✅ NOUVEAU: Status ENUM (UNIQUEMENT)
     private PropertyStatus status;
@@ -233,6 +234,14 @@ public class PropertyDto implements Serializable {
         this.imageFolderPath = imageFolderPath;
     }
 
+    public List<ImageVariantDto> getImageVariants() {
+        return imageVariants;
+    }
+
+    public void setImageVariants(List<ImageVariantDto> imageVariants) {
+        this.imageVariants = imageVariants;
+    }
+
     public PropertyStatus getStatus() {
         return status;
     }
@@ -1,5 +1,6 @@
 package ma.fstt.listingservice.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.io.Serializable;
@@ -22,6 +23,10 @@ public class Owner implements Serializable {
     @Column(unique = true, length = 100)
     private String walletAddress; // Adresse blockchain pour les paiements
 
+    // ✅ Incrémenté à chaque changement de wallet : ordonne les mises à jour de OwnerWalletCache
+    @JsonIgnore
+    private Long walletVersion;
+
     // ✅ CORRECTION #1: Ajout de @JsonIgnoreProperties pour éviter la boucle infinie
     // Relation One-to-Many avec Property
     @OneToMany(mappedBy = "owner", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -59,6 +64,22 @@ public class Owner implements Serializable {
         this.walletAddress = walletAddress;
     }
 
+    public Long getWalletVersion() {
+        return walletVersion;
+    }
+
+    public void setWalletVersion(Long walletVersion) {
+        this.walletVersion = walletVersion;
+    }
+
+    /**
+     * Passe à la version suivante (null pour les lignes créées avant la colonne)
+     */
+    public long nextWalletVersion() {
+        walletVersion = walletVersion == null ? 1 : walletVersion + 1;
+        return walletVersion;
+    }
+
     public List<PropertyEntity> getProperties() {
         return properties;
     }
@@ -0,0 +1,148 @@
+package ma.fstt.listingservice.entities;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * ✅ Règle de tarification d'une property (calendrier de prix)
+ *
+ * Les champs utilisés dépendent du type (voir PriceRuleType) ; les règles sont
+ * compilées en un tableau de prix par nuit (PriceCalendar) et jamais évaluées à la volée.
+ */
+@Entity
+@Table(name = "price_rules", indexes = {
+        @Index(name = "idx_price_rules_property", columnList = "property_id")
+})
+public class PriceRule implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "property_id", nullable = false, length = 50)
+    private String propertyId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PriceRuleType type;
+
+    // SEASON / DATE_OVERRIDE : plage de nuits, bornes incluses
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    // SEASON / WEEKEND : 1.25 = +25 %
+    @Column(precision = 6, scale = 4)
+    private BigDecimal multiplier;
+
+    // DATE_OVERRIDE : prix par nuit
+    @Column(precision = 10, scale = 2)
+    private BigDecimal price;
+
+    // LENGTH_OF_STAY : palier et remise
+    private Integer minNights;
+
+    @Column(precision = 5, scale = 2)
+    private BigDecimal discountPercent;
+
+    // WEEKEND : bit (DayOfWeek.getValue() - 1) par jour concerné
+    private Integer daysOfWeekMask;
+
+    // SEASON : en cas de chevauchement, la priorité la plus haute s'applique
+    private Integer priority;
+
+    // ========== GETTERS ET SETTERS ==========
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getPropertyId() {
+        return propertyId;
+    }
+
+    public void setPropertyId(String propertyId) {
+        this.propertyId = propertyId;
+    }
+
+    public PriceRuleType getType() {
+        return type;
+    }
+
+    public void setType(PriceRuleType type) {
+        this.type = type;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public BigDecimal getMultiplier() {
+        return multiplier;
+    }
+
+    public void setMultiplier(BigDecimal multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Integer getMinNights() {
+        return minNights;
+    }
+
+    public void setMinNights(Integer minNights) {
+        this.minNights = minNights;
+    }
+
+    public BigDecimal getDiscountPercent() {
+        return discountPercent;
+    }
+
+    public void setDiscountPercent(BigDecimal discountPercent) {
+        this.discountPercent = discountPercent;
+    }
+
+    public Integer getDaysOfWeekMask() {
+        return daysOfWeekMask;
+    }
+
+    public void setDaysOfWeekMask(Integer daysOfWeekMask) {
+        this.daysOfWeekMask = daysOfWeekMask;
+    }
+
+    public Integer getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Integer priority) {
+        this.priority = priority;
+    }
+}
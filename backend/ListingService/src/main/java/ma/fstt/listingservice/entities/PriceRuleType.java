@@ -0,0 +1,8 @@
+package ma.fstt.listingservice.entities;
+
+public enum PriceRuleType {
+    SEASON,          // Multiplicateur sur une plage de dates (la priorité la plus haute gagne)
+    WEEKEND,         // Multiplicateur sur certains jours de la semaine (nuit du vendredi, du samedi...)
+    LENGTH_OF_STAY,  // Remise en % à partir de N nuits (le palier le plus haut atteint s'applique)
+    DATE_OVERRIDE    // Prix fixe par nuit sur une plage de dates (remplace tout le reste)
+}
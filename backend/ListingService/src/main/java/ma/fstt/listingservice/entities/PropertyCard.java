@@ -0,0 +1,281 @@
+package ma.fstt.listingservice.entities;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ✅ Modèle de lecture dénormalisé pour les listes et recherches publiques
+ *
+ * Une ligne étroite par property : champs affichés sur une carte + première image
+ * (et ses variantes), sans description TEXT, collections ni jointures.
+ * Tenu à jour dans la transaction de chaque écriture (voir PropertyCardService).
+ * La liste publique (status, created_at) a un index couvrant PostgreSQL (INCLUDE des colonnes
+ * de PropertyCardView), créé au démarrage par PropertyCardService : @Index ne sait pas exprimer INCLUDE.
+ */
+@Entity
+@Table(name = "property_card", indexes = {
+        // Listes owner (my-properties, ids par owner)
+        @Index(name = "idx_property_card_owner_status", columnList = "owner_id, status"),
+        // Recherche : égalité status / ville / type puis bornes prix et capacité
+        @Index(name = "idx_property_card_search", columnList = "status, city, type, price_per_night, nb_of_guests"),
+        // Recherche géographique : pré-filtre par status
+        @Index(name = "idx_property_card_status_geo", columnList = "status, latitude, longitude")
+})
+public class PropertyCard implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(length = 50)
+    private String propertyId;
+
+    @Column(nullable = false, length = 50)
+    private String ownerId;
+
+    @Column(nullable = false, length = 100)
+    private String title;
+
+    @Column(nullable = false, length = 50)
+    private String type;
+
+    @Column(nullable = false, length = 100)
+    private String city;
+
+    @Column(nullable = false, length = 100)
+    private String country;
+
+    @Column(nullable = false)
+    private Double latitude;
+
+    @Column(nullable = false)
+    private Double longitude;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal pricePerNight;
+
+    @Column(nullable = false)
+    private Integer nbOfGuests;
+
+    @Column(nullable = false)
+    private Integer nbOfBedrooms;
+
+    @Column(nullable = false)
+    private Integer nbOfBeds;
+
+    @Column(nullable = false)
+    private Integer nbOfBathrooms;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PropertyStatus status;
+
+    @Column(length = 500)
+    private String coverImageUrl;
+
+    @Column(length = 500)
+    private String coverThumbUrl;
+
+    @Column(length = 500)
+    private String coverCardUrl;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime lastUpdateAt;
+
+    /**
+     * Recopie les champs de la property ; la couverture est la première image
+     */
+    public void copyFrom(PropertyEntity property) {
+        this.propertyId = property.getPropertyId();
+        this.ownerId = property.getOwnerId();
+        this.title = property.getTitle();
+        this.type = property.getType();
+        this.city = property.getCity();
+        this.country = property.getCountry();
+        this.latitude = property.getLatitude();
+        this.longitude = property.getLongitude();
+        this.pricePerNight = property.getPricePerNight();
+        this.nbOfGuests = property.getNbOfGuests();
+        this.nbOfBedrooms = property.getNbOfBedrooms();
+        this.nbOfBeds = property.getNbOfBeds();
+        this.nbOfBathrooms = property.getNbOfBathrooms();
+        this.status = property.getStatus();
+        this.createdAt = property.getCreatedAt();
+        this.lastUpdateAt = property.getLastUpdateAt();
+
+        List<String> images = property.getImageFolderPath();
+        this.coverImageUrl = images == null || images.isEmpty() ? null : images.get(0);
+        this.coverThumbUrl = null;
+        this.coverCardUrl = null;
+        if (coverImageUrl == null || property.getImageVariants() == null) {
+            return;
+        }
+        for (PropertyImageVariant variant : property.getImageVariants()) {
+            if (variant.getOriginalUrl().equals(coverImageUrl)) {
+                this.coverThumbUrl = variant.getThumbUrl();
+                this.coverCardUrl = variant.getCardUrl();
+                break;
+            }
+        }
+    }
+
+    // ========== GETTERS ET SETTERS ==========
+
+    public String getPropertyId() {
+        return propertyId;
+    }
+
+    public void setPropertyId(String propertyId) {
+        this.propertyId = propertyId;
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public BigDecimal getPricePerNight() {
+        return pricePerNight;
+    }
+
+    public void setPricePerNight(BigDecimal pricePerNight) {
+        this.pricePerNight = pricePerNight;
+    }
+
+    public Integer getNbOfGuests() {
+        return nbOfGuests;
+    }
+
+    public void setNbOfGuests(Integer nbOfGuests) {
+        this.nbOfGuests = nbOfGuests;
+    }
+
+    public Integer getNbOfBedrooms() {
+        return nbOfBedrooms;
+    }
+
+    public void setNbOfBedrooms(Integer nbOfBedrooms) {
+        this.nbOfBedrooms = nbOfBedrooms;
+    }
+
+    public Integer getNbOfBeds() {
+        return nbOfBeds;
+    }
+
+    public void setNbOfBeds(Integer nbOfBeds) {
+        this.nbOfBeds = nbOfBeds;
+    }
+
+    public Integer getNbOfBathrooms() {
+        return nbOfBathrooms;
+    }
+
+    public void setNbOfBathrooms(Integer nbOfBathrooms) {
+        this.nbOfBathrooms = nbOfBathrooms;
+    }
+
+    public PropertyStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PropertyStatus status) {
+        this.status = status;
+    }
+
+    public String getCoverImageUrl() {
+        return coverImageUrl;
+    }
+
+    public void setCoverImageUrl(String coverImageUrl) {
+        this.coverImageUrl = coverImageUrl;
+    }
+
+    public String getCoverThumbUrl() {
+        return coverThumbUrl;
+    }
+
+    public void setCoverThumbUrl(String coverThumbUrl) {
+        this.coverThumbUrl = coverThumbUrl;
+    }
+
+    public String getCoverCardUrl() {
+        return coverCardUrl;
+    }
+
+    public void setCoverCardUrl(String coverCardUrl) {
+        this.coverCardUrl = coverCardUrl;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getLastUpdateAt() {
+        return lastUpdateAt;
+    }
+
+    public void setLastUpdateAt(LocalDateTime lastUpdateAt) {
+        this.lastUpdateAt = lastUpdateAt;
+    }
+}
@@ -83,6 +83,11 @@ public class PropertyEntity implements Serializable {
     @Column(name = "image_path", length = 500)
     private List<String> imageFolderPath = new ArrayList<>();
 
+    // ✅ Variantes (thumb / card / full) de chaque image, remplies par ImageVariantService
+    @ElementCollection
+    @CollectionTable(name = "property_image_variants", joinColumns = @JoinColumn(name = "property_id"))
+    private List<PropertyImageVariant> imageVariants = new ArrayList<>();
+
     // ✅ NOUVEAU: UNIQUEMENT Status ENUM (pas de booléens !)
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
@@ -339,6 +344,14 @@ public class PropertyEntity implements Serializable {
         this.lastUpdateAt = lastUpdateAt;
     }
 
+    public List<PropertyImageVariant> getImageVariants() {
+        return imageVariants;
+    }
+
+    public void setImageVariants(List<PropertyImageVariant> imageVariants) {
+        this.imageVariants = imageVariants;
+    }
+
     public List<Characteristic> getCharacteristics() {
         return characteristics;
     }
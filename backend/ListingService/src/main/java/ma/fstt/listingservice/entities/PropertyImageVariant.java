@@ -0,0 +1,84 @@
+package ma.fstt.listingservice.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+
+/**
+ * ✅ Variantes redimensionnées d'une image originale (générées en asynchrone)
+ * thumb ≈ 320px, card ≈ 640px, full ≈ 1600px de large, ré-encodées sans EXIF.
+ */
+@Embeddable
+public class PropertyImageVariant implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "original_url", nullable = false, length = 500)
+    private String originalUrl;
+
+    @Column(name = "thumb_url", length = 500)
+    private String thumbUrl;
+
+    @Column(name = "card_url", length = 500)
+    private String cardUrl;
+
+    @Column(name = "full_url", length = 500)
+    private String fullUrl;
+
+    // Format des variantes ("jpeg")
+    @Column(length = 10)
+    private String format;
+
+    public PropertyImageVariant() {
+    }
+
+    public PropertyImageVariant(String originalUrl, String thumbUrl, String cardUrl,
+                                String fullUrl, String format) {
+        this.originalUrl = originalUrl;
+        this.thumbUrl = thumbUrl;
+        this.cardUrl = cardUrl;
+        this.fullUrl = fullUrl;
+        this.format = format;
+    }
+
+    public String getOriginalUrl() {
+        return originalUrl;
+    }
+
+    public void setOriginalUrl(String originalUrl) {
+        this.originalUrl = originalUrl;
+    }
+
+    public String getThumbUrl() {
+        return thumbUrl;
+    }
+
+    public void setThumbUrl(String thumbUrl) {
+        this.thumbUrl = thumbUrl;
+    }
+
+    public String getCardUrl() {
+        return cardUrl;
+    }
+
+    public void setCardUrl(String cardUrl) {
+        this.cardUrl = cardUrl;
+    }
+
+    public String getFullUrl() {
+        return fullUrl;
+    }
+
+    public void setFullUrl(String fullUrl) {
+        this.fullUrl = fullUrl;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+}
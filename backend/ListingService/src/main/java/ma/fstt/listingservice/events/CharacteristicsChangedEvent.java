@@ -0,0 +1,18 @@
+package ma.fstt.listingservice.events;
+
+/**
+ * ✅ Événement applicatif : le catalogue de caractéristiques a changé
+ * (les réponses property embarquent aussi les noms des caractéristiques).
+ */
+public class CharacteristicsChangedEvent {
+
+    private final Long characteristicId;
+
+    public CharacteristicsChangedEvent(Long characteristicId) {
+        this.characteristicId = characteristicId;
+    }
+
+    public Long getCharacteristicId() {
+        return characteristicId;
+    }
+}
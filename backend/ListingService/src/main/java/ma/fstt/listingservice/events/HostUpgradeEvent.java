@@ -0,0 +1,18 @@
+package ma.fstt.listingservice.events;
+
+/**
+ * ✅ Événement applicatif : un user vient de créer sa première property (USER → HOST)
+ * Relayé vers l'Auth Service APRÈS COMMIT (voir PropertySideEffectListener).
+ */
+public class HostUpgradeEvent {
+
+    private final String userId;
+
+    public HostUpgradeEvent(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+}
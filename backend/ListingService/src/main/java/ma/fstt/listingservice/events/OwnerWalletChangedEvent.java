@@ -0,0 +1,31 @@
+package ma.fstt.listingservice.events;
+
+/**
+ * ✅ Événement applicatif : l'owner a été créé ou son wallet a changé (null = déconnecté).
+ * Consommé APRÈS COMMIT pour mettre à jour OwnerWalletCache (local + autres replicas).
+ * walletVersion (Owner.walletVersion) : une diffusion arrivée en retard n'écrase pas une adresse plus récente.
+ */
+public class OwnerWalletChangedEvent {
+
+    private final String userId;
+    private final String walletAddress;
+    private final long walletVersion;
+
+    public OwnerWalletChangedEvent(String userId, String walletAddress, long walletVersion) {
+        this.userId = userId;
+        this.walletAddress = walletAddress;
+        this.walletVersion = walletVersion;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getWalletAddress() {
+        return walletAddress;
+    }
+
+    public long getWalletVersion() {
+        return walletVersion;
+    }
+}
@@ -0,0 +1,40 @@
+package ma.fstt.listingservice.events;
+
+/**
+ * ✅ Événement applicatif publié à chaque écriture sur une property.
+ * Consommé APRÈS COMMIT pour invalider les caches (local + autres replicas).
+ */
+public class PropertyChangedEvent {
+
+    public enum ChangeType {
+        UPDATED,
+        STATUS_CHANGED,
+        IMAGES_CHANGED,
+        PRICING_CHANGED,
+        DELETED
+    }
+
+    private final String propertyId;
+    private final ChangeType changeType;
+
+    public PropertyChangedEvent(String propertyId, ChangeType changeType) {
+        this.propertyId = propertyId;
+        this.changeType = changeType;
+    }
+
+    public String getPropertyId() {
+        return propertyId;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    @Override
+    public String toString() {
+        return "PropertyChangedEvent{" +
+                "propertyId='" + propertyId + '\'' +
+                ", changeType=" + changeType +
+                '}';
+    }
+}
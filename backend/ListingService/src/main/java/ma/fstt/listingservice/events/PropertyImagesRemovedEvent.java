@@ -0,0 +1,26 @@
+package ma.fstt.listingservice.events;
+
+import java.util.List;
+
+/**
+ * ✅ Événement applicatif : des images (originaux + variantes) ne sont plus référencées
+ * Les fichiers S3 sont supprimés APRÈS COMMIT, hors transaction (voir PropertySideEffectListener).
+ */
+public class PropertyImagesRemovedEvent {
+
+    private final String propertyId;
+    private final List<String> imageUrls;
+
+    public PropertyImagesRemovedEvent(String propertyId, List<String> imageUrls) {
+        this.propertyId = propertyId;
+        this.imageUrls = List.copyOf(imageUrls);
+    }
+
+    public String getPropertyId() {
+        return propertyId;
+    }
+
+    public List<String> getImageUrls() {
+        return imageUrls;
+    }
+}
@@ -0,0 +1,26 @@
+package ma.fstt.listingservice.events;
+
+import java.util.List;
+
+/**
+ * ✅ Événement applicatif : de nouvelles images originales sont attachées à une property
+ * Déclenche la génération asynchrone des variantes (voir ImageVariantService).
+ */
+public class PropertyImagesUploadedEvent {
+
+    private final String propertyId;
+    private final List<String> imageUrls;
+
+    public PropertyImagesUploadedEvent(String propertyId, List<String> imageUrls) {
+        this.propertyId = propertyId;
+        this.imageUrls = List.copyOf(imageUrls);
+    }
+
+    public String getPropertyId() {
+        return propertyId;
+    }
+
+    public List<String> getImageUrls() {
+        return imageUrls;
+    }
+}
@@ -0,0 +1,21 @@
+package ma.fstt.listingservice.events;
+
+import java.util.Set;
+
+/**
+ * ✅ Événement applicatif : les résultats de recherche de ces villes peuvent avoir changé
+ * (entrée / sortie du status ACTIVE, prix, capacité, type ou ville d'une property ACTIVE).
+ * Consommé APRÈS COMMIT pour invalider SearchResultCache (local + autres replicas).
+ */
+public class SearchResultsChangedEvent {
+
+    private final Set<String> cities;
+
+    public SearchResultsChangedEvent(Set<String> cities) {
+        this.cities = Set.copyOf(cities);
+    }
+
+    public Set<String> getCities() {
+        return cities;
+    }
+}
@@ -0,0 +1,190 @@
+package ma.fstt.listingservice.listeners;
+
+import ma.fstt.listingservice.cache.CharacteristicsResponseCache;
+import ma.fstt.listingservice.cache.OwnerWalletCache;
+import ma.fstt.listingservice.cache.PriceCalendarCache;
+import ma.fstt.listingservice.cache.PropertyResponseCache;
+import ma.fstt.listingservice.cache.SearchResultCache;
+import ma.fstt.listingservice.config.RabbitMQConfig;
+import ma.fstt.listingservice.events.CharacteristicsChangedEvent;
+import ma.fstt.listingservice.events.OwnerWalletChangedEvent;
+import ma.fstt.listingservice.events.PropertyChangedEvent;
+import ma.fstt.listingservice.events.SearchResultsChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ✅ Invalidation des caches property
+ *
+ * 1. Après COMMIT : éviction locale, puis diffusion asynchrone sur le fanout (jamais avant,
+ *    sinon une lecture concurrente pourrait remettre en cache l'ancienne version).
+ * 2. Réception fanout : éviction locale sur chaque replica.
+ */
+@Component
+public class PropertyCacheInvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PropertyCacheInvalidationListener.class);
+
+    // Discriminant des messages fanout
+    private static final String CACHE_PROPERTY = "property";
+    private static final String CACHE_CHARACTERISTICS = "characteristics";
+    private static final String CACHE_SEARCH = "search";
+    private static final String CACHE_OWNER = "owner";
+
+    private final PropertyResponseCache propertyResponseCache;
+    private final CharacteristicsResponseCache characteristicsResponseCache;
+    private final SearchResultCache searchResultCache;
+    private final OwnerWalletCache ownerWalletCache;
+    private final PriceCalendarCache priceCalendarCache;
+    private final RabbitTemplate rabbitTemplate;
+
+    public PropertyCacheInvalidationListener(PropertyResponseCache propertyResponseCache,
+                                             CharacteristicsResponseCache characteristicsResponseCache,
+                                             SearchResultCache searchResultCache,
+                                             OwnerWalletCache ownerWalletCache,
+                                             PriceCalendarCache priceCalendarCache,
+                                             RabbitTemplate rabbitTemplate) {
+        this.propertyResponseCache = propertyResponseCache;
+        this.characteristicsResponseCache = characteristicsResponseCache;
+        this.searchResultCache = searchResultCache;
+        this.ownerWalletCache = ownerWalletCache;
+        this.priceCalendarCache = priceCalendarCache;
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    /**
+     * Éviction locale synchrone : la réponse à l'écriture est suivie d'une lecture à jour
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        propertyResponseCache.evict(event.getPropertyId());
+        // Prix de base ou règles de tarification
+        priceCalendarCache.evict(event.getPropertyId());
+    }
+
+    /**
+     * Diffusion aux autres replicas hors thread de requête (I/O RabbitMQ)
+     */
+    @Async("sideEffectExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void broadcastPropertyChanged(PropertyChangedEvent event) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("cache", CACHE_PROPERTY);
+        message.put("propertyId", event.getPropertyId());
+        message.put("changeType", event.getChangeType().name());
+        broadcast(message);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCharacteristicsChanged(CharacteristicsChangedEvent event) {
+        evictCharacteristics();
+    }
+
+    @Async("sideEffectExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void broadcastCharacteristicsChanged(CharacteristicsChangedEvent event) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("cache", CACHE_CHARACTERISTICS);
+        message.put("characteristicId", event.getCharacteristicId());
+        broadcast(message);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSearchResultsChanged(SearchResultsChangedEvent event) {
+        searchResultCache.evictCities(event.getCities());
+    }
+
+    @Async("sideEffectExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void broadcastSearchResultsChanged(SearchResultsChangedEvent event) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("cache", CACHE_SEARCH);
+        message.put("cities", new ArrayList<>(event.getCities()));
+        broadcast(message);
+    }
+
+    /**
+     * Les queues wallet / user n'ont qu'un consommateur : la nouvelle adresse est
+     * recopiée dans le cache local puis diffusée aux autres replicas
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOwnerWalletChanged(OwnerWalletChangedEvent event) {
+        ownerWalletCache.put(event.getUserId(), event.getWalletAddress(), event.getWalletVersion());
+    }
+
+    @Async("sideEffectExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void broadcastOwnerWalletChanged(OwnerWalletChangedEvent event) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("cache", CACHE_OWNER);
+        message.put("userId", event.getUserId());
+        message.put("walletAddress", event.getWalletAddress());
+        message.put("walletVersion", event.getWalletVersion());
+        broadcast(message);
+    }
+
+    @RabbitListener(queues = "#{propertyCacheInvalidationQueue.name}")
+    public void handleInvalidation(Map<String, Object> message) {
+        if (CACHE_CHARACTERISTICS.equals(message.get("cache"))) {
+            evictCharacteristics();
+            log.debug("🧹 Characteristics cache evicted");
+            return;
+        }
+
+        if (CACHE_SEARCH.equals(message.get("cache"))) {
+            if (message.get("cities") instanceof Collection<?> cities) {
+                searchResultCache.evictCities(cities.stream().map(String::valueOf).toList());
+            } else {
+                searchResultCache.evictAll();
+            }
+            log.debug("🧹 Search cache evicted for cities {}", message.get("cities"));
+            return;
+        }
+
+        if (CACHE_OWNER.equals(message.get("cache"))) {
+            String userId = (String) message.get("userId");
+            if (userId != null && message.get("walletVersion") instanceof Number walletVersion) {
+                ownerWalletCache.put(userId, (String) message.get("walletAddress"), walletVersion.longValue());
+                log.debug("🧹 Owner cache updated for {}", userId);
+            }
+            return;
+        }
+
+        String propertyId = (String) message.get("propertyId");
+        if (propertyId == null) {
+            return;
+        }
+        propertyResponseCache.evict(propertyId);
+        priceCalendarCache.evict(propertyId);
+        log.debug("🧹 Cache evicted for property {} ({})", propertyId, message.get("changeType"));
+    }
+
+    /**
+     * Les réponses property embarquent les caractéristiques : on vide aussi ce cache (changement rare)
+     */
+    private void evictCharacteristics() {
+        characteristicsResponseCache.evict();
+        propertyResponseCache.evictAll();
+    }
+
+    private void broadcast(Map<String, Object> message) {
+        try {
+            message.put("timestamp", System.currentTimeMillis());
+            rabbitTemplate.convertAndSend(RabbitMQConfig.PROPERTY_CACHE_FANOUT_EXCHANGE, "", message);
+        } catch (Exception e) {
+            // Les autres replicas retomberont sur le TTL du cache
+            log.error("❌ Failed to broadcast cache invalidation {}: {}", message, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package ma.fstt.listingservice.listeners;
+
+import ma.fstt.listingservice.config.RabbitMQConfig;
+import ma.fstt.listingservice.events.PropertyChangedEvent;
+import ma.fstt.listingservice.services.impl.ImageStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ✅ Nettoyage S3 des images d'une property supprimée, hors requête HTTP
+ *
+ * 1. Après COMMIT de la suppression : message publié sur la file persistante (survit aux redémarrages)
+ * 2. Consommation : suppression par lots ; en cas d'échec le message part en file retry (TTL)
+ *    puis revient, jusqu'à MAX_ATTEMPTS avant d'être parqué.
+ */
+@Component
+public class PropertyImageCleanupListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PropertyImageCleanupListener.class);
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final ImageStorageService imageStorageService;
+    private final RabbitTemplate rabbitTemplate;
+
+    public PropertyImageCleanupListener(ImageStorageService imageStorageService, RabbitTemplate rabbitTemplate) {
+        this.imageStorageService = imageStorageService;
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    @Async("sideEffectExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPropertyDeleted(PropertyChangedEvent event) {
+        if (event.getChangeType() != PropertyChangedEvent.ChangeType.DELETED) {
+            return;
+        }
+
+        Map<String, Object> message = new HashMap<>();
+        message.put("propertyId", event.getPropertyId());
+        message.put("timestamp", System.currentTimeMillis());
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.PROPERTY_EXCHANGE,
+                    RabbitMQConfig.PROPERTY_IMAGES_CLEANUP_ROUTING_KEY, message);
+            log.info("📤 Image cleanup scheduled for property {}", event.getPropertyId());
+        } catch (Exception e) {
+            // Property déjà supprimée en base : seules des images orphelines restent sur S3
+            log.error("❌ Failed to schedule image cleanup for property {}: {}", event.getPropertyId(), e.getMessage());
+        }
+    }
+
+    @RabbitListener(queues = RabbitMQConfig.PROPERTY_IMAGES_CLEANUP_QUEUE)
+    public void handleCleanup(Map<String, Object> message,
+                              @Header(name = "x-death", required = false) List<Map<String, Object>> xDeath) {
+        String propertyId = (String) message.get("propertyId");
+        if (propertyId == null) {
+            return;
+        }
+
+        try {
+            imageStorageService.deleteAllPropertyImages(propertyId);
+        } catch (Exception e) {
+            long attempts = deathCount(xDeath) + 1;
+            if (attempts >= MAX_ATTEMPTS) {
+                log.error("❌ Image cleanup for property {} failed {} times, parking message: {}",
+                        propertyId, attempts, e.getMessage());
+                rabbitTemplate.convertAndSend("", RabbitMQConfig.PROPERTY_IMAGES_CLEANUP_PARKING_QUEUE, message);
+                return;
+            }
+            log.warn("⚠️ Image cleanup for property {} failed (attempt {}/{}), retrying later: {}",
+                    propertyId, attempts, MAX_ATTEMPTS, e.getMessage());
+            // Dead-letter vers la file retry
+            throw new AmqpRejectAndDontRequeueException("Image cleanup failed for property " + propertyId, e);
+        }
+    }
+
+    /**
+     * Nombre de passages par la file principale (rejets précédents), d'après l'en-tête x-death
+     */
+    private long deathCount(List<Map<String, Object>> xDeath) {
+        if (xDeath == null) {
+            return 0;
+        }
+        return xDeath.stream()
+                .filter(death -> RabbitMQConfig.PROPERTY_IMAGES_CLEANUP_QUEUE.equals(death.get("queue")))
+                .map(death -> death.get("count"))
+                .filter(Number.class::isInstance)
+                .mapToLong(count -> ((Number) count).longValue())
+                .findFirst()
+                .orElse(0);
+    }
+}
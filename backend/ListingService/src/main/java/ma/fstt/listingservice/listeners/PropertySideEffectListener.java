@@ -0,0 +1,73 @@
+package ma.fstt.listingservice.listeners;
+
+import ma.fstt.listingservice.events.HostUpgradeEvent;
+import ma.fstt.listingservice.events.PropertyImagesRemovedEvent;
+import ma.fstt.listingservice.producer.RabbitMQProducer;
+import ma.fstt.listingservice.services.impl.ImageStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * ✅ Effets de bord des écritures property (RabbitMQ, S3)
+ *
+ * - Exécutés APRÈS COMMIT : rien n'est publié si la transaction est annulée
+ * - Sur sideEffectExecutor : la requête (et sa connexion DB) n'attend pas le réseau
+ * - Retry avec backoff exponentiel, les erreurs réseau sont propagées par RabbitMQProducer / ImageStorageService
+ */
+@Component
+public class PropertySideEffectListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PropertySideEffectListener.class);
+
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long INITIAL_BACKOFF_MS = 200;
+
+    private final RabbitMQProducer rabbitMQProducer;
+    private final ImageStorageService imageStorageService;
+
+    public PropertySideEffectListener(RabbitMQProducer rabbitMQProducer, ImageStorageService imageStorageService) {
+        this.rabbitMQProducer = rabbitMQProducer;
+        this.imageStorageService = imageStorageService;
+    }
+
+    @Async("sideEffectExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onHostUpgrade(HostUpgradeEvent event) {
+        withRetry("user.type.upgraded " + event.getUserId(),
+                () -> rabbitMQProducer.publishUserTypeUpgraded(event.getUserId(), "HOST"));
+    }
+
+    @Async("sideEffectExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onImagesRemoved(PropertyImagesRemovedEvent event) {
+        withRetry("S3 delete of " + event.getImageUrls().size() + " images for " + event.getPropertyId(),
+                () -> imageStorageService.deleteImages(event.getImageUrls()));
+    }
+
+    private void withRetry(String description, Runnable action) {
+        long backoff = INITIAL_BACKOFF_MS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                action.run();
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    log.error("❌ Side effect failed after {} attempts ({}): {}", attempt, description, e.getMessage());
+                    return;
+                }
+                log.warn("⚠️ Side effect failed ({}), retry {}/{} in {} ms", description, attempt, MAX_ATTEMPTS - 1, backoff);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff *= 2;
+            }
+        }
+    }
+}
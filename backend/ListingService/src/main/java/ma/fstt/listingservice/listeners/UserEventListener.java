@@ -2,11 +2,13 @@ package ma.fstt.listingservice.listeners;
 
 import ma.fstt.listingservice.config.RabbitMQConfig;
 import ma.fstt.listingservice.entities.Owner;
+import ma.fstt.listingservice.events.OwnerWalletChangedEvent;
 import ma.fstt.listingservice.repositories.OwnerRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
@@ -19,6 +21,9 @@ public class UserEventListener {
     @Autowired
     private OwnerRepository ownerRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Écouter les événements de création d'utilisateur
      */
@@ -40,8 +45,11 @@ public class UserEventListener {
             Owner owner = new Owner();
             owner.setUserId(userId);
             owner.setWalletAddress(walletAddress);
+            long walletVersion = owner.nextWalletVersion();
 
             ownerRepository.save(owner);
+            // ✅ Hors transaction : cache owner mis à jour immédiatement
+            eventPublisher.publishEvent(new OwnerWalletChangedEvent(userId, walletAddress, walletVersion));
 
             logger.info("✅ Owner created successfully with userId: {} and walletAddress: {}", userId, walletAddress);
 
@@ -70,7 +78,9 @@ public class UserEventListener {
             if (walletAddress != null) {
                 String oldWallet = owner.getWalletAddress();
                 owner.setWalletAddress(walletAddress);
+                long walletVersion = owner.nextWalletVersion();
                 ownerRepository.save(owner);
+                eventPublisher.publishEvent(new OwnerWalletChangedEvent(userId, walletAddress, walletVersion));
 
                 logger.info("✅ Owner wallet updated successfully: userId={}, old={}, new={}",
                         userId, oldWallet, walletAddress);
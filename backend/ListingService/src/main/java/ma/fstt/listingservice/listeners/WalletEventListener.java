@@ -2,10 +2,12 @@ package ma.fstt.listingservice.listeners;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import ma.fstt.listingservice.entities.Owner;
+import ma.fstt.listingservice.events.OwnerWalletChangedEvent;
 import ma.fstt.listingservice.repositories.OwnerRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,10 +22,13 @@ public class WalletEventListener {
     private static final Logger log = LoggerFactory.getLogger(WalletEventListener.class);
     private final OwnerRepository ownerRepository;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public WalletEventListener(OwnerRepository ownerRepository, ObjectMapper objectMapper) {
+    public WalletEventListener(OwnerRepository ownerRepository, ObjectMapper objectMapper,
+                               ApplicationEventPublisher eventPublisher) {
         this.ownerRepository = ownerRepository;
         this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -50,7 +55,10 @@ public class WalletEventListener {
 
             // Mettre à jour l'adresse wallet
             owner.setWalletAddress(walletAddress);
+            long walletVersion = owner.nextWalletVersion();
             ownerRepository.save(owner);
+            // ✅ Cache owner mis à jour après commit
+            eventPublisher.publishEvent(new OwnerWalletChangedEvent(userId, walletAddress, walletVersion));
 
             log.info("✅ [WALLET CONNECTED] Owner updated: userId={}, wallet={}", userId, walletAddress);
 
@@ -79,7 +87,9 @@ public class WalletEventListener {
                     .orElseThrow(() -> new RuntimeException("Owner not found: " + userId));
 
             owner.setWalletAddress(newWallet);
+            long walletVersion = owner.nextWalletVersion();
             ownerRepository.save(owner);
+            eventPublisher.publishEvent(new OwnerWalletChangedEvent(userId, newWallet, walletVersion));
 
             log.info("✅ [WALLET UPDATED] Owner updated: userId={}, wallet={}", userId, newWallet);
 
@@ -106,7 +116,9 @@ public class WalletEventListener {
                     .orElseThrow(() -> new RuntimeException("Owner not found: " + userId));
 
             owner.setWalletAddress(null);
+            long walletVersion = owner.nextWalletVersion();
             ownerRepository.save(owner);
+            eventPublisher.publishEvent(new OwnerWalletChangedEvent(userId, null, walletVersion));
 
             log.info("✅ [WALLET DISCONNECTED] Wallet removed from owner: userId={}", userId);
 
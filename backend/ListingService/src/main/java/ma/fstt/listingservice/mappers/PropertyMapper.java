@@ -0,0 +1,76 @@
+package ma.fstt.listingservice.mappers;
+
+import ma.fstt.listingservice.dto.CharacteristicDto;
+import ma.fstt.listingservice.dto.PropertyDto;
+import ma.fstt.listingservice.entities.Characteristic;
+import ma.fstt.listingservice.entities.PropertyEntity;
+import ma.fstt.listingservice.requests.PropertyRequest;
+import ma.fstt.listingservice.responses.PropertyResponse;
+import org.mapstruct.IterableMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.NullValueMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+/**
+ * ✅ Mappers générés à la compilation (MapStruct)
+ * Remplacent BeanUtils.copyProperties (réflexion) sur les chemins chauds.
+ * Lectures (GET /properties/{id}, /batch) : Entity → PropertyResponse en une passe ;
+ * écritures : Entity → PropertyDto → PropertyResponse (le service expose des DTO).
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface PropertyMapper {
+
+    // ========== ENTITY → DTO ==========
+
+    @Mapping(target = "userId", source = "ownerId")
+    PropertyDto toDto(PropertyEntity entity);
+
+    @Mapping(target = "typeCaracteristiqueId", source = "typeCaracteristique.id")
+    @Mapping(target = "typeCaracteristiqueName", source = "typeCaracteristique.name")
+    CharacteristicDto toCharacteristicDto(Characteristic characteristic);
+
+    // null → [] : même JSON qu'avant MapStruct (le DTO gardait sa liste vide par défaut)
+    @IterableMapping(nullValueMappingStrategy = NullValueMappingStrategy.RETURN_DEFAULT)
+    List<CharacteristicDto> toCharacteristicDtos(List<Characteristic> characteristics);
+
+    // ========== ENTITY → RESPONSE (une passe, lectures) ==========
+
+    PropertyResponse toResponse(PropertyEntity entity);
+
+    // ========== DTO → RESPONSE ==========
+
+    @Mapping(target = "ownerId", source = "userId")
+    PropertyResponse toResponse(PropertyDto dto);
+
+    // ========== REQUEST → DTO ==========
+
+    /**
+     * characteristics est passé tel quel : null signifie "ne pas modifier" pour updateProperty
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "propertyId", ignore = true)
+    @Mapping(target = "userId", ignore = true)
+    @Mapping(target = "imageFolderPath", ignore = true)
+    @Mapping(target = "imageVariants", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "lastUpdateAt", ignore = true)
+    @Mapping(target = "characteristics", expression = "java(request.getCharacteristics())")
+    PropertyDto toDto(PropertyRequest request);
+
+    // ========== DTO → ENTITY (création) ==========
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "propertyId", ignore = true)
+    @Mapping(target = "owner", ignore = true)
+    @Mapping(target = "ownerId", ignore = true)
+    @Mapping(target = "imageVariants", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "lastUpdateAt", ignore = true)
+    @Mapping(target = "characteristics", ignore = true)
+    PropertyEntity toEntity(PropertyDto dto);
+}
@@ -0,0 +1,90 @@
+package ma.fstt.listingservice.pricing;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * ✅ Calendrier de prix compilé d'une property (immuable, partagé entre threads)
+ *
+ * Un long (centimes) par nuit à partir de firstDay : un devis est une simple somme
+ * sur une tranche contiguë du tableau (boucle que le JIT déroule / vectorise),
+ * suivie de la remise longue durée. Aucune règle n'est ré-évaluée au moment du devis.
+ */
+public final class PriceCalendar {
+
+    private final long firstEpochDay;
+    private final long[] nightlyCents;
+
+    // Paliers longue durée triés par minNights croissant
+    private final int[] losMinNights;
+    private final int[] losDiscountBasisPoints;
+
+    public record Quote(int nights, long subtotalCents, long discountCents) {
+        public long totalCents() {
+            return subtotalCents - discountCents;
+        }
+    }
+
+    PriceCalendar(long firstEpochDay, long[] nightlyCents, int[] losMinNights, int[] losDiscountBasisPoints) {
+        this.firstEpochDay = firstEpochDay;
+        this.nightlyCents = nightlyCents;
+        this.losMinNights = losMinNights;
+        this.losDiscountBasisPoints = losDiscountBasisPoints;
+    }
+
+    public LocalDate getFirstDay() {
+        return LocalDate.ofEpochDay(firstEpochDay);
+    }
+
+    public int getDays() {
+        return nightlyCents.length;
+    }
+
+    /**
+     * Vrai si toutes les nuits [checkIn, checkIn + nights) sont dans le calendrier
+     */
+    public boolean covers(LocalDate checkIn, int nights) {
+        long offset = checkIn.toEpochDay() - firstEpochDay;
+        return offset >= 0 && offset + nights <= nightlyCents.length;
+    }
+
+    public Quote quote(LocalDate checkIn, int nights) {
+        int offset = offsetOf(checkIn, nights);
+
+        long subtotal = 0;
+        for (int i = offset, end = offset + nights; i < end; i++) {
+            subtotal += nightlyCents[i];
+        }
+
+        int basisPoints = discountBasisPoints(nights);
+        // Arrondi au centime le plus proche
+        long discount = basisPoints == 0 ? 0 : (subtotal * basisPoints + 5_000) / 10_000;
+        return new Quote(nights, subtotal, discount);
+    }
+
+    public long[] nightlyCents(LocalDate from, int nights) {
+        int offset = offsetOf(from, nights);
+        return Arrays.copyOfRange(nightlyCents, offset, offset + nights);
+    }
+
+    private int offsetOf(LocalDate from, int nights) {
+        if (!covers(from, nights)) {
+            throw new IllegalArgumentException("Dates outside of the compiled price calendar");
+        }
+        return (int) (from.toEpochDay() - firstEpochDay);
+    }
+
+    private int discountBasisPoints(int nights) {
+        for (int i = losMinNights.length - 1; i >= 0; i--) {
+            if (nights >= losMinNights[i]) {
+                return losDiscountBasisPoints[i];
+            }
+        }
+        return 0;
+    }
+
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,123 @@
+package ma.fstt.listingservice.pricing;
+
+import ma.fstt.listingservice.entities.PriceRule;
+import ma.fstt.listingservice.entities.PriceRuleType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * ✅ Compile prix de base + règles en PriceCalendar
+ *
+ * Prix d'une nuit = base × saison (priorité la plus haute) × week-end, arrondi au centime ;
+ * un DATE_OVERRIDE remplace ce résultat. La remise LENGTH_OF_STAY s'applique au total du séjour.
+ * Les bornes validées à l'enregistrement (PricingServiceImpl.validateRules, colonnes NUMERIC)
+ * garantissent que les centimes tiennent dans un long : longValueExact ne sert que de garde-fou.
+ */
+public final class PriceCalendarCompiler {
+
+    // Nuits du vendredi et du samedi
+    public static final int DEFAULT_WEEKEND_MASK =
+            (1 << (DayOfWeek.FRIDAY.getValue() - 1)) | (1 << (DayOfWeek.SATURDAY.getValue() - 1));
+
+    private PriceCalendarCompiler() {
+    }
+
+    public static PriceCalendar compile(BigDecimal basePrice, List<PriceRule> rules, LocalDate firstDay, int days) {
+        long firstEpochDay = firstDay.toEpochDay();
+        long lastEpochDay = firstEpochDay + days - 1;
+
+        // 1. Multiplicateur saisonnier par nuit (priorité croissante : la plus haute écrase)
+        BigDecimal[] factors = new BigDecimal[days];
+        Arrays.fill(factors, BigDecimal.ONE);
+        rules.stream()
+                .filter(rule -> rule.getType() == PriceRuleType.SEASON)
+                .sorted(Comparator.comparingInt((PriceRule rule) -> rule.getPriority() == null ? 0 : rule.getPriority())
+                        .thenComparing(rule -> rule.getId() == null ? Long.MAX_VALUE : rule.getId()))
+                .forEach(rule -> {
+                    int from = (int) (Math.max(rule.getStartDate().toEpochDay(), firstEpochDay) - firstEpochDay);
+                    int to = (int) (Math.min(rule.getEndDate().toEpochDay(), lastEpochDay) - firstEpochDay);
+                    for (int i = from; i <= to; i++) {
+                        factors[i] = rule.getMultiplier();
+                    }
+                });
+
+        // 2. Week-end (une seule règle : la dernière déclarée)
+        PriceRule weekend = null;
+        for (PriceRule rule : rules) {
+            if (rule.getType() == PriceRuleType.WEEKEND) {
+                weekend = rule;
+            }
+        }
+        if (weekend != null) {
+            int mask = weekend.getDaysOfWeekMask() == null ? DEFAULT_WEEKEND_MASK : weekend.getDaysOfWeekMask();
+            int dayOfWeek = firstDay.getDayOfWeek().getValue() - 1;
+            for (int i = 0; i < days; i++) {
+                if ((mask & (1 << dayOfWeek)) != 0) {
+                    factors[i] = factors[i].multiply(weekend.getMultiplier());
+                }
+                dayOfWeek = dayOfWeek == 6 ? 0 : dayOfWeek + 1;
+            }
+        }
+
+        // 3. Prix par nuit en centimes (les facteurs identiques consécutifs réutilisent le calcul)
+        BigDecimal base = basePrice.movePointRight(2);
+        long[] nightlyCents = new long[days];
+        BigDecimal previousFactor = null;
+        long previousCents = 0;
+        for (int i = 0; i < days; i++) {
+            if (factors[i] != previousFactor) {
+                previousFactor = factors[i];
+                previousCents = base.multiply(previousFactor).setScale(0, RoundingMode.HALF_UP).longValueExact();
+            }
+            nightlyCents[i] = previousCents;
+        }
+
+        // 4. Prix fixes par date
+        for (PriceRule rule : rules) {
+            if (rule.getType() != PriceRuleType.DATE_OVERRIDE) {
+                continue;
+            }
+            long cents = rule.getPrice().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+            int from = (int) (Math.max(rule.getStartDate().toEpochDay(), firstEpochDay) - firstEpochDay);
+            int to = (int) (Math.min(rule.getEndDate().toEpochDay(), lastEpochDay) - firstEpochDay);
+            if (from <= to) {
+                Arrays.fill(nightlyCents, from, to + 1, cents);
+            }
+        }
+
+        // 5. Paliers longue durée (minNights unique par property, vérifié à l'enregistrement)
+        List<PriceRule> tiers = rules.stream()
+                .filter(rule -> rule.getType() == PriceRuleType.LENGTH_OF_STAY)
+                .sorted(Comparator.comparingInt(PriceRule::getMinNights))
+                .toList();
+        int[] losMinNights = new int[tiers.size()];
+        int[] losDiscountBasisPoints = new int[tiers.size()];
+        for (int i = 0; i < tiers.size(); i++) {
+            losMinNights[i] = tiers.get(i).getMinNights();
+            losDiscountBasisPoints[i] = tiers.get(i).getDiscountPercent().movePointRight(2)
+                    .setScale(0, RoundingMode.HALF_UP).intValueExact();
+        }
+
+        return new PriceCalendar(firstEpochDay, nightlyCents, losMinNights, losDiscountBasisPoints);
+    }
+
+    public static int toMask(List<DayOfWeek> daysOfWeek) {
+        int mask = 0;
+        for (DayOfWeek day : daysOfWeek) {
+            mask |= 1 << (day.getValue() - 1);
+        }
+        return mask;
+    }
+
+    public static List<DayOfWeek> fromMask(int mask) {
+        return Arrays.stream(DayOfWeek.values())
+                .filter(day -> (mask & (1 << (day.getValue() - 1))) != 0)
+                .toList();
+    }
+}
@@ -0,0 +1,205 @@
+package ma.fstt.listingservice.pricing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ✅ Modèle de suggestion de prix (gradient boosting exporté par price-detector-main/export_model.py)
+ *
+ * Reproduit le pipeline scikit-learn : imputation médiane + standardisation des numériques,
+ * one-hot des catégories (inconnue = aucune colonne), puis somme des arbres.
+ * Tous les arbres sont aplatis dans des tableaux primitifs contigus ; predict() n'alloue rien
+ * (les one-hot ne sont jamais matérialisés : une colonne vaut 1 si c'est la catégorie active).
+ */
+public final class PriceSuggestionModel {
+
+    public static final String FORMAT = "sklearn-gbr-v1";
+
+    // Ordre des colonnes du preprocessor (identique à main.py / model.py)
+    public static final List<String> NUMERIC_FEATURES =
+            List.of("nb_of_guests", "nb_of_bedrooms", "nb_of_beds", "nb_of_bathrooms");
+    public static final List<String> CATEGORICAL_FEATURES = List.of("country", "city", "type");
+
+    private final double[] medians;
+    private final double[] means;
+    private final double[] scales;
+
+    // Par variable catégorielle : valeur → index de colonne one-hot
+    private final Map<String, Integer>[] categoryColumns;
+    private final int[] missingColumns;
+
+    private final double init;
+    private final double learningRate;
+
+    // Nœuds de tous les arbres ; feature = -1 pour une feuille
+    private final int[] roots;
+    private final int[] feature;
+    private final double[] threshold;
+    private final int[] left;
+    private final int[] right;
+    private final double[] value;
+
+    @SuppressWarnings("unchecked")
+    PriceSuggestionModel(double[] medians, double[] means, double[] scales,
+                         List<List<String>> categories, List<String> missingValues,
+                         double init, double learningRate,
+                         int[] roots, int[] feature, double[] threshold, int[] left, int[] right, double[] value) {
+        this.medians = medians;
+        this.means = means;
+        this.scales = scales;
+        this.init = init;
+        this.learningRate = learningRate;
+        this.roots = roots;
+        this.feature = feature;
+        this.threshold = threshold;
+        this.left = left;
+        this.right = right;
+        this.value = value;
+
+        this.categoryColumns = new Map[categories.size()];
+        this.missingColumns = new int[categories.size()];
+        int column = medians.length;
+        for (int i = 0; i < categories.size(); i++) {
+            Map<String, Integer> columns = new HashMap<>();
+            for (String category : categories.get(i)) {
+                columns.put(category, column++);
+            }
+            categoryColumns[i] = columns;
+            missingColumns[i] = columns.getOrDefault(missingValues.get(i), -1);
+        }
+    }
+
+    /**
+     * Lecture du JSON exporté ; les noms et l'ordre des variables doivent correspondre au pipeline
+     */
+    public static PriceSuggestionModel fromJson(JsonNode root) {
+        if (!FORMAT.equals(root.path("format").asText())) {
+            throw new IllegalArgumentException("Unsupported price model format: " + root.path("format").asText());
+        }
+
+        JsonNode numeric = root.path("numeric");
+        if (numeric.size() != NUMERIC_FEATURES.size()) {
+            throw new IllegalArgumentException("Expected numeric features " + NUMERIC_FEATURES);
+        }
+        double[] medians = new double[numeric.size()];
+        double[] means = new double[numeric.size()];
+        double[] scales = new double[numeric.size()];
+        for (int i = 0; i < numeric.size(); i++) {
+            JsonNode column = numeric.get(i);
+            requireName(column, NUMERIC_FEATURES.get(i));
+            medians[i] = column.path("median").asDouble();
+            means[i] = column.path("mean").asDouble();
+            scales[i] = column.path("scale").asDouble();
+        }
+
+        JsonNode categorical = root.path("categorical");
+        if (categorical.size() != CATEGORICAL_FEATURES.size()) {
+            throw new IllegalArgumentException("Expected categorical features " + CATEGORICAL_FEATURES);
+        }
+        List<List<String>> categories = new ArrayList<>();
+        List<String> missingValues = new ArrayList<>();
+        for (int i = 0; i < categorical.size(); i++) {
+            JsonNode column = categorical.get(i);
+            requireName(column, CATEGORICAL_FEATURES.get(i));
+            List<String> values = new ArrayList<>();
+            column.path("categories").forEach(category -> values.add(category.asText()));
+            categories.add(values);
+            missingValues.add(column.path("missing").asText("missing"));
+        }
+
+        // Aplatissement : les index enfants de chaque arbre sont décalés de son offset
+        JsonNode trees = root.path("trees");
+        int nodes = 0;
+        for (JsonNode tree : trees) {
+            nodes += tree.path("feature").size();
+        }
+        int[] roots = new int[trees.size()];
+        int[] feature = new int[nodes];
+        double[] threshold = new double[nodes];
+        int[] left = new int[nodes];
+        int[] right = new int[nodes];
+        double[] value = new double[nodes];
+
+        int offset = 0;
+        for (int t = 0; t < trees.size(); t++) {
+            JsonNode tree = trees.get(t);
+            int size = tree.path("feature").size();
+            roots[t] = offset;
+            for (int n = 0; n < size; n++) {
+                int leftChild = tree.path("left").get(n).asInt();
+                boolean leaf = leftChild < 0;
+                feature[offset + n] = leaf ? -1 : tree.path("feature").get(n).asInt();
+                threshold[offset + n] = tree.path("threshold").get(n).asDouble();
+                left[offset + n] = leaf ? -1 : offset + leftChild;
+                right[offset + n] = leaf ? -1 : offset + tree.path("right").get(n).asInt();
+                value[offset + n] = tree.path("value").get(n).asDouble();
+            }
+            offset += size;
+        }
+
+        return new PriceSuggestionModel(medians, means, scales, categories, missingValues,
+                root.path("init").asDouble(), root.path("learningRate").asDouble(),
+                roots, feature, threshold, left, right, value);
+    }
+
+    private static void requireName(JsonNode column, String expected) {
+        if (!expected.equals(column.path("name").asText())) {
+            throw new IllegalArgumentException("Expected feature '" + expected + "', got '"
+                    + column.path("name").asText() + "'");
+        }
+    }
+
+    public int getTreeCount() {
+        return roots.length;
+    }
+
+    /**
+     * Valeurs numériques NaN = absentes (imputées par la médiane d'entraînement)
+     */
+    public double predict(double guests, double bedrooms, double beds, double bathrooms,
+                          String country, String city, String type) {
+        float x0 = scaled(0, guests);
+        float x1 = scaled(1, bedrooms);
+        float x2 = scaled(2, beds);
+        float x3 = scaled(3, bathrooms);
+        int c0 = categoryColumn(0, country);
+        int c1 = categoryColumn(1, city);
+        int c2 = categoryColumn(2, type);
+
+        double sum = 0;
+        for (int root : roots) {
+            int node = root;
+            while (feature[node] >= 0) {
+                int f = feature[node];
+                float x = switch (f) {
+                    case 0 -> x0;
+                    case 1 -> x1;
+                    case 2 -> x2;
+                    case 3 -> x3;
+                    default -> (f == c0 || f == c1 || f == c2) ? 1f : 0f;
+                };
+                node = x <= threshold[node] ? left[node] : right[node];
+            }
+            sum += value[node];
+        }
+        return init + learningRate * sum;
+    }
+
+    // scikit-learn convertit X en float32 avant de comparer aux seuils (double) : même arrondi ici
+    private float scaled(int i, double raw) {
+        double x = Double.isNaN(raw) ? medians[i] : raw;
+        return (float) ((x - means[i]) / scales[i]);
+    }
+
+    private int categoryColumn(int i, String raw) {
+        if (raw == null) {
+            return missingColumns[i];
+        }
+        Integer column = categoryColumns[i].get(raw);
+        return column == null ? -1 : column;
+    }
+}
@@ -5,6 +5,7 @@ import ma.fstt.listingservice.entities.PropertyEntity;
 import ma.fstt.listingservice.entities.PropertyStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -12,6 +13,10 @@ import org.springframework.stereotype.Service;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * ✅ Publication des événements d'intégration
+ * Les erreurs sont propagées : l'appelant (PropertySideEffectListener) gère les retries.
+ */
 @Service
 public class RabbitMQProducer {
 
@@ -38,8 +43,9 @@ public class RabbitMQProducer {
             );
 
             log.info("📤 Published user.type.upgraded: userId={}, newType={}", userId, newType);
-        } catch (Exception e) {
+        } catch (AmqpException e) {
             log.error("❌ Failed to publish user.type.upgraded: {}", e.getMessage(), e);
+            throw e;
         }
     }
 
@@ -71,8 +77,9 @@ public class RabbitMQProducer {
 
             log.info("📤 Published property.created: propertyId={}, status={}",
                     property.getPropertyId(), property.getStatus());
-        } catch (Exception e) {
+        } catch (AmqpException e) {
             log.error("❌ Failed to publish property.created: {}", e.getMessage(), e);
+            throw e;
         }
     }
 
@@ -96,8 +103,9 @@ public class RabbitMQProducer {
 
             log.info("📤 Published property.status.changed: propertyId={}, {} → {}",
                     propertyId, oldStatus, newStatus);
-        } catch (Exception e) {
+        } catch (AmqpException e) {
             log.error("❌ Failed to publish property.status.changed: {}", e.getMessage(), e);
+            throw e;
         }
     }
 
@@ -121,8 +129,9 @@ public class RabbitMQProducer {
             );
 
             log.info("📤 Published property.validated: propertyId={}", property.getPropertyId());
-        } catch (Exception e) {
+        } catch (AmqpException e) {
             log.error("❌ Failed to publish property.validated: {}", e.getMessage(), e);
+            throw e;
         }
     }
 
@@ -144,8 +153,9 @@ public class RabbitMQProducer {
             );
 
             log.info("📤 Published property.deleted: propertyId={}", propertyId);
-        } catch (Exception e) {
+        } catch (AmqpException e) {
             log.error("❌ Failed to publish property.deleted: {}", e.getMessage(), e);
+            throw e;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package ma.fstt.listingservice.repositories;
+
+import ma.fstt.listingservice.entities.PriceRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PriceRuleRepository extends JpaRepository<PriceRule, Long> {
+
+    List<PriceRule> findByPropertyIdOrderByIdAsc(String propertyId);
+
+    /**
+     * Chargement groupé pour compiler plusieurs calendriers en une requête
+     */
+    List<PriceRule> findByPropertyIdIn(Collection<String> propertyIds);
+
+    @Modifying
+    @Query("DELETE FROM PriceRule r WHERE r.propertyId = :propertyId")
+    void deleteByPropertyId(@Param("propertyId") String propertyId);
+}
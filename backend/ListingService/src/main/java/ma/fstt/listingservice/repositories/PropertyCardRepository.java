@@ -0,0 +1,142 @@
+package ma.fstt.listingservice.repositories;
+
+import ma.fstt.listingservice.entities.PropertyCard;
+import ma.fstt.listingservice.entities.PropertyStatus;
+import ma.fstt.listingservice.repositories.projections.PropertyCardView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ✅ Lectures des listes / recherches publiques sur la table property_card
+ * (aucune jointure, aucune collection, projection PropertyCardView)
+ */
+@Repository
+public interface PropertyCardRepository extends JpaRepository<PropertyCard, String> {
+
+    String SEARCH_FILTER = "(:city IS NULL OR c.city = :city) " +
+            "AND (:type IS NULL OR c.type = :type) " +
+            "AND (:minPrice IS NULL OR c.pricePerNight >= :minPrice) " +
+            "AND (:maxPrice IS NULL OR c.pricePerNight <= :maxPrice) " +
+            "AND (:nbOfGuests IS NULL OR c.nbOfGuests >= :nbOfGuests) " +
+            "AND c.status = :status";
+
+    String NEARBY_FILTER = "(6371 * acos(cos(radians(:latitude)) * cos(radians(c.latitude)) * " +
+            "cos(radians(c.longitude) - radians(:longitude)) + " +
+            "sin(radians(:latitude)) * sin(radians(c.latitude)))) <= :radius " +
+            "AND c.status = :status";
+
+    // Alias entre guillemets : PostgreSQL conserve la casse attendue par la projection
+    String NATIVE_COLUMNS = "c.property_id AS \"propertyId\", c.owner_id AS \"ownerId\", c.title AS \"title\", " +
+            "c.type AS \"type\", c.city AS \"city\", c.country AS \"country\", " +
+            "c.latitude AS \"latitude\", c.longitude AS \"longitude\", c.price_per_night AS \"pricePerNight\", " +
+            "c.nb_of_guests AS \"nbOfGuests\", c.nb_of_bedrooms AS \"nbOfBedrooms\", c.nb_of_beds AS \"nbOfBeds\", " +
+            "c.nb_of_bathrooms AS \"nbOfBathrooms\", c.status AS \"status\", " +
+            "c.cover_image_url AS \"coverImageUrl\", c.cover_thumb_url AS \"coverThumbUrl\", " +
+            "c.cover_card_url AS \"coverCardUrl\", c.created_at AS \"createdAt\", c.last_update_at AS \"lastUpdateAt\"";
+
+    // ========== LISTE ==========
+
+    Page<PropertyCardView> findByStatus(PropertyStatus status, Pageable pageable);
+
+    /**
+     * ✅ Variante Slice : lit pageSize+1 lignes, aucune requête COUNT
+     */
+    Slice<PropertyCardView> findSliceByStatus(PropertyStatus status, Pageable pageable);
+
+    long countByStatus(PropertyStatus status);
+
+    List<PropertyCardView> findByPropertyIdIn(Collection<String> propertyIds);
+
+    List<PropertyCardView> findByOwnerIdAndStatusNot(String ownerId, PropertyStatus status);
+
+    /**
+     * ✅ Lecture par clé primaire d'une seule colonne (GET /properties/{id}/wallet-address)
+     */
+    @Query("SELECT c.ownerId FROM PropertyCard c WHERE c.propertyId = :propertyId")
+    Optional<String> findOwnerIdByPropertyId(@Param("propertyId") String propertyId);
+
+    @Query("SELECT c.propertyId FROM PropertyCard c WHERE c.ownerId = :ownerId AND c.status <> :excluded")
+    List<String> findPropertyIdsByOwner(@Param("ownerId") String ownerId, @Param("excluded") PropertyStatus excluded);
+
+    // ========== RECHERCHE ==========
+
+    @Query("SELECT c FROM PropertyCard c WHERE " + SEARCH_FILTER)
+    Slice<PropertyCardView> searchSlice(
+            @Param("city") String city,
+            @Param("type") String type,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("nbOfGuests") Integer nbOfGuests,
+            @Param("status") PropertyStatus status,
+            Pageable pageable
+    );
+
+    /**
+     * ✅ Identifiants seulement (alimente SearchResultCache)
+     */
+    @Query(value = "SELECT c.propertyId FROM PropertyCard c WHERE " + SEARCH_FILTER,
+            countQuery = "SELECT count(c) FROM PropertyCard c WHERE " + SEARCH_FILTER)
+    Page<String> searchPropertyIds(
+            @Param("city") String city,
+            @Param("type") String type,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("nbOfGuests") Integer nbOfGuests,
+            @Param("status") PropertyStatus status,
+            Pageable pageable
+    );
+
+    @Query("SELECT count(c) FROM PropertyCard c WHERE " + SEARCH_FILTER)
+    long countSearch(
+            @Param("city") String city,
+            @Param("type") String type,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("nbOfGuests") Integer nbOfGuests,
+            @Param("status") PropertyStatus status
+    );
+
+    // ========== RECHERCHE GÉOGRAPHIQUE (rayon en km) ==========
+
+    @Query(value = "SELECT " + NATIVE_COLUMNS + " FROM property_card c WHERE " + NEARBY_FILTER,
+            countQuery = "SELECT count(*) FROM property_card c WHERE " + NEARBY_FILTER,
+            nativeQuery = true)
+    Page<PropertyCardView> findNearby(
+            @Param("latitude") Double latitude,
+            @Param("longitude") Double longitude,
+            @Param("radius") Double radius,
+            @Param("status") String status, // String car native query
+            Pageable pageable
+    );
+
+    /**
+     * ✅ Sans second scan haversine pour le COUNT
+     */
+    @Query(value = "SELECT " + NATIVE_COLUMNS + " FROM property_card c WHERE " + NEARBY_FILTER,
+            nativeQuery = true)
+    Slice<PropertyCardView> findNearbySlice(
+            @Param("latitude") Double latitude,
+            @Param("longitude") Double longitude,
+            @Param("radius") Double radius,
+            @Param("status") String status,
+            Pageable pageable
+    );
+
+    @Query(value = "SELECT count(*) FROM property_card c WHERE " + NEARBY_FILTER, nativeQuery = true)
+    long countNearby(
+            @Param("latitude") Double latitude,
+            @Param("longitude") Double longitude,
+            @Param("radius") Double radius,
+            @Param("status") String status
+    );
+}
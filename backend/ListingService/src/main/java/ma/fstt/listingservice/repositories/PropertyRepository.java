@@ -1,15 +1,18 @@
 package ma.fstt.listingservice.repositories;
 
+import jakarta.persistence.LockModeType;
 import ma.fstt.listingservice.entities.PropertyEntity;
 import ma.fstt.listingservice.entities.PropertyStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,6 +22,14 @@ public interface PropertyRepository extends JpaRepository<PropertyEntity, Long>
 
     PropertyEntity findByPropertyId(String propertyId);
 
+    /**
+     * ✅ Lecture avec verrou de ligne (SELECT ... FOR UPDATE) : sérialise les mises à jour
+     * concurrentes d'une même property (variantes d'images générées en parallèle)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PropertyEntity p WHERE p.propertyId = :propertyId")
+    PropertyEntity findForUpdateByPropertyId(@Param("propertyId") String propertyId);
+
     // ========== MÉTHODES AVEC ENUM STATUS ==========
 
     /**
@@ -86,6 +97,28 @@ public interface PropertyRepository extends JpaRepository<PropertyEntity, Long>
             Pageable pageable
     );
 
+    /**
+     * Chargement groupé par propertyId (ordre non garanti)
+     */
+    List<PropertyEntity> findByPropertyIdIn(Collection<String> propertyIds);
+
+    // ✅ Chargement groupé du graphe complet (POST /properties/batch) : une requête par collection,
+    // quel que soit le nombre d'IDs. Les trois requêtes remplissent les mêmes entités du contexte
+    // de persistance (pas de MultipleBagFetchException, pas de produit cartésien).
+
+    @Query("SELECT DISTINCT p FROM PropertyEntity p " +
+            "LEFT JOIN FETCH p.characteristics c LEFT JOIN FETCH c.typeCaracteristique " +
+            "WHERE p.propertyId IN :propertyIds")
+    List<PropertyEntity> findWithCharacteristicsByPropertyIdIn(@Param("propertyIds") Collection<String> propertyIds);
+
+    @Query("SELECT DISTINCT p FROM PropertyEntity p LEFT JOIN FETCH p.imageFolderPath " +
+            "WHERE p.propertyId IN :propertyIds")
+    List<PropertyEntity> fetchImagesByPropertyIdIn(@Param("propertyIds") Collection<String> propertyIds);
+
+    @Query("SELECT DISTINCT p FROM PropertyEntity p LEFT JOIN FETCH p.imageVariants " +
+            "WHERE p.propertyId IN :propertyIds")
+    List<PropertyEntity> fetchImageVariantsByPropertyIdIn(@Param("propertyIds") Collection<String> propertyIds);
+
     /**
      * Recherche géographique (rayon en km) - ACTIVE uniquement
      */
@@ -107,6 +140,4 @@ public interface PropertyRepository extends JpaRepository<PropertyEntity, Long>
             @Param("status") String status, // String car native query
             Pageable pageable
     );
-
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,70 @@
+package ma.fstt.listingservice.repositories.projections;
+
+import ma.fstt.listingservice.dto.ImageVariantDto;
+import ma.fstt.listingservice.entities.PropertyStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ✅ Projection de la table property_card (listes et recherches publiques)
+ *
+ * imageFolderPath / imageVariants gardent le format de PropertyResponse
+ * (première image seulement) : le frontend lit les cartes sans changement.
+ */
+public interface PropertyCardView {
+
+    String getPropertyId();
+
+    String getOwnerId();
+
+    String getTitle();
+
+    String getType();
+
+    String getCity();
+
+    String getCountry();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    BigDecimal getPricePerNight();
+
+    Integer getNbOfGuests();
+
+    Integer getNbOfBedrooms();
+
+    Integer getNbOfBeds();
+
+    Integer getNbOfBathrooms();
+
+    PropertyStatus getStatus();
+
+    String getCoverImageUrl();
+
+    String getCoverThumbUrl();
+
+    String getCoverCardUrl();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getLastUpdateAt();
+
+    default List<String> getImageFolderPath() {
+        return getCoverImageUrl() == null ? List.of() : List.of(getCoverImageUrl());
+    }
+
+    default List<ImageVariantDto> getImageVariants() {
+        if (getCoverCardUrl() == null) {
+            return List.of();
+        }
+        ImageVariantDto variant = new ImageVariantDto();
+        variant.setOriginalUrl(getCoverImageUrl());
+        variant.setThumbUrl(getCoverThumbUrl());
+        variant.setCardUrl(getCoverCardUrl());
+        return List.of(variant);
+    }
+}
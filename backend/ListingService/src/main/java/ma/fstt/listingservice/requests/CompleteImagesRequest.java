@@ -0,0 +1,18 @@
+package ma.fstt.listingservice.requests;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ✅ Confirmation d'upload direct : clés S3 renvoyées par /images/presign
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompleteImagesRequest {
+    private List<String> keys = new ArrayList<>();
+}
@@ -0,0 +1,28 @@
+package ma.fstt.listingservice.requests;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ✅ Demande d'URLs présignées : une entrée par image à envoyer directement sur S3
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignImagesRequest {
+
+    private List<FileInfo> files = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FileInfo {
+        private String fileName;
+        private String contentType;
+        private Long size; // Signé dans l'URL : S3 refuse un corps de taille différente
+    }
+}
@@ -0,0 +1,29 @@
+package ma.fstt.listingservice.requests;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ✅ Devis groupés : un séjour par entrée (checkOut exclu)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteRequest {
+
+    private List<Item> items = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private String propertyId;
+        private LocalDate checkIn;
+        private LocalDate checkOut;
+    }
+}
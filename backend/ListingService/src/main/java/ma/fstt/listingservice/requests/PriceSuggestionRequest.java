@@ -0,0 +1,34 @@
+package ma.fstt.listingservice.requests;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ✅ Caractéristiques scorées par le modèle de prix (mêmes noms que l'ancienne API /predict)
+ * Une valeur numérique absente est remplacée par la médiane d'entraînement.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceSuggestionRequest {
+
+    @JsonProperty("nb_of_guests")
+    private Integer nbOfGuests;
+
+    @JsonProperty("nb_of_bedrooms")
+    private Double nbOfBedrooms;
+
+    @JsonProperty("nb_of_beds")
+    private Integer nbOfBeds;
+
+    @JsonProperty("nb_of_bathrooms")
+    private Double nbOfBathrooms;
+
+    private String country;
+    private String city;
+    private String type;
+}
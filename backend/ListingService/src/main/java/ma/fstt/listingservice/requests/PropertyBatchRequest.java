@@ -0,0 +1,19 @@
+package ma.fstt.listingservice.requests;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ✅ Chargement groupé : POST /properties/batch
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyBatchRequest {
+
+    private List<String> propertyIds = new ArrayList<>();
+}
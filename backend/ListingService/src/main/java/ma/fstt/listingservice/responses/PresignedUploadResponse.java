@@ -0,0 +1,24 @@
+package ma.fstt.listingservice.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * ✅ URL PUT présignée pour une image (le client envoie les octets directement à S3)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignedUploadResponse {
+    private String key;
+    private String uploadUrl;
+    private String publicUrl;
+    private Map<String, String> headers; // Headers signés à renvoyer tels quels avec le PUT
+    private Instant expiresAt;
+}
@@ -0,0 +1,24 @@
+package ma.fstt.listingservice.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * ✅ Prix par nuit d'une période : nightlyPrices[i] = nuit du (from + i)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceCalendarResponse {
+    private String propertyId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<BigDecimal> nightlyPrices;
+}
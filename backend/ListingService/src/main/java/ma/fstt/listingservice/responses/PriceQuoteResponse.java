@@ -0,0 +1,29 @@
+package ma.fstt.listingservice.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * ✅ Devis d'un séjour (même ordre que les entrées de la requête)
+ * error renseigné (et montants null) si la property est introuvable ou les dates invalides.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteResponse {
+    private String propertyId;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+    private Integer nights;
+    private BigDecimal subtotal;
+    private BigDecimal discount;
+    private BigDecimal total;
+    private BigDecimal averageNightlyPrice;
+    private String error;
+}
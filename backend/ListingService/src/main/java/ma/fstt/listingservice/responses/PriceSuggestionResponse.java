@@ -0,0 +1,31 @@
+package ma.fstt.listingservice.responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * ✅ Prix suggéré par nuit (+15 % en version "yield optimized")
+ * propertyId / currentPrice uniquement pour le scoring du portefeuille d'un owner.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PriceSuggestionResponse {
+
+    private String propertyId;
+    private BigDecimal currentPrice;
+
+    @JsonProperty("suggested_price")
+    private BigDecimal suggestedPrice;
+
+    @JsonProperty("yield_optimized_15")
+    private BigDecimal yieldOptimized15;
+}
@@ -1,6 +1,7 @@
 package ma.fstt.listingservice.responses;
 
 import ma.fstt.listingservice.dto.CharacteristicDto;
+import ma.fstt.listingservice.dto.ImageVariantDto;
 import ma.fstt.listingservice.entities.PropertyStatus;
 
 import java.math.BigDecimal;
@@ -36,6 +37,7 @@ public class PropertyResponse {
 
     // Images
     private List<String> imageFolderPath = new ArrayList<>();
+    private List<ImageVariantDto> imageVariants = new ArrayList<>();
 
     // ✅ NOUVEAU: Status ENUM
     private PropertyStatus status;
@@ -193,6 +195,14 @@ public class PropertyResponse {
         this.imageFolderPath = imageFolderPath;
     }
 
+    public List<ImageVariantDto> getImageVariants() {
+        return imageVariants;
+    }
+
+    public void setImageVariants(List<ImageVariantDto> imageVariants) {
+        this.imageVariants = imageVariants;
+    }
+
     // ✅ NOUVEAU: Getter/Setter status
     public PropertyStatus getStatus() {
         return status;
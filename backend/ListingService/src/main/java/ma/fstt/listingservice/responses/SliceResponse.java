@@ -0,0 +1,25 @@
+package ma.fstt.listingservice.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * ✅ Réponse paginée SANS COUNT (mode slice=true)
+ * hasNext est déduit en lisant pageSize+1 lignes ; estimatedTotal n'est rempli
+ * que si withEstimate=true (valeur en cache, approximative).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SliceResponse<T> {
+    private List<T> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    private Long estimatedTotal;
+}
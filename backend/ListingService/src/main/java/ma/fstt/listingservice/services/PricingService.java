@@ -0,0 +1,24 @@
+package ma.fstt.listingservice.services;
+
+import ma.fstt.listingservice.dto.PriceRuleDto;
+import ma.fstt.listingservice.requests.PriceQuoteRequest;
+import ma.fstt.listingservice.responses.PriceCalendarResponse;
+import ma.fstt.listingservice.responses.PriceQuoteResponse;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface PricingService {
+
+    // ========== RÈGLES ==========
+    List<PriceRuleDto> getRules(String propertyId);
+
+    // Remplace toutes les règles de la property (owner uniquement)
+    List<PriceRuleDto> replaceRules(String propertyId, List<PriceRuleDto> rules, String userId);
+
+    // ========== DEVIS ==========
+    List<PriceQuoteResponse> quote(List<PriceQuoteRequest.Item> items);
+
+    // Prix par nuit sur [from, to)
+    PriceCalendarResponse getCalendar(String propertyId, LocalDate from, LocalDate to);
+}
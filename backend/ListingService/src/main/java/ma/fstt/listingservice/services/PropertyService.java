@@ -2,11 +2,15 @@ package ma.fstt.listingservice.services;
 
 import ma.fstt.listingservice.dto.PropertyDto;
 import ma.fstt.listingservice.entities.PropertyStatus;
+import ma.fstt.listingservice.repositories.projections.PropertyCardView;
+import ma.fstt.listingservice.responses.PropertyResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 public interface PropertyService {
@@ -19,17 +23,33 @@ public interface PropertyService {
 
     List<PropertyDto> getPropertiesByUserId(String userId);
 
-    Page<PropertyDto> getAllValidatedProperties(Pageable pageable);
+    // ✅ Lecture publique : Entity → Response en une passe (sans DTO intermédiaire)
+    PropertyResponse getPropertyResponse(String propertyId);
+
+    // ✅ Chargement groupé (POST /properties/batch) : ordre des IDs conservé, IDs inconnus ignorés
+    List<PropertyResponse> getPropertyResponses(Collection<String> propertyIds);
+
+    // ✅ Listes publiques : projection de la table property_card
+    Page<PropertyCardView> getAllValidatedProperties(Pageable pageable);
 
     // ✅ NOUVEAU: Récupérer properties par status
     Page<PropertyDto> getAllByStatus(PropertyStatus status, Pageable pageable);
 
     // ========== SEARCH ==========
-    Page<PropertyDto> searchProperties(String city, String type, BigDecimal minPrice,
-                                       BigDecimal maxPrice, Integer nbOfGuests, Pageable pageable);
+    Page<PropertyCardView> searchProperties(String city, String type, BigDecimal minPrice,
+                                            BigDecimal maxPrice, Integer nbOfGuests, Pageable pageable);
+
+    Page<PropertyCardView> findPropertiesNearby(Double latitude, Double longitude,
+                                                Double radius, Pageable pageable);
 
-    Page<PropertyDto> findPropertiesNearby(Double latitude, Double longitude,
-                                           Double radius, Pageable pageable);
+    // ✅ Mode slice : pageSize+1 lignes, pas de requête COUNT
+    Slice<PropertyCardView> getAllValidatedPropertiesSlice(Pageable pageable);
+
+    Slice<PropertyCardView> searchPropertiesSlice(String city, String type, BigDecimal minPrice,
+                                                  BigDecimal maxPrice, Integer nbOfGuests, Pageable pageable);
+
+    Slice<PropertyCardView> findPropertiesNearbySlice(Double latitude, Double longitude,
+                                                      Double radius, Pageable pageable);
 
     // ========== UPDATE ==========
     PropertyDto updateProperty(String propertyId, PropertyDto propertyDto, String ownerId);
@@ -71,6 +91,9 @@ public interface PropertyService {
 
     String getOwnerWalletAddress(String ownerId);
 
+    // ownerId seul (property_card), null si la property n'existe pas
+    String getPropertyOwnerId(String propertyId);
+
 
 
 
@@ -1,22 +1,58 @@
 package ma.fstt.listingservice.services.impl;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import ma.fstt.listingservice.requests.PresignImagesRequest;
+import ma.fstt.listingservice.responses.PresignedUploadResponse;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
-import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +61,11 @@ public class ImageStorageService {
 
     private final S3Client s3Client;
 
+    private final S3Presigner s3Presigner;
+
+    // Virtual threads (voir AsyncConfig)
+    private final ExecutorService imageUploadExecutor;
+
     // ✅ CRITICAL FIX: Changed from "aws.s3.bucket" to "aws.s3.bucket-name"
     @Value("${aws.s3.bucket-name}")
     private String bucketName;
@@ -32,44 +73,371 @@ public class ImageStorageService {
     @Value("${aws.s3.region}")
     private String region;
 
+    // Base publique des URLs pour un endpoint non-AWS (ex: http://localhost:9000/bucket), vide = AWS
+    @Value("${aws.s3.public-base-url:}")
+    private String publicBaseUrl;
+
+    // ✅ Uploads parallèles : nombre max d'images envoyées simultanément
+    @Value("${aws.s3.upload.max-concurrency:8}")
+    private int maxConcurrency;
+
+    // À partir de ce seuil : multipart upload (parts de part-size-mb, minimum S3 = 5 Mo).
+    // Doit rester sous max-file-size-mb (10 Mo, comme spring.servlet.multipart.max-file-size),
+    // sinon la branche multipart n'est jamais atteinte.
+    @Value("${aws.s3.upload.multipart-threshold-mb:5}")
+    private int multipartThresholdMb;
+
+    @Value("${aws.s3.upload.part-size-mb:5}")
+    private int partSizeMb;
+
+    // ✅ Upload direct : durée de validité des URLs présignées et limites (alignées sur le frontend)
+    @Value("${aws.s3.presign.ttl-minutes:10}")
+    private long presignTtlMinutes;
+
+    @Value("${aws.s3.upload.max-file-size-mb:10}")
+    private int maxFileSizeMb;
+
+    @Value("${aws.s3.upload.max-files:10}")
+    private int maxFilesPerRequest;
+
+    private static final int MB = 1024 * 1024;
+
+    // Taille minimale d'une part S3 (sauf la dernière)
+    private static final int MIN_PART_SIZE_MB = 5;
+
+    // Limite S3 par appel DeleteObjects
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", ".jpg",
+            "image/png", ".png",
+            "image/webp", ".webp");
+
+    private static final Set<String> ALLOWED_CONTENT_TYPES = EXTENSIONS.keySet();
+
+    // Nom généré par presignUploads : uuid + extension
+    private static final Pattern ORIGINAL_FILE_NAME = Pattern.compile("[0-9a-f\\-]{36}\\.(jpg|png|webp)");
+
+    @PostConstruct
+    void validateUploadLimits() {
+        if (multipartThresholdMb > maxFileSizeMb) {
+            throw new IllegalStateException("aws.s3.upload.multipart-threshold-mb (" + multipartThresholdMb
+                    + ") must not exceed aws.s3.upload.max-file-size-mb (" + maxFileSizeMb + ")");
+        }
+        if (partSizeMb < MIN_PART_SIZE_MB) {
+            throw new IllegalStateException("aws.s3.upload.part-size-mb must be at least " + MIN_PART_SIZE_MB);
+        }
+    }
+
     /**
-     * Upload des images sur S3
-     * Retourne l'URL complete (ex: https://mon-bucket.s3.amazonaws.com/prop-123/image.jpg)
+     * Upload des images sur S3, en parallèle (virtual threads, concurrence bornée)
+     * Retourne l'URL complete (ex: https://mon-bucket.s3.amazonaws.com/prop-123/image.jpg), dans l'ordre d'entrée.
+     * En cas d'échec d'une image, les objets déjà envoyés sont supprimés (pas d'upload partiel).
      */
     public List<String> storeImages(String propertyId, List<MultipartFile> images) {
-        List<String> imageUrls = new ArrayList<>();
+        List<MultipartFile> toUpload = images.stream()
+                .filter(image -> !image.isEmpty())
+                .toList();
+        if (toUpload.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        for (MultipartFile image : images) {
-            if (image.isEmpty()) continue;
+        Semaphore permits = new Semaphore(maxConcurrency);
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        Queue<String> uploadedKeys = new ConcurrentLinkedQueue<>();
+        List<Future<String>> futures = new ArrayList<>(toUpload.size());
 
+        for (MultipartFile image : toUpload) {
             // 1. Generer un nom unique : propertyId/uuid.jpg
-            String filename = UUID.randomUUID().toString() + getExtension(image.getOriginalFilename());
-            String key = propertyId + "/" + filename;
+            String key = propertyId + "/" + UUID.randomUUID() + getExtension(image.getOriginalFilename());
 
-            try {
-                // 2. Upload vers S3
-                PutObjectRequest putOb = PutObjectRequest.builder()
+            futures.add(imageUploadExecutor.submit(() -> {
+                permits.acquire();
+                try {
+                    if (aborted.get()) {
+                        return null; // Une autre image a échoué : inutile d'envoyer celle-ci
+                    }
+                    // 2. Upload vers S3 (simple ou multipart selon la taille)
+                    uploadObject(key, image);
+                    uploadedKeys.add(key);
+                    return buildPublicUrl(key);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        // 3. Collecter les URLs ; au premier échec, annuler le reste et nettoyer
+        List<String> imageUrls = new ArrayList<>(futures.size());
+        try {
+            for (Future<String> future : futures) {
+                imageUrls.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            // Flag rétabli après le rollback : sinon future.get() y échouerait immédiatement
+            // et les uploads encore en vol ne seraient pas supprimés
+            rollbackUploads(futures, aborted, uploadedKeys);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Image upload interrupted", e);
+        } catch (ExecutionException e) {
+            log.error("❌ Failed to upload image to S3 for property {}", propertyId, e.getCause());
+            rollbackUploads(futures, aborted, uploadedKeys);
+            throw new RuntimeException("Failed to upload image to S3", e.getCause());
+        }
+
+        log.info("✅ {} images uploaded to S3 for property {}", imageUrls.size(), propertyId);
+        return imageUrls;
+    }
+
+    /**
+     * PUT simple sous le seuil, multipart à partir du seuil (mémoire bornée à une part par upload)
+     */
+    private void uploadObject(String key, MultipartFile image) throws IOException {
+        if (image.getSize() < multipartThresholdMb * MB) {
+            PutObjectRequest putOb = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentType(image.getContentType())
+                    // .acl(ObjectCannedACL.PUBLIC_READ) // Decommenter si le bucket n'est pas public par defaut
+                    .build();
+
+            try (InputStream in = image.getInputStream()) {
+                s3Client.putObject(putOb, RequestBody.fromInputStream(in, image.getSize()));
+            }
+            return;
+        }
+
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
                         .bucket(bucketName)
                         .key(key)
                         .contentType(image.getContentType())
-                        // .acl(ObjectCannedACL.PUBLIC_READ) // Decommenter si le bucket n'est pas public par defaut
-                        .build();
+                        .build())
+                .uploadId();
+
+        try (InputStream in = image.getInputStream()) {
+            int partSize = partSizeMb * MB;
+            byte[] buffer = new byte[partSize];
+            List<CompletedPart> parts = new ArrayList<>();
+            int partNumber = 1;
+            int read;
 
-                s3Client.putObject(putOb, RequestBody.fromInputStream(image.getInputStream(), image.getSize()));
+            while ((read = in.readNBytes(buffer, 0, partSize)) > 0) {
+                UploadPartResponse partResponse = s3Client.uploadPart(UploadPartRequest.builder()
+                                .bucket(bucketName)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) read)
+                                .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, read), read));
 
-                // 3. Construire l'URL publique
-                // Format: https://{bucket}.s3.{region}.amazonaws.com/{key}
-                String fileUrl = String.format("https://%s.s3.%s.amazonaws.com/%s", bucketName, region, key);
-                imageUrls.add(fileUrl);
+                parts.add(CompletedPart.builder()
+                        .partNumber(partNumber)
+                        .eTag(partResponse.eTag())
+                        .build());
+                partNumber++;
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
 
-                log.info("✅ Image uploaded to S3: {}", fileUrl);
+            log.info("📦 Multipart upload completed: {} ({} parts)", key, parts.size());
+        } catch (IOException | RuntimeException e) {
+            // Sinon les parts déjà envoyées restent facturées dans le bucket
+            abortMultipartUpload(key, uploadId);
+            throw e;
+        }
+    }
 
-            } catch (IOException e) {
-                log.error("❌ Failed to upload image to S3", e);
-                throw new RuntimeException("Failed to upload image to S3", e);
+    private void abortMultipartUpload(String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (Exception e) {
+            log.error("❌ Failed to abort multipart upload {} for {}", uploadId, key, e);
+        }
+    }
+
+    /**
+     * Attendre la fin des uploads en vol puis supprimer tout ce qui a été envoyé.
+     * L'attente ignore les interruptions : une clé ajoutée après le DeleteObjects resterait orpheline.
+     */
+    private void rollbackUploads(List<Future<String>> futures, AtomicBoolean aborted, Queue<String> uploadedKeys) {
+        aborted.set(true);
+        boolean interrupted = Thread.interrupted();
+        for (Future<String> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (Exception ignored) {
+                    // Déjà journalisé / sans importance pour le nettoyage
+                    break;
+                }
             }
         }
-        return imageUrls;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (uploadedKeys.isEmpty()) {
+            return;
+        }
+        try {
+            List<ObjectIdentifier> objects = uploadedKeys.stream()
+                    .map(key -> ObjectIdentifier.builder().key(key).build())
+                    .toList();
+            s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                    .bucket(bucketName)
+                    .delete(Delete.builder().objects(objects).quiet(true).build())
+                    .build());
+            log.info("🧹 Rolled back {} partial uploads", objects.size());
+        } catch (Exception e) {
+            log.error("❌ Failed to clean up partial uploads: {}", uploadedKeys, e);
+        }
+    }
+
+    /**
+     * Format: https://{bucket}.s3.{region}.amazonaws.com/{key}, ou aws.s3.public-base-url/{key} (MinIO...)
+     */
+    private String buildPublicUrl(String key) {
+        if (publicBaseUrl != null && !publicBaseUrl.isBlank()) {
+            return publicBaseUrl + "/" + key;
+        }
+        return String.format("https://%s.s3.%s.amazonaws.com/%s", bucketName, region, key);
+    }
+
+    // ========== UPLOAD DIRECT (URLs PRÉSIGNÉES) ==========
+
+    /**
+     * Génère une URL PUT présignée par image. Type et taille sont signés :
+     * S3 rejette un envoi qui ne correspond pas à ce qui a été annoncé.
+     */
+    public List<PresignedUploadResponse> presignUploads(String propertyId, List<PresignImagesRequest.FileInfo> files) {
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("No images provided");
+        }
+        if (files.size() > maxFilesPerRequest) {
+            throw new IllegalArgumentException("Maximum " + maxFilesPerRequest + " images per upload");
+        }
+
+        Duration ttl = Duration.ofMinutes(presignTtlMinutes);
+        List<PresignedUploadResponse> uploads = new ArrayList<>(files.size());
+
+        for (PresignImagesRequest.FileInfo file : files) {
+            validateImageMetadata(file.getContentType(), file.getSize());
+
+            // Extension dérivée du type signé (pas du nom fourni par le client)
+            String key = propertyId + "/" + UUID.randomUUID() + EXTENSIONS.get(file.getContentType().toLowerCase());
+            PresignedPutObjectRequest presigned = s3Presigner.presignPutObject(PutObjectPresignRequest.builder()
+                    .signatureDuration(ttl)
+                    .putObjectRequest(PutObjectRequest.builder()
+                            .bucket(bucketName)
+                            .key(key)
+                            .contentType(file.getContentType())
+                            .contentLength(file.getSize())
+                            .build())
+                    .build());
+
+            Map<String, String> headers = new HashMap<>();
+            presigned.signedHeaders().forEach((name, values) -> {
+                if (!"host".equalsIgnoreCase(name)) {
+                    headers.put(name, String.join(",", values));
+                }
+            });
+
+            uploads.add(PresignedUploadResponse.builder()
+                    .key(key)
+                    .uploadUrl(presigned.url().toString())
+                    .publicUrl(buildPublicUrl(key))
+                    .headers(headers)
+                    .expiresAt(presigned.expiration())
+                    .build());
+        }
+
+        log.info("🔏 Issued {} presigned upload URLs for property {}", uploads.size(), propertyId);
+        return uploads;
+    }
+
+    /**
+     * Vérifie (HEAD, sans lire le contenu) que les clés annoncées existent bien dans le
+     * dossier de la property et respectent les limites, puis retourne leurs URLs publiques.
+     */
+    public List<String> verifyUploadedImages(String propertyId, List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            throw new IllegalArgumentException("No images provided");
+        }
+        if (keys.size() > maxFilesPerRequest) {
+            throw new IllegalArgumentException("Maximum " + maxFilesPerRequest + " images per upload");
+        }
+
+        List<String> urls = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            // Uniquement des originaux de CETTE property (pas de variantes, pas d'autre dossier)
+            if (key == null || !key.startsWith(propertyId + "/")
+                    || !ORIGINAL_FILE_NAME.matcher(key.substring(propertyId.length() + 1)).matches()) {
+                throw new IllegalArgumentException("Invalid image key: " + key);
+            }
+            try {
+                HeadObjectResponse head = s3Client.headObject(HeadObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .build());
+                validateImageMetadata(head.contentType(), head.contentLength());
+            } catch (NoSuchKeyException e) {
+                throw new IllegalArgumentException("Uploaded image not found: " + key);
+            } catch (S3Exception e) {
+                if (e.statusCode() == 404) {
+                    throw new IllegalArgumentException("Uploaded image not found: " + key);
+                }
+                throw e;
+            }
+            urls.add(buildPublicUrl(key));
+        }
+        return urls;
+    }
+
+    private void validateImageMetadata(String contentType, Long size) {
+        if (contentType == null || !ALLOWED_CONTENT_TYPES.contains(contentType.toLowerCase())) {
+            throw new IllegalArgumentException("Only JPEG, PNG, and WebP images are allowed");
+        }
+        if (size == null || size <= 0 || size > (long) maxFileSizeMb * MB) {
+            throw new IllegalArgumentException("Maximum file size is " + maxFileSizeMb + "MB");
+        }
+    }
+
+    /**
+     * Lit un objet S3 (URL publique ou clé) en mémoire
+     */
+    public byte[] readObject(String imageUrl) {
+        GetObjectRequest getReq = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(extractKeyFromUrl(imageUrl))
+                .build();
+        return s3Client.getObjectAsBytes(getReq).asByteArray();
+    }
+
+    /**
+     * Écrit un objet déjà en mémoire (variantes générées) et retourne son URL publique
+     */
+    public String storeBytes(String key, byte[] data, String contentType) {
+        PutObjectRequest putOb = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .cacheControl("public, max-age=31536000, immutable") // clé unique : contenu jamais modifié
+                .build();
+        s3Client.putObject(putOb, RequestBody.fromBytes(data));
+        return buildPublicUrl(key);
     }
 
     /**
@@ -90,30 +458,69 @@ public class ImageStorageService {
     }
 
     /**
-     * Supprime toutes les images d'une propriete (Dossier S3)
+     * Supprime une liste d'images (URLs publiques) par lots DeleteObjects.
+     * Contrairement à deleteImage, lève une exception en cas d'échec (retry par l'appelant).
      */
-    public void deleteAllPropertyImages(String propertyId) {
+    public void deleteImages(List<String> imageUrls) {
+        List<ObjectIdentifier> batch = new ArrayList<>(Math.min(imageUrls.size(), DELETE_BATCH_SIZE));
+        for (String imageUrl : imageUrls) {
+            batch.add(ObjectIdentifier.builder().key(extractKeyFromUrl(imageUrl)).build());
+            if (batch.size() == DELETE_BATCH_SIZE) {
+                deleteBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            deleteBatch(batch);
+        }
+        log.info("🗑️ Deleted {} images from S3", imageUrls.size());
+    }
+
+    /**
+     * Supprime toutes les images d'une propriete (Dossier S3) : originaux + variantes
+     * Listing paginé (toutes les pages) et suppression par lots DeleteObjects de 1000 clés.
+     * Lève une exception en cas d'échec (partiel ou total) pour permettre le retry par l'appelant.
+     *
+     * @return nombre d'objets supprimés
+     */
+    public int deleteAllPropertyImages(String propertyId) {
         // S3 n'a pas de vrais "dossiers", on liste tous les objets qui commencent par "propertyId/"
-        try {
-            ListObjectsV2Request listReq = ListObjectsV2Request.builder()
-                    .bucket(bucketName)
-                    .prefix(propertyId + "/")
-                    .build();
+        ListObjectsV2Request listReq = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(propertyId + "/")
+                .build();
 
-            ListObjectsV2Response listRes = s3Client.listObjectsV2(listReq);
+        List<ObjectIdentifier> batch = new ArrayList<>(DELETE_BATCH_SIZE);
+        int deleted = 0;
 
-            for (S3Object s3Object : listRes.contents()) {
-                DeleteObjectRequest deleteReq = DeleteObjectRequest.builder()
-                        .bucket(bucketName)
-                        .key(s3Object.key())
-                        .build();
-                s3Client.deleteObject(deleteReq);
+        for (S3Object s3Object : s3Client.listObjectsV2Paginator(listReq).contents()) {
+            batch.add(ObjectIdentifier.builder().key(s3Object.key()).build());
+            if (batch.size() == DELETE_BATCH_SIZE) {
+                deleted += deleteBatch(batch);
+                batch.clear();
             }
-            log.info("🗑️ Deleted all images for property: {}", propertyId);
+        }
+        if (!batch.isEmpty()) {
+            deleted += deleteBatch(batch);
+        }
 
-        } catch (Exception e) {
-            log.error("❌ Error cleaning property folder on S3: {}", propertyId, e);
+        log.info("🗑️ Deleted {} objects for property: {}", deleted, propertyId);
+        return deleted;
+    }
+
+    private int deleteBatch(List<ObjectIdentifier> batch) {
+        DeleteObjectsResponse response = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                .bucket(bucketName)
+                .delete(Delete.builder().objects(batch).quiet(true).build())
+                .build());
+
+        // En mode quiet, S3 ne renvoie que les échecs
+        if (response.hasErrors() && !response.errors().isEmpty()) {
+            S3Error first = response.errors().get(0);
+            throw new RuntimeException(String.format("Failed to delete %d/%d objects (first: %s %s)",
+                    response.errors().size(), batch.size(), first.key(), first.code()));
         }
+        return batch.size();
     }
 
     // --- Utilitaires ---
@@ -127,6 +534,9 @@ public class ImageStorageService {
     private String extractKeyFromUrl(String url) {
         // Si l'URL est complete, on extrait juste la cle (partie apres le domaine)
         // Ex: https://bucket...com/prop-1/img.jpg -> prop-1/img.jpg
+        if (publicBaseUrl != null && !publicBaseUrl.isBlank() && url.startsWith(publicBaseUrl + "/")) {
+            return url.substring(publicBaseUrl.length() + 1);
+        }
         if (url.contains(".amazonaws.com/")) {
             return url.substring(url.indexOf(".amazonaws.com/") + 15);
         }
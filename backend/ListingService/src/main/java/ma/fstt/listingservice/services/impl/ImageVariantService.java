@@ -0,0 +1,260 @@
+package ma.fstt.listingservice.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.fstt.listingservice.entities.PropertyEntity;
+import ma.fstt.listingservice.entities.PropertyImageVariant;
+import ma.fstt.listingservice.events.PropertyChangedEvent;
+import ma.fstt.listingservice.events.PropertyImagesUploadedEvent;
+import ma.fstt.listingservice.repositories.PropertyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * ✅ Pipeline d'images : génère les variantes thumb / card / full de chaque original
+ *
+ * - Déclenché APRÈS COMMIT de l'ajout d'images, exécuté sur un pool borné : l'upload rend la main tout de suite
+ * - Dimensions lues dans l'en-tête avant décodage : au-delà de listing.images.max-pixels l'image est refusée
+ *   (un PNG de quelques Ko peut annoncer 50000x50000 pixels et saturer le heap une fois décodé)
+ * - Original relu depuis S3, redimensionné (jamais agrandi), ré-encodé en JPEG (ImageIO n'a pas d'encodeur
+ *   WebP / AVIF). Le ré-encodage ne recopie aucune métadonnée : EXIF (GPS...) supprimé.
+ * - Variantes enregistrées sur PropertyEntity, ligne verrouillée le temps de la mise à jour
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageVariantService {
+
+    static final int THUMB_WIDTH = 320;
+    static final int CARD_WIDTH = 640;
+    static final int FULL_WIDTH = 1600;
+
+    private static final float QUALITY = 0.8f;
+
+    static final String FORMAT = "jpeg";
+    private static final String CONTENT_TYPE = "image/jpeg";
+    private static final String EXTENSION = ".jpg";
+
+    private final ImageStorageService imageStorageService;
+    private final PropertyRepository propertyRepository;
+    private final PropertyCardService propertyCardService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Pool borné (voir AsyncConfig)
+    private final ExecutorService imageProcessingExecutor;
+
+    // 40 MP par défaut (~160 Mo en ARGB une fois décodé)
+    @Value("${listing.images.max-pixels:40000000}")
+    private long maxPixels;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onImagesUploaded(PropertyImagesUploadedEvent event) {
+        for (String imageUrl : event.getImageUrls()) {
+            try {
+                imageProcessingExecutor.execute(() -> processImage(event.getPropertyId(), imageUrl));
+            } catch (RejectedExecutionException e) {
+                // File pleine : l'original reste affiché, pas de variante pour cette image
+                log.warn("⚠️ Image processing queue full, skipping variants for {}", imageUrl);
+            }
+        }
+    }
+
+    /**
+     * Supprime les fichiers S3 d'une variante (l'original est géré par l'appelant)
+     */
+    public void deleteVariantFiles(PropertyImageVariant variant) {
+        imageStorageService.deleteImage(variant.getThumbUrl());
+        imageStorageService.deleteImage(variant.getCardUrl());
+        imageStorageService.deleteImage(variant.getFullUrl());
+    }
+
+    private void processImage(String propertyId, String imageUrl) {
+        long start = System.currentTimeMillis();
+        try {
+            BufferedImage original = decode(imageStorageService.readObject(imageUrl), maxPixels);
+            if (original == null) {
+                log.warn("⚠️ Unsupported image format, no variants for {}", imageUrl);
+                return;
+            }
+
+            String baseKey = propertyId + "/variants/" + UUID.randomUUID();
+
+            String thumbUrl = imageStorageService.storeBytes(baseKey + "-thumb" + EXTENSION,
+                    encode(resizeToWidth(original, THUMB_WIDTH)), CONTENT_TYPE);
+            String cardUrl = imageStorageService.storeBytes(baseKey + "-card" + EXTENSION,
+                    encode(resizeToWidth(original, CARD_WIDTH)), CONTENT_TYPE);
+            String fullUrl = imageStorageService.storeBytes(baseKey + "-full" + EXTENSION,
+                    encode(resizeToWidth(original, FULL_WIDTH)), CONTENT_TYPE);
+
+            PropertyImageVariant variant = new PropertyImageVariant(imageUrl, thumbUrl, cardUrl, fullUrl, FORMAT);
+            if (!attachVariant(propertyId, variant)) {
+                // Image (ou property) supprimée pendant le traitement : ne pas laisser d'orphelins
+                deleteVariantFiles(variant);
+                return;
+            }
+
+            log.info("🖼️ Variants generated for {} ({} ms)", imageUrl, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("❌ Failed to generate variants for {}: {}", imageUrl, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Décode l'image après avoir vérifié ses dimensions dans l'en-tête (sans décompresser les pixels)
+     *
+     * @return null si aucun lecteur ImageIO ne reconnaît le format
+     * @throws IOException si l'image dépasse maxPixels ou est illisible
+     */
+    static BufferedImage decode(byte[] bytes, long maxPixels) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IOException("Image too large: " + width + "x" + height + " (max " + maxPixels + " pixels)");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Enregistre la variante ; plusieurs images d'une même property sont traitées en parallèle,
+     * d'où la lecture FOR UPDATE.
+     */
+    private boolean attachVariant(String propertyId, PropertyImageVariant variant) {
+        Boolean attached = transactionTemplate.execute(status -> {
+            PropertyEntity property = propertyRepository.findForUpdateByPropertyId(propertyId);
+            if (property == null || !property.getImageFolderPath().contains(variant.getOriginalUrl())) {
+                return false;
+            }
+            property.getImageVariants().removeIf(v -> v.getOriginalUrl().equals(variant.getOriginalUrl()));
+            property.getImageVariants().add(variant);
+            propertyRepository.save(property);
+            propertyCardService.sync(property);
+
+            eventPublisher.publishEvent(
+                    new PropertyChangedEvent(propertyId, PropertyChangedEvent.ChangeType.IMAGES_CHANGED));
+            return true;
+        });
+        return Boolean.TRUE.equals(attached);
+    }
+
+    // ========== TRAITEMENT IMAGE ==========
+
+    /**
+     * Redimensionne à la largeur cible (ratio conservé, jamais d'agrandissement).
+     * Réductions successives par 2 puis passe finale bilinéaire : qualité proche du bicubique, bien plus rapide.
+     */
+    static BufferedImage resizeToWidth(BufferedImage source, int maxWidth) {
+        int targetWidth = Math.min(maxWidth, source.getWidth());
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * (targetWidth / (double) source.getWidth())));
+
+        BufferedImage current = toRgb(source);
+        int width = current.getWidth();
+        int height = current.getHeight();
+
+        while (width / 2 >= targetWidth) {
+            width /= 2;
+            height = Math.max(1, height / 2);
+            current = draw(current, width, height);
+        }
+        if (width != targetWidth || height != targetHeight) {
+            current = draw(current, targetWidth, targetHeight);
+        }
+        return current;
+    }
+
+    /**
+     * JPEG ne gère pas la transparence : aplatissement sur fond blanc
+     */
+    private static BufferedImage toRgb(BufferedImage source) {
+        if (source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, source.getWidth(), source.getHeight());
+            g.drawImage(source, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = resized.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return resized;
+    }
+
+    /**
+     * Encode en JPEG sans métadonnées (ImageWriter neuf par appel : non thread-safe)
+     */
+    static byte[] encode(BufferedImage image) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(CONTENT_TYPE);
+        if (!writers.hasNext()) {
+            throw new IOException("No ImageIO writer for " + CONTENT_TYPE);
+        }
+        ImageWriter writer = writers.next();
+
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if (param.canWriteCompressed()) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            if (param.getCompressionTypes() != null && param.getCompressionType() == null) {
+                param.setCompressionType(param.getCompressionTypes()[0]);
+            }
+            param.setCompressionQuality(QUALITY);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
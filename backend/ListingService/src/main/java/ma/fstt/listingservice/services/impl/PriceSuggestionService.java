@@ -0,0 +1,135 @@
+package ma.fstt.listingservice.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import ma.fstt.listingservice.entities.PropertyStatus;
+import ma.fstt.listingservice.pricing.PriceSuggestionModel;
+import ma.fstt.listingservice.repositories.PropertyCardRepository;
+import ma.fstt.listingservice.repositories.projections.PropertyCardView;
+import ma.fstt.listingservice.requests.PriceSuggestionRequest;
+import ma.fstt.listingservice.responses.PriceSuggestionResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ✅ Suggestion de prix en process (remplace l'appel HTTP au service Python price-detector)
+ *
+ * Le modèle exporté (price-detector-main/export_model.py) est chargé une fois au démarrage ;
+ * s'il est absent, la fonctionnalité est désactivée (503) sans empêcher le service de démarrer.
+ */
+@Service
+public class PriceSuggestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceSuggestionService.class);
+
+    private static final BigDecimal YIELD_FACTOR = new BigDecimal("1.15");
+
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+    private final PropertyCardRepository propertyCardRepository;
+
+    @Value("${listing.price-suggestion.model-location:classpath:models/price_model.json}")
+    private String modelLocation;
+
+    @Value("${listing.price-suggestion.batch.max-items:500}")
+    private int maxBatchItems;
+
+    private volatile PriceSuggestionModel model;
+
+    public PriceSuggestionService(ResourceLoader resourceLoader,
+                                  ObjectMapper objectMapper,
+                                  PropertyCardRepository propertyCardRepository) {
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+        this.propertyCardRepository = propertyCardRepository;
+    }
+
+    @PostConstruct
+    void loadModel() {
+        Resource resource = resourceLoader.getResource(modelLocation);
+        if (!resource.exists()) {
+            log.warn("⚠️ Price model not found at {}: price suggestions disabled", modelLocation);
+            return;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            model = PriceSuggestionModel.fromJson(objectMapper.readTree(in));
+            log.info("✅ Price model loaded from {}: {} trees", modelLocation, model.getTreeCount());
+        } catch (Exception e) {
+            log.error("❌ Failed to load price model from {}: {}", modelLocation, e.getMessage(), e);
+        }
+    }
+
+    public boolean isAvailable() {
+        return model != null;
+    }
+
+    public PriceSuggestionResponse suggest(PriceSuggestionRequest request) {
+        double prediction = requireModel().predict(
+                toDouble(request.getNbOfGuests()), toDouble(request.getNbOfBedrooms()),
+                toDouble(request.getNbOfBeds()), toDouble(request.getNbOfBathrooms()),
+                request.getCountry(), request.getCity(), request.getType());
+        return toResponse(prediction).build();
+    }
+
+    public List<PriceSuggestionResponse> suggestAll(List<PriceSuggestionRequest> requests) {
+        if (requests.size() > maxBatchItems) {
+            throw new IllegalArgumentException("Too many items (max " + maxBatchItems + ")");
+        }
+        List<PriceSuggestionResponse> responses = new ArrayList<>(requests.size());
+        for (PriceSuggestionRequest request : requests) {
+            responses.add(suggest(request));
+        }
+        return responses;
+    }
+
+    /**
+     * Portefeuille d'un owner (hors DELETED), lu depuis property_card
+     */
+    public List<PriceSuggestionResponse> suggestForOwner(String ownerId) {
+        PriceSuggestionModel current = requireModel();
+        List<PropertyCardView> cards = propertyCardRepository.findByOwnerIdAndStatusNot(ownerId, PropertyStatus.DELETED);
+
+        List<PriceSuggestionResponse> responses = new ArrayList<>(cards.size());
+        for (PropertyCardView card : cards) {
+            double prediction = current.predict(
+                    toDouble(card.getNbOfGuests()), toDouble(card.getNbOfBedrooms()),
+                    toDouble(card.getNbOfBeds()), toDouble(card.getNbOfBathrooms()),
+                    card.getCountry(), card.getCity(), card.getType() == null ? null : card.getType().toLowerCase());
+            responses.add(toResponse(prediction)
+                    .propertyId(card.getPropertyId())
+                    .currentPrice(card.getPricePerNight())
+                    .build());
+        }
+        return responses;
+    }
+
+    private PriceSuggestionModel requireModel() {
+        PriceSuggestionModel current = model;
+        if (current == null) {
+            throw new IllegalStateException("Price suggestion model is not loaded");
+        }
+        return current;
+    }
+
+    // Arrondi à 2 décimales comme round(x, 2) côté Python
+    private PriceSuggestionResponse.PriceSuggestionResponseBuilder toResponse(double prediction) {
+        BigDecimal suggested = BigDecimal.valueOf(prediction);
+        return PriceSuggestionResponse.builder()
+                .suggestedPrice(suggested.setScale(2, RoundingMode.HALF_EVEN))
+                .yieldOptimized15(suggested.multiply(YIELD_FACTOR).setScale(2, RoundingMode.HALF_EVEN));
+    }
+
+    private static double toDouble(Number value) {
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+}
@@ -0,0 +1,366 @@
+package ma.fstt.listingservice.services.impl;
+
+import ma.fstt.listingservice.cache.PriceCalendarCache;
+import ma.fstt.listingservice.dto.PriceRuleDto;
+import ma.fstt.listingservice.entities.PriceRule;
+import ma.fstt.listingservice.entities.PriceRuleType;
+import ma.fstt.listingservice.entities.PropertyEntity;
+import ma.fstt.listingservice.entities.PropertyStatus;
+import ma.fstt.listingservice.events.PropertyChangedEvent;
+import ma.fstt.listingservice.exceptions.BusinessException;
+import ma.fstt.listingservice.exceptions.UnauthorizedException;
+import ma.fstt.listingservice.pricing.PriceCalendar;
+import ma.fstt.listingservice.pricing.PriceCalendarCompiler;
+import ma.fstt.listingservice.repositories.PriceRuleRepository;
+import ma.fstt.listingservice.repositories.PropertyCardRepository;
+import ma.fstt.listingservice.repositories.PropertyRepository;
+import ma.fstt.listingservice.repositories.projections.PropertyCardView;
+import ma.fstt.listingservice.requests.PriceQuoteRequest;
+import ma.fstt.listingservice.responses.PriceCalendarResponse;
+import ma.fstt.listingservice.responses.PriceQuoteResponse;
+import ma.fstt.listingservice.services.PricingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * ✅ Tarification dynamique : règles → calendrier compilé → devis
+ *
+ * Le chemin du devis ne fait aucun accès DB tant que les calendriers sont en cache ;
+ * les calendriers manquants d'un lot sont compilés avec deux requêtes groupées
+ * (property_card pour le prix de base, price_rules pour les règles).
+ */
+@Service
+public class PricingServiceImpl implements PricingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PricingServiceImpl.class);
+
+    @Autowired
+    private PriceRuleRepository priceRuleRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertyCardRepository propertyCardRepository;
+
+    @Autowired
+    private PriceCalendarCache priceCalendarCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Fenêtre compilée à partir d'hier (décalage de fuseau des clients)
+    @Value("${listing.pricing.horizon-days:730}")
+    private int horizonDays;
+
+    @Value("${listing.pricing.quote.max-items:100}")
+    private int maxQuoteItems;
+
+    @Value("${listing.pricing.max-nights:365}")
+    private int maxNights;
+
+    @Value("${listing.pricing.max-rules:100}")
+    private int maxRules;
+
+    // Bornes des règles : base (NUMERIC(10,2)) × saison × week-end reste dans un long en centimes
+    @Value("${listing.pricing.max-multiplier:10}")
+    private BigDecimal maxMultiplier;
+
+    @Value("${listing.pricing.max-nightly-price:1000000}")
+    private BigDecimal maxNightlyPrice;
+
+    // ========== RÈGLES ==========
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PriceRuleDto> getRules(String propertyId) {
+        return priceRuleRepository.findByPropertyIdOrderByIdAsc(propertyId).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public List<PriceRuleDto> replaceRules(String propertyId, List<PriceRuleDto> rules, String userId) {
+        PropertyEntity property = propertyRepository.findByPropertyId(propertyId);
+        if (property == null) {
+            throw new RuntimeException("Property not found");
+        }
+        if (!property.getOwnerId().equals(userId)) {
+            throw new UnauthorizedException("You are not authorized to modify this property");
+        }
+
+        validateRules(rules);
+
+        priceRuleRepository.deleteByPropertyId(propertyId);
+        List<PriceRule> saved = priceRuleRepository.saveAll(rules.stream()
+                .map(dto -> convertToEntity(propertyId, dto))
+                .toList());
+
+        // Éviction du calendrier compilé après commit (local + autres replicas)
+        eventPublisher.publishEvent(new PropertyChangedEvent(propertyId, PropertyChangedEvent.ChangeType.PRICING_CHANGED));
+        log.info("✅ Price rules replaced for property {}: {} rules", propertyId, saved.size());
+
+        return saved.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    // ========== DEVIS ==========
+
+    @Override
+    public List<PriceQuoteResponse> quote(List<PriceQuoteRequest.Item> items) {
+        if (items == null || items.isEmpty()) {
+            return List.of();
+        }
+        if (items.size() > maxQuoteItems) {
+            throw new BusinessException("Too many quote items (max " + maxQuoteItems + ")", "TOO_MANY_ITEMS");
+        }
+
+        Set<String> propertyIds = new HashSet<>();
+        for (PriceQuoteRequest.Item item : items) {
+            if (validateStay(item) == null) {
+                propertyIds.add(item.getPropertyId());
+            }
+        }
+
+        LocalDate firstDay = LocalDate.now().minusDays(1);
+        Map<String, PriceCalendar> calendars = propertyIds.isEmpty()
+                ? Map.of()
+                : priceCalendarCache.getAll(propertyIds, ids -> compileCalendars(ids, firstDay, horizonDays));
+
+        List<PriceQuoteResponse> responses = new ArrayList<>(items.size());
+        for (PriceQuoteRequest.Item item : items) {
+            responses.add(quoteItem(item, calendars.get(item.getPropertyId())));
+        }
+        return responses;
+    }
+
+    @Override
+    public PriceCalendarResponse getCalendar(String propertyId, LocalDate from, LocalDate to) {
+        int nights = (int) ChronoUnit.DAYS.between(from, to);
+        if (nights <= 0 || nights > maxNights) {
+            throw new BusinessException("Invalid date range (1 to " + maxNights + " nights)", "INVALID_DATES");
+        }
+
+        PriceCalendar calendar = calendarFor(propertyId, from, nights);
+        if (calendar == null) {
+            throw new RuntimeException("Property not found");
+        }
+
+        List<BigDecimal> prices = new ArrayList<>(nights);
+        for (long cents : calendar.nightlyCents(from, nights)) {
+            prices.add(PriceCalendar.toAmount(cents));
+        }
+
+        return PriceCalendarResponse.builder()
+                .propertyId(propertyId)
+                .from(from)
+                .to(to)
+                .nightlyPrices(prices)
+                .build();
+    }
+
+    // ========== MÉTHODES PRIVÉES ==========
+
+    private PriceQuoteResponse quoteItem(PriceQuoteRequest.Item item, PriceCalendar calendar) {
+        PriceQuoteResponse.PriceQuoteResponseBuilder response = PriceQuoteResponse.builder()
+                .propertyId(item.getPropertyId())
+                .checkIn(item.getCheckIn())
+                .checkOut(item.getCheckOut());
+
+        String error = validateStay(item);
+        if (error != null) {
+            return response.error(error).build();
+        }
+        if (calendar == null) {
+            return response.error("Property not found").build();
+        }
+
+        int nights = (int) ChronoUnit.DAYS.between(item.getCheckIn(), item.getCheckOut());
+        if (!calendar.covers(item.getCheckIn(), nights)) {
+            // Séjour hors fenêtre compilée (passé ou lointain) : calendrier dédié, non mis en cache
+            calendar = calendarFor(item.getPropertyId(), item.getCheckIn(), nights);
+        }
+
+        PriceCalendar.Quote quote = calendar.quote(item.getCheckIn(), nights);
+        return response
+                .nights(nights)
+                .subtotal(PriceCalendar.toAmount(quote.subtotalCents()))
+                .discount(PriceCalendar.toAmount(quote.discountCents()))
+                .total(PriceCalendar.toAmount(quote.totalCents()))
+                .averageNightlyPrice(PriceCalendar.toAmount((quote.totalCents() + nights / 2) / nights))
+                .build();
+    }
+
+    /**
+     * Calendrier couvrant [from, from + nights) : cache si possible, sinon compilé à la demande
+     */
+    private PriceCalendar calendarFor(String propertyId, LocalDate from, int nights) {
+        LocalDate firstDay = LocalDate.now().minusDays(1);
+        PriceCalendar calendar = priceCalendarCache
+                .getAll(Set.of(propertyId), ids -> compileCalendars(ids, firstDay, horizonDays))
+                .get(propertyId);
+        if (calendar == null || calendar.covers(from, nights)) {
+            return calendar;
+        }
+        return compileCalendars(Set.of(propertyId), from, nights).get(propertyId);
+    }
+
+    private Map<String, PriceCalendar> compileCalendars(Set<? extends String> propertyIds, LocalDate firstDay, int days) {
+        Map<String, List<PriceRule>> rulesByProperty = priceRuleRepository.findByPropertyIdIn(Set.copyOf(propertyIds))
+                .stream()
+                .collect(Collectors.groupingBy(PriceRule::getPropertyId));
+
+        Map<String, PriceCalendar> calendars = new HashMap<>();
+        for (PropertyCardView card : propertyCardRepository.findByPropertyIdIn(Set.copyOf(propertyIds))) {
+            // ✅ Comme la lecture publique : une property non ACTIVE n'est pas tarifée ("Property not found").
+            // Un changement de statut publie STATUS_CHANGED / DELETED, qui évince le calendrier en cache.
+            if (card.getStatus() != PropertyStatus.ACTIVE) {
+                continue;
+            }
+            List<PriceRule> rules = rulesByProperty.getOrDefault(card.getPropertyId(), List.of());
+            calendars.put(card.getPropertyId(),
+                    PriceCalendarCompiler.compile(card.getPricePerNight(), rules, firstDay, days));
+        }
+        return calendars;
+    }
+
+    private String validateStay(PriceQuoteRequest.Item item) {
+        if (item.getPropertyId() == null || item.getCheckIn() == null || item.getCheckOut() == null) {
+            return "propertyId, checkIn and checkOut are required";
+        }
+        long nights = ChronoUnit.DAYS.between(item.getCheckIn(), item.getCheckOut());
+        if (nights <= 0) {
+            return "checkOut must be after checkIn";
+        }
+        if (nights > maxNights) {
+            return "Stay exceeds " + maxNights + " nights";
+        }
+        return null;
+    }
+
+    private void validateRules(List<PriceRuleDto> rules) {
+        if (rules.size() > maxRules) {
+            throw invalidRule("Too many price rules (max " + maxRules + ")");
+        }
+
+        Set<Integer> tiers = new HashSet<>();
+        int weekendRules = 0;
+        for (PriceRuleDto rule : rules) {
+            if (rule.getType() == null) {
+                throw invalidRule("Price rule type is required");
+            }
+            switch (rule.getType()) {
+                case SEASON -> {
+                    requireDateRange(rule);
+                    requireInRange(rule.getMultiplier(), "multiplier", maxMultiplier, 4);
+                }
+                case WEEKEND -> {
+                    requireInRange(rule.getMultiplier(), "multiplier", maxMultiplier, 4);
+                    if (rule.getDaysOfWeek() != null && rule.getDaysOfWeek().isEmpty()) {
+                        throw invalidRule("WEEKEND rule needs at least one day of week");
+                    }
+                    weekendRules++;
+                }
+                case LENGTH_OF_STAY -> {
+                    if (rule.getMinNights() == null || rule.getMinNights() < 2) {
+                        throw invalidRule("LENGTH_OF_STAY rule needs minNights >= 2");
+                    }
+                    if (rule.getDiscountPercent() == null
+                            || rule.getDiscountPercent().signum() <= 0
+                            || rule.getDiscountPercent().compareTo(BigDecimal.valueOf(100)) >= 0
+                            || rule.getDiscountPercent().stripTrailingZeros().scale() > 2) {
+                        throw invalidRule("LENGTH_OF_STAY discountPercent must be between 0 and 100 (2 decimals max)");
+                    }
+                    if (!tiers.add(rule.getMinNights())) {
+                        throw invalidRule("Duplicate LENGTH_OF_STAY tier for " + rule.getMinNights() + " nights");
+                    }
+                }
+                case DATE_OVERRIDE -> {
+                    requireDateRange(rule);
+                    requireInRange(rule.getPrice(), "price", maxNightlyPrice, 2);
+                }
+            }
+        }
+        if (weekendRules > 1) {
+            throw invalidRule("Only one WEEKEND rule is allowed");
+        }
+    }
+
+    private void requireDateRange(PriceRuleDto rule) {
+        if (rule.getStartDate() == null || rule.getEndDate() == null
+                || rule.getEndDate().isBefore(rule.getStartDate())) {
+            throw invalidRule(rule.getType() + " rule needs startDate <= endDate");
+        }
+    }
+
+    /**
+     * Strictement positif, au plus max, au plus maxScale décimales (échelle de la colonne)
+     */
+    private void requireInRange(BigDecimal value, String field, BigDecimal max, int maxScale) {
+        if (value == null || value.signum() <= 0) {
+            throw invalidRule(field + " must be positive");
+        }
+        if (value.compareTo(max) > 0) {
+            throw invalidRule(field + " must not exceed " + max.toPlainString());
+        }
+        if (value.stripTrailingZeros().scale() > maxScale) {
+            throw invalidRule(field + " must have at most " + maxScale + " decimals");
+        }
+    }
+
+    private BusinessException invalidRule(String message) {
+        return new BusinessException(message, "INVALID_PRICE_RULE");
+    }
+
+    private PriceRule convertToEntity(String propertyId, PriceRuleDto dto) {
+        PriceRule rule = new PriceRule();
+        rule.setPropertyId(propertyId);
+        rule.setType(dto.getType());
+        rule.setStartDate(dto.getStartDate());
+        rule.setEndDate(dto.getEndDate());
+        rule.setMultiplier(dto.getMultiplier());
+        rule.setPrice(dto.getPrice());
+        rule.setMinNights(dto.getMinNights());
+        rule.setDiscountPercent(dto.getDiscountPercent());
+        rule.setPriority(dto.getPriority());
+        if (dto.getType() == PriceRuleType.WEEKEND) {
+            rule.setDaysOfWeekMask(dto.getDaysOfWeek() == null
+                    ? PriceCalendarCompiler.DEFAULT_WEEKEND_MASK
+                    : PriceCalendarCompiler.toMask(dto.getDaysOfWeek()));
+        }
+        return rule;
+    }
+
+    private PriceRuleDto convertToDto(PriceRule rule) {
+        return PriceRuleDto.builder()
+                .id(rule.getId())
+                .type(rule.getType())
+                .startDate(rule.getStartDate())
+                .endDate(rule.getEndDate())
+                .multiplier(rule.getMultiplier())
+                .price(rule.getPrice())
+                .minNights(rule.getMinNights())
+                .discountPercent(rule.getDiscountPercent())
+                .daysOfWeek(rule.getDaysOfWeekMask() == null ? null : PriceCalendarCompiler.fromMask(rule.getDaysOfWeekMask()))
+                .priority(rule.getPriority())
+                .build();
+    }
+}
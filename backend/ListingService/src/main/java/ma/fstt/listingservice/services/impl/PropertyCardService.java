@@ -0,0 +1,141 @@
+package ma.fstt.listingservice.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.fstt.listingservice.entities.PropertyCard;
+import ma.fstt.listingservice.entities.PropertyEntity;
+import ma.fstt.listingservice.repositories.PropertyCardRepository;
+import ma.fstt.listingservice.repositories.PropertyRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * ✅ Synchronisation de la table property_card (modèle de lecture des listes)
+ *
+ * - sync() est appelé dans la transaction de chaque écriture : carte et property
+ *   sont commitées (ou annulées) ensemble.
+ * - Au démarrage, un seul replica (verrou consultatif PostgreSQL) crée l'index couvrant de la liste
+ *   et reconstruit les cartes manquantes (première mise en service, restauration de base).
+ *   Un échec est journalisé sans bloquer le démarrage : les cartes se recréent aussi à chaque écriture.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyCardService {
+
+    private static final int BACKFILL_PAGE_SIZE = 200;
+
+    // Clé arbitraire propre à ce job (pg_try_advisory_lock)
+    private static final long STARTUP_LOCK_KEY = 0x70726f7063617264L;
+
+    // Liste publique : WHERE status = ? ORDER BY created_at, colonnes de PropertyCardView incluses (index-only scan)
+    private static final String LIST_INDEX_DDL = "CREATE INDEX IF NOT EXISTS idx_property_card_list_covering " +
+            "ON property_card (status, created_at) INCLUDE (property_id, owner_id, title, type, city, country, " +
+            "latitude, longitude, price_per_night, nb_of_guests, nb_of_bedrooms, nb_of_beds, nb_of_bathrooms, " +
+            "cover_image_url, cover_thumb_url, cover_card_url, last_update_at)";
+
+    private final PropertyCardRepository propertyCardRepository;
+    private final PropertyRepository propertyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    public void sync(PropertyEntity property) {
+        PropertyCard card = propertyCardRepository.findById(property.getPropertyId())
+                .orElseGet(PropertyCard::new);
+        card.copyFrom(property);
+
+        // lastUpdateAt de l'entité n'est rafraîchi qu'au flush (@PreUpdate)
+        card.setLastUpdateAt(LocalDateTime.now());
+        if (card.getCreatedAt() == null) {
+            card.setCreatedAt(card.getLastUpdateAt());
+        }
+        propertyCardRepository.save(card);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            // Verrou de session : tenu sur cette connexion pendant que le job utilise les autres du pool
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                if (!tryLock(connection)) {
+                    log.info("🗂️ Property card startup job already running on another replica");
+                    return null;
+                }
+                try {
+                    jdbcTemplate.execute(LIST_INDEX_DDL);
+                    backfill();
+                } finally {
+                    unlock(connection);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("❌ Property card startup job failed: {}", e.getMessage(), e);
+        }
+    }
+
+    void backfill() {
+        long properties = propertyRepository.count();
+        long cards = propertyCardRepository.count();
+        if (cards >= properties) {
+            return;
+        }
+
+        log.info("🗂️ Rebuilding property cards ({} properties, {} cards)", properties, cards);
+        int rebuilt = 0;
+        int page = 0;
+        boolean hasNext;
+        do {
+            // Une transaction courte par page ; une page en échec (écriture concurrente) n'arrête pas les suivantes
+            PageRequest pageRequest = PageRequest.of(page++, BACKFILL_PAGE_SIZE, Sort.by("id"));
+            try {
+                Page<PropertyEntity> batch = transactionTemplate.execute(status -> {
+                    Page<PropertyEntity> result = propertyRepository.findAll(pageRequest);
+                    for (PropertyEntity property : result) {
+                        if (!propertyCardRepository.existsById(property.getPropertyId())) {
+                            PropertyCard card = new PropertyCard();
+                            card.copyFrom(property);
+                            propertyCardRepository.save(card);
+                        }
+                    }
+                    return result;
+                });
+                rebuilt += batch.getNumberOfElements();
+                hasNext = batch.hasNext();
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Property card backfill page {} failed: {}", pageRequest.getPageNumber(), e.getMessage());
+                hasNext = (long) page * BACKFILL_PAGE_SIZE < properties;
+            }
+        } while (hasNext);
+        log.info("✅ Property cards backfilled ({} properties checked)", rebuilt);
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, STARTUP_LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, STARTUP_LOCK_KEY);
+            statement.execute();
+        }
+    }
+}
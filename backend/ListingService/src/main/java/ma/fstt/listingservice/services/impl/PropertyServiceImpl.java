@@ -1,23 +1,40 @@
 package ma.fstt.listingservice.services.impl;
 
+import ma.fstt.listingservice.cache.OwnerWalletCache;
+import ma.fstt.listingservice.cache.OwnerWalletCache.OwnerWallet;
+import ma.fstt.listingservice.cache.SearchQueryKey;
+import ma.fstt.listingservice.cache.SearchResultCache;
+import ma.fstt.listingservice.cache.SearchResultCache.CachedSearch;
 import ma.fstt.listingservice.dto.CharacteristicDto;
 import ma.fstt.listingservice.dto.PropertyDto;
 import ma.fstt.listingservice.entities.Characteristic;
 import ma.fstt.listingservice.entities.Owner;
 import ma.fstt.listingservice.entities.PropertyEntity;
 import ma.fstt.listingservice.entities.PropertyStatus;
-import ma.fstt.listingservice.producer.RabbitMQProducer;
+import ma.fstt.listingservice.events.PropertyChangedEvent;
+import ma.fstt.listingservice.events.PropertyChangedEvent.ChangeType;
+import ma.fstt.listingservice.events.HostUpgradeEvent;
+import ma.fstt.listingservice.events.PropertyImagesRemovedEvent;
+import ma.fstt.listingservice.events.PropertyImagesUploadedEvent;
+import ma.fstt.listingservice.events.SearchResultsChangedEvent;
+import ma.fstt.listingservice.mappers.PropertyMapper;
 import ma.fstt.listingservice.repositories.CharacteristicRepository;
 import ma.fstt.listingservice.repositories.OwnerRepository;
+import ma.fstt.listingservice.repositories.PropertyCardRepository;
 import ma.fstt.listingservice.repositories.PropertyRepository;
+import ma.fstt.listingservice.repositories.projections.PropertyCardView;
+import ma.fstt.listingservice.responses.PropertyResponse;
 import ma.fstt.listingservice.services.PropertyService;
 import ma.fstt.listingservice.shared.PropertyIdGenerator;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,7 +44,14 @@ import java.util.ArrayList;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -51,7 +75,25 @@ public class PropertyServiceImpl implements PropertyService {
     private ImageStorageService imageStorageService;
 
     @Autowired
-    private RabbitMQProducer rabbitMQProducer;
+    private PropertyMapper propertyMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private PropertyCardRepository propertyCardRepository;
+
+    @Autowired
+    private OwnerWalletCache ownerWalletCache;
+
+    @Autowired
+    private PropertyCardService propertyCardService;
 
     // ========== CREATE ==========
 
@@ -71,8 +113,7 @@ public class PropertyServiceImpl implements PropertyService {
                             "Please add a wallet address in your profile first.");
         }
 
-        PropertyEntity propertyEntity = new PropertyEntity();
-        BeanUtils.copyProperties(propertyDto, propertyEntity, "characteristics", "owner", "status");
+        PropertyEntity propertyEntity = propertyMapper.toEntity(propertyDto);
 
         // Générer propertyId unique
         propertyEntity.setPropertyId(propertyIdGenerator.generatePropertyId(20));
@@ -96,11 +137,14 @@ public class PropertyServiceImpl implements PropertyService {
             savedProperty = propertyRepository.save(savedProperty);
         }
 
+        propertyCardService.sync(savedProperty);
+
         // Vérifier si c'est la PREMIÈRE property → Upgrade vers HOST
         Long totalProperties = propertyRepository.countByOwnerIdAndStatusNot(userId, PropertyStatus.DELETED);
         if (totalProperties == 1) {
             log.info("🎯 First property created for userId={}. Publishing user.type.upgraded event", userId);
-            rabbitMQProducer.publishUserTypeUpgraded(userId, "HOST");
+            // Publié après commit (voir PropertySideEffectListener)
+            eventPublisher.publishEvent(new HostUpgradeEvent(userId));
         }
 
         return convertToDto(savedProperty);
@@ -109,6 +153,7 @@ public class PropertyServiceImpl implements PropertyService {
     // ========== READ ==========
 
     @Override
+    @Transactional(readOnly = true)
     public PropertyDto getPropertyByPropertyId(String propertyId) {
         PropertyEntity propertyEntity = propertyRepository.findByPropertyId(propertyId);
         if (propertyEntity == null) {
@@ -118,6 +163,47 @@ public class PropertyServiceImpl implements PropertyService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public PropertyResponse getPropertyResponse(String propertyId) {
+        PropertyEntity propertyEntity = propertyRepository.findByPropertyId(propertyId);
+        if (propertyEntity == null) {
+            throw new RuntimeException("Property not found with ID: " + propertyId);
+        }
+        return propertyMapper.toResponse(propertyEntity);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PropertyResponse> getPropertyResponses(Collection<String> propertyIds) {
+        if (propertyIds == null || propertyIds.isEmpty()) {
+            return List.of();
+        }
+
+        // 3 requêtes constantes : propriétés + caractéristiques, images, variantes
+        List<PropertyEntity> entities = propertyRepository.findWithCharacteristicsByPropertyIdIn(propertyIds);
+        if (entities.isEmpty()) {
+            return List.of();
+        }
+        propertyRepository.fetchImagesByPropertyIdIn(propertyIds);
+        propertyRepository.fetchImageVariantsByPropertyIdIn(propertyIds);
+
+        Map<String, PropertyEntity> byId = new HashMap<>(entities.size() * 2);
+        for (PropertyEntity entity : entities) {
+            byId.put(entity.getPropertyId(), entity);
+        }
+
+        List<PropertyResponse> result = new ArrayList<>(byId.size());
+        for (String propertyId : propertyIds) {
+            PropertyEntity entity = byId.get(propertyId);
+            if (entity != null) {
+                result.add(propertyMapper.toResponse(entity));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<PropertyDto> getPropertiesByUserId(String userId) {
         // Récupérer toutes les properties SAUF DELETED
         List<PropertyEntity> properties = propertyRepository.findByOwnerIdAndStatusNot(
@@ -127,15 +213,18 @@ public class PropertyServiceImpl implements PropertyService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * ✅ Listes publiques servies depuis property_card (projection, sans jointure)
+     */
     @Override
-    public Page<PropertyDto> getAllValidatedProperties(Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Page<PropertyCardView> getAllValidatedProperties(Pageable pageable) {
         // Uniquement properties ACTIVE (visibles publiquement)
-        Page<PropertyEntity> properties = propertyRepository.findByStatus(
-                PropertyStatus.ACTIVE, pageable);
-        return properties.map(this::convertToDto);
+        return propertyCardRepository.findByStatus(PropertyStatus.ACTIVE, pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<PropertyDto> getAllByStatus(PropertyStatus status, Pageable pageable) {
         // Récupérer properties par status spécifique
         Page<PropertyEntity> properties = propertyRepository.findByStatus(status, pageable);
@@ -145,21 +234,66 @@ public class PropertyServiceImpl implements PropertyService {
     // ========== SEARCH ==========
 
     @Override
-    public Page<PropertyDto> searchProperties(String city, String type, BigDecimal minPrice,
-                                              BigDecimal maxPrice, Integer nbOfGuests, Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Page<PropertyCardView> searchProperties(String city, String type, BigDecimal minPrice,
+                                                   BigDecimal maxPrice, Integer nbOfGuests, Pageable pageable) {
         // Recherche uniquement dans properties ACTIVE
-        Page<PropertyEntity> properties = propertyRepository.searchProperties(
-                city, type, minPrice, maxPrice, nbOfGuests, PropertyStatus.ACTIVE, pageable);
-        return properties.map(this::convertToDto);
+        // ✅ Ids + total en cache par requête normalisée, cartes rechargées par id (données à jour)
+        SearchQueryKey key = SearchQueryKey.of(city, type, minPrice, maxPrice, nbOfGuests, pageable);
+        CachedSearch result = searchResultCache.get(key, k -> {
+            Page<String> ids = propertyCardRepository.searchPropertyIds(
+                    k.city(), k.type(), k.minPrice(), k.maxPrice(), k.nbOfGuests(), PropertyStatus.ACTIVE, pageable);
+            return new CachedSearch(ids.getContent(), ids.getTotalElements());
+        });
+
+        if (result.propertyIds().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, result.total());
+        }
+
+        Map<String, PropertyCardView> byId = propertyCardRepository.findByPropertyIdIn(result.propertyIds()).stream()
+                .collect(Collectors.toMap(PropertyCardView::getPropertyId, Function.identity()));
+
+        // Ordre de la recherche conservé ; une property désactivée entre-temps est ignorée
+        List<PropertyCardView> content = result.propertyIds().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .filter(card -> card.getStatus() == PropertyStatus.ACTIVE)
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(content, pageable, result.total());
     }
 
     @Override
-    public Page<PropertyDto> findPropertiesNearby(Double latitude, Double longitude,
-                                                  Double radius, Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Page<PropertyCardView> findPropertiesNearby(Double latitude, Double longitude,
+                                                       Double radius, Pageable pageable) {
         // Recherche géographique uniquement ACTIVE
-        Page<PropertyEntity> properties = propertyRepository.findPropertiesNearby(
+        return propertyCardRepository.findNearby(
+                latitude, longitude, radius, PropertyStatus.ACTIVE.name(), pageable);
+    }
+
+    // ========== SLICE (SANS COUNT) ==========
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<PropertyCardView> getAllValidatedPropertiesSlice(Pageable pageable) {
+        return propertyCardRepository.findSliceByStatus(PropertyStatus.ACTIVE, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<PropertyCardView> searchPropertiesSlice(String city, String type, BigDecimal minPrice,
+                                                         BigDecimal maxPrice, Integer nbOfGuests, Pageable pageable) {
+        return propertyCardRepository.searchSlice(
+                city, type, minPrice, maxPrice, nbOfGuests, PropertyStatus.ACTIVE, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<PropertyCardView> findPropertiesNearbySlice(Double latitude, Double longitude,
+                                                             Double radius, Pageable pageable) {
+        return propertyCardRepository.findNearbySlice(
                 latitude, longitude, radius, PropertyStatus.ACTIVE.name(), pageable);
-        return properties.map(this::convertToDto);
     }
 
     // ========== UPDATE ==========
@@ -184,6 +318,8 @@ public class PropertyServiceImpl implements PropertyService {
                             "Only DRAFT and PENDING properties can be modified.");
         }
 
+        String oldCity = propertyEntity.getCity();
+
         // Mettre à jour les champs
         if (propertyDto.getTitle() != null) propertyEntity.setTitle(propertyDto.getTitle());
         if (propertyDto.getType() != null) propertyEntity.setType(propertyDto.getType());
@@ -211,6 +347,12 @@ public class PropertyServiceImpl implements PropertyService {
         }
 
         PropertyEntity updatedProperty = propertyRepository.save(propertyEntity);
+        propertyCardService.sync(updatedProperty);
+        publishChange(propertyId, ChangeType.UPDATED);
+        if (updatedProperty.getStatus() == PropertyStatus.ACTIVE) {
+            // Prix, capacité, type ou ville ont pu changer
+            publishSearchChange(oldCity, updatedProperty.getCity());
+        }
         return convertToDto(updatedProperty);
     }
 
@@ -237,8 +379,12 @@ public class PropertyServiceImpl implements PropertyService {
         // Valider transition
         validateStatusTransition(propertyEntity.getStatus(), newStatus, userId);
 
+        PropertyStatus oldStatus = propertyEntity.getStatus();
         propertyEntity.setStatus(newStatus);
         PropertyEntity updatedProperty = propertyRepository.save(propertyEntity);
+        propertyCardService.sync(updatedProperty);
+        publishChange(propertyId, newStatus == PropertyStatus.DELETED ? ChangeType.DELETED : ChangeType.STATUS_CHANGED);
+        publishStatusChange(propertyEntity, oldStatus);
         return convertToDto(updatedProperty);
     }
 
@@ -261,11 +407,14 @@ public class PropertyServiceImpl implements PropertyService {
         // Valider transition
         validateStatusTransition(propertyEntity.getStatus(), newStatus, userId);
 
+        PropertyStatus oldStatus = propertyEntity.getStatus();
         propertyEntity.setStatus(newStatus);
         PropertyEntity updatedProperty = propertyRepository.save(propertyEntity);
+        propertyCardService.sync(updatedProperty);
+        publishChange(propertyId, newStatus == PropertyStatus.DELETED ? ChangeType.DELETED : ChangeType.STATUS_CHANGED);
+        publishStatusChange(propertyEntity, oldStatus);
 
-        log.info("✅ Property {} status changed: {} → {}", propertyId,
-                propertyEntity.getStatus(), newStatus);
+        log.info("✅ Property {} status changed: {} → {}", propertyId, oldStatus, newStatus);
 
         return convertToDto(updatedProperty);
     }
@@ -286,16 +435,24 @@ public class PropertyServiceImpl implements PropertyService {
         }
 
         // ✅ Soft delete: Changer status vers DELETED
+        PropertyStatus oldStatus = propertyEntity.getStatus();
         propertyEntity.setStatus(PropertyStatus.DELETED);
         propertyRepository.save(propertyEntity);
+        propertyCardService.sync(propertyEntity);
+        publishChange(propertyId, ChangeType.DELETED);
+        publishStatusChange(propertyEntity, oldStatus);
 
         log.info("🗑️ Property {} marked as DELETED by user {}", propertyId, userId);
     }
 
     // ========== IMAGES ==========
 
+    /**
+     * ✅ Upload S3 HORS transaction : la connexion DB n'est prise que pour les vérifications
+     * puis pour l'ajout des chemins (transaction courte). Si l'écriture échoue, les fichiers
+     * envoyés sont supprimés.
+     */
     @Override
-    @Transactional
     public List<String> uploadPropertyImages(String propertyId, List<MultipartFile> images, String userId) {
         PropertyEntity propertyEntity = propertyRepository.findByPropertyId(propertyId);
 
@@ -308,8 +465,28 @@ public class PropertyServiceImpl implements PropertyService {
         }
 
         List<String> uploadedPaths = imageStorageService.storeImages(propertyId, images);
-        propertyEntity.getImageFolderPath().addAll(uploadedPaths);
-        propertyRepository.save(propertyEntity);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                PropertyEntity property = propertyRepository.findByPropertyId(propertyId);
+                if (property == null || property.getStatus() == PropertyStatus.DELETED) {
+                    throw new RuntimeException("Property not found");
+                }
+                property.getImageFolderPath().addAll(uploadedPaths);
+                propertyRepository.save(property);
+                propertyCardService.sync(property);
+                publishChange(propertyId, ChangeType.IMAGES_CHANGED);
+                eventPublisher.publishEvent(new PropertyImagesUploadedEvent(propertyId, uploadedPaths));
+            });
+        } catch (RuntimeException e) {
+            log.error("❌ Failed to attach uploaded images to property {}, removing files", propertyId);
+            try {
+                imageStorageService.deleteImages(uploadedPaths);
+            } catch (RuntimeException cleanupError) {
+                log.error("❌ Failed to remove orphan images {}: {}", uploadedPaths, cleanupError.getMessage());
+            }
+            throw e;
+        }
 
         return uploadedPaths;
     }
@@ -327,9 +504,23 @@ public class PropertyServiceImpl implements PropertyService {
             throw new RuntimeException("You are not authorized to modify this property");
         }
 
-        imageStorageService.deleteImage(imagePath);
+        // Fichiers S3 supprimés après commit (voir PropertySideEffectListener)
+        List<String> removedFiles = new ArrayList<>();
+        removedFiles.add(imagePath);
         propertyEntity.getImageFolderPath().remove(imagePath);
+        propertyEntity.getImageVariants().removeIf(variant -> {
+            if (!imagePath.equals(variant.getOriginalUrl())) {
+                return false;
+            }
+            removedFiles.add(variant.getThumbUrl());
+            removedFiles.add(variant.getCardUrl());
+            removedFiles.add(variant.getFullUrl());
+            return true;
+        });
         propertyRepository.save(propertyEntity);
+        propertyCardService.sync(propertyEntity);
+        publishChange(propertyId, ChangeType.IMAGES_CHANGED);
+        eventPublisher.publishEvent(new PropertyImagesRemovedEvent(propertyId, removedFiles));
     }
 
     // ========== COUNT ==========
@@ -373,6 +564,9 @@ public class PropertyServiceImpl implements PropertyService {
         // Transition DRAFT → PENDING
         property.setStatus(PropertyStatus.PENDING);
         PropertyEntity updated = propertyRepository.save(property);
+        propertyCardService.sync(updated);
+        publishChange(propertyId, ChangeType.STATUS_CHANGED);
+        publishStatusChange(property, PropertyStatus.DRAFT);
 
         log.info("📤 Property {} submitted for validation (DRAFT → PENDING)", propertyId);
 
@@ -396,6 +590,9 @@ public class PropertyServiceImpl implements PropertyService {
         // Transition PENDING → ACTIVE
         property.setStatus(PropertyStatus.ACTIVE);
         PropertyEntity updated = propertyRepository.save(property);
+        propertyCardService.sync(updated);
+        publishChange(propertyId, ChangeType.STATUS_CHANGED);
+        publishStatusChange(property, PropertyStatus.PENDING);
 
         log.info("✅ Property {} validated by admin (PENDING → ACTIVE)", propertyId);
 
@@ -415,17 +612,18 @@ public class PropertyServiceImpl implements PropertyService {
 
         // ✅ CRITIQUE: Vérifier wallet avant ACTIVE (Gemini requirement)
         if (to == PropertyStatus.ACTIVE) {
-            Owner owner = ownerRepository.findByUserId(userId)
+            // ✅ Cache owner : pas de requête DB à chaque changement de status
+            OwnerWallet owner = ownerWalletCache.find(userId)
                     .orElseThrow(() -> new RuntimeException("Owner not found"));
 
-            if (owner.getWalletAddress() == null || owner.getWalletAddress().trim().isEmpty()) {
+            if (!owner.hasWallet()) {
                 throw new IllegalStateException(
                         "Cannot activate property: Owner must connect a wallet address first. " +
                                 "Please add a wallet in your profile before making this property active.");
             }
 
             log.info("✅ Wallet validation passed for userId={}: wallet={}",
-                    userId, owner.getWalletAddress());
+                    userId, owner.walletAddress());
         }
 
         // TODO: Règle future - ACTIVE → DELETED uniquement si aucune booking active
@@ -458,44 +656,46 @@ public class PropertyServiceImpl implements PropertyService {
     }
 
     /**
-     * Convertir Entity → DTO
+     * Publier un changement : les caches sont invalidés APRÈS commit
+     * (voir PropertyCacheInvalidationListener)
      */
-    private PropertyDto convertToDto(PropertyEntity entity) {
-        PropertyDto dto = new PropertyDto();
-        BeanUtils.copyProperties(entity, dto, "characteristics");
-
-        dto.setUserId(entity.getOwnerId());
-
-        if (entity.getImageFolderPath() != null) {
-            dto.setImageFolderPath(entity.getImageFolderPath());
-        }
+    private void publishChange(String propertyId, ChangeType changeType) {
+        eventPublisher.publishEvent(new PropertyChangedEvent(propertyId, changeType));
+    }
 
-        if (entity.getCharacteristics() != null && !entity.getCharacteristics().isEmpty()) {
-            List<CharacteristicDto> characteristicDtos = entity.getCharacteristics().stream()
-                    .map(this::convertCharacteristicToDto)
-                    .collect(Collectors.toList());
-            dto.setCharacteristics(characteristicDtos);
+    /**
+     * Transition de status : invalide les recherches si la property entre ou sort de ACTIVE
+     */
+    private void publishStatusChange(PropertyEntity property, PropertyStatus oldStatus) {
+        // Seules les properties ACTIVE apparaissent dans les recherches
+        if (oldStatus == PropertyStatus.ACTIVE || property.getStatus() == PropertyStatus.ACTIVE) {
+            publishSearchChange(property.getCity());
         }
-
-        return dto;
     }
 
-    private CharacteristicDto convertCharacteristicToDto(Characteristic characteristic) {
-        CharacteristicDto dto = new CharacteristicDto();
-        dto.setId(characteristic.getId());
-        dto.setName(characteristic.getName());
-        dto.setIconPath(characteristic.getIconPath());
-        dto.setIsActive(characteristic.getIsActive());
-
-        if (characteristic.getTypeCaracteristique() != null) {
-            dto.setTypeCaracteristiqueId(characteristic.getTypeCaracteristique().getId());
-            dto.setTypeCaracteristiqueName(characteristic.getTypeCaracteristique().getName());
+    /**
+     * Invalider les recherches des villes concernées après commit (voir PropertyCacheInvalidationListener)
+     * Ville inconnue : seules les recherches sans ville sont touchées, et elles sont toujours invalidées.
+     */
+    private void publishSearchChange(String... cities) {
+        Set<String> affected = new HashSet<>();
+        for (String city : cities) {
+            if (city != null) {
+                affected.add(city);
+            }
         }
+        eventPublisher.publishEvent(new SearchResultsChangedEvent(affected));
+    }
 
-        return dto;
+    /**
+     * Convertir Entity → DTO (mapper MapStruct généré, sans réflexion)
+     */
+    private PropertyDto convertToDto(PropertyEntity entity) {
+        return propertyMapper.toDto(entity);
     }
 
     @Override
+    @Transactional
     public PropertyDto addImagesToProperty(String propertyId, List<String> newImagePaths, String userId) {
         log.info("🖼️ Adding {} images to property {}", newImagePaths.size(), propertyId);
 
@@ -527,6 +727,9 @@ public class PropertyServiceImpl implements PropertyService {
 
         // 5. Sauvegarder
         PropertyEntity updatedProperty = propertyRepository.save(propertyEntity);
+        propertyCardService.sync(updatedProperty);
+        publishChange(propertyId, ChangeType.IMAGES_CHANGED);
+        eventPublisher.publishEvent(new PropertyImagesUploadedEvent(propertyId, newImagePaths));
 
         log.info("✅ Successfully added {} new images. Total: {}",
                 newImagePaths.size(), updatedProperty.getImageFolderPath().size());
@@ -544,22 +747,23 @@ public class PropertyServiceImpl implements PropertyService {
      */
 
     @Override
+    @Transactional(readOnly = true)
     public List<String> getPropertyIdsByOwner(String ownerId) {
         log.info("📋 Fetching property IDs for owner: {}", ownerId);
 
-        // Retrieve all properties for the owner (excluding DELETED)
-        List<PropertyEntity> properties = propertyRepository.findByOwnerIdAndStatusNot(
-                ownerId, PropertyStatus.DELETED);
-
-        // Extract and return only the property IDs
-        List<String> propertyIds = properties.stream()
-                .map(PropertyEntity::getPropertyId)
-                .collect(Collectors.toList());
+        // Retrieve only the property IDs for the owner (excluding DELETED)
+        List<String> propertyIds = propertyCardRepository.findPropertyIdsByOwner(ownerId, PropertyStatus.DELETED);
 
         log.info("✅ Found {} properties for owner {}", propertyIds.size(), ownerId);
         return propertyIds;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getPropertyOwnerId(String propertyId) {
+        return propertyCardRepository.findOwnerIdByPropertyId(propertyId).orElse(null);
+    }
+
     // ✅ AJOUTEZ CETTE MÉTHODE DANS PropertyServiceImpl.java
 
     /**
@@ -571,12 +775,13 @@ public class PropertyServiceImpl implements PropertyService {
     public String getOwnerWalletAddress(String ownerId) {
         log.info("🔍 Fetching wallet address for owner: {}", ownerId);
 
-        Owner owner = ownerRepository.findByUserId(ownerId)
+        // ✅ Appelé à chaque paiement : lecture depuis le cache owner
+        OwnerWallet owner = ownerWalletCache.find(ownerId)
                 .orElseThrow(() -> new RuntimeException("Owner not found with userId: " + ownerId));
 
-        String walletAddress = owner.getWalletAddress();
+        String walletAddress = owner.walletAddress();
 
-        if (walletAddress == null || walletAddress.trim().isEmpty()) {
+        if (!owner.hasWallet()) {
             log.warn("⚠️ Owner {} has no wallet address", ownerId);
             return null;
         }
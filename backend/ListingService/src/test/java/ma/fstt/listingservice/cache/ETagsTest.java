@@ -0,0 +1,44 @@
+package ma.fstt.listingservice.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ETagsTest {
+
+    private static byte[] json(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void contentEtagChangesWhenOnlyACharacteristicNameChanges() {
+        // Même version / lastUpdateAt de la property, seul le nom de la caractéristique change
+        String before = ETags.ofContent(json("{\"propertyId\":\"p1\",\"characteristics\":[{\"id\":1,\"name\":\"Wifi\"}]}"));
+        String after = ETags.ofContent(json("{\"propertyId\":\"p1\",\"characteristics\":[{\"id\":1,\"name\":\"Wi-Fi\"}]}"));
+
+        assertNotEquals(before, after);
+        assertFalse(ETags.matches(before, after));
+    }
+
+    @Test
+    void contentEtagIsStableForTheSameBody() {
+        byte[] body = json("{\"propertyId\":\"p1\"}");
+        assertEquals(ETags.ofContent(body), ETags.ofContent(body.clone()));
+    }
+
+    @Test
+    void matchesHandlesWeakListsAndWildcard() {
+        String etag = ETags.ofContent(json("{}"));
+
+        assertTrue(ETags.matches("W/" + etag, etag));
+        assertTrue(ETags.matches("\"other\", " + etag, etag));
+        assertTrue(ETags.matches("*", etag));
+        assertFalse(ETags.matches(null, etag));
+        assertFalse(ETags.matches("\"other\"", etag));
+    }
+}
@@ -0,0 +1,77 @@
+package ma.fstt.listingservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PropertyResponseCacheTest {
+
+    private final PropertyResponseCache cache = new PropertyResponseCache(new SimpleMeterRegistry(), 100, 600);
+
+    @Test
+    void loadsOnlyMissingIdsAndCachesThem() {
+        CachedResponse p1 = response("p1-v1");
+        cache.get("p1", id -> p1);
+
+        List<String> requested = new ArrayList<>();
+        Map<String, CachedResponse> result = cache.getAll(List.of("p1", "p2"), missing -> {
+            requested.addAll(missing);
+            return loaded(missing, "v1");
+        });
+
+        assertEquals(List.of("p2"), requested);
+        assertSame(p1, result.get("p1"));
+        assertEquals("p2-v1", body(cache.getIfPresent("p2")));
+    }
+
+    @Test
+    void invalidationDuringLoadKeepsStaleBodyOutOfTheCache() {
+        Map<String, CachedResponse> result = cache.getAll(List.of("p1"), missing -> {
+            Map<String, CachedResponse> stale = loaded(missing, "v1");
+            // Commit d'une mise à jour entre la lecture en base et l'insertion
+            cache.evict("p1");
+            return stale;
+        });
+
+        assertEquals("p1-v1", body(result.get("p1")));
+        assertNull(cache.getIfPresent("p1"));
+    }
+
+    @Test
+    void entryLoadedMeanwhileByTheSingleItemPathIsKept() {
+        CachedResponse fresh = response("p1-v2");
+        cache.getAll(List.of("p1"), missing -> {
+            Map<String, CachedResponse> stale = loaded(missing, "v1");
+            cache.evictAll();
+            cache.get("p1", id -> fresh);
+            return stale;
+        });
+
+        assertSame(fresh, cache.getIfPresent("p1"));
+    }
+
+    private static Map<String, CachedResponse> loaded(List<String> ids, String version) {
+        Map<String, CachedResponse> loaded = new HashMap<>();
+        for (String id : ids) {
+            loaded.put(id, response(id + "-" + version));
+        }
+        return loaded;
+    }
+
+    private static CachedResponse response(String body) {
+        return new CachedResponse(body.getBytes(StandardCharsets.UTF_8), "\"" + body + "\"");
+    }
+
+    private static String body(CachedResponse response) {
+        return new String(response.body(), StandardCharsets.UTF_8);
+    }
+}
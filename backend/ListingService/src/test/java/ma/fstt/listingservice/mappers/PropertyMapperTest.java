@@ -0,0 +1,81 @@
+package ma.fstt.listingservice.mappers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.fstt.listingservice.entities.Characteristic;
+import ma.fstt.listingservice.entities.PropertyEntity;
+import ma.fstt.listingservice.entities.TypeCharacteristique;
+import ma.fstt.listingservice.responses.PropertyResponse;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PropertyMapperTest {
+
+    private final PropertyMapper mapper = Mappers.getMapper(PropertyMapper.class);
+    private final ObjectMapper json = new ObjectMapper().findAndRegisterModules();
+
+    static PropertyEntity property(List<Characteristic> characteristics) {
+        PropertyEntity entity = new PropertyEntity();
+        entity.setPropertyId("p1");
+        entity.setTitle("Riad");
+        entity.setOwnerId("owner-1");
+        entity.setCity("Tanger");
+        entity.setPricePerNight(new BigDecimal("450.00"));
+        entity.setCharacteristics(characteristics);
+        return entity;
+    }
+
+    static Characteristic characteristic(long id, String name) {
+        TypeCharacteristique type = new TypeCharacteristique();
+        type.setId(10L);
+        type.setName("Confort");
+
+        Characteristic characteristic = new Characteristic();
+        characteristic.setId(id);
+        characteristic.setName(name);
+        characteristic.setTypeCaracteristique(type);
+        return characteristic;
+    }
+
+    @Test
+    void nullCharacteristicsMapToEmptyList() {
+        PropertyResponse onePass = mapper.toResponse(property(null));
+        PropertyResponse twoPass = mapper.toResponse(mapper.toDto(property(null)));
+
+        assertNotNull(onePass.getCharacteristics());
+        assertTrue(onePass.getCharacteristics().isEmpty());
+        assertNotNull(twoPass.getCharacteristics());
+        assertTrue(twoPass.getCharacteristics().isEmpty());
+    }
+
+    @Test
+    void emptyCharacteristicsMapToEmptyList() {
+        PropertyResponse onePass = mapper.toResponse(property(new ArrayList<>()));
+
+        assertNotNull(onePass.getCharacteristics());
+        assertTrue(onePass.getCharacteristics().isEmpty());
+    }
+
+    @Test
+    void onePassMatchesEntityDtoResponse() throws Exception {
+        PropertyEntity entity = property(List.of(characteristic(1L, "Wifi"), characteristic(2L, "Piscine")));
+
+        PropertyResponse onePass = mapper.toResponse(entity);
+        PropertyResponse twoPass = mapper.toResponse(mapper.toDto(entity));
+
+        // ✅ ownerId vient directement de l'entité (et de userId dans le chemin DTO)
+        assertEquals("owner-1", onePass.getOwnerId());
+        // PropertyResponse n'a pas d'equals : on compare le JSON servi au client
+        assertEquals(json.writeValueAsString(twoPass), json.writeValueAsString(onePass));
+        assertEquals(2, onePass.getCharacteristics().size());
+        assertEquals(Long.valueOf(10L), onePass.getCharacteristics().get(0).getTypeCaracteristiqueId());
+        assertEquals("Confort", onePass.getCharacteristics().get(0).getTypeCaracteristiqueName());
+    }
+}
@@ -0,0 +1,74 @@
+package ma.fstt.listingservice.mappers;
+
+import ma.fstt.listingservice.dto.CharacteristicDto;
+import ma.fstt.listingservice.dto.PropertyDto;
+import ma.fstt.listingservice.entities.Characteristic;
+import ma.fstt.listingservice.entities.PropertyEntity;
+import ma.fstt.listingservice.responses.PropertyResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.BeanUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * ✅ Micro-benchmark du mapping Entity → PropertyResponse
+ * BeanUtils (avant) vs MapStruct en deux passes vs MapStruct en une passe.
+ * Lancer avec : mvn test -Dtest=PropertyMappingBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PropertyMappingBenchmarkTest {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    private final PropertyMapper mapper = Mappers.getMapper(PropertyMapper.class);
+
+    @Test
+    void compareMappingStrategies() {
+        List<Characteristic> characteristics = new ArrayList<>();
+        for (long i = 1; i <= 8; i++) {
+            characteristics.add(PropertyMapperTest.characteristic(i, "Caractéristique " + i));
+        }
+        PropertyEntity entity = PropertyMapperTest.property(characteristics);
+
+        run("BeanUtils (Entity → Dto → Response)", entity, PropertyMappingBenchmarkTest::viaBeanUtils);
+        run("MapStruct deux passes", entity, e -> mapper.toResponse(mapper.toDto(e)));
+        run("MapStruct une passe", entity, mapper::toResponse);
+    }
+
+    private static void run(String label, PropertyEntity entity, Function<PropertyEntity, PropertyResponse> mapping) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += mapping.apply(entity).getCharacteristics().size();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += mapping.apply(entity).getCharacteristics().size();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-40s %8.1f ns/op (sink=%d)%n", label, (double) elapsed / ITERATIONS, sink);
+    }
+
+    // Reproduit l'ancien chemin par réflexion
+    private static PropertyResponse viaBeanUtils(PropertyEntity entity) {
+        PropertyDto dto = new PropertyDto();
+        BeanUtils.copyProperties(entity, dto, "characteristics");
+        dto.setUserId(entity.getOwnerId());
+        List<CharacteristicDto> characteristicDtos = new ArrayList<>();
+        for (Characteristic characteristic : entity.getCharacteristics()) {
+            CharacteristicDto characteristicDto = new CharacteristicDto();
+            BeanUtils.copyProperties(characteristic, characteristicDto);
+            characteristicDtos.add(characteristicDto);
+        }
+        dto.setCharacteristics(characteristicDtos);
+
+        PropertyResponse response = new PropertyResponse();
+        BeanUtils.copyProperties(dto, response);
+        response.setOwnerId(dto.getUserId());
+        return response;
+    }
+}
@@ -0,0 +1,182 @@
+package ma.fstt.listingservice.pricing;
+
+import ma.fstt.listingservice.entities.PriceRule;
+import ma.fstt.listingservice.entities.PriceRuleType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceCalendarCompilerTest {
+
+    // Lundi
+    private static final LocalDate FIRST_DAY = LocalDate.of(2026, 6, 1);
+    private static final int DAYS = 14;
+    private static final BigDecimal BASE = new BigDecimal("100.00");
+
+    @Test
+    void emptyRuleSetUsesBasePriceEveryNight() {
+        PriceCalendar calendar = PriceCalendarCompiler.compile(BASE, List.of(), FIRST_DAY, DAYS);
+
+        long[] expected = new long[DAYS];
+        Arrays.fill(expected, 10_000);
+        assertArrayEquals(expected, calendar.nightlyCents(FIRST_DAY, DAYS));
+
+        PriceCalendar.Quote quote = calendar.quote(FIRST_DAY, DAYS);
+        assertEquals(140_000, quote.subtotalCents());
+        assertEquals(0, quote.discountCents());
+    }
+
+    @Test
+    void overlappingSeasonsHighestPriorityWins() {
+        List<PriceRule> rules = List.of(
+                season(1L, "2026-06-01", "2026-06-10", "1.5", 1),
+                season(2L, "2026-06-05", "2026-06-07", "2", 5),
+                // Priorité égale : l'id le plus haut gagne, quel que soit l'ordre de déclaration
+                season(10L, "2026-06-12", "2026-06-13", "1.2", 0),
+                season(3L, "2026-06-12", "2026-06-13", "1.3", 0));
+
+        long[] nights = PriceCalendarCompiler.compile(BASE, rules, FIRST_DAY, DAYS).nightlyCents(FIRST_DAY, DAYS);
+
+        assertArrayEquals(new long[]{
+                15_000, 15_000, 15_000, 15_000,
+                20_000, 20_000, 20_000,
+                15_000, 15_000, 15_000,
+                10_000,
+                12_000, 12_000,
+                10_000}, nights);
+    }
+
+    @Test
+    void weekendMaskDefaultsToFridayAndSaturdayAndStacksOnSeason() {
+        List<PriceRule> rules = List.of(
+                weekend("1.2", null),
+                season(1L, "2026-06-05", "2026-06-05", "1.5", 0));
+
+        long[] nights = PriceCalendarCompiler.compile(BASE, rules, FIRST_DAY, 7).nightlyCents(FIRST_DAY, 7);
+
+        // Vendredi 5 : 100 × 1.5 × 1.2 ; samedi 6 : 100 × 1.2 ; dimanche 7 : base
+        assertArrayEquals(new long[]{10_000, 10_000, 10_000, 10_000, 18_000, 12_000, 10_000}, nights);
+    }
+
+    @Test
+    void dateOverrideReplacesSeasonAndWeekend() {
+        List<PriceRule> rules = List.of(
+                season(1L, "2026-06-01", "2026-06-14", "1.5", 0),
+                weekend("1.2", null),
+                override("2026-06-06", "2026-06-06", "80.00"));
+
+        PriceCalendar calendar = PriceCalendarCompiler.compile(BASE, rules, FIRST_DAY, DAYS);
+
+        assertEquals(18_000, calendar.nightlyCents(LocalDate.of(2026, 6, 5), 1)[0]);
+        assertEquals(8_000, calendar.nightlyCents(LocalDate.of(2026, 6, 6), 1)[0]);
+    }
+
+    @Test
+    void rulesAreClippedToTheCompiledWindow() {
+        List<PriceRule> rules = List.of(
+                season(1L, "2026-05-20", "2026-06-02", "1.1", 0),
+                override("2026-06-14", "2026-06-30", "250.00"),
+                // Entièrement hors fenêtre
+                season(2L, "2026-07-01", "2026-07-31", "3", 9),
+                override("2026-05-01", "2026-05-31", "1.00"));
+
+        long[] nights = PriceCalendarCompiler.compile(BASE, rules, FIRST_DAY, DAYS).nightlyCents(FIRST_DAY, DAYS);
+
+        assertEquals(11_000, nights[0]);
+        assertEquals(11_000, nights[1]);
+        assertEquals(10_000, nights[2]);
+        assertEquals(10_000, nights[12]);
+        assertEquals(25_000, nights[13]);
+    }
+
+    @Test
+    void stayBoundaries() {
+        PriceCalendar calendar = PriceCalendarCompiler.compile(BASE, List.of(), FIRST_DAY, DAYS);
+        LocalDate lastNight = FIRST_DAY.plusDays(DAYS - 1);
+
+        assertTrue(calendar.covers(FIRST_DAY, DAYS));
+        assertTrue(calendar.covers(lastNight, 1));
+        assertFalse(calendar.covers(FIRST_DAY, DAYS + 1));
+        assertFalse(calendar.covers(lastNight, 2));
+        assertFalse(calendar.covers(FIRST_DAY.minusDays(1), 1));
+
+        assertThrows(IllegalArgumentException.class, () -> calendar.quote(lastNight, 2));
+        assertThrows(IllegalArgumentException.class, () -> calendar.nightlyCents(FIRST_DAY.minusDays(1), 2));
+    }
+
+    @Test
+    void lengthOfStayAppliesHighestReachedTierRoundedToTheCent() {
+        List<PriceRule> rules = List.of(
+                lengthOfStay(14, "15.5"),
+                lengthOfStay(7, "10"));
+        PriceCalendar calendar = PriceCalendarCompiler.compile(new BigDecimal("99.99"), rules, FIRST_DAY, DAYS);
+
+        assertEquals(0, calendar.quote(FIRST_DAY, 6).discountCents());
+
+        // 69 993 × 10 % = 6 999,3
+        PriceCalendar.Quote week = calendar.quote(FIRST_DAY, 7);
+        assertEquals(69_993, week.subtotalCents());
+        assertEquals(6_999, week.discountCents());
+
+        // 139 986 × 15,5 % = 21 697,83
+        PriceCalendar.Quote fortnight = calendar.quote(FIRST_DAY, 14);
+        assertEquals(139_986, fortnight.subtotalCents());
+        assertEquals(21_698, fortnight.discountCents());
+        assertEquals(118_288, fortnight.totalCents());
+    }
+
+    @Test
+    void nightlyPriceIsRoundedHalfUp() {
+        // 10,02 × 1,25 = 12,525
+        PriceCalendar calendar = PriceCalendarCompiler.compile(new BigDecimal("10.02"),
+                List.of(season(1L, "2026-06-01", "2026-06-01", "1.25", 0)), FIRST_DAY, 1);
+
+        assertEquals(1_253, calendar.nightlyCents(FIRST_DAY, 1)[0]);
+    }
+
+    private static PriceRule season(Long id, String start, String end, String multiplier, int priority) {
+        PriceRule rule = rule(PriceRuleType.SEASON, start, end);
+        rule.setId(id);
+        rule.setMultiplier(new BigDecimal(multiplier));
+        rule.setPriority(priority);
+        return rule;
+    }
+
+    private static PriceRule weekend(String multiplier, Integer mask) {
+        PriceRule rule = rule(PriceRuleType.WEEKEND, null, null);
+        rule.setMultiplier(new BigDecimal(multiplier));
+        rule.setDaysOfWeekMask(mask);
+        return rule;
+    }
+
+    private static PriceRule override(String start, String end, String price) {
+        PriceRule rule = rule(PriceRuleType.DATE_OVERRIDE, start, end);
+        rule.setPrice(new BigDecimal(price));
+        return rule;
+    }
+
+    private static PriceRule lengthOfStay(int minNights, String discountPercent) {
+        PriceRule rule = rule(PriceRuleType.LENGTH_OF_STAY, null, null);
+        rule.setMinNights(minNights);
+        rule.setDiscountPercent(new BigDecimal(discountPercent));
+        return rule;
+    }
+
+    private static PriceRule rule(PriceRuleType type, String start, String end) {
+        PriceRule rule = new PriceRule();
+        rule.setPropertyId("p1");
+        rule.setType(type);
+        rule.setStartDate(start == null ? null : LocalDate.parse(start));
+        rule.setEndDate(end == null ? null : LocalDate.parse(end));
+        return rule;
+    }
+}
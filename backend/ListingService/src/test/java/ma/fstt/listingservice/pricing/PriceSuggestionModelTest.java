@@ -0,0 +1,78 @@
+package ma.fstt.listingservice.pricing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Modèle de test (2 arbres) au format de export_model.py. Les valeurs attendues suivent le
+ * pipeline scikit-learn : médiane pour les NaN, (x - mean) / scale en float32, one-hot avec
+ * handle_unknown='ignore' et "missing" pour une catégorie absente, x <= seuil -> fils gauche,
+ * prédiction = init + learningRate * somme des feuilles.
+ *
+ * Colonnes : 0-3 numériques, 4-5 country, 6-7 city, 8 apartment, 9 house, 10 type "missing".
+ */
+class PriceSuggestionModelTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static JsonNode fixture;
+    private static PriceSuggestionModel model;
+
+    @BeforeAll
+    static void loadFixture() throws IOException {
+        try (InputStream in = PriceSuggestionModelTest.class.getResourceAsStream("/models/price_model_fixture.json")) {
+            fixture = MAPPER.readTree(in);
+        }
+        model = PriceSuggestionModel.fromJson(fixture);
+    }
+
+    @Test
+    void loadsAllTrees() {
+        assertEquals(2, model.getTreeCount());
+    }
+
+    @Test
+    void sumsLeavesOfEveryTree() {
+        // Arbre 1 : guests (6-5)/2 = 0.5 > 0.25, house -> 40 ; arbre 2 : type connu, bedrooms 0.5 > -0.75 -> 4
+        assertEquals(100 + 0.5 * (40 + 4), model.predict(6, 3, 3, 2, "France", "Paris", "house"), 1e-9);
+        // Arbre 1 : guests 0 <= 0.25 -> 10 ; arbre 2 : bedrooms -1.5 <= -0.75 -> -6
+        assertEquals(100 + 0.5 * (10 - 6), model.predict(5, 1, 3, 2, "Morocco", "Marrakech", "apartment"), 1e-9);
+    }
+
+    @Test
+    void thresholdIsInclusiveOnTheLeft() {
+        // guests 5.5 -> exactement 0.25 : fils gauche comme dans scikit-learn
+        assertEquals(100 + 0.5 * (10 + 4), model.predict(5.5, 3, 3, 2, "France", "Paris", "house"), 1e-9);
+    }
+
+    @Test
+    void missingValuesAreImputedLikeThePipeline() {
+        // guests NaN -> médiane 5 -> 10 ; type null -> colonne "missing" -> 30
+        assertEquals(100 + 0.5 * (10 + 30), model.predict(Double.NaN, 3, 3, 2, null, null, null), 1e-9);
+    }
+
+    @Test
+    void unknownCategoryActivatesNoColumn() {
+        // "castle" inconnu : ni house ni missing ; bedrooms NaN -> médiane 2 -> -0.5 > -0.75 -> 4
+        assertEquals(100 + 0.5 * (20 + 4), model.predict(8, Double.NaN, 3, 2, "Spain", "Lyon", "castle"), 1e-9);
+    }
+
+    @Test
+    void rejectsAnotherFormatOrFeatureOrder() {
+        ObjectNode otherFormat = fixture.deepCopy();
+        otherFormat.put("format", "onnx");
+        assertThrows(IllegalArgumentException.class, () -> PriceSuggestionModel.fromJson(otherFormat));
+
+        ObjectNode swapped = fixture.deepCopy();
+        ((ObjectNode) swapped.path("numeric").get(0)).put("name", "nb_of_beds");
+        assertThrows(IllegalArgumentException.class, () -> PriceSuggestionModel.fromJson(swapped));
+    }
+}
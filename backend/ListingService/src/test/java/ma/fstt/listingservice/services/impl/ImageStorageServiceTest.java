@@ -0,0 +1,154 @@
+package ma.fstt.listingservice.services.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageStorageServiceTest {
+
+    private static final int MB = 1024 * 1024;
+
+    private final S3Client s3Client = mock(S3Client.class);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ImageStorageService storage = new ImageStorageService(s3Client, mock(S3Presigner.class), executor);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(storage, "bucketName", "test-bucket");
+        ReflectionTestUtils.setField(storage, "region", "eu-west-3");
+        ReflectionTestUtils.setField(storage, "maxConcurrency", 4);
+        ReflectionTestUtils.setField(storage, "multipartThresholdMb", 5);
+        ReflectionTestUtils.setField(storage, "partSizeMb", 5);
+        ReflectionTestUtils.setField(storage, "maxFileSizeMb", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void failedImageRollsBackTheOthers() {
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            PutObjectRequest request = invocation.getArgument(0);
+            if ("image/png".equals(request.contentType())) {
+                throw S3Exception.builder().statusCode(503).message("Slow Down").build();
+            }
+            return PutObjectResponse.builder().build();
+        });
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> storage.storeImages("p1",
+                List.of(image("a.jpg", "image/jpeg", 1024), image("b.png", "image/png", 1024))));
+
+        assertEquals("Failed to upload image to S3", error.getMessage());
+        ArgumentCaptor<PutObjectRequest> puts = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client, times(2)).putObject(puts.capture(), any(RequestBody.class));
+        String uploadedKey = puts.getAllValues().stream()
+                .filter(put -> "image/jpeg".equals(put.contentType()))
+                .findFirst().orElseThrow().key();
+        assertEquals(List.of(uploadedKey), deletedKeys());
+    }
+
+    @Test
+    void failedMultipartUploadIsAborted() {
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenThrow(S3Exception.builder().statusCode(500).message("Internal Error").build());
+
+        // 10 Mo (limite) : au-dessus du seuil multipart de 5 Mo
+        assertThrows(RuntimeException.class, () -> storage.storeImages("p1",
+                List.of(image("big.jpg", "image/jpeg", 10 * MB))));
+
+        ArgumentCaptor<AbortMultipartUploadRequest> abort = ArgumentCaptor.forClass(AbortMultipartUploadRequest.class);
+        verify(s3Client).abortMultipartUpload(abort.capture());
+        assertEquals("upload-1", abort.getValue().uploadId());
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        // Rien n'a été finalisé : rien à supprimer
+        verify(s3Client, never()).deleteObjects(any(DeleteObjectsRequest.class));
+    }
+
+    @Test
+    void interruptWaitsForInFlightUploadsBeforeCleanup() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> uploadedKey = new AtomicReference<>();
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            uploadedKey.set(invocation.<PutObjectRequest>getArgument(0).key());
+            started.countDown();
+            release.await();
+            return PutObjectResponse.builder().build();
+        });
+
+        AtomicReference<RuntimeException> error = new AtomicReference<>();
+        AtomicReference<Boolean> interruptFlag = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try {
+                storage.storeImages("p1", List.of(image("a.jpg", "image/jpeg", 1024)));
+            } catch (RuntimeException e) {
+                error.set(e);
+                interruptFlag.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        caller.start();
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        caller.interrupt();
+        // L'upload en vol n'est pas terminé : aucun nettoyage ne doit encore avoir eu lieu
+        caller.join(200);
+        assertTrue(caller.isAlive());
+        verify(s3Client, never()).deleteObjects(any(DeleteObjectsRequest.class));
+
+        release.countDown();
+        caller.join(5000);
+        assertFalse(caller.isAlive());
+
+        assertEquals("Image upload interrupted", error.get().getMessage());
+        assertTrue(interruptFlag.get());
+        assertEquals(List.of(uploadedKey.get()), deletedKeys());
+    }
+
+    private List<String> deletedKeys() {
+        ArgumentCaptor<DeleteObjectsRequest> delete = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        verify(s3Client).deleteObjects(delete.capture());
+        return delete.getValue().delete().objects().stream().map(ObjectIdentifier::key).toList();
+    }
+
+    private static MultipartFile image(String name, String contentType, int size) {
+        return new MockMultipartFile("images", name, contentType, new byte[size]);
+    }
+}
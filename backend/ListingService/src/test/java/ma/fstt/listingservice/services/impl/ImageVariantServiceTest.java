@@ -0,0 +1,66 @@
+package ma.fstt.listingservice.services.impl;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ImageVariantServiceTest {
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void decodesImageWithinPixelLimit() throws IOException {
+        BufferedImage image = ImageVariantService.decode(png(200, 100), 20_000);
+
+        assertEquals(200, image.getWidth());
+        assertEquals(100, image.getHeight());
+    }
+
+    @Test
+    void rejectsImageAbovePixelLimitBeforeDecoding() throws IOException {
+        byte[] bytes = png(200, 101);
+
+        IOException error = assertThrows(IOException.class, () -> ImageVariantService.decode(bytes, 20_000));
+        assertEquals("Image too large: 200x101 (max 20000 pixels)", error.getMessage());
+    }
+
+    @Test
+    void returnsNullForUnknownFormat() throws IOException {
+        assertNull(ImageVariantService.decode("not an image".getBytes(StandardCharsets.UTF_8), 20_000));
+    }
+
+    @Test
+    void variantsAreEncodedAsJpeg() throws IOException {
+        BufferedImage source = ImageVariantService.decode(png(1000, 500), 1_000_000);
+        byte[] variant = ImageVariantService.encode(ImageVariantService.resizeToWidth(source, ImageVariantService.CARD_WIDTH));
+
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(variant))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            ImageReader reader = readers.next();
+            try {
+                assertEquals(ImageVariantService.FORMAT, reader.getFormatName().toLowerCase());
+                reader.setInput(input);
+                assertEquals(640, reader.getWidth(0));
+                assertEquals(320, reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package ma.fstt.listingservice.services.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ma.fstt.listingservice.cache.PriceCalendarCache;
+import ma.fstt.listingservice.dto.PriceRuleDto;
+import ma.fstt.listingservice.entities.PriceRuleType;
+import ma.fstt.listingservice.entities.PropertyEntity;
+import ma.fstt.listingservice.entities.PropertyStatus;
+import ma.fstt.listingservice.exceptions.BusinessException;
+import ma.fstt.listingservice.repositories.PriceRuleRepository;
+import ma.fstt.listingservice.repositories.PropertyCardRepository;
+import ma.fstt.listingservice.repositories.PropertyRepository;
+import ma.fstt.listingservice.repositories.projections.PropertyCardView;
+import ma.fstt.listingservice.requests.PriceQuoteRequest;
+import ma.fstt.listingservice.responses.PriceQuoteResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PricingServiceImplTest {
+
+    @Mock
+    private PriceRuleRepository priceRuleRepository;
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    @Mock
+    private PropertyCardRepository propertyCardRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private PricingServiceImpl pricingService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(pricingService, "maxRules", 100);
+        ReflectionTestUtils.setField(pricingService, "maxMultiplier", new BigDecimal("10"));
+        ReflectionTestUtils.setField(pricingService, "maxNightlyPrice", new BigDecimal("1000000"));
+        ReflectionTestUtils.setField(pricingService, "horizonDays", 730);
+        ReflectionTestUtils.setField(pricingService, "maxQuoteItems", 100);
+        ReflectionTestUtils.setField(pricingService, "maxNights", 365);
+        ReflectionTestUtils.setField(pricingService, "priceCalendarCache",
+                new PriceCalendarCache(new SimpleMeterRegistry(), 100, 60));
+
+        PropertyEntity property = new PropertyEntity();
+        property.setPropertyId("p1");
+        property.setOwnerId("owner-1");
+        lenient().when(propertyRepository.findByPropertyId("p1")).thenReturn(property);
+    }
+
+    private static PriceRuleDto season(String multiplier) {
+        return PriceRuleDto.builder()
+                .type(PriceRuleType.SEASON)
+                .startDate(LocalDate.of(2026, 7, 1))
+                .endDate(LocalDate.of(2026, 8, 31))
+                .multiplier(new BigDecimal(multiplier))
+                .build();
+    }
+
+    private static PriceRuleDto override(String price) {
+        return PriceRuleDto.builder()
+                .type(PriceRuleType.DATE_OVERRIDE)
+                .startDate(LocalDate.of(2026, 12, 31))
+                .endDate(LocalDate.of(2026, 12, 31))
+                .price(new BigDecimal(price))
+                .build();
+    }
+
+    private BusinessException rejected(PriceRuleDto rule) {
+        BusinessException error = assertThrows(BusinessException.class,
+                () -> pricingService.replaceRules("p1", List.of(rule), "owner-1"));
+        verify(priceRuleRepository, never()).saveAll(any());
+        return error;
+    }
+
+    @Test
+    void rejectsMultiplierAboveLimit() {
+        BusinessException error = rejected(season("1e30"));
+        assertEquals("INVALID_PRICE_RULE", error.getErrorCode());
+        assertEquals("multiplier must not exceed 10", error.getMessage());
+    }
+
+    @Test
+    void rejectsMultiplierWithTooManyDecimals() {
+        assertEquals("multiplier must have at most 4 decimals", rejected(season("1.00001")).getMessage());
+    }
+
+    @Test
+    void rejectsOverridePriceAboveLimit() {
+        assertEquals("price must not exceed 1000000", rejected(override("99999999999999999999")).getMessage());
+    }
+
+    @Test
+    void rejectsOverridePriceWithTooManyDecimals() {
+        assertEquals("price must have at most 2 decimals", rejected(override("120.005")).getMessage());
+    }
+
+    @Test
+    void quotesActivePropertyFromCompiledCalendar() {
+        PropertyCardView active = card("p1", PropertyStatus.ACTIVE);
+        when(active.getPricePerNight()).thenReturn(new BigDecimal("120.00"));
+        when(propertyCardRepository.findByPropertyIdIn(any())).thenReturn(List.of(active));
+
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        PriceQuoteResponse quote = pricingService.quote(List.of(
+                new PriceQuoteRequest.Item("p1", checkIn, checkIn.plusDays(3)))).get(0);
+
+        assertNull(quote.getError());
+        assertEquals(3, quote.getNights());
+        assertEquals(new BigDecimal("360.00"), quote.getTotal());
+        assertEquals(new BigDecimal("120.00"), quote.getAverageNightlyPrice());
+    }
+
+    @Test
+    void quoteRejectsPropertyThatIsNotActive() {
+        // Même règle que la lecture publique : une property HIDDEN / PENDING n'a pas de prix public
+        PropertyCardView hidden = card("p1", PropertyStatus.HIDDEN);
+        when(propertyCardRepository.findByPropertyIdIn(any())).thenReturn(List.of(hidden));
+
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        PriceQuoteResponse quote = pricingService.quote(List.of(
+                new PriceQuoteRequest.Item("p1", checkIn, checkIn.plusDays(3)))).get(0);
+
+        assertEquals("Property not found", quote.getError());
+        assertNull(quote.getTotal());
+    }
+
+    private static PropertyCardView card(String propertyId, PropertyStatus status) {
+        PropertyCardView card = mock(PropertyCardView.class);
+        lenient().when(card.getPropertyId()).thenReturn(propertyId);
+        when(card.getStatus()).thenReturn(status);
+        return card;
+    }
+}
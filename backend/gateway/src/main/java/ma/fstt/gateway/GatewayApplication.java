@@ -1,5 +1,7 @@
 package ma.fstt.gateway;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
@@ -8,9 +10,11 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 @SpringBootApplication
 public class GatewayApplication {
 
+	private static final Logger log = LoggerFactory.getLogger(GatewayApplication.class);
+
 	public static void main(String[] args) {
 		SpringApplication.run(GatewayApplication.class, args);
-		System.out.println("✅ API Gateway démarré avec succès sur le port 8082");
-		System.out.println("🔐 Vérification JWT activée pour toutes les routes protégées");
+		log.info("✅ API Gateway démarré avec succès sur le port 8082");
+		log.info("🔐 Vérification JWT activée pour toutes les routes protégées");
 	}
 }
@@ -0,0 +1,228 @@
+package ma.fstt.gateway.aggregation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import ma.fstt.gateway.filter.RateLimitFilter;
+import ma.fstt.gateway.util.ErrorTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriUtils;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * ✅ Composition d'API pour la page détail d'une propriété : un seul appel client au lieu de trois.
+ *
+ * GET /api/views/properties/{propertyId} -> en parallèle :
+ * - ListingService  /properties/{id}                 (obligatoire : 4xx amont renvoyé tel quel, 503 si indisponible)
+ * - BookingService  /bookings/property/{id}/booked-dates
+ * - ListingService  /properties/{id}/wallet-address
+ *
+ * Chaque branche a son propre timeout et passe par le circuit breaker du service appelé
+ * (mêmes instances "listing" / "booking" que les routes) ; une branche optionnelle en échec ou en 4xx
+ * est renvoyée à null et listée dans "unavailable" (réponse partielle, "partial": true) au lieu de faire
+ * échouer la page. Seul le 404 du wallet est une réponse complète (pas de wallet).
+ *
+ * Filtre terminal : ne rappelle pas la chaîne, ordonné après RateLimitFilter pour rester limité.
+ */
+@Component
+public class PropertyDetailAggregationFilter implements GatewayFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(PropertyDetailAggregationFilter.class);
+
+    public static final int ORDER = RateLimitFilter.ORDER + 1;
+
+    private static final ErrorTemplate UNAVAILABLE =
+            ErrorTemplate.of(HttpStatus.SERVICE_UNAVAILABLE, "Service des annonces indisponible");
+
+    private final WebClient listingClient;
+    private final WebClient bookingClient;
+    private final ReactiveCircuitBreaker listingBreaker;
+    private final ReactiveCircuitBreaker bookingBreaker;
+    private final ObjectMapper objectMapper;
+    private final Duration propertyTimeout;
+    private final Duration availabilityTimeout;
+    private final Duration walletTimeout;
+    private final int availabilityDays;
+
+    public PropertyDetailAggregationFilter(WebClient.Builder webClientBuilder,
+                                           HttpClient gatewayHttpClient,
+                                           ReactiveCircuitBreakerFactory<?, ?> circuitBreakerFactory,
+                                           ObjectMapper objectMapper,
+                                           @Value("${listing.service.url}") String listingServiceUrl,
+                                           @Value("${booking.service.url}") String bookingServiceUrl,
+                                           @Value("${gateway.aggregation.property-timeout-ms:2000}") long propertyTimeoutMs,
+                                           @Value("${gateway.aggregation.availability-timeout-ms:800}") long availabilityTimeoutMs,
+                                           @Value("${gateway.aggregation.wallet-timeout-ms:800}") long walletTimeoutMs,
+                                           @Value("${gateway.aggregation.availability-days:180}") int availabilityDays) {
+        // Mêmes pools par service que le routage (cf. HttpClientConfig)
+        ReactorClientHttpConnector connector = new ReactorClientHttpConnector(gatewayHttpClient);
+        this.listingClient = webClientBuilder.clone().clientConnector(connector).baseUrl(listingServiceUrl).build();
+        this.bookingClient = webClientBuilder.clone().clientConnector(connector).baseUrl(bookingServiceUrl).build();
+        this.listingBreaker = circuitBreakerFactory.create("listing");
+        this.bookingBreaker = circuitBreakerFactory.create("booking");
+        this.objectMapper = objectMapper;
+        this.propertyTimeout = Duration.ofMillis(propertyTimeoutMs);
+        this.availabilityTimeout = Duration.ofMillis(availabilityTimeoutMs);
+        this.walletTimeout = Duration.ofMillis(walletTimeoutMs);
+        this.availabilityDays = availabilityDays;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // Dernier segment décodé : le template d'URI ci-dessous l'encode une seule fois
+        String rawPath = exchange.getRequest().getURI().getRawPath();
+        String propertyId = UriUtils.decode(rawPath.substring(rawPath.lastIndexOf('/') + 1), StandardCharsets.UTF_8);
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(availabilityDays);
+
+        Mono<Branch> property = fetch("property", propertyTimeout, listingBreaker, listingClient.get()
+                .uri("/properties/{propertyId}", propertyId));
+        Mono<Branch> availability = fetch("availability", availabilityTimeout, bookingBreaker, bookingClient.get()
+                .uri("/bookings/property/{propertyId}/booked-dates?from={from}&to={to}", propertyId, from, to));
+        Mono<Branch> wallet = fetch("wallet", walletTimeout, listingBreaker, listingClient.get()
+                .uri("/properties/{propertyId}/wallet-address", propertyId));
+
+        return Mono.zip(property, availability, wallet)
+                .flatMap(branches -> {
+                    Branch propertyBranch = branches.getT1();
+                    if (propertyBranch.clientError() != null) {
+                        return writeClientError(exchange, propertyBranch.clientError());
+                    }
+                    if (propertyBranch.body() == null) {
+                        return UNAVAILABLE.write(exchange);
+                    }
+                    return write(exchange, compose(propertyBranch, branches.getT2(), branches.getT3(), from, to));
+                });
+    }
+
+    private ObjectNode compose(Branch property, Branch availability, Branch wallet, LocalDate from, LocalDate to) {
+        ObjectNode result = objectMapper.createObjectNode();
+        result.set("property", property.body());
+
+        ObjectNode calendar = null;
+        if (availability.body() != null) {
+            calendar = result.objectNode();
+            calendar.put("from", from.toString());
+            calendar.put("to", to.toString());
+            calendar.set("bookedRanges", availability.body());
+        }
+        result.set("availability", calendar);
+
+        // 404 = le propriétaire n'a pas de wallet : réponse complète, walletAddress à null
+        JsonNode walletAddress = wallet.body() != null ? wallet.body().get("walletAddress") : null;
+        result.set("walletAddress", walletAddress);
+
+        // Un 4xx sur une branche optionnelle (400, 401, 429...) n'est pas une donnée vide : réponse partielle
+        ArrayNode unavailable = result.arrayNode();
+        if (availability.failed() || availability.clientError() != null) {
+            unavailable.add(availability.name());
+        }
+        if (wallet.failed() || (wallet.clientError() != null && wallet.status().value() != HttpStatus.NOT_FOUND.value())) {
+            unavailable.add(wallet.name());
+        }
+        result.put("partial", !unavailable.isEmpty());
+        result.set("unavailable", unavailable);
+        return result;
+    }
+
+    /**
+     * Une branche ne termine jamais en erreur : timeout / 5xx / connexion / circuit ouvert -> Branch.failed.
+     * Les 4xx sont des réponses valides du service : pas comptés comme échecs par le circuit breaker.
+     */
+    private Mono<Branch> fetch(String name, Duration timeout, ReactiveCircuitBreaker breaker,
+                               WebClient.RequestHeadersSpec<?> request) {
+        Mono<Branch> call = request.accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(body -> new Branch(name, HttpStatus.OK, body, null))
+                .timeout(timeout)
+                .onErrorResume(WebClientResponseException.class, e -> e.getStatusCode().is4xxClientError()
+                        ? Mono.just(new Branch(name, e.getStatusCode(), null, e))
+                        : Mono.error(e));
+        return breaker.run(call, e -> {
+            log.warn("⚠️ Aggregation branch '{}' failed: {}", name,
+                    e instanceof TimeoutException ? "timeout after " + timeout.toMillis() + " ms" : e.getMessage());
+            return Mono.just(new Branch(name, null, null, null));
+        });
+    }
+
+    /**
+     * 4xx de ListingService (404, 400 sur un id invalide...) renvoyé au client avec son corps.
+     * HttpStatusCode : un code non standard (499...) est transmis tel quel au lieu de lever une exception.
+     */
+    private Mono<Void> writeClientError(ServerWebExchange exchange, WebClientResponseException error) {
+        HttpStatusCode status = error.getStatusCode();
+        byte[] body = error.getResponseBodyAsByteArray();
+        ServerHttpResponse response = exchange.getResponse();
+        if (body.length == 0) {
+            HttpStatus known = HttpStatus.resolve(status.value());
+            if (known == null) {
+                response.setStatusCode(status);
+                return response.setComplete();
+            }
+            return ErrorTemplate.of(known, known.getReasonPhrase()).write(exchange);
+        }
+        response.setStatusCode(status);
+        MediaType contentType = error.getHeaders().getContentType();
+        response.getHeaders().setContentType(contentType != null ? contentType : MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, ObjectNode result) {
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(result);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(bytes.length);
+        // Disponibilités et wallet changent à chaque réservation : pas de cache partagé
+        response.getHeaders().setCacheControl("no-cache");
+        DataBuffer buffer = response.bufferFactory().wrap(bytes);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    /**
+     * Résultat d'une branche : status null = échec (timeout, 5xx, connexion), clientError = réponse 4xx amont
+     */
+    private record Branch(String name, HttpStatusCode status, JsonNode body, WebClientResponseException clientError) {
+
+        boolean failed() {
+            return status == null;
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
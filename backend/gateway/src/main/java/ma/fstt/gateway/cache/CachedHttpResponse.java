@@ -0,0 +1,24 @@
+package ma.fstt.gateway.cache;
+
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * ✅ Réponse amont mise en cache par le Gateway (corps non compressé, en-têtes utiles uniquement)
+ */
+public record CachedHttpResponse(HttpStatusCode status,
+                                 String contentType,
+                                 String etag,
+                                 String lastModified,
+                                 String cacheControl,
+                                 byte[] body,
+                                 long storedAtNanos,
+                                 long ttlNanos) {
+
+    public long ageSeconds(long nowNanos) {
+        return Math.max(0L, (nowNanos - storedAtNanos) / 1_000_000_000L);
+    }
+
+    public boolean isFresh(long nowNanos) {
+        return nowNanos - storedAtNanos < ttlNanos;
+    }
+}
@@ -0,0 +1,275 @@
+package ma.fstt.gateway.cache;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ✅ Cache de réponses au Gateway pour les GET publics (liste, recherche, nearby, caractéristiques).
+ *
+ * - Requêtes anonymes uniquement (pas d'Authorization), clé = chemin + query normalisée
+ * - Stockage seulement si l'amont l'autorise : 200, Cache-Control public avec s-maxage/max-age > 0,
+ *   ni private / no-store / no-cache, ni Set-Cookie, ni Vary
+ * - If-None-Match sur l'ETag amont : 304 directement depuis le Gateway
+ * - Request collapsing : sur un miss, une seule requête part vers l'amont, les requêtes identiques
+ *   concurrentes attendent sa réponse (ou repassent vers l'amont si elle n'est pas cacheable)
+ *
+ * Ordre < NettyWriteResponseFilter pour pouvoir décorer la réponse écrite par le Gateway,
+ * et > CompressionFilter : les hits sont compressés comme les réponses amont.
+ */
+@Component
+public class ResponseCacheFilter implements GatewayFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheFilter.class);
+
+    private static final String CACHE_HEADER = "X-Cache";
+
+    private static final Set<String> IGNORED_VARY = Set.of(
+            "origin", "access-control-request-method", "access-control-request-headers", "accept-encoding");
+
+    private final ResponseCacheStore store;
+    private final boolean enabled;
+    private final Duration collapseTimeout;
+
+    // Clé -> réponse en cours de chargement (leader), partagée par les requêtes identiques concurrentes
+    private final ConcurrentHashMap<String, Sinks.One<CachedHttpResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public ResponseCacheFilter(ResponseCacheStore store,
+                               @Value("${gateway.response-cache.enabled:true}") boolean enabled,
+                               @Value("${gateway.response-cache.collapse-timeout-ms:5000}") long collapseTimeoutMs) {
+        this.store = store;
+        this.enabled = enabled;
+        this.collapseTimeout = Duration.ofMillis(collapseTimeoutMs);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!enabled || !isCacheableRequest(request)) {
+            return chain.filter(exchange);
+        }
+
+        String key = ResponseCacheStore.key(request.getURI().getRawPath(), request.getQueryParams());
+
+        CachedHttpResponse cached = store.get(key);
+        if (cached != null) {
+            return writeCached(exchange, cached, "HIT");
+        }
+
+        Sinks.One<CachedHttpResponse> sink = Sinks.one();
+        Sinks.One<CachedHttpResponse> leader = inFlight.putIfAbsent(key, sink);
+        if (leader != null) {
+            // Follower : attendre la réponse du leader, sinon passer vers l'amont
+            return leader.asMono()
+                    .timeout(collapseTimeout, Mono.empty())
+                    .flatMap(response -> writeCached(exchange, response, "COLLAPSED"))
+                    .switchIfEmpty(Mono.defer(() -> chain.filter(exchange)));
+        }
+
+        // Leader : réponse amont capturée (identity, pas de Content-Encoding) puis partagée
+        ServerHttpRequest identityRequest = request.mutate()
+                .headers(headers -> headers.remove(HttpHeaders.ACCEPT_ENCODING))
+                .build();
+        ServerWebExchange leaderExchange = exchange.mutate()
+                .request(identityRequest)
+                .response(new CapturingResponse(exchange.getResponse(), key, sink))
+                .build();
+        leaderExchange.getResponse().getHeaders().set(CACHE_HEADER, "MISS");
+
+        return chain.filter(leaderExchange)
+                .doFinally(signal -> {
+                    inFlight.remove(key, sink);
+                    sink.tryEmitEmpty(); // sans effet si la réponse a déjà été publiée
+                });
+    }
+
+    private static boolean isCacheableRequest(ServerHttpRequest request) {
+        if (request.getMethod() != HttpMethod.GET) {
+            return false;
+        }
+        HttpHeaders headers = request.getHeaders();
+        if (headers.containsKey(HttpHeaders.AUTHORIZATION)) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        return cacheControl == null || !(cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedHttpResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        long now = System.nanoTime();
+
+        if (cached.etag() != null) {
+            headers.setETag(cached.etag());
+        }
+        if (cached.cacheControl() != null) {
+            headers.setCacheControl(cached.cacheControl());
+        }
+        if (cached.lastModified() != null) {
+            headers.set(HttpHeaders.LAST_MODIFIED, cached.lastModified());
+        }
+        headers.set(HttpHeaders.AGE, Long.toString(cached.ageSeconds(now)));
+        headers.set(CACHE_HEADER, cacheStatus);
+
+        if (cached.etag() != null && etagMatches(exchange.getRequest().getHeaders().getIfNoneMatch(), cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(cached.status());
+        if (cached.contentType() != null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, cached.contentType());
+        }
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static boolean etagMatches(List<String> ifNoneMatch, String etag) {
+        if (ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || stripWeak(candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * TTL autorisé par la réponse amont (s-maxage prioritaire sur max-age), 0 si non cacheable
+     */
+    static long sharedTtlSeconds(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null || headers.containsKey(HttpHeaders.SET_COOKIE) || hasContentVary(headers)) {
+            return 0;
+        }
+        long maxAge = -1;
+        long sharedMaxAge = -1;
+        boolean isPublic = false;
+        for (String directive : cacheControl.toLowerCase().split(",")) {
+            String d = directive.trim();
+            if (d.equals("private") || d.equals("no-store") || d.equals("no-cache")) {
+                return 0;
+            }
+            if (d.equals("public")) {
+                isPublic = true;
+            } else if (d.startsWith("s-maxage=")) {
+                sharedMaxAge = parseSeconds(d.substring("s-maxage=".length()));
+            } else if (d.startsWith("max-age=")) {
+                maxAge = parseSeconds(d.substring("max-age=".length()));
+            }
+        }
+        if (!isPublic) {
+            return 0;
+        }
+        return Math.max(0, sharedMaxAge >= 0 ? sharedMaxAge : maxAge);
+    }
+
+    /**
+     * Vary sur autre chose que CORS (géré par le Gateway) ou Accept-Encoding (compression au Gateway)
+     */
+    private static boolean hasContentVary(HttpHeaders headers) {
+        for (String vary : headers.getVary()) {
+            if (!IGNORED_VARY.contains(vary.trim().toLowerCase())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    /**
+     * Décorateur du leader : agrège le corps, le stocke s'il est cacheable, publie aux followers
+     */
+    private final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final Sinks.One<CachedHttpResponse> sink;
+
+        CapturingResponse(ServerHttpResponse delegate, String key, Sinks.One<CachedHttpResponse> sink) {
+            super(delegate);
+            this.key = key;
+            this.sink = sink;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getDelegate().getHeaders();
+            long ttlSeconds = getStatusCode() != null && getStatusCode().value() == 200
+                    && !headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                    ? sharedTtlSeconds(headers) : 0;
+            if (ttlSeconds <= 0) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(body).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                CachedHttpResponse response = new CachedHttpResponse(
+                        getStatusCode(),
+                        headers.getFirst(HttpHeaders.CONTENT_TYPE),
+                        headers.getETag(),
+                        headers.getFirst(HttpHeaders.LAST_MODIFIED),
+                        headers.getCacheControl(),
+                        bytes,
+                        System.nanoTime(),
+                        TimeUnit.SECONDS.toNanos(ttlSeconds));
+                store.put(key, response);
+                sink.tryEmitValue(response);
+                log.debug("Cached {} ({} bytes, ttl {}s)", key, bytes.length, ttlSeconds);
+
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).flatMapSequential(p -> p));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package ma.fstt.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ✅ Cache des réponses publiques du Gateway, borné en octets (poids = taille du corps + clé).
+ * Chaque entrée expire selon le s-maxage / max-age renvoyé par le service amont.
+ */
+@Component
+public class ResponseCacheStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheStore.class);
+
+    private final Cache<String, CachedHttpResponse> cache;
+    private final int maxEntryBytes;
+
+    public ResponseCacheStore(@Value("${gateway.response-cache.max-bytes:67108864}") long maxBytes,
+                              @Value("${gateway.response-cache.max-entry-bytes:1048576}") int maxEntryBytes) {
+        this.maxEntryBytes = maxEntryBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedHttpResponse value) -> key.length() * 2 + value.body().length)
+                .expireAfter(new Expiry<String, CachedHttpResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedHttpResponse value, long currentTime) {
+                        return value.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedHttpResponse value, long currentTime, long currentDuration) {
+                        return value.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedHttpResponse value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        log.info("✅ Gateway response cache ready: maxBytes={}, maxEntryBytes={}", maxBytes, maxEntryBytes);
+    }
+
+    public CachedHttpResponse get(String key) {
+        CachedHttpResponse cached = cache.getIfPresent(key);
+        return cached != null && cached.isFresh(System.nanoTime()) ? cached : null;
+    }
+
+    public void put(String key, CachedHttpResponse response) {
+        if (response.body().length <= maxEntryBytes) {
+            cache.put(key, response);
+        }
+    }
+
+    /**
+     * Clé = chemin + query canonique : paramètres triés par nom (ordre des valeurs conservé),
+     * noms et valeurs ré-encodés -> deux requêtes ont la même clé seulement si le service amont
+     * reçoit les mêmes paramètres ("?city=a%26page%3D2" != "?city=a&page=2", "?type=" != "")
+     */
+    public static String key(String path, MultiValueMap<String, String> queryParams) {
+        if (queryParams.isEmpty()) {
+            return path;
+        }
+        List<String> names = new ArrayList<>(queryParams.keySet());
+        names.sort(null);
+
+        StringBuilder sb = new StringBuilder(path.length() + 64).append(path);
+        char separator = '?';
+        for (String name : names) {
+            String encodedName = UriUtils.encode(name, StandardCharsets.UTF_8);
+            for (String value : queryParams.get(name)) {
+                sb.append(separator).append(encodedName);
+                // "?flag" et "?flag=" restent distincts
+                if (value != null) {
+                    sb.append('=').append(UriUtils.encode(value, StandardCharsets.UTF_8));
+                }
+                separator = '&';
+            }
+        }
+        return sb.toString();
+    }
+}
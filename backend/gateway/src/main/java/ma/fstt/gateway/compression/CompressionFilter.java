@@ -0,0 +1,189 @@
+package ma.fstt.gateway.compression;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+
+/**
+ * ✅ Compression négociée (br > gzip) des réponses JSON / texte, faite au Gateway.
+ *
+ * - Accept-Encoding du client négocié ici puis retiré de la requête amont : les services
+ *   répondent en identity, le Gateway compresse une seule fois (y compris les hits du cache)
+ * - Seuil : Content-Length connu et inférieur à min-response-size -> pas de compression
+ * - Streaming : chaque chunk amont est compressé et émis aussitôt (sync flush)
+ * - Réponse compressée : Vary: Accept-Encoding et ETag amont rendu faible (W/"...")
+ *
+ * Ordre : avant ResponseCacheFilter (qui stocke donc des corps non compressés).
+ */
+@Component
+public class CompressionFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(CompressionFilter.class);
+
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+
+    private final boolean enabled;
+    private final long minResponseSize;
+    private final int gzipLevel;
+    private final int brotliQuality;
+    private final boolean brotliEnabled;
+
+    public CompressionFilter(@Value("${gateway.compression.enabled:true}") boolean enabled,
+                             @Value("${gateway.compression.min-response-size:1024}") long minResponseSize,
+                             @Value("${gateway.compression.gzip-level:5}") int gzipLevel,
+                             @Value("${gateway.compression.brotli-quality:4}") int brotliQuality,
+                             @Value("${gateway.compression.brotli-enabled:true}") boolean brotliEnabled) {
+        this.enabled = enabled;
+        this.minResponseSize = minResponseSize;
+        this.gzipLevel = gzipLevel;
+        this.brotliQuality = brotliQuality;
+        this.brotliEnabled = brotliEnabled && ContentEncoding.BR.isAvailable();
+
+        log.info("✅ Response compression {}: minSize={}B, gzipLevel={}, brotli={}",
+                enabled ? "enabled" : "disabled", minResponseSize, gzipLevel,
+                this.brotliEnabled ? "q" + brotliQuality : "unavailable");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!enabled || request.getMethod() == HttpMethod.HEAD) {
+            return chain.filter(exchange);
+        }
+
+        ContentEncoding encoding = negotiate(request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING));
+        if (encoding == null) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest identityRequest = request.mutate()
+                .headers(headers -> headers.remove(HttpHeaders.ACCEPT_ENCODING))
+                .build();
+        return chain.filter(exchange.mutate()
+                .request(identityRequest)
+                .response(new CompressingResponse(exchange.getResponse(), encoding))
+                .build());
+    }
+
+    /**
+     * Choix de l'encodage : br si accepté et disponible, sinon gzip ; q=0 exclut l'encodage
+     */
+    ContentEncoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        boolean br = false;
+        boolean gzip = false;
+        for (String part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (tokens.length > 1 && tokens[1].trim().matches("q=0(\\.0*)?")) {
+                continue;
+            }
+            if (coding.equals("br")) {
+                br = true;
+            } else if (coding.equals("gzip") || coding.equals("*")) {
+                gzip = true;
+            }
+        }
+        if (br && brotliEnabled) {
+            return ContentEncoding.BR;
+        }
+        return gzip ? ContentEncoding.GZIP : null;
+    }
+
+    private boolean shouldCompress(HttpHeaders headers) {
+        if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return false;
+        }
+        long contentLength = headers.getContentLength();
+        if (contentLength >= 0 && contentLength < minResponseSize) {
+            return false;
+        }
+        MediaType contentType = headers.getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        String subtype = contentType.getSubtype();
+        return "text".equals(contentType.getType())
+                || "json".equals(subtype)
+                || subtype.endsWith("+json")
+                || "javascript".equals(subtype)
+                || "xml".equals(subtype);
+    }
+
+    private final class CompressingResponse extends ServerHttpResponseDecorator {
+
+        private final ContentEncoding encoding;
+
+        CompressingResponse(ServerHttpResponse delegate, ContentEncoding encoding) {
+            super(delegate);
+            this.encoding = encoding;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getDelegate().getHeaders();
+            if (!shouldCompress(headers)) {
+                return super.writeWith(body);
+            }
+
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.set(HttpHeaders.CONTENT_ENCODING, encoding.token());
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            // Les octets envoyés ne sont plus ceux de l'ETag fort amont : ETag faible (RFC 9110 8.8.1).
+            // If-None-Match reste comparé en faible (ResponseCacheFilter, services) : les 304 sont conservés.
+            String etag = headers.getETag();
+            if (etag != null && !etag.startsWith("W/")) {
+                headers.setETag("W/" + etag);
+            }
+
+            int level = encoding == ContentEncoding.BR ? brotliQuality : gzipLevel;
+
+            // Flux.using : compresseur fermé aussi sur annulation (client parti) ou erreur amont
+            Flux<DataBuffer> compressed = Flux.using(
+                    () -> new StreamingCompressor(encoding, level),
+                    compressor -> Flux.from(body)
+                            .map(buffer -> {
+                                byte[] chunk = new byte[buffer.readableByteCount()];
+                                buffer.read(chunk);
+                                DataBufferUtils.release(buffer);
+                                return bufferFactory().wrap(compressor.compress(chunk));
+                            })
+                            .concatWith(Mono.fromSupplier(() -> bufferFactory().wrap(compressor.finish()))),
+                    StreamingCompressor::close)
+                    .filter(buffer -> buffer.readableByteCount() > 0);
+
+            return super.writeWith(compressed);
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).flatMapSequential(p -> p));
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,69 @@
+package ma.fstt.gateway.compression;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ✅ Encodages supportés par le Gateway, du plus au moins préféré
+ */
+enum ContentEncoding {
+
+    BR("br") {
+        @Override
+        OutputStream open(OutputStream sink, int level) throws IOException {
+            return new BrotliOutputStream(sink, new Encoder.Parameters().setQuality(level));
+        }
+
+        @Override
+        boolean isAvailable() {
+            return BROTLI_AVAILABLE;
+        }
+    },
+
+    GZIP("gzip") {
+        @Override
+        OutputStream open(OutputStream sink, int level) throws IOException {
+            // syncFlush=true : flush() émet les octets compressés du chunk courant
+            return new GZIPOutputStream(sink, 8192, true) {
+                {
+                    def.setLevel(level);
+                }
+            };
+        }
+
+        @Override
+        boolean isAvailable() {
+            return true;
+        }
+    };
+
+    // Bibliothèque native : absente sur certaines plateformes -> gzip uniquement
+    private static final boolean BROTLI_AVAILABLE = loadBrotli();
+
+    private final String token;
+
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+
+    String token() {
+        return token;
+    }
+
+    abstract OutputStream open(OutputStream sink, int level) throws IOException;
+
+    abstract boolean isAvailable();
+
+    private static boolean loadBrotli() {
+        try {
+            return Brotli4jLoader.isAvailable();
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+}
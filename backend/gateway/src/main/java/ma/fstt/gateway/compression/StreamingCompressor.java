@@ -0,0 +1,79 @@
+package ma.fstt.gateway.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * ✅ Compression incrémentale d'un corps de réponse : chaque chunk amont est compressé puis
+ * vidé (sync flush) et renvoyé immédiatement ; seul l'état du compresseur est conservé,
+ * jamais le corps complet.
+ *
+ * Une instance par réponse. close() libère l'état natif (brotli) / le Deflater même si la
+ * réponse est annulée ou échoue avant finish() ; il peut être appelé depuis un autre thread
+ * (annulation), d'où la synchronisation.
+ */
+final class StreamingCompressor implements AutoCloseable {
+
+    private final ByteArrayOutputStream sink = new ByteArrayOutputStream(8192);
+    private final OutputStream out;
+    private boolean closed;
+
+    StreamingCompressor(ContentEncoding encoding, int level) {
+        try {
+            this.out = encoding.open(sink, level);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized byte[] compress(byte[] chunk) {
+        if (closed) {
+            return new byte[0];
+        }
+        try {
+            out.write(chunk);
+            out.flush();
+            return drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized byte[] finish() {
+        if (closed) {
+            return new byte[0];
+        }
+        closed = true;
+        try {
+            out.close();
+            return drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Idempotent : sans effet après finish()
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            out.close();
+        } catch (IOException | RuntimeException ignored) {
+            // Réponse abandonnée : seul compte la libération du compresseur
+        }
+        sink.reset();
+    }
+
+    private byte[] drain() {
+        byte[] bytes = sink.toByteArray();
+        sink.reset();
+        return bytes;
+    }
+}
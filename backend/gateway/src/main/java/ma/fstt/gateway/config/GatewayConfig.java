@@ -1,15 +1,30 @@
 package ma.fstt.gateway.config;
 
+import ma.fstt.gateway.aggregation.PropertyDetailAggregationFilter;
+import ma.fstt.gateway.cache.ResponseCacheFilter;
 import ma.fstt.gateway.filter.JwtAuthenticationFilter;
 import ma.fstt.gateway.filter.RoleBasedAuthorizationFilter;
+import ma.fstt.gateway.resilience.RetryBudgets;
+import ma.fstt.gateway.routing.RouteTable;
 import ma.fstt.gateway.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.factory.SpringCloudCircuitBreakerFilterFactory;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+import static org.springframework.http.HttpMethod.DELETE;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.PATCH;
+import static org.springframework.http.HttpMethod.POST;
+import static org.springframework.http.HttpMethod.PUT;
+
 /**
  * ✅ Configuration complète du Gateway avec tous les endpoints
  * ✅ UPDATED: Added Host Dashboard routes
@@ -29,6 +44,15 @@ public class GatewayConfig {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private ResponseCacheFilter responseCacheFilter;
+
+    @Autowired
+    private PropertyDetailAggregationFilter propertyDetailAggregationFilter;
+
+    @Autowired
+    private RetryBudgets retryBudgets;
+
     @Value("${auth.service.url}")
     private String authServiceUrl;
 
@@ -41,478 +65,294 @@ public class GatewayConfig {
     @Value("${payment.service.url}")
     private String paymentServiceUrl;
 
-    @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
-        return builder.routes()
+    // ✅ Timeouts de réponse par route (ms) ; autres routes : httpclient.response-timeout (application.properties)
+    @Value("${gateway.timeouts.auth-ms:8000}")
+    private long authTimeoutMs;
 
-                // ==================== AUTH SERVICE ====================
+    @Value("${gateway.timeouts.public-read-ms:3000}")
+    private long publicReadTimeoutMs;
 
-                // ---------- Public Routes (Authentication) ----------
-                .route("auth_signup", r -> r
-                        .path("/api/auth/users")
-                        .and().method("POST")
-                        .filters(f -> f.stripPrefix(2))
-                        .uri(authServiceUrl))
+    @Value("${gateway.timeouts.owner-write-ms:30000}")
+    private long ownerWriteTimeoutMs;
 
-                .route("auth_login", r -> r
-                        .path("/api/auth/users/login")
-                        .and().method("POST")
-                        .filters(f -> f.stripPrefix(2))
-                        .uri(authServiceUrl))
-
-                .route("auth_verify_otp", r -> r
-                        .path("/api/auth/users/verify-otp")
-                        .and().method("POST")
-                        .filters(f -> f.stripPrefix(2))
-                        .uri(authServiceUrl))
-
-                .route("auth_resend_otp", r -> r
-                        .path("/api/auth/users/resend-otp")
-                        .and().method("POST")
-                        .filters(f -> f.stripPrefix(2))
-                        .uri(authServiceUrl))
+    @Value("${gateway.timeouts.payment-ms:15000}")
+    private long paymentTimeoutMs;
 
-                .route("auth_forgot_password", r -> r
-                        .path("/api/auth/users/forgot-password")
-                        .and().method("POST")
-                        .filters(f -> f.stripPrefix(2))
-                        .uri(authServiceUrl))
+    @Bean
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+        // ✅ Routes consolidées par (service, méthodes, niveau d'auth), résolues par un trie :
+        // la spécificité du chemin (littéral > {variable}) décide, pas l'ordre de déclaration.
+        RouteTable routes = new RouteTable();
 
-                .route("auth_reset_password", r -> r
-                        .path("/api/auth/users/reset-password")
-                        .and().method("POST")
-                        .filters(f -> f.stripPrefix(2))
-                        .uri(authServiceUrl))
+        return builder.routes()
 
-                // ---------- Protected User Management ----------
-                .route("auth_get_user", r -> r
-                        .path("/api/auth/users/{id}")
-                        .and().method("GET")
-                        .filters(f -> f
-                                .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(authServiceUrl))
+                // ==================== AUTH SERVICE ====================
 
-                .route("auth_update_user", r -> r
-                        .path("/api/auth/users/{id}")
-                        .and().method("PUT")
+                // ---------- Public Routes (Authentication) ----------
+                .route("auth_public", r -> r
+                        .predicate(routes.route("auth_public", Set.of(POST),
+                                "/api/auth/users",
+                                "/api/auth/users/login",
+                                "/api/auth/users/verify-otp",
+                                "/api/auth/users/resend-otp",
+                                "/api/auth/users/forgot-password",
+                                "/api/auth/users/reset-password"))
                         .filters(f -> f
                                 .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter))
+                                .circuitBreaker(breaker("auth"))
+                                .filter(retryBudgets.forUpstream("auth")))
+                        .metadata(RESPONSE_TIMEOUT_ATTR, authTimeoutMs)
                         .uri(authServiceUrl))
 
-                .route("auth_delete_user", r -> r
-                        .path("/api/auth/users/{id}")
-                        .and().method("DELETE")
+                // ---------- Agent Management + user deletion (ADMIN Only) ----------
+                .route("auth_admin", r -> r
+                        .predicate(routes.route("auth_admin", Set.of(GET, POST, DELETE),
+                                "/api/auth/users/admin/agents",
+                                "/api/auth/users/admin/agents/{agentId}"))
                         .filters(f -> f
                                 .stripPrefix(2)
                                 .filter(jwtAuthenticationFilter)
-                                .filter(new RoleBasedAuthorizationFilter(jwtUtil, "ADMIN")))
+                                .filter(new RoleBasedAuthorizationFilter(jwtUtil, "ADMIN"))
+                                .circuitBreaker(breaker("auth"))
+                                .filter(retryBudgets.forUpstream("auth")))
                         .uri(authServiceUrl))
 
-                // ---------- Agent Management (ADMIN Only) ----------
-                .route("auth_create_agent", r -> r
-                        .path("/api/auth/users/admin/agents")
-                        .and().method("POST")
+                .route("auth_admin_delete_user", r -> r
+                        .predicate(routes.route("auth_admin_delete_user", Set.of(DELETE),
+                                "/api/auth/users/{id}"))
                         .filters(f -> f
                                 .stripPrefix(2)
                                 .filter(jwtAuthenticationFilter)
-                                .filter(new RoleBasedAuthorizationFilter(jwtUtil, "ADMIN")))
+                                .filter(new RoleBasedAuthorizationFilter(jwtUtil, "ADMIN"))
+                                .circuitBreaker(breaker("auth"))
+                                .filter(retryBudgets.forUpstream("auth")))
                         .uri(authServiceUrl))
 
-                .route("auth_get_all_agents", r -> r
-                        .path("/api/auth/users/admin/agents")
-                        .and().method("GET")
+                // ---------- Protected User + Wallet Management ----------
+                .route("auth_user", r -> r
+                        .predicate(routes.route("auth_user", Set.of(GET, PUT),
+                                "/api/auth/users/{id}",
+                                "/api/auth/users/{userId}/wallet/status"))
                         .filters(f -> f
                                 .stripPrefix(2)
                                 .filter(jwtAuthenticationFilter)
-                                .filter(new RoleBasedAuthorizationFilter(jwtUtil, "ADMIN")))
+                                .circuitBreaker(breaker("auth"))
+                                .filter(retryBudgets.forUpstream("auth")))
                         .uri(authServiceUrl))
 
-                .route("auth_delete_agent", r -> r
-                        .path("/api/auth/users/admin/agents/{agentId}")
-                        .and().method("DELETE")
+                .route("auth_wallet", r -> r
+                        .predicate(routes.route("auth_wallet", Set.of(POST, DELETE),
+                                "/api/auth/users/{userId}/wallet/connect",
+                                "/api/auth/users/{userId}/wallet/disconnect"))
                         .filters(f -> f
                                 .stripPrefix(2)
                                 .filter(jwtAuthenticationFilter)
-                                .filter(new RoleBasedAuthorizationFilter(jwtUtil, "ADMIN")))
-                        .uri(authServiceUrl))
-
-                // ---------- Wallet Management ----------
-                .route("wallet_connect", r -> r
-                        .path("/api/auth/users/{userId}/wallet/connect")
-                        .and().method("POST")
-                        .filters(f -> f
-                                .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(authServiceUrl))
-
-                .route("wallet_disconnect", r -> r
-                        .path("/api/auth/users/{userId}/wallet/disconnect")
-                        .and().method("DELETE")
-                        .filters(f -> f
-                                .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(authServiceUrl))
-
-                .route("wallet_status", r -> r
-                        .path("/api/auth/users/{userId}/wallet/status")
-                        .and().method("GET")
-                        .filters(f -> f
-                                .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter))
+                                .circuitBreaker(breaker("auth"))
+                                .filter(retryBudgets.forUpstream("auth")))
                         .uri(authServiceUrl))
 
                 // ==================== LISTING SERVICE ====================
 
-                // ---------- Properties - Specific Routes (MUST come before generic routes) ----------
-
-                // 1. My Properties (Specific)
-                .route("listing_my_properties", r -> r
-                        .path("/api/listings/properties/my-properties")
-                        .and().method("GET")
+                // ---------- Public reads (catalogue, search, pricing calendar, wallet for payment) ----------
+                .route("listing_public_read", r -> r
+                        .predicate(routes.route("listing_public_read", Set.of(GET),
+                                "/api/listings/properties",
+                                "/api/listings/properties/search",
+                                "/api/listings/properties/nearby",
+                                "/api/listings/properties/{propertyId}",
+                                "/api/listings/properties/{propertyId}/pricing/calendar",
+                                "/api/listings/properties/{propertyId}/wallet-address",
+                                "/api/listings/characteristics",
+                                "/api/listings/characteristics/{id}",
+                                "/api/listings/type-caracteristiques",
+                                "/api/listings/type-caracteristiques/{id}",
+                                "/api/listings/owners/check/{userId}"))
                         .filters(f -> f
                                 .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(listingServiceUrl))
-
-                // 2. Search Properties (Specific)
-                .route("listing_search_properties", r -> r
-                        .path("/api/listings/properties/search")
-                        .and().method("GET")
-                        .filters(f -> f.stripPrefix(2))
-                        .uri(listingServiceUrl))
-
-                // 3. Nearby Properties (Specific)
-                .route("listing_nearby_properties", r -> r
-                        .path("/api/listings/properties/nearby")
-                        .and().method("GET")
-                        .filters(f -> f.stripPrefix(2))
+                                .filter(responseCacheFilter)
+                                .circuitBreaker(breaker("listing"))
+                                .filter(retryBudgets.forUpstream("listing")))
+                        .metadata(RESPONSE_TIMEOUT_ATTR, publicReadTimeoutMs)
                         .uri(listingServiceUrl))
 
-                // 4. Pending Properties - ADMIN (Specific)
-                .route("listing_pending_properties", r -> r
-                        .path("/api/listings/properties/pending")
-                        .and().method("GET")
+                // ---------- Public writes (quotes + batch fetch are read-only POSTs) ----------
+                .route("listing_public_post", r -> r
+                        .predicate(routes.route("listing_public_post", Set.of(POST),
+                                "/api/listings/properties/pricing/quote",
+                                "/api/listings/properties/batch"))
                         .filters(f -> f
                                 .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter)
-                                .filter(new RoleBasedAuthorizationFilter(jwtUtil, "ADMIN")))
+                                .circuitBreaker(breaker("listing"))
+                                .filter(retryBudgets.forUpstream("listing")))
+                        .metadata(RESPONSE_TIMEOUT_ATTR, publicReadTimeoutMs)
                         .uri(listingServiceUrl))
 
-                // 5. Get Properties by Owner (Specific)
-                .route("listing_get_properties_by_owner", r -> r
-                        .path("/api/listings/properties/owner/{ownerId}")
-                        .and().method("GET")
-                        .filters(f -> f
-                                .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(listingServiceUrl))
-
-                // ✅ NEW: Get Property IDs by Owner (for BookingService Host Dashboard)
-                .route("listing_get_property_ids_by_owner", r -> r
-                        .path("/api/listings/properties/owner/{ownerId}/property-ids")
-                        .and().method("GET")
-                        .filters(f -> f
-                                .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(listingServiceUrl))
-
-                // 6. Property Actions (Specific paths with actions)
-                .route("listing_submit_property", r -> r
-                        .path("/api/listings/properties/{propertyId}/submit")
-                        .and().method("POST")
-                        .filters(f -> f
-                                .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(listingServiceUrl))
-
-                .route("listing_validate_property", r -> r
-                        .path("/api/listings/properties/{propertyId}/validate")
-                        .and().method("POST")
-                        .filters(f -> f
-                                .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter)
-                                .filter(new RoleBasedAuthorizationFilter(jwtUtil, "ADMIN")))
-                        .uri(listingServiceUrl))
-
-                .route("listing_hide_property", r -> r
-                        .path("/api/listings/properties/{propertyId}/hide")
-                        .and().method("POST")
-                        .filters(f -> f
-                                .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(listingServiceUrl))
-
-                .route("listing_show_property", r -> r
-                        .path("/api/listings/properties/{propertyId}/show")
-                        .and().method("POST")
-                        .filters(f -> f
-                                .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(listingServiceUrl))
-
-                .route("listing_reject_property", r -> r
-                        .path("/api/listings/properties/{propertyId}/reject")
-                        .and().method("POST")
+                // ---------- Owner reads (JWT) ----------
+                .route("listing_owner_read", r -> r
+                        .predicate(routes.route("listing_owner_read", Set.of(GET),
+                                "/api/listings/properties/my-properties",
+                                "/api/listings/properties/my-properties/price-suggestions",
+                                "/api/listings/properties/owner/{ownerId}",
+                                "/api/listings/properties/owner/{ownerId}/property-ids",
+                                "/api/listings/properties/{propertyId}/pricing/rules",
+                                "/api/listings/owners/{userId}"))
                         .filters(f -> f
                                 .stripPrefix(2)
                                 .filter(jwtAuthenticationFilter)
-                                .filter(new RoleBasedAuthorizationFilter(jwtUtil, "ADMIN")))
-                        .uri(listingServiceUrl))
-
-                // 7. Property Images
-                .route("listing_add_property_images", r -> r
-                        .path("/api/listings/properties/{propertyId}/images")
-                        .and().method("POST")
-                        .filters(f -> f
-                                .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(listingServiceUrl))
-
-                // 8. Property Status Update
-                .route("listing_update_property_status", r -> r
-                        .path("/api/listings/properties/{propertyId}/status")
-                        .and().method("PATCH")
-                        .filters(f -> f
-                                .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(listingServiceUrl))
-
-                .route("listing_update_property_status_v2", r -> r
-                        .path("/api/listings/properties/{propertyId}/status/v2")
-                        .and().method("PATCH")
-                        .filters(f -> f
-                                .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(listingServiceUrl))
-
-                // ---------- Properties - Generic CRUD (MUST come after specific routes) ----------
-                .route("listing_create_property", r -> r
-                        .path("/api/listings/properties")
-                        .and().method("POST")
-                        .filters(f -> f
-                                .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(listingServiceUrl))
-
-                .route("listing_get_all_properties", r -> r
-                        .path("/api/listings/properties")
-                        .and().method("GET")
-                        .filters(f -> f.stripPrefix(2))
-                        .uri(listingServiceUrl))
-
-                .route("listing_get_property", r -> r
-                        .path("/api/listings/properties/{propertyId}")
-                        .and().method("GET")
-                        .filters(f -> f.stripPrefix(2))
-                        .uri(listingServiceUrl))
-
-                .route("listing_update_property", r -> r
-                        .path("/api/listings/properties/{propertyId}")
-                        .and().method("PUT")
-                        .filters(f -> f
-                                .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(listingServiceUrl))
-
-                .route("listing_delete_property", r -> r
-                        .path("/api/listings/properties/{propertyId}")
-                        .and().method("DELETE")
-                        .filters(f -> f
-                                .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(listingServiceUrl))
-
-                // ---------- Characteristics (Public + Admin) ----------
-                .route("listing_get_all_characteristics", r -> r
-                        .path("/api/listings/characteristics")
-                        .and().method("GET")
-                        .filters(f -> f.stripPrefix(2))
-                        .uri(listingServiceUrl))
-
-                .route("listing_get_characteristic", r -> r
-                        .path("/api/listings/characteristics/{id}")
-                        .and().method("GET")
-                        .filters(f -> f.stripPrefix(2))
+                                .circuitBreaker(breaker("listing"))
+                                .filter(retryBudgets.forUpstream("listing")))
                         .uri(listingServiceUrl))
 
-                .route("listing_create_characteristic", r -> r
-                        .path("/api/listings/characteristics")
-                        .and().method("POST")
+                // ---------- Owner writes (JWT) ----------
+                .route("listing_owner_write", r -> r
+                        .predicate(routes.route("listing_owner_write", Set.of(POST),
+                                "/api/listings/properties",
+                                "/api/listings/properties/{propertyId}/submit",
+                                "/api/listings/properties/{propertyId}/hide",
+                                "/api/listings/properties/{propertyId}/show",
+                                "/api/listings/properties/{propertyId}/images",
+                                "/api/listings/properties/{propertyId}/images/presign",
+                                "/api/listings/properties/{propertyId}/images/complete",
+                                "/api/listings/properties/price-suggestion",
+                                "/api/listings/properties/price-suggestion/batch"))
                         .filters(f -> f
                                 .stripPrefix(2)
                                 .filter(jwtAuthenticationFilter)
-                                .filter(new RoleBasedAuthorizationFilter(jwtUtil, "ADMIN")))
+                                .circuitBreaker(breaker("listing"))
+                                .filter(retryBudgets.forUpstream("listing")))
+                        .metadata(RESPONSE_TIMEOUT_ATTR, ownerWriteTimeoutMs)
                         .uri(listingServiceUrl))
 
-                .route("listing_update_characteristic", r -> r
-                        .path("/api/listings/characteristics/{id}")
-                        .and().method("PUT")
+                .route("listing_owner_update", r -> r
+                        .predicate(routes.route("listing_owner_update", Set.of(PUT, PATCH, DELETE),
+                                "/api/listings/properties/{propertyId}",
+                                "/api/listings/properties/{propertyId}/pricing/rules",
+                                "/api/listings/properties/{propertyId}/status",
+                                "/api/listings/properties/{propertyId}/status/v2"))
                         .filters(f -> f
                                 .stripPrefix(2)
                                 .filter(jwtAuthenticationFilter)
-                                .filter(new RoleBasedAuthorizationFilter(jwtUtil, "ADMIN")))
+                                .circuitBreaker(breaker("listing"))
+                                .filter(retryBudgets.forUpstream("listing")))
                         .uri(listingServiceUrl))
 
-                .route("listing_delete_characteristic", r -> r
-                        .path("/api/listings/characteristics/{id}")
-                        .and().method("DELETE")
+                // ---------- Admin (moderation, characteristics catalogue, owners) ----------
+                .route("listing_admin_read", r -> r
+                        .predicate(routes.route("listing_admin_read", Set.of(GET),
+                                "/api/listings/properties/pending",
+                                "/api/listings/owners"))
                         .filters(f -> f
                                 .stripPrefix(2)
                                 .filter(jwtAuthenticationFilter)
-                                .filter(new RoleBasedAuthorizationFilter(jwtUtil, "ADMIN")))
+                                .filter(new RoleBasedAuthorizationFilter(jwtUtil, "ADMIN"))
+                                .circuitBreaker(breaker("listing"))
+                                .filter(retryBudgets.forUpstream("listing")))
                         .uri(listingServiceUrl))
 
-                // ---------- Type Caracteristiques (Public + Admin) ----------
-                .route("listing_get_all_types", r -> r
-                        .path("/api/listings/type-caracteristiques")
-                        .and().method("GET")
-                        .filters(f -> f.stripPrefix(2))
-                        .uri(listingServiceUrl))
-
-                .route("listing_get_type", r -> r
-                        .path("/api/listings/type-caracteristiques/{id}")
-                        .and().method("GET")
-                        .filters(f -> f.stripPrefix(2))
-                        .uri(listingServiceUrl))
-
-                .route("listing_create_type", r -> r
-                        .path("/api/listings/type-caracteristiques")
-                        .and().method("POST")
+                .route("listing_admin_write", r -> r
+                        .predicate(routes.route("listing_admin_write", Set.of(POST),
+                                "/api/listings/properties/{propertyId}/validate",
+                                "/api/listings/properties/{propertyId}/reject",
+                                "/api/listings/characteristics",
+                                "/api/listings/type-caracteristiques"))
                         .filters(f -> f
                                 .stripPrefix(2)
                                 .filter(jwtAuthenticationFilter)
-                                .filter(new RoleBasedAuthorizationFilter(jwtUtil, "ADMIN")))
+                                .filter(new RoleBasedAuthorizationFilter(jwtUtil, "ADMIN"))
+                                .circuitBreaker(breaker("listing"))
+                                .filter(retryBudgets.forUpstream("listing")))
                         .uri(listingServiceUrl))
 
-                // ---------- Property Wallet Address (for Payment Service) ----------
-                .route("listing_property_wallet", r -> r
-                        .path("/api/listings/properties/{propertyId}/wallet-address")
-                        .and().method("GET")
-                        .filters(f -> f.stripPrefix(2))
-                        .uri(listingServiceUrl))
-
-                // ---------- Owners ----------
-                .route("listing_check_owner_status", r -> r
-                        .path("/api/listings/owners/check/{userId}")
-                        .and().method("GET")
-                        .filters(f -> f.stripPrefix(2))
-                        .uri(listingServiceUrl))
-
-                .route("listing_get_owner", r -> r
-                        .path("/api/listings/owners/{userId}")
-                        .and().method("GET")
-                        .filters(f -> f
-                                .stripPrefix(2)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(listingServiceUrl))
-
-                .route("listing_get_all_owners", r -> r
-                        .path("/api/listings/owners")
-                        .and().method("GET")
+                .route("listing_admin_update", r -> r
+                        .predicate(routes.route("listing_admin_update", Set.of(PUT, DELETE),
+                                "/api/listings/characteristics/{id}"))
                         .filters(f -> f
                                 .stripPrefix(2)
                                 .filter(jwtAuthenticationFilter)
-                                .filter(new RoleBasedAuthorizationFilter(jwtUtil, "ADMIN")))
+                                .filter(new RoleBasedAuthorizationFilter(jwtUtil, "ADMIN"))
+                                .circuitBreaker(breaker("listing"))
+                                .filter(retryBudgets.forUpstream("listing")))
                         .uri(listingServiceUrl))
 
                 // ==================== BOOKING SERVICE ====================
 
-                // ---------- Booking Creation & Management ----------
-                .route("booking_create", r -> r
-                        .path("/api/bookings")
-                        .and().method("POST")
-                        .filters(f -> f
-                                .stripPrefix(1)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(bookingServiceUrl))
-
-                .route("booking_cancel", r -> r
-                        .path("/api/bookings/{bookingId}/cancel")
-                        .and().method("PATCH")
-                        .filters(f -> f
-                                .stripPrefix(1)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(bookingServiceUrl))
-
-                .route("booking_get_mine", r -> r
-                        .path("/api/bookings/my-bookings")
-                        .and().method("GET")
-                        .filters(f -> f
-                                .stripPrefix(1)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(bookingServiceUrl))
-
-                .route("booking_get_by_id", r -> r
-                        .path("/api/bookings/{bookingId}")
-                        .and().method("GET")
-                        .filters(f -> f
-                                .stripPrefix(1)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(bookingServiceUrl))
-
-                // ---------- Booking Counts ----------
-                .route("booking_future_host_count", r -> r
-                        .path("/api/bookings/host/{userId}/future-count")
-                        .and().method("GET")
+                // ---------- Bookings, counts, host dashboard (JWT) ----------
+                .route("booking", r -> r
+                        .predicate(routes.route("booking", Set.of(GET),
+                                "/api/bookings/my-bookings",
+                                "/api/bookings/{bookingId}",
+                                "/api/bookings/host",
+                                "/api/bookings/host/{hostId}",
+                                "/api/bookings/host/{userId}/future-count",
+                                "/api/bookings/client/{userId}/active-count"))
                         .filters(f -> f
                                 .stripPrefix(1)
-                                .filter(jwtAuthenticationFilter))
+                                .filter(jwtAuthenticationFilter)
+                                .circuitBreaker(breaker("booking"))
+                                .filter(retryBudgets.forUpstream("booking")))
                         .uri(bookingServiceUrl))
 
-                .route("booking_active_client_count", r -> r
-                        .path("/api/bookings/client/{userId}/active-count")
-                        .and().method("GET")
+                .route("booking_write", r -> r
+                        .predicate(routes.route("booking_write", Set.of(POST, PATCH),
+                                "/api/bookings",
+                                "/api/bookings/{bookingId}/cancel"))
                         .filters(f -> f
                                 .stripPrefix(1)
-                                .filter(jwtAuthenticationFilter))
+                                .filter(jwtAuthenticationFilter)
+                                .circuitBreaker(breaker("booking"))
+                                .filter(retryBudgets.forUpstream("booking")))
                         .uri(bookingServiceUrl))
 
-                // ✅ NEW: Host Dashboard
-                .route("booking_host_dashboard", r -> r
-                        .path("/api/bookings/host")
-                        .and().method("GET")
-                        .filters(f -> f
-                                .stripPrefix(1)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(bookingServiceUrl))
+                // ==================== COMPOSITION (Gateway) ====================
 
-                .route("booking_host_dashboard_by_id", r -> r
-                        .path("/api/bookings/host/{hostId}")
-                        .and().method("GET")
+                // ---------- Page détail : propriété + disponibilités + wallet en un appel ----------
+                // Filtre terminal (fan-out WebClient), l'URI n'est jamais appelée.
+                // Circuit breakers "listing" / "booking" appliqués par branche dans le filtre
+                // (la réponse est déjà écrite quand un .circuitBreaker() de route verrait le statut)
+                .route("view_property_detail", r -> r
+                        .predicate(routes.route("view_property_detail", Set.of(GET),
+                                "/api/views/properties/{propertyId}"))
                         .filters(f -> f
-                                .stripPrefix(1)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(bookingServiceUrl))
+                                .filter(propertyDetailAggregationFilter))
+                        .uri("no://op"))
 
                 // ==================== PAYMENT SERVICE ====================
 
-                // ---------- Payment Validation ----------
-                .route("payment_validate", r -> r
-                        .path("/api/payments/validate")
-                        .and().method("POST")
-                        .filters(f -> f
-                                .stripPrefix(1)
-                                .filter(jwtAuthenticationFilter))
+                // ---------- Health Check ----------
+                .route("payment_health", r -> r
+                        .predicate(routes.route("payment_health", Set.of(GET),
+                                "/api/payments/health"))
+                        .filters(f -> f.stripPrefix(1)
+                                .circuitBreaker(breaker("payment"))
+                                .filter(retryBudgets.forUpstream("payment")))
                         .uri(paymentServiceUrl))
 
-                // ---------- Payment History ----------
-                .route("payment_history_by_booking", r -> r
-                        .path("/api/payments/booking/{bookingId}")
-                        .and().method("GET")
+                // ---------- Payment Validation + History (JWT) ----------
+                .route("payment", r -> r
+                        .predicate(routes.route("payment", Set.of(GET, POST),
+                                "/api/payments/validate",
+                                "/api/payments/booking/{bookingId}"))
                         .filters(f -> f
                                 .stripPrefix(1)
-                                .filter(jwtAuthenticationFilter))
-                        .uri(paymentServiceUrl))
-
-                // ---------- Health Check ----------
-                .route("payment_health", r -> r
-                        .path("/api/payments/health")
-                        .and().method("GET")
-                        .filters(f -> f.stripPrefix(1))
+                                .filter(jwtAuthenticationFilter)
+                                .circuitBreaker(breaker("payment"))
+                                .filter(retryBudgets.forUpstream("payment")))
+                        .metadata(RESPONSE_TIMEOUT_ATTR, paymentTimeoutMs)
                         .uri(paymentServiceUrl))
 
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * ✅ Circuit breaker Resilience4j du service (resilience4j.circuitbreaker.instances.<service>.*)
+     * Échecs comptés : exceptions (connexion, timeout) + 502/503/504 amont ; les 4xx/500 métier non.
+     */
+    private static Consumer<SpringCloudCircuitBreakerFilterFactory.Config> breaker(String service) {
+        return config -> config
+                .setName(service)
+                .setFallbackUri("forward:/fallback/" + service)
+                .addStatusCode("502")
+                .addStatusCode("503")
+                .addStatusCode("504");
+    }
+}
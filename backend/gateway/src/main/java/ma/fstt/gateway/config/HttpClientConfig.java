@@ -0,0 +1,127 @@
+package ma.fstt.gateway.config;
+
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * ✅ Client HTTP vers les services : un pool de connexions par service amont.
+ *
+ * Avec le pool par défaut, un service lent accapare les connexions et la file d'attente
+ * (pending acquire) de tout le Gateway. Ici chaque service a ses propres limites
+ * (gateway.upstream.<service>.*, sinon gateway.upstream.default.*) et l'attente d'une connexion
+ * échoue vite au lieu de bloquer 45 s.
+ *
+ * Métriques Micrometer par service : reactor.netty.connection.provider.{active,idle,pending,total}.connections
+ * (tag remote.address). Ce bean remplace le HttpClient du Gateway ; les timeouts de réponse
+ * restent gérés par route (metadata, cf. GatewayConfig).
+ */
+@Configuration
+public class HttpClientConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpClientConfig.class);
+
+    private static final String PREFIX = "gateway.upstream.";
+
+    @Value("${auth.service.url}")
+    private String authServiceUrl;
+
+    @Value("${listing.service.url}")
+    private String listingServiceUrl;
+
+    @Value("${booking.service.url}")
+    private String bookingServiceUrl;
+
+    @Value("${payment.service.url}")
+    private String paymentServiceUrl;
+
+    @Value("${gateway.upstream.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    // h2c (HTTP/2 sans TLS) : uniquement si les services l'acceptent (server.http2.enabled)
+    @Value("${gateway.upstream.h2c-enabled:false}")
+    private boolean h2cEnabled;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider gatewayConnectionProvider(Environment env) {
+        int defaultMaxConnections = intProperty(env, "default", "max-connections", 200);
+        long defaultPendingTimeoutMs = longProperty(env, "default", "pending-acquire-timeout-ms", 2000);
+        long defaultMaxIdleMs = longProperty(env, "default", "max-idle-time-ms", 15000);
+        long defaultMaxLifeMs = longProperty(env, "default", "max-life-time-ms", 300000);
+        Duration evictInterval = millisProperty(env, "default", "evict-interval-ms", 30000);
+
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("gateway-upstream")
+                .maxConnections(defaultMaxConnections)
+                .pendingAcquireMaxCount(2 * defaultMaxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(defaultPendingTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(defaultMaxIdleMs))
+                .maxLifeTime(Duration.ofMillis(defaultMaxLifeMs))
+                .evictInBackground(evictInterval)
+                .metrics(true);
+
+        Map<String, String> upstreams = Map.of(
+                "auth", authServiceUrl,
+                "listing", listingServiceUrl,
+                "booking", bookingServiceUrl,
+                "payment", paymentServiceUrl);
+
+        upstreams.forEach((name, url) -> {
+            InetSocketAddress address = remoteAddress(url);
+            int maxConnections = intProperty(env, name, "max-connections", defaultMaxConnections);
+            int pendingMax = intProperty(env, name, "pending-acquire-max-count", 2 * maxConnections);
+
+            builder.forRemoteHost(address, spec -> spec
+                    .maxConnections(maxConnections)
+                    .pendingAcquireMaxCount(pendingMax)
+                    .pendingAcquireTimeout(millisProperty(env, name, "pending-acquire-timeout-ms", defaultPendingTimeoutMs))
+                    .maxIdleTime(millisProperty(env, name, "max-idle-time-ms", defaultMaxIdleMs))
+                    .maxLifeTime(millisProperty(env, name, "max-life-time-ms", defaultMaxLifeMs))
+                    .evictInBackground(evictInterval)
+                    .metrics(true));
+
+            log.info("✅ Upstream pool '{}' ({}): maxConnections={}, pendingAcquireMax={}",
+                    name, address, maxConnections, pendingMax);
+        });
+
+        return builder.build();
+    }
+
+    @Bean
+    public HttpClient gatewayHttpClient(ConnectionProvider gatewayConnectionProvider) {
+        HttpClient client = HttpClient.create(gatewayConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs);
+        return h2cEnabled
+                ? client.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11)
+                : client.protocol(HttpProtocol.HTTP11);
+    }
+
+    private static InetSocketAddress remoteAddress(String url) {
+        URI uri = URI.create(url);
+        int port = uri.getPort() != -1 ? uri.getPort() : ("https".equals(uri.getScheme()) ? 443 : 80);
+        return InetSocketAddress.createUnresolved(uri.getHost(), port);
+    }
+
+    private static int intProperty(Environment env, String upstream, String key, int defaultValue) {
+        return env.getProperty(PREFIX + upstream + "." + key, Integer.class, defaultValue);
+    }
+
+    private static long longProperty(Environment env, String upstream, String key, long defaultValue) {
+        return env.getProperty(PREFIX + upstream + "." + key, Long.class, defaultValue);
+    }
+
+    private static Duration millisProperty(Environment env, String upstream, String key, long defaultValue) {
+        return Duration.ofMillis(longProperty(env, upstream, key, defaultValue));
+    }
+}
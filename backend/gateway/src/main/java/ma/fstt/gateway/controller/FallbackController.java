@@ -0,0 +1,75 @@
+package ma.fstt.gateway.controller;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import ma.fstt.gateway.util.ErrorTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+
+/**
+ * ✅ Réponses de repli des circuit breakers (forward:/fallback/{service}, cf. GatewayConfig)
+ *
+ * - breaker ouvert : 503 + Retry-After, sans appel au service
+ * - timeout : 504
+ * - autre échec (connexion, 502/503/504 amont) : 503
+ */
+@RestController
+@RequestMapping("/fallback")
+public class FallbackController {
+
+    private static final Map<String, Templates> TEMPLATES = Map.of(
+            "auth", Templates.forService("d'authentification"),
+            "listing", Templates.forService("des annonces"),
+            "booking", Templates.forService("des réservations"),
+            "payment", Templates.forService("des paiements"));
+
+    private static final ErrorTemplate UNKNOWN =
+            ErrorTemplate.of(HttpStatus.SERVICE_UNAVAILABLE, "Service temporairement indisponible");
+
+    @RequestMapping("/{service}")
+    public Mono<Void> fallback(@PathVariable String service, ServerWebExchange exchange) {
+        Templates templates = TEMPLATES.get(service);
+        if (templates == null) {
+            return UNKNOWN.write(exchange);
+        }
+
+        Throwable failure = exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        if (failure instanceof CallNotPermittedException) {
+            exchange.getResponse().getHeaders().set("Retry-After", "10");
+            return templates.unavailable().write(exchange);
+        }
+        return isTimeout(failure) ? templates.timeout().write(exchange) : templates.unavailable().write(exchange);
+    }
+
+    private static boolean isTimeout(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                return true;
+            }
+            if (cause instanceof ResponseStatusException rse && rse.getStatusCode().value() == HttpStatus.GATEWAY_TIMEOUT.value()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Templates(ErrorTemplate unavailable, ErrorTemplate timeout) {
+
+        static Templates forService(String name) {
+            return new Templates(
+                    ErrorTemplate.of(HttpStatus.SERVICE_UNAVAILABLE,
+                            "Service " + name + " temporairement indisponible. Veuillez réessayer plus tard"),
+                    ErrorTemplate.of(HttpStatus.GATEWAY_TIMEOUT,
+                            "Le service " + name + " ne répond pas à temps"));
+        }
+    }
+}
@@ -1,18 +1,16 @@
 package ma.fstt.gateway.exception;
 
+import ma.fstt.gateway.util.ErrorTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
 import org.springframework.core.annotation.Order;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
-
 /**
  * Gestionnaire global des exceptions pour le Gateway
  * Capture toutes les exceptions non gérées et retourne des réponses JSON formatées
@@ -21,6 +19,8 @@ import java.time.LocalDateTime;
 @Order(-2) // Priorité élevée pour intercepter avant le DefaultErrorWebExceptionHandler
 public class GlobalErrorWebExceptionHandler implements ErrorWebExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalErrorWebExceptionHandler.class);
+
     @Override
     public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
         HttpStatus status;
@@ -41,46 +41,11 @@ public class GlobalErrorWebExceptionHandler implements ErrorWebExceptionHandler
             status = HttpStatus.INTERNAL_SERVER_ERROR;
             message = "Erreur interne du serveur";
 
-            // Logger l'exception complète pour le débogage
-            System.err.println("❌ Erreur non gérée dans le Gateway:");
-            ex.printStackTrace();
+            // Logger l'exception complète pour le débogage (appender asynchrone)
+            log.error("❌ Erreur non gérée dans le Gateway | Path: {}", exchange.getRequest().getURI().getPath(), ex);
         }
 
-        // Construire la réponse JSON
-        String errorResponse = buildErrorResponse(
-                status,
-                message,
-                exchange.getRequest().getURI().getPath()
-        );
-
-        // Configurer la réponse
-        exchange.getResponse().setStatusCode(status);
-        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
-
-        DataBuffer buffer = exchange.getResponse()
-                .bufferFactory()
-                .wrap(errorResponse.getBytes(StandardCharsets.UTF_8));
-
-        return exchange.getResponse().writeWith(Mono.just(buffer));
-    }
-
-    /**
-     * Construit une réponse d'erreur JSON formatée
-     */
-    private String buildErrorResponse(HttpStatus status, String message, String path) {
-        return String.format(
-                "{" +
-                        "\"timestamp\":\"%s\"," +
-                        "\"status\":%d," +
-                        "\"error\":\"%s\"," +
-                        "\"message\":\"%s\"," +
-                        "\"path\":\"%s\"" +
-                        "}",
-                LocalDateTime.now().toString(),
-                status.value(),
-                status.getReasonPhrase(),
-                message.replace("\"", "\\\""), // Échapper les guillemets
-                path
-        );
+        // Construire la réponse JSON (même format que les filtres)
+        return ErrorTemplate.of(status, message).write(exchange);
     }
-}
\ No newline at end of file
+}
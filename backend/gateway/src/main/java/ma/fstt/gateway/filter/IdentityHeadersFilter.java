@@ -0,0 +1,42 @@
+package ma.fstt.gateway.filter;
+
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * ✅ Supprime les en-têtes d'identité envoyés par le client, sur toutes les requêtes et avant le routage.
+ *
+ * Les services font confiance à X-User-Id / X-Roles / X-User-Roles / X-User-Types : seul
+ * JwtAuthenticationFilter doit les écrire, à partir d'un token vérifié. Sans ce filtre, une route
+ * publique (sans JWT) transmettrait des valeurs forgées telles quelles.
+ */
+@Component
+public class IdentityHeadersFilter implements WebFilter, Ordered {
+
+    static final List<String> IDENTITY_HEADERS = List.of("X-User-Id", "X-Roles", "X-User-Roles", "X-User-Types");
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        if (IDENTITY_HEADERS.stream().noneMatch(headers::containsKey)) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(h -> IDENTITY_HEADERS.forEach(h::remove))
+                .build();
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -1,69 +1,95 @@
 package ma.fstt.gateway.filter;
 
 import io.jsonwebtoken.*;
+import ma.fstt.gateway.security.VerifiedToken;
+import ma.fstt.gateway.util.ErrorTemplate;
 import ma.fstt.gateway.util.JwtUtil;
+import ma.fstt.gateway.util.LogSampler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter implements GatewayFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     @Autowired
     private JwtUtil jwtUtil;
 
+    // ✅ Claims vérifiées de la requête courante, relues par RoleBasedAuthorizationFilter
+    public static final String VERIFIED_TOKEN_ATTR = JwtAuthenticationFilter.class.getName() + ".verifiedToken";
+
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
 
-    private static final List<String> PUBLIC_ENDPOINTS = List.of(
-            "/api/auth/users",
-            "/api/auth/users/login",
-            "/api/auth/users/verify-otp",
-            "/api/auth/users/resend-otp",
-            "/api/auth/users/forgot-password",
-            "/api/auth/users/reset-password"
-    );
+    // ✅ Corps d'erreur pré-sérialisés (un par cas)
+    private static final ErrorTemplate MISSING_TOKEN =
+            ErrorTemplate.of(HttpStatus.UNAUTHORIZED, "Token d'autorisation manquant");
+    private static final ErrorTemplate BAD_FORMAT =
+            ErrorTemplate.of(HttpStatus.UNAUTHORIZED, "Format du token invalide. Utilisez 'Bearer <token>'");
+    private static final ErrorTemplate INVALID_TOKEN =
+            ErrorTemplate.of(HttpStatus.UNAUTHORIZED, "Token expiré ou invalide");
+    private static final ErrorTemplate EXPIRED_TOKEN =
+            ErrorTemplate.of(HttpStatus.UNAUTHORIZED, "Token expiré. Veuillez vous reconnecter");
+    private static final ErrorTemplate UNSUPPORTED_TOKEN =
+            ErrorTemplate.of(HttpStatus.BAD_REQUEST, "Format de token non supporté");
+    private static final ErrorTemplate MALFORMED_TOKEN =
+            ErrorTemplate.of(HttpStatus.BAD_REQUEST, "Token malformé ou corrompu");
+    private static final ErrorTemplate BAD_SIGNATURE =
+            ErrorTemplate.of(HttpStatus.UNAUTHORIZED, "Signature du token invalide");
+    private static final ErrorTemplate EMPTY_TOKEN =
+            ErrorTemplate.of(HttpStatus.BAD_REQUEST, "Token invalide ou vide");
+    private static final ErrorTemplate JWT_ERROR =
+            ErrorTemplate.of(HttpStatus.UNAUTHORIZED, "Erreur lors du traitement du token");
+    private static final ErrorTemplate INTERNAL_ERROR =
+            ErrorTemplate.of(HttpStatus.INTERNAL_SERVER_ERROR, "Erreur interne lors de la validation");
+
+    // ✅ Au plus 20 lignes WARN/s pour les refus (le reste est compté, pas écrit)
+    private static final LogSampler REJECTION_LOGS = new LogSampler(20, Duration.ofSeconds(1));
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // ✅ Aucune liste de chemins publics ici : les routes publiques (auth_public, POST uniquement)
+        // n'attachent pas ce filtre. Tout passage dans ce filtre exige un token valide.
         ServerHttpRequest request = exchange.getRequest();
-        String path = request.getURI().getPath();
-
-        if (PUBLIC_ENDPOINTS.stream().anyMatch(path::startsWith)) {
-            return chain.filter(exchange);
-        }
 
         if (!request.getHeaders().containsKey(AUTHORIZATION_HEADER)) {
-            return onError(exchange, "Token d'autorisation manquant", HttpStatus.UNAUTHORIZED);
+            return onError(exchange, MISSING_TOKEN, null);
         }
 
         String authHeader = request.getHeaders().getFirst(AUTHORIZATION_HEADER);
         if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
-            return onError(exchange, "Format du token invalide. Utilisez 'Bearer <token>'", HttpStatus.UNAUTHORIZED);
+            return onError(exchange, BAD_FORMAT, null);
         }
 
         String token = authHeader.substring(BEARER_PREFIX.length());
 
         try {
-            if (!jwtUtil.validateToken(token)) {
-                return onError(exchange, "Token expiré ou invalide", HttpStatus.UNAUTHORIZED);
+            // ✅ Une seule vérification par requête (et aucune si le token est déjà en cache)
+            VerifiedToken verified = jwtUtil.verify(token);
+            if (verified.isExpired(System.currentTimeMillis())) {
+                return onError(exchange, INVALID_TOKEN, null);
             }
 
             // ✅ FIX: userId est un String UUID, pas un Long !
-            String userId = jwtUtil.getUserIdFromToken(token);
-            String username = jwtUtil.getUsernameFromToken(token);
-            List<String> roles = jwtUtil.getRolesFromToken(token);
-            List<String> types = jwtUtil.getTypesFromToken(token);
+            String userId = verified.userId();
+            if (userId == null || userId.isEmpty()) {
+                throw new IllegalArgumentException("UserId manquant dans le token");
+            }
+            String username = verified.username();
+            List<String> roles = verified.roles();
+            List<String> types = verified.types();
 
             // ✅ Ajouter les informations dans les headers
             ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
@@ -74,64 +100,39 @@ public class JwtAuthenticationFilter implements GatewayFilter {
                     .header("X-User-Types", String.join(",", types))
                     .build();
 
-            System.out.println("✅ Token validé avec succès");
-            System.out.println("✅ Token validé pour l'utilisateur: " + username +
-                    " | ID: " + userId +
-                    " | Roles: " + roles +
-                    " | Types: " + types);
+            log.debug("Token validé pour l'utilisateur: {} | ID: {} | Roles: {} | Types: {}",
+                    username, userId, roles, types);
 
-            return chain.filter(exchange.mutate().request(modifiedRequest).build());
+            ServerWebExchange mutatedExchange = exchange.mutate().request(modifiedRequest).build();
+            mutatedExchange.getAttributes().put(VERIFIED_TOKEN_ATTR, verified);
+            return chain.filter(mutatedExchange);
 
         } catch (ExpiredJwtException e) {
-            System.err.println("❌ Token expiré: " + e.getMessage());
-            return onError(exchange, "Token expiré. Veuillez vous reconnecter", HttpStatus.UNAUTHORIZED);
-
+            return onError(exchange, EXPIRED_TOKEN, e);
         } catch (UnsupportedJwtException e) {
-            System.err.println("❌ Token non supporté: " + e.getMessage());
-            return onError(exchange, "Format de token non supporté", HttpStatus.BAD_REQUEST);
-
+            return onError(exchange, UNSUPPORTED_TOKEN, e);
         } catch (MalformedJwtException e) {
-            System.err.println("❌ Token malformé: " + e.getMessage());
-            return onError(exchange, "Token malformé ou corrompu", HttpStatus.BAD_REQUEST);
-
+            return onError(exchange, MALFORMED_TOKEN, e);
         } catch (SignatureException e) {
-            System.err.println("❌ Signature invalide: " + e.getMessage());
-            return onError(exchange, "Signature du token invalide", HttpStatus.UNAUTHORIZED);
-
+            return onError(exchange, BAD_SIGNATURE, e);
         } catch (IllegalArgumentException e) {
-            System.err.println("❌ Argument invalide: " + e.getMessage());
-            return onError(exchange, "Token invalide ou vide", HttpStatus.BAD_REQUEST);
-
+            return onError(exchange, EMPTY_TOKEN, e);
         } catch (JwtException e) {
-            System.err.println("❌ Erreur JWT générique: " + e.getMessage());
-            return onError(exchange, "Erreur lors du traitement du token", HttpStatus.UNAUTHORIZED);
-
+            return onError(exchange, JWT_ERROR, e);
         } catch (Exception e) {
-            System.err.println("❌ Erreur inattendue: " + e.getMessage());
-            e.printStackTrace();
-            return onError(exchange, "Erreur interne lors de la validation", HttpStatus.INTERNAL_SERVER_ERROR);
+            log.error("❌ Erreur inattendue lors de la validation | Path: {}", request.getURI().getPath(), e);
+            return INTERNAL_ERROR.write(exchange);
         }
     }
 
-    private Mono<Void> onError(ServerWebExchange exchange, String message, HttpStatus httpStatus) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(httpStatus);
-        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-
-        String errorResponse = String.format(
-                "{\"timestamp\":\"%s\",\"status\":%d,\"error\":\"%s\",\"message\":\"%s\",\"path\":\"%s\"}",
-                java.time.LocalDateTime.now().toString(),
-                httpStatus.value(),
-                httpStatus.getReasonPhrase(),
-                message,
-                exchange.getRequest().getURI().getPath()
-        );
-
-        System.err.println("❌ Erreur Gateway [" + httpStatus + "]: " + message +
-                " | Path: " + exchange.getRequest().getURI().getPath());
-
-        return response.writeWith(Mono.just(
-                response.bufferFactory().wrap(errorResponse.getBytes(StandardCharsets.UTF_8))
-        ));
+    private Mono<Void> onError(ServerWebExchange exchange, ErrorTemplate template, Exception cause) {
+        if (REJECTION_LOGS.tryAcquire()) {
+            log.warn("❌ Requête refusée [{}] | Path: {} | Cause: {} | Refus non journalisés: {}",
+                    template.status().value(),
+                    exchange.getRequest().getURI().getPath(),
+                    cause != null ? cause.getMessage() : "-",
+                    REJECTION_LOGS.drainSuppressed());
+        }
+        return template.write(exchange);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,138 @@
+package ma.fstt.gateway.filter;
+
+import ma.fstt.gateway.ratelimit.LocalTokenBuckets;
+import ma.fstt.gateway.ratelimit.RateLimitPolicy;
+import ma.fstt.gateway.ratelimit.RateLimitStore;
+import ma.fstt.gateway.ratelimit.TrustedProxies;
+import ma.fstt.gateway.security.VerifiedToken;
+import ma.fstt.gateway.util.ErrorTemplate;
+import ma.fstt.gateway.util.LogSampler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * ✅ Limitation de débit (token bucket) sur toutes les routes :
+ * - routes authentifiées : clé = userId du JWT déjà vérifié par JwtAuthenticationFilter
+ * - routes publiques : clé = IP client (adresse de la socket ; X-Forwarded-For seulement si la socket
+ *   vient d'un proxy de confiance, cf. TrustedProxies)
+ * - login / OTP / reset : politique dédiée, stricte (protège le BCrypt d'auth-service)
+ *
+ * Ordre : après les filtres de route (JWT), avant le routage vers le service.
+ * Bucket local d'abord (refus sans I/O), puis le store partagé s'il est configuré.
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    public static final int ORDER = 9_000;
+
+    // Routes dont le coût serveur justifie la politique stricte (cf. GatewayConfig)
+    private static final Set<String> AUTH_ROUTES = Set.of("auth_public");
+
+    private static final ErrorTemplate TOO_MANY_REQUESTS =
+            ErrorTemplate.of(HttpStatus.TOO_MANY_REQUESTS, "Trop de requêtes. Veuillez réessayer plus tard");
+
+    private static final LogSampler REJECTION_LOGS = new LogSampler(5, Duration.ofSeconds(1));
+
+    private final LocalTokenBuckets localBuckets;
+    private final RateLimitStore sharedStore;
+    private final TrustedProxies trustedProxies;
+    private final boolean enabled;
+
+    private final RateLimitPolicy authPolicy;
+    private final RateLimitPolicy publicPolicy;
+    private final RateLimitPolicy userPolicy;
+
+    public RateLimitFilter(LocalTokenBuckets localBuckets,
+                           ObjectProvider<RateLimitStore> sharedStore,
+                           @Value("${gateway.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${gateway.rate-limit.trusted-proxy-cidrs:}") String trustedProxyCidrs,
+                           @Value("${gateway.rate-limit.auth.capacity:10}") long authCapacity,
+                           @Value("${gateway.rate-limit.auth.refill-per-second:0.2}") double authRefill,
+                           @Value("${gateway.rate-limit.public.capacity:100}") long publicCapacity,
+                           @Value("${gateway.rate-limit.public.refill-per-second:20}") double publicRefill,
+                           @Value("${gateway.rate-limit.user.capacity:200}") long userCapacity,
+                           @Value("${gateway.rate-limit.user.refill-per-second:50}") double userRefill) {
+        this.localBuckets = localBuckets;
+        this.sharedStore = sharedStore.getIfAvailable();
+        this.enabled = enabled;
+        this.trustedProxies = new TrustedProxies(trustedProxyCidrs);
+        this.authPolicy = new RateLimitPolicy("auth", authCapacity, authRefill);
+        this.publicPolicy = new RateLimitPolicy("public", publicCapacity, publicRefill);
+        this.userPolicy = new RateLimitPolicy("user", userCapacity, userRefill);
+
+        log.info("✅ Rate limiting {}: auth={}/{}s, public={}/{}s, user={}/{}s, store={}, trustedProxies={}",
+                enabled ? "enabled" : "disabled",
+                authCapacity, authRefill, publicCapacity, publicRefill, userCapacity, userRefill,
+                this.sharedStore != null ? "shared" : "local",
+                this.trustedProxies.isEmpty() ? "none" : trustedProxyCidrs);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+
+        RateLimitPolicy policy = policy(exchange);
+        String key = key(exchange, policy);
+
+        long waitMillis = localBuckets.tryAcquire(key, policy);
+        if (waitMillis > 0) {
+            return reject(exchange, key, waitMillis);
+        }
+        if (sharedStore == null) {
+            return chain.filter(exchange);
+        }
+        return sharedStore.tryAcquire(key, policy)
+                .flatMap(sharedWait -> sharedWait > 0
+                        ? reject(exchange, key, sharedWait)
+                        : chain.filter(exchange));
+    }
+
+    RateLimitPolicy policy(ServerWebExchange exchange) {
+        if (exchange.getAttribute(JwtAuthenticationFilter.VERIFIED_TOKEN_ATTR) != null) {
+            return userPolicy;
+        }
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route != null && AUTH_ROUTES.contains(route.getId()) ? authPolicy : publicPolicy;
+    }
+
+    String key(ServerWebExchange exchange, RateLimitPolicy policy) {
+        VerifiedToken verified = exchange.getAttribute(JwtAuthenticationFilter.VERIFIED_TOKEN_ATTR);
+        if (verified != null) {
+            return "user:" + verified.userId();
+        }
+        return policy.name() + ":" + trustedProxies.clientIp(exchange.getRequest());
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String key, long waitMillis) {
+        if (REJECTION_LOGS.tryAcquire()) {
+            log.warn("⛔ Rate limit exceeded | Key: {} | Path: {} | Retry in {} ms | Refus non journalisés: {}",
+                    key, exchange.getRequest().getURI().getPath(), waitMillis, REJECTION_LOGS.drainSuppressed());
+        }
+        exchange.getResponse().getHeaders().set("Retry-After", Long.toString((waitMillis + 999) / 1000));
+        return TOO_MANY_REQUESTS.write(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
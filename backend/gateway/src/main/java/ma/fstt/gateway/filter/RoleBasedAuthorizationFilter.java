@@ -1,8 +1,11 @@
 package ma.fstt.gateway.filter;
 
-import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import ma.fstt.gateway.security.VerifiedToken;
 import ma.fstt.gateway.util.JwtUtil;
+import ma.fstt.gateway.util.LogSampler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.http.HttpStatus;
@@ -11,8 +14,8 @@ import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -20,6 +23,11 @@ import java.util.List;
  */
 public class RoleBasedAuthorizationFilter implements GatewayFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(RoleBasedAuthorizationFilter.class);
+
+    // ✅ Partagé par toutes les instances (une par route protégée)
+    private static final LogSampler REJECTION_LOGS = new LogSampler(20, Duration.ofSeconds(1));
+
     private final JwtUtil jwtUtil;
     private final List<String> requiredRoles;
 
@@ -35,45 +43,35 @@ public class RoleBasedAuthorizationFilter implements GatewayFilter {
         // Extraire le token
         String authHeader = request.getHeaders().getFirst("Authorization");
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            System.err.println("❌ RoleBasedAuthorizationFilter: Token manquant");
             return onError(exchange, "Token manquant", HttpStatus.UNAUTHORIZED);
         }
 
         String token = authHeader.substring(7);
 
         try {
-            // Valider le token
-            if (!jwtUtil.validateToken(token)) {
-                System.err.println("❌ RoleBasedAuthorizationFilter: Token invalide");
+            // ✅ Claims déjà vérifiées par JwtAuthenticationFilter, sinon vérification (cache JwtUtil)
+            VerifiedToken verified = exchange.getAttribute(JwtAuthenticationFilter.VERIFIED_TOKEN_ATTR);
+            if (verified == null) {
+                verified = jwtUtil.verify(token);
+            }
+            if (verified.isExpired(System.currentTimeMillis())) {
                 return onError(exchange, "Token invalide", HttpStatus.UNAUTHORIZED);
             }
 
-            // ✅ Extraire les rôles du token en utilisant la méthode dédiée
-            List<String> userRoles;
-            try {
-                userRoles = jwtUtil.getRolesFromToken(token);
-                if (userRoles == null || userRoles.isEmpty()) {
-                    System.err.println("❌ RoleBasedAuthorizationFilter: Aucun rôle trouvé dans le JWT");
-                    Claims claims = jwtUtil.getAllClaims(token);
-                    System.err.println("📋 Claims disponibles: " + claims.keySet());
-                    return onError(exchange, "Aucun rôle trouvé dans le token", HttpStatus.FORBIDDEN);
-                }
-            } catch (JwtException e) {
-                System.err.println("❌ RoleBasedAuthorizationFilter: Erreur lors de l'extraction des rôles: " + e.getMessage());
-                return onError(exchange, "Erreur lors de l'extraction des rôles", HttpStatus.FORBIDDEN);
+            List<String> userRoles = verified.roles();
+            if (userRoles.isEmpty()) {
+                return onError(exchange, "Aucun rôle trouvé dans le token", HttpStatus.FORBIDDEN);
             }
 
             // ✅ Vérifier si l'utilisateur a au moins un des rôles requis
             // Chercher directement "ADMIN" (pas "ROLE_ADMIN")
-            boolean hasRequiredRole = requiredRoles.stream()
-                    .anyMatch(userRoles::contains);
+            boolean hasRequiredRole = verified.hasAnyRole(requiredRoles);
 
             if (!hasRequiredRole) {
-                System.err.println("❌ Accès refusé - Rôles requis: " + requiredRoles + " | Rôles utilisateur: " + userRoles);
-                return onError(exchange, "Accès refusé - Rôle insuffisant", HttpStatus.FORBIDDEN);
+                return onError(exchange, "Accès refusé - Rôle insuffisant (requis: " + requiredRoles + ")", HttpStatus.FORBIDDEN);
             }
 
-            System.out.println("✅ Autorisation accordée - Rôles requis: " + requiredRoles + " | Rôles utilisateur: " + userRoles);
+            log.debug("Autorisation accordée - Rôles requis: {} | Rôles utilisateur: {}", requiredRoles, userRoles);
 
             // ✅ CRITIQUE: Injecter le header X-Roles dans la requête
             // Les services backend ont besoin de ce header pour leurs contrôles d'autorisation
@@ -83,26 +81,27 @@ public class RoleBasedAuthorizationFilter implements GatewayFilter {
                     .request(builder -> builder.header("X-Roles", rolesString))
                     .build();
 
-            System.out.println("✅ Header X-Roles injecté: " + rolesString);
-
             // Transmettre la requête MODIFIÉE avec le header X-Roles
             return chain.filter(mutatedExchange);
 
         } catch (JwtException e) {
-            System.err.println("❌ Erreur JWT lors de la vérification des rôles: " + e.getMessage());
-            e.printStackTrace();
-            return onError(exchange, "Token invalide ou expiré", HttpStatus.UNAUTHORIZED);
+            return onError(exchange, "Token invalide ou expiré: " + e.getMessage(), HttpStatus.UNAUTHORIZED);
         } catch (Exception e) {
-            System.err.println("❌ Erreur inattendue lors de la vérification des rôles: " + e.getMessage());
-            e.printStackTrace();
-            return onError(exchange, "Erreur d'autorisation", HttpStatus.INTERNAL_SERVER_ERROR);
+            log.error("❌ Erreur inattendue lors de la vérification des rôles", e);
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+            return response.setComplete();
         }
     }
 
     private Mono<Void> onError(ServerWebExchange exchange, String message, HttpStatus httpStatus) {
         ServerHttpResponse response = exchange.getResponse();
         response.setStatusCode(httpStatus);
-        System.err.println("❌ RoleBasedAuthorizationFilter: " + message);
+        if (REJECTION_LOGS.tryAcquire()) {
+            log.warn("❌ RoleBasedAuthorizationFilter [{}]: {} | Path: {} | Refus non journalisés: {}",
+                    httpStatus.value(), message, exchange.getRequest().getURI().getPath(),
+                    REJECTION_LOGS.drainSuppressed());
+        }
         return response.setComplete();
     }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package ma.fstt.gateway.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * ✅ Meters par route, créés une fois puis réutilisés : le chemin chaud ne fait ni lookup
+ * par tags dans le registry, ni allocation de Tags / boxing du status.
+ *
+ * - gateway.route.requests{route, upstream, status} : latence totale (histogramme -> Prometheus buckets)
+ * - gateway.route.in.flight{route, upstream}        : requêtes en cours
+ * - gateway.upstream.requests{route, upstream, outcome} : temps jusqu'aux en-têtes de la réponse amont
+ *   (SUCCESS), jusqu'à l'erreur (connexion refusée, timeout...) ou jusqu'à l'annulation (client parti, retry)
+ *
+ * Cardinalité bornée : ~20 routes x statuts réellement observés.
+ */
+@Component
+public class RouteMeters {
+
+    // 499 = client parti avant la réponse (convention nginx)
+    static final int CLIENT_CLOSED = 499;
+
+    private final MeterRegistry registry;
+    private final Duration minExpected;
+    private final Duration maxExpected;
+    private final Map<String, PerRoute> byRoute = new ConcurrentHashMap<>();
+
+    enum UpstreamOutcome {
+        SUCCESS, ERROR, CANCELLED
+    }
+
+    public RouteMeters(MeterRegistry registry,
+                       @Value("${gateway.metrics.histogram.min-ms:1}") long minExpectedMs,
+                       @Value("${gateway.metrics.histogram.max-ms:30000}") long maxExpectedMs) {
+        this.registry = registry;
+        this.minExpected = Duration.ofMillis(minExpectedMs);
+        this.maxExpected = Duration.ofMillis(maxExpectedMs);
+    }
+
+    PerRoute forRoute(Route route) {
+        PerRoute meters = byRoute.get(route.getId());
+        return meters != null ? meters : byRoute.computeIfAbsent(route.getId(), id -> new PerRoute(id, upstream(route)));
+    }
+
+    // Host du service ; "gateway" pour les routes servies par le Gateway lui-même (no://op, forward:)
+    private static String upstream(Route route) {
+        String scheme = route.getUri().getScheme();
+        String host = route.getUri().getHost();
+        return "no".equals(scheme) || "forward".equals(scheme) || host == null ? "gateway" : host;
+    }
+
+    final class PerRoute {
+
+        private final String routeId;
+        private final String upstream;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicReferenceArray<Timer> byStatus = new AtomicReferenceArray<>(600);
+        private final Timer[] upstreamTimers = new Timer[UpstreamOutcome.values().length];
+
+        private PerRoute(String routeId, String upstream) {
+            this.routeId = routeId;
+            this.upstream = upstream;
+            Gauge.builder("gateway.route.in.flight", inFlight, AtomicInteger::get)
+                    .description("Requêtes en cours par route")
+                    .tag("route", routeId)
+                    .tag("upstream", upstream)
+                    .register(registry);
+            for (UpstreamOutcome outcome : UpstreamOutcome.values()) {
+                upstreamTimers[outcome.ordinal()] = histogram(Timer.builder("gateway.upstream.requests")
+                        .description("Temps jusqu'aux en-têtes de la réponse du service amont, ou jusqu'à l'échec"))
+                        .tag("route", routeId)
+                        .tag("upstream", upstream)
+                        .tag("outcome", outcome.name())
+                        .register(registry);
+            }
+        }
+
+        void started() {
+            inFlight.incrementAndGet();
+        }
+
+        void finished(int status, long startNanos) {
+            inFlight.decrementAndGet();
+            timer(status).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        void upstream(UpstreamOutcome outcome, long startNanos) {
+            upstreamTimers[outcome.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private Timer timer(int status) {
+            int index = status >= 100 && status < 600 ? status : 0;
+            Timer timer = byStatus.get(index);
+            if (timer == null) {
+                timer = histogram(Timer.builder("gateway.route.requests")
+                        .description("Latence totale des requêtes par route et status"))
+                        .tag("route", routeId)
+                        .tag("upstream", upstream)
+                        .tag("status", index == 0 ? "UNKNOWN" : Integer.toString(index))
+                        .register(registry);
+                byStatus.compareAndSet(index, null, timer);
+            }
+            return timer;
+        }
+    }
+
+    private Timer.Builder histogram(Timer.Builder builder) {
+        return builder
+                .publishPercentileHistogram()
+                .minimumExpectedValue(minExpected)
+                .maximumExpectedValue(maxExpected);
+    }
+}
@@ -0,0 +1,62 @@
+package ma.fstt.gateway.metrics;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * ✅ Latence totale, statut et requêtes en cours par route (cf. RouteMeters)
+ *
+ * Premier filtre de la chaîne : la mesure inclut JWT, rate limit, cache, compression
+ * et l'écriture du corps. Erreurs : statut de la ResponseStatusException, sinon 500 ;
+ * client parti avant la fin : 499.
+ */
+@Component
+public class RouteMetricsFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    private final RouteMeters meters;
+
+    public RouteMetricsFilter(RouteMeters meters) {
+        this.meters = meters;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        RouteMeters.PerRoute routeMeters = meters.forRoute(route);
+        long start = System.nanoTime();
+        routeMeters.started();
+        return chain.filter(exchange)
+                .doOnSuccess(v -> routeMeters.finished(statusOf(exchange), start))
+                .doOnError(e -> routeMeters.finished(statusOf(e), start))
+                .doOnCancel(() -> routeMeters.finished(RouteMeters.CLIENT_CLOSED, start));
+    }
+
+    private static int statusOf(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null ? status.value() : 200;
+    }
+
+    private static int statusOf(Throwable e) {
+        return e instanceof ResponseStatusException rse ? rse.getStatusCode().value() : 500;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,60 @@
+package ma.fstt.gateway.metrics;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * ✅ Temps passé dans le service amont : juste avant NettyRoutingFilter, qui termine à la
+ * réception des en-têtes de la réponse (le corps est écrit ensuite par NettyWriteResponseFilter).
+ * Un retry = une mesure par tentative ; les routes servies par le Gateway (cache, agrégation,
+ * repli du circuit breaker) n'arrivent pas jusqu'ici.
+ *
+ * Mesure dans doFinally, taguée par outcome : les tentatives en erreur (timeout, connexion refusée)
+ * ou annulées sont comptées, sinon la latence amont ne verrait que les appels réussis.
+ */
+@Component
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = NettyRoutingFilter.ORDER - 1;
+
+    private final RouteMeters meters;
+
+    public UpstreamTimingFilter(RouteMeters meters) {
+        this.meters = meters;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        RouteMeters.PerRoute routeMeters = meters.forRoute(route);
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> routeMeters.upstream(outcome(signal), start));
+    }
+
+    private static RouteMeters.UpstreamOutcome outcome(SignalType signal) {
+        return switch (signal) {
+            case ON_ERROR -> RouteMeters.UpstreamOutcome.ERROR;
+            case CANCEL -> RouteMeters.UpstreamOutcome.CANCELLED;
+            default -> RouteMeters.UpstreamOutcome.SUCCESS;
+        };
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,56 @@
+package ma.fstt.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ✅ Buckets en mémoire, lock-free : un AtomicLong (TAT du GCRA) par clé, mis à jour par CAS.
+ * Un refus = une lecture volatile, aucune écriture ni allocation.
+ *
+ * Borné (maximumSize) pour résister à un flot d'IP différentes ; un bucket inactif est évincé,
+ * ce qui équivaut à un bucket plein.
+ */
+@Component
+public class LocalTokenBuckets {
+
+    private final Cache<String, AtomicLong> buckets;
+
+    public LocalTokenBuckets(@Value("${gateway.rate-limit.local.max-keys:100000}") long maxKeys,
+                             @Value("${gateway.rate-limit.local.idle-seconds:600}") long idleSeconds) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofSeconds(idleSeconds))
+                .build();
+    }
+
+    /**
+     * @return 0 si autorisé, sinon le délai (ms) avant le prochain jeton
+     */
+    public long tryAcquire(String key, RateLimitPolicy policy) {
+        long now = System.nanoTime();
+        AtomicLong tat = buckets.getIfPresent(key);
+        if (tat == null) {
+            tat = buckets.get(key, k -> new AtomicLong(now));
+        }
+
+        long interval = policy.emissionIntervalNanos();
+        long burst = policy.burstNanos();
+        while (true) {
+            long current = tat.get();
+            long newTat = Math.max(current, now) + interval;
+            long waitNanos = newTat - now - burst;
+            if (waitNanos > 0) {
+                return Math.max(1L, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            }
+            if (tat.compareAndSet(current, newTat)) {
+                return 0L;
+            }
+        }
+    }
+}
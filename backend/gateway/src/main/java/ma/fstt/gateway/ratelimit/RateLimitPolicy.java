@@ -0,0 +1,25 @@
+package ma.fstt.gateway.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ✅ Token bucket : capacity jetons au maximum, rechargés à refillPerSecond jetons/s.
+ * Exprimé en GCRA (un seul horodatage par clé) : emissionInterval = 1 / refill,
+ * burst = capacity * emissionInterval.
+ */
+public record RateLimitPolicy(String name, long capacity, double refillPerSecond) {
+
+    public RateLimitPolicy {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit '" + name + "' must have capacity > 0 and refill > 0");
+        }
+    }
+
+    public long emissionIntervalNanos() {
+        return (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+    }
+
+    public long burstNanos() {
+        return capacity * emissionIntervalNanos();
+    }
+}
@@ -0,0 +1,16 @@
+package ma.fstt.gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * ✅ État partagé des buckets entre les réplicas du Gateway (implémentation branchable).
+ * Le filtre consulte toujours d'abord LocalTokenBuckets : un refus local ne coûte aucun aller-retour.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Consomme un jeton pour la clé
+     * @return 0 si autorisé, sinon le délai (ms) avant le prochain jeton
+     */
+    Mono<Long> tryAcquire(String key, RateLimitPolicy policy);
+}
@@ -0,0 +1,68 @@
+package ma.fstt.gateway.ratelimit;
+
+import ma.fstt.gateway.util.LogSampler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ✅ Buckets partagés entre réplicas (gateway.rate-limit.store=redis).
+ * GCRA atomique en Lua : une clé par bucket, un GET + SET, horloge = TIME du serveur Redis.
+ * Redis indisponible : fail-open (la limite locale reste appliquée).
+ */
+@Component
+@ConditionalOnProperty(prefix = "gateway.rate-limit", name = "store", havingValue = "redis")
+public class RedisRateLimitStore implements RateLimitStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisRateLimitStore.class);
+    private static final LogSampler FAILURE_LOGS = new LogSampler(1, Duration.ofSeconds(10));
+
+    // ARGV[1] = intervalle d'émission (µs), ARGV[2] = burst (µs) ; retourne l'attente en ms (0 = autorisé)
+    private static final RedisScript<Long> GCRA = RedisScript.of("""
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000000 + tonumber(t[2])
+            local interval = tonumber(ARGV[1])
+            local burst = tonumber(ARGV[2])
+            local tat = tonumber(redis.call('GET', KEYS[1]) or now)
+            if tat < now then tat = now end
+            local newTat = tat + interval
+            local wait = newTat - now - burst
+            if wait > 0 then return math.ceil(wait / 1000) end
+            redis.call('SET', KEYS[1], newTat, 'PX', math.ceil(burst / 1000) + 1000)
+            return 0
+            """, Long.class);
+
+    private static final String KEY_PREFIX = "gateway:rl:";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    public RedisRateLimitStore(ReactiveStringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        log.info("✅ Rate limiting: shared Redis store enabled");
+    }
+
+    @Override
+    public Mono<Long> tryAcquire(String key, RateLimitPolicy policy) {
+        List<String> args = List.of(
+                Long.toString(TimeUnit.NANOSECONDS.toMicros(policy.emissionIntervalNanos())),
+                Long.toString(TimeUnit.NANOSECONDS.toMicros(policy.burstNanos())));
+
+        return redisTemplate.execute(GCRA, List.of(KEY_PREFIX + key), args)
+                .next()
+                .defaultIfEmpty(0L)
+                .onErrorResume(e -> {
+                    if (FAILURE_LOGS.tryAcquire()) {
+                        log.warn("⚠️ Redis rate limit store unavailable, falling back to local limits: {}", e.getMessage());
+                    }
+                    return Mono.just(0L);
+                });
+    }
+}
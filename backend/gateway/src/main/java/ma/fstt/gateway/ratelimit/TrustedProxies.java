@@ -0,0 +1,128 @@
+package ma.fstt.gateway.ratelimit;
+
+import io.netty.util.NetUtil;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ✅ Adresse du client pour le rate limit : X-Forwarded-For n'est lu que si la socket vient d'un
+ * proxy de confiance (CIDR configurés, ex. pods de l'ingress nginx).
+ *
+ * Parcours de droite à gauche : chaque entrée ajoutée par un proxy de confiance est acceptée,
+ * la première adresse hors des CIDR est le client. Un client direct (hors CIDR) ne peut donc pas
+ * choisir sa clé en écrivant lui-même l'en-tête.
+ *
+ * Les adresses sont parsées sans résolution DNS (NetUtil) ; une entrée invalide arrête le parcours.
+ */
+public final class TrustedProxies {
+
+    private final List<Cidr> cidrs;
+
+    /**
+     * @param cidrs liste séparée par des virgules ("10.244.0.0/16, fd00::/8"), vide = aucun proxy de confiance
+     * @throws IllegalArgumentException si un CIDR est invalide
+     */
+    public TrustedProxies(String cidrs) {
+        List<Cidr> parsed = new ArrayList<>();
+        if (cidrs != null) {
+            for (String cidr : cidrs.split(",")) {
+                if (!cidr.isBlank()) {
+                    parsed.add(Cidr.parse(cidr.trim()));
+                }
+            }
+        }
+        this.cidrs = List.copyOf(parsed);
+    }
+
+    public boolean isEmpty() {
+        return cidrs.isEmpty();
+    }
+
+    /**
+     * @return l'IP du client, "unknown" si la requête n'a pas d'adresse distante
+     */
+    public String clientIp(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        if (remote == null) {
+            return "unknown";
+        }
+        String peer = remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+        byte[] candidate = NetUtil.createByteArrayFromIpAddressString(peer);
+        if (candidate == null || !isTrusted(candidate)) {
+            return peer;
+        }
+
+        List<String> forwarded = request.getHeaders().get("X-Forwarded-For");
+        if (forwarded == null) {
+            return peer;
+        }
+        String client = peer;
+        List<String> hops = new ArrayList<>();
+        for (String value : forwarded) {
+            for (String hop : value.split(",")) {
+                hops.add(hop.trim());
+            }
+        }
+        for (int i = hops.size() - 1; i >= 0 && isTrusted(candidate); i--) {
+            byte[] hop = NetUtil.createByteArrayFromIpAddressString(hops.get(i));
+            if (hop == null) {
+                break;
+            }
+            candidate = hop;
+            client = hops.get(i);
+        }
+        return client;
+    }
+
+    boolean isTrusted(byte[] address) {
+        for (Cidr cidr : cidrs) {
+            if (cidr.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Cidr(byte[] network, int prefixLength) {
+
+        static Cidr parse(String value) {
+            int slash = value.indexOf('/');
+            String host = slash >= 0 ? value.substring(0, slash) : value;
+            byte[] network = NetUtil.createByteArrayFromIpAddressString(host);
+            if (network == null) {
+                throw new IllegalArgumentException("Invalid trusted proxy CIDR: " + value);
+            }
+            int prefixLength;
+            try {
+                prefixLength = slash >= 0 ? Integer.parseInt(value.substring(slash + 1)) : network.length * 8;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid trusted proxy CIDR: " + value, e);
+            }
+            if (prefixLength < 0 || prefixLength > network.length * 8) {
+                throw new IllegalArgumentException("Invalid trusted proxy CIDR: " + value);
+            }
+            return new Cidr(network, prefixLength);
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = (0xFF << (8 - remainingBits)) & 0xFF;
+            return (address[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+}
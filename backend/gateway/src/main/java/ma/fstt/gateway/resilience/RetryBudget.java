@@ -0,0 +1,64 @@
+package ma.fstt.gateway.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ✅ Budget de retries d'un service amont (modèle "retry budget") :
+ * - chaque requête dépose `ratio` jeton (ex. 0.1 -> au plus ~10 % de retries en plus du trafic)
+ * - chaque retry retire 1 jeton ; sans jeton, l'erreur remonte directement
+ * - plancher minRetriesPerSecond pour que le faible trafic puisse quand même réessayer
+ *
+ * Solde plafonné : une période calme ne permet pas une rafale de retries pendant une panne.
+ * Lock-free (CAS) : appelé sur l'event loop pour chaque requête.
+ */
+public final class RetryBudget {
+
+    private static final long TOKEN = 1_000;   // millièmes de jeton
+
+    private final long depositPerRequest;
+    private final long topUpPerSecond;
+    private final long maxBalance;
+
+    private final AtomicLong balance = new AtomicLong();
+    private final AtomicLong lastTopUpNanos = new AtomicLong(System.nanoTime());
+
+    public RetryBudget(double ratio, double minRetriesPerSecond, long maxRetries) {
+        this.depositPerRequest = Math.round(ratio * TOKEN);
+        this.topUpPerSecond = Math.round(minRetriesPerSecond * TOKEN);
+        this.maxBalance = maxRetries * TOKEN;
+    }
+
+    public void onRequest() {
+        deposit(depositPerRequest);
+    }
+
+    /**
+     * @return true si un retry est autorisé (et le consomme)
+     */
+    public boolean tryAcquireRetry() {
+        topUp();
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    private void topUp() {
+        long now = System.nanoTime();
+        long last = lastTopUpNanos.get();
+        long elapsedMillis = (now - last) / 1_000_000;
+        if (elapsedMillis >= 100 && lastTopUpNanos.compareAndSet(last, now)) {
+            deposit(elapsedMillis * topUpPerSecond / 1_000);
+        }
+    }
+
+    private void deposit(long amount) {
+        if (amount > 0) {
+            balance.accumulateAndGet(amount, (current, delta) -> Math.min(maxBalance, current + delta));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package ma.fstt.gateway.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ✅ Retries des GET/HEAD par service amont, bornés par un RetryBudget partagé par le service.
+ *
+ * Seules les erreurs de connexion sont réessayées (refus, reset, fermeture prématurée) : la réponse
+ * n'a pas commencé, le retry est sûr. Les timeouts et les 5xx ne le sont pas : réessayer une
+ * requête lente double la charge d'un service déjà saturé.
+ *
+ * Configuration : gateway.retry.<service>.* (sinon gateway.retry.default.*).
+ * À déclarer après le circuit breaker dans la route : le breaker voit un résultat par requête client.
+ */
+@Component
+public class RetryBudgets {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryBudgets.class);
+
+    private static final String PREFIX = "gateway.retry.";
+
+    private final Environment env;
+    private final boolean enabled;
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+
+    public RetryBudgets(Environment env, @Value("${gateway.retry.enabled:true}") boolean enabled) {
+        this.env = env;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Filtre de retry pour une route du service `upstream` (budget partagé entre ses routes)
+     */
+    public GatewayFilter forUpstream(String upstream) {
+        int maxRetries = property(upstream, "max-retries", Integer.class, 2);
+        Duration backoff = Duration.ofMillis(property(upstream, "backoff-ms", Long.class, 50L));
+        RetryBudget budget = budgets.computeIfAbsent(upstream, name -> {
+            double ratio = property(name, "budget-ratio", Double.class, 0.1);
+            double minPerSecond = property(name, "min-retries-per-second", Double.class, 5.0);
+            long maxBalance = property(name, "max-balance", Long.class, 100L);
+            log.info("✅ Retry budget '{}': ratio={}, minRetriesPerSecond={}, maxRetries={}",
+                    name, ratio, minPerSecond, maxRetries);
+            return new RetryBudget(ratio, minPerSecond, maxBalance);
+        });
+
+        return (exchange, chain) -> {
+            HttpMethod method = exchange.getRequest().getMethod();
+            if (!enabled || (method != HttpMethod.GET && method != HttpMethod.HEAD)) {
+                return chain.filter(exchange);
+            }
+            budget.onRequest();
+            return Mono.defer(() -> {
+                        ServerWebExchangeUtils.reset(exchange);
+                        return chain.filter(exchange);
+                    })
+                    .retryWhen(Retry.backoff(maxRetries, backoff)
+                            .filter(e -> !exchange.getResponse().isCommitted()
+                                    && isConnectionFailure(e)
+                                    && budget.tryAcquireRetry())
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+        };
+    }
+
+    // Connexion refusée / timeout de connexion / reset / fermeture prématurée : toutes des IOException
+    private static boolean isConnectionFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T> T property(String upstream, String key, Class<T> type, T defaultValue) {
+        T value = env.getProperty(PREFIX + upstream + "." + key, type);
+        return value != null ? value : env.getProperty(PREFIX + "default." + key, type, defaultValue);
+    }
+}
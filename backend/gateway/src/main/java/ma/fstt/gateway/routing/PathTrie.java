@@ -0,0 +1,84 @@
+package ma.fstt.gateway.routing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ✅ Trie de chemins compilé au démarrage : un nœud par segment.
+ * - segment littéral ("properties") ou variable ("{propertyId}", un seul segment)
+ * - le littéral l'emporte toujours sur la variable (plus spécifique), avec retour arrière
+ * - les segments vides sont ignorés ("/a//b/" == "/a/b")
+ *
+ * Coût d'un match = profondeur du chemin, indépendant du nombre de patterns enregistrés.
+ * Lecture seule après construction : partageable entre threads sans synchronisation.
+ */
+public final class PathTrie<T> {
+
+    private final Node<T> root = new Node<>();
+
+    /**
+     * Enregistre un pattern exact (ex: "/api/listings/properties/{propertyId}/submit")
+     * @throws IllegalStateException si le pattern est déjà enregistré avec une autre valeur
+     */
+    public PathTrie<T> add(String pattern, T value) {
+        Node<T> node = root;
+        for (String segment : pattern.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                if (node.variable == null) {
+                    node.variable = new Node<>();
+                }
+                node = node.variable;
+            } else {
+                node = node.literals.computeIfAbsent(segment, s -> new Node<>());
+            }
+        }
+        if (node.value != null && !node.value.equals(value)) {
+            throw new IllegalStateException("Pattern " + pattern + " already mapped to " + node.value);
+        }
+        node.value = value;
+        return this;
+    }
+
+    /**
+     * @return la valeur du pattern le plus spécifique qui couvre tout le chemin, sinon null
+     */
+    public T match(String path) {
+        return match(root, path, 0);
+    }
+
+    private static <T> T match(Node<T> node, String path, int from) {
+        // Sauter les '/' consécutifs
+        int start = from;
+        while (start < path.length() && path.charAt(start) == '/') {
+            start++;
+        }
+        if (start >= path.length()) {
+            return node.value;
+        }
+
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+
+        if (!node.literals.isEmpty()) {
+            Node<T> literal = node.literals.get(path.substring(start, end));
+            if (literal != null) {
+                T found = match(literal, path, end);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return node.variable != null ? match(node.variable, path, end) : null;
+    }
+
+    private static final class Node<T> {
+        private final Map<String, Node<T>> literals = new HashMap<>();
+        private Node<T> variable;
+        private T value;
+    }
+}
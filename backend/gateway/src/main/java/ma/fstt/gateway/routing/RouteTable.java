@@ -0,0 +1,89 @@
+package ma.fstt.gateway.routing;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * ✅ Table de routage compilée : (méthode, chemin) -> routeId via un PathTrie par méthode.
+ *
+ * Le Gateway évalue les prédicats des routes dans l'ordre ; ici le premier prédicat évalué
+ * résout la route une seule fois (résultat mis en attribut de l'exchange), les suivants ne font
+ * qu'une comparaison de chaîne. La spécificité (littéral > variable) remplace l'ordre de
+ * déclaration : plus besoin de déclarer "/my-properties" avant "/{propertyId}".
+ *
+ * Le match se fait sur le chemin tel que le service amont le verra (segments décodés, paramètres
+ * ";..." retirés) : "/properties/%70ending" ou "/properties/pending;x" résolvent la route de
+ * "/properties/pending", pas celle de "/{propertyId}". Les chemins ambigus (%2F, %5C, "." / "..")
+ * ne résolvent aucune route.
+ */
+public final class RouteTable {
+
+    private static final String RESOLVED_ROUTE_ATTR = RouteTable.class.getName() + ".routeId";
+    private static final String NO_ROUTE = "";
+
+    private final Map<HttpMethod, PathTrie<String>> byMethod = new HashMap<>();
+
+    /**
+     * Enregistre les patterns d'une route et retourne son prédicat pour RouteLocatorBuilder
+     * @throws IllegalStateException si un couple (méthode, pattern) est déjà pris par une autre route
+     */
+    public Predicate<ServerWebExchange> route(String routeId, Set<HttpMethod> methods, String... patterns) {
+        for (HttpMethod method : methods) {
+            PathTrie<String> trie = byMethod.computeIfAbsent(method, m -> new PathTrie<>());
+            for (String pattern : patterns) {
+                trie.add(pattern, routeId);
+            }
+        }
+        return exchange -> routeId.equals(resolve(exchange));
+    }
+
+    /**
+     * Route de la requête courante (calculée une fois par exchange), null si aucune
+     */
+    public String resolve(ServerWebExchange exchange) {
+        String cached = exchange.getAttribute(RESOLVED_ROUTE_ATTR);
+        if (cached == null) {
+            PathTrie<String> trie = byMethod.get(exchange.getRequest().getMethod());
+            String path = trie != null ? normalizedPath(exchange.getRequest().getURI().getRawPath()) : null;
+            String routeId = path != null ? trie.match(path) : null;
+            cached = routeId != null ? routeId : NO_ROUTE;
+            exchange.getAttributes().put(RESOLVED_ROUTE_ATTR, cached);
+        }
+        return cached.isEmpty() ? null : cached;
+    }
+
+    /**
+     * Chemin décodé segment par segment, null s'il ne doit être routé nulle part
+     */
+    static String normalizedPath(String rawPath) {
+        if (rawPath.indexOf('%') < 0 && rawPath.indexOf(';') < 0 && !rawPath.contains("/.")) {
+            return rawPath;
+        }
+        StringBuilder path = new StringBuilder(rawPath.length());
+        for (String rawSegment : rawPath.split("/")) {
+            int params = rawSegment.indexOf(';');
+            String segment;
+            try {
+                segment = UriUtils.decode(params >= 0 ? rawSegment.substring(0, params) : rawSegment, StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            if (segment.isEmpty()) {
+                continue;
+            }
+            // Séparateur encodé ou remontée de répertoire : interprétés différemment selon le service
+            if (segment.indexOf('/') >= 0 || segment.indexOf('\\') >= 0 || segment.equals(".") || segment.equals("..")) {
+                return null;
+            }
+            path.append('/').append(segment);
+        }
+        return path.isEmpty() ? "/" : path.toString();
+    }
+}
@@ -0,0 +1,48 @@
+package ma.fstt.gateway.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ✅ Claims d'un JWT déjà vérifié (signature + expiration), extraites une seule fois.
+ * Immuable : partagé entre requêtes via le cache de JwtUtil et stocké dans l'exchange.
+ */
+public record VerifiedToken(String userId,
+                            String username,
+                            List<String> roles,
+                            List<String> types,
+                            long expiresAtMillis) {
+
+    public static VerifiedToken from(Claims claims) {
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        return new VerifiedToken(
+                claims.get("userId", String.class),
+                claims.getSubject(),
+                stringList(claims.get("roles")),
+                stringList(claims.get("types")),
+                expiresAt
+        );
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    public boolean hasAnyRole(List<String> required) {
+        for (String role : required) {
+            if (roles.contains(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> stringList(Object value) {
+        if (!(value instanceof List<?> list) || list.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return list.stream().map(String::valueOf).toList();
+    }
+}
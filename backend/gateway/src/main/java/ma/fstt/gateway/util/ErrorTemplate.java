@@ -0,0 +1,87 @@
+package ma.fstt.gateway.util;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * ✅ Corps d'erreur JSON pré-sérialisé : seuls timestamp et path sont écrits par requête.
+ * Format : {"timestamp":"...","status":401,"error":"Unauthorized","message":"...","path":"..."}
+ *
+ * Les filtres déclarent leurs templates en constantes (pas de String.format sur l'event loop).
+ */
+public final class ErrorTemplate {
+
+    private static final byte[] OPEN = "{\"timestamp\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CLOSE = "\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpStatus status;
+    private final byte[] middle;
+
+    private ErrorTemplate(HttpStatus status, String message) {
+        this.status = status;
+        this.middle = ("\",\"status\":" + status.value() +
+                ",\"error\":\"" + escape(status.getReasonPhrase()) +
+                "\",\"message\":\"" + escape(message) +
+                "\",\"path\":\"").getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static ErrorTemplate of(HttpStatus status, String message) {
+        return new ErrorTemplate(status, message);
+    }
+
+    public HttpStatus status() {
+        return status;
+    }
+
+    public Mono<Void> write(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        byte[] timestamp = LocalDateTime.now().toString().getBytes(StandardCharsets.US_ASCII);
+        byte[] path = escape(exchange.getRequest().getURI().getPath()).getBytes(StandardCharsets.UTF_8);
+
+        int length = OPEN.length + timestamp.length + middle.length + path.length + CLOSE.length;
+        response.getHeaders().setContentLength(length);
+        DataBuffer buffer = response.bufferFactory().allocateBuffer(length);
+        buffer.write(OPEN).write(timestamp).write(middle).write(path).write(CLOSE);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    /**
+     * Échappement JSON minimal (guillemets, backslash, caractères de contrôle)
+     */
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder sb = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = switch (c) {
+                case '"' -> "\\\"";
+                case '\\' -> "\\\\";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\t' -> "\\t";
+                default -> c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+            };
+            if (replacement != null) {
+                if (sb == null) {
+                    sb = new StringBuilder(value.length() + 16).append(value, 0, i);
+                }
+                sb.append(replacement);
+            } else if (sb != null) {
+                sb.append(c);
+            }
+        }
+        return sb != null ? sb.toString() : value;
+    }
+}
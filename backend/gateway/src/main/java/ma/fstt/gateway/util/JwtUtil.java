@@ -1,56 +1,112 @@
 package ma.fstt.gateway.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import ma.fstt.gateway.security.VerifiedToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
-import java.util.Collections;
-import java.util.Date;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
+
+    // Tokens sans "exp" : revérifiés au moins toutes les heures
+    private static final long MAX_CACHE_TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
     @Value("${jwt.secret}")
     private String secret;
 
+    @Value("${gateway.jwt.cache.max-size:50000}")
+    private long cacheMaxSize;
+
+    // ✅ Clé et parser construits une seule fois (thread-safe), pas à chaque requête
+    private Key signingKey;
+    private JwtParser parser;
+
+    // ✅ SHA-256(token) -> claims vérifiées ; chaque entrée expire avec le token lui-même
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, Math.min(remainingMillis, MAX_CACHE_TTL_MILLIS)));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     /**
-     * Génère la clé de signature à partir du secret
+     * ✅ Vérifie le token (signature + expiration) et retourne ses claims.
+     * Un token déjà vu et non expiré est servi depuis le cache, sans crypto ni parsing JSON.
+     * @throws JwtException si le token est invalide (les échecs ne sont jamais mis en cache)
      */
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    public VerifiedToken verify(String token) throws JwtException {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("Token vide ou null");
+        }
+
+        String cacheKey = sha256(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null && !cached.isExpired(System.currentTimeMillis())) {
+            return cached;
+        }
+
+        // Expiré ou inconnu : le parser lève ExpiredJwtException, SignatureException, ...
+        VerifiedToken verified = VerifiedToken.from(getAllClaims(token));
+        verifiedTokens.put(cacheKey, verified);
+        return verified;
     }
 
     /**
-     * Extrait toutes les claims du token JWT
+     * Extrait toutes les claims du token JWT (toujours vérifié, sans cache)
      * @throws JwtException si le token est invalide
      */
     public Claims getAllClaims(String token) throws JwtException {
+        // Les exceptions (expiré, malformé, signature...) sont journalisées par les filtres appelants
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private static String sha256(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-        } catch (ExpiredJwtException e) {
-            System.err.println("❌ Token expiré: " + e.getMessage());
-            throw e;
-        } catch (UnsupportedJwtException e) {
-            System.err.println("❌ Token non supporté: " + e.getMessage());
-            throw e;
-        } catch (MalformedJwtException e) {
-            System.err.println("❌ Token malformé: " + e.getMessage());
-            throw e;
-        } catch (SignatureException e) {
-            System.err.println("❌ Signature invalide: " + e.getMessage());
-            throw e;
-        } catch (IllegalArgumentException e) {
-            System.err.println("❌ Token vide ou null: " + e.getMessage());
-            throw e;
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
@@ -58,74 +114,32 @@ public class JwtUtil {
      * Extrait le username (subject) du token
      */
     public String getUsernameFromToken(String token) {
-        try {
-            return getAllClaims(token).getSubject();
-        } catch (JwtException e) {
-            throw e;
-        }
+        return verify(token).username();
     }
 
     /**
      * Extrait l'userId du token
      */
     public String getUserIdFromToken(String token) {
-        try {
-            Claims claims = getAllClaims(token);
-            String userId = claims.get("userId", String.class);
-            if (userId == null || userId.isEmpty()) {
-                throw new IllegalArgumentException("UserId manquant dans le token");
-            }
-            return userId;
-        } catch (JwtException e) {
-            throw e;
+        String userId = verify(token).userId();
+        if (userId == null || userId.isEmpty()) {
+            throw new IllegalArgumentException("UserId manquant dans le token");
         }
+        return userId;
     }
 
     /**
      * ✅ Extrait les rôles du token (cherche directement "ADMIN", pas "ROLE_ADMIN")
      */
-    @SuppressWarnings("unchecked")
     public List<String> getRolesFromToken(String token) {
-        try {
-            Claims claims = getAllClaims(token);
-            Object rolesObj = claims.get("roles");
-
-            if (rolesObj == null) {
-                System.out.println("⚠️ Aucun rôle trouvé dans le token");
-                return Collections.emptyList();
-            }
-
-            if (rolesObj instanceof List) {
-                List<String> roles = (List<String>) rolesObj;
-                System.out.println("✅ Rôles extraits du token: " + roles);
-                return roles;
-            }
-
-            System.err.println("❌ Le champ 'roles' n'est pas une liste: " + rolesObj.getClass().getName());
-            return Collections.emptyList();
-
-        } catch (JwtException e) {
-            System.err.println("❌ Erreur lors de l'extraction des rôles: " + e.getMessage());
-            throw e;
-        }
+        return verify(token).roles();
     }
 
     /**
      * Extrait les types du token
      */
-    @SuppressWarnings("unchecked")
     public List<String> getTypesFromToken(String token) {
-        try {
-            Claims claims = getAllClaims(token);
-            Object typesObj = claims.get("types");
-            if (typesObj instanceof List) {
-                return (List<String>) typesObj;
-            }
-            System.out.println("⚠️ Aucun type trouvé dans le token");
-            return Collections.emptyList();
-        } catch (JwtException e) {
-            throw e;
-        }
+        return verify(token).types();
     }
 
     /**
@@ -133,17 +147,9 @@ public class JwtUtil {
      */
     public boolean isTokenExpired(String token) {
         try {
-            Date expiration = getAllClaims(token).getExpiration();
-            boolean expired = expiration.before(new Date());
-            if (expired) {
-                System.err.println("❌ Token expiré depuis: " + expiration);
-            }
-            return expired;
+            return verify(token).isExpired(System.currentTimeMillis());
         } catch (ExpiredJwtException e) {
-            System.err.println("❌ Token déjà expiré: " + e.getMessage());
             return true;
-        } catch (JwtException e) {
-            throw e;
         }
     }
 
@@ -153,40 +159,8 @@ public class JwtUtil {
      * @throws JwtException pour les erreurs spécifiques (expiré, malformé, etc.)
      */
     public boolean validateToken(String token) throws JwtException {
-        try {
-            // Tenter de parser le token (va lever une exception si invalide)
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-
-            // Vérifier l'expiration
-            if (isTokenExpired(token)) {
-                return false;
-            }
-
-            System.out.println("✅ Token validé avec succès");
-            return true;
-
-        } catch (ExpiredJwtException e) {
-            System.err.println("❌ Token expiré lors de la validation");
-            throw e;
-        } catch (UnsupportedJwtException e) {
-            System.err.println("❌ Format de token non supporté");
-            throw e;
-        } catch (MalformedJwtException e) {
-            System.err.println("❌ Token malformé");
-            throw e;
-        } catch (SignatureException e) {
-            System.err.println("❌ Signature du token invalide");
-            throw e;
-        } catch (IllegalArgumentException e) {
-            System.err.println("❌ Token vide ou null");
-            throw e;
-        } catch (JwtException e) {
-            System.err.println("❌ Erreur JWT: " + e.getMessage());
-            throw e;
-        }
+        // Signature + expiration vérifiées une fois, puis servies depuis le cache
+        return !verify(token).isExpired(System.currentTimeMillis());
     }
 
     /**
@@ -196,14 +170,10 @@ public class JwtUtil {
         try {
             List<String> roles = getRolesFromToken(token);
             boolean hasRole = roles != null && roles.contains(role);
-            if (!hasRole) {
-                System.err.println("❌ Rôle requis '" + role + "' non trouvé. Rôles disponibles: " + roles);
-            } else {
-                System.out.println("✅ Rôle '" + role + "' trouvé dans le token");
-            }
+            log.debug("Rôle '{}' {} | Rôles disponibles: {}", role, hasRole ? "trouvé" : "absent", roles);
             return hasRole;
         } catch (JwtException e) {
-            System.err.println("❌ Erreur lors de la vérification du rôle: " + e.getMessage());
+            log.debug("Vérification du rôle impossible: {}", e.getMessage());
             return false;
         }
     }
@@ -215,12 +185,10 @@ public class JwtUtil {
         try {
             List<String> types = getTypesFromToken(token);
             boolean hasType = types != null && types.contains(type);
-            if (!hasType) {
-                System.err.println("❌ Type requis '" + type + "' non trouvé. Types disponibles: " + types);
-            }
+            log.debug("Type '{}' {} | Types disponibles: {}", type, hasType ? "trouvé" : "absent", types);
             return hasType;
         } catch (JwtException e) {
-            System.err.println("❌ Erreur lors de la vérification du type: " + e.getMessage());
+            log.debug("Vérification du type impossible: {}", e.getMessage());
             return false;
         }
     }
@@ -0,0 +1,48 @@
+package ma.fstt.gateway.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ✅ Échantillonnage des logs du chemin chaud (lock-free) : au plus N lignes par fenêtre,
+ * les suivantes sont comptées et rapportées avec la prochaine ligne autorisée.
+ * Évite qu'un flot de tokens invalides ne sature l'appender.
+ */
+public final class LogSampler {
+
+    private final int maxPerWindow;
+    private final long windowNanos;
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger countInWindow = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogSampler(int maxPerWindow, Duration window) {
+        this.maxPerWindow = maxPerWindow;
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * @return true si la ligne peut être écrite
+     */
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            countInWindow.set(0);
+        }
+        if (countInWindow.incrementAndGet() <= maxPerWindow) {
+            return true;
+        }
+        suppressed.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Nombre de lignes supprimées depuis le dernier appel (remis à zéro)
+     */
+    public long drainSuppressed() {
+        return suppressed.getAndSet(0);
+    }
+}
@@ -0,0 +1,143 @@
+package ma.fstt.gateway.aggregation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PropertyDetailAggregationFilterTest {
+
+    private static final String PROPERTY = "/properties/p-1";
+    private static final String AVAILABILITY = "/bookings/property/p-1/booked-dates";
+    private static final String WALLET = "/properties/p-1/wallet-address";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Chemin amont -> (status, corps)
+    private final Map<String, Map.Entry<Integer, String>> upstream = new HashMap<>(Map.of(
+            PROPERTY, Map.entry(200, "{\"propertyId\":\"p-1\"}"),
+            AVAILABILITY, Map.entry(200, "[]"),
+            WALLET, Map.entry(200, "{\"walletAddress\":\"0xabc\"}")));
+
+    @Test
+    void completeResponse() throws IOException {
+        JsonNode result = aggregate();
+
+        assertFalse(result.get("partial").asBoolean());
+        assertEquals(0, result.get("unavailable").size());
+        assertEquals("0xabc", result.get("walletAddress").asText());
+    }
+
+    @Test
+    void optionalBranchClientErrorIsListedAsUnavailable() throws IOException {
+        upstream.put(AVAILABILITY, Map.entry(400, "{\"message\":\"Invalid dates\"}"));
+
+        JsonNode result = aggregate();
+
+        assertTrue(result.get("availability").isNull());
+        assertTrue(result.get("partial").asBoolean());
+        assertEquals("availability", result.get("unavailable").get(0).asText());
+    }
+
+    @Test
+    void walletNotFoundIsACompleteResponse() throws IOException {
+        upstream.put(WALLET, Map.entry(404, "{\"message\":\"No wallet\"}"));
+
+        JsonNode result = aggregate();
+
+        assertTrue(result.get("walletAddress").isNull());
+        assertFalse(result.get("partial").asBoolean());
+    }
+
+    @Test
+    void walletOtherClientErrorIsListedAsUnavailable() throws IOException {
+        upstream.put(WALLET, Map.entry(429, ""));
+
+        JsonNode result = aggregate();
+
+        assertTrue(result.get("partial").asBoolean());
+        assertEquals("wallet", result.get("unavailable").get(0).asText());
+    }
+
+    @Test
+    void nonStandardPropertyStatusIsForwarded() {
+        upstream.put(PROPERTY, Map.entry(499, "{\"message\":\"Client closed request\"}"));
+
+        MockServerWebExchange exchange = run();
+
+        assertEquals(499, exchange.getResponse().getStatusCode().value());
+        assertEquals("{\"message\":\"Client closed request\"}", exchange.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void nonStandardPropertyStatusWithoutBodyIsForwarded() {
+        upstream.put(PROPERTY, Map.entry(499, ""));
+
+        MockServerWebExchange exchange = run();
+
+        assertEquals(499, exchange.getResponse().getStatusCode().value());
+    }
+
+    private JsonNode aggregate() throws IOException {
+        MockServerWebExchange exchange = run();
+        assertEquals(200, exchange.getResponse().getStatusCode().value());
+        return objectMapper.readTree(exchange.getResponse().getBodyAsString().block());
+    }
+
+    private MockServerWebExchange run() {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            Map.Entry<Integer, String> response = upstream.get(request.url().getPath());
+            return Mono.just(ClientResponse.create(HttpStatusCode.valueOf(response.getKey()))
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(response.getValue())
+                    .build());
+        });
+
+        @SuppressWarnings("unchecked")
+        ReactiveCircuitBreakerFactory<?, ?> factory = mock(ReactiveCircuitBreakerFactory.class);
+        when(factory.create(anyString())).thenReturn(new PassThroughBreaker());
+
+        PropertyDetailAggregationFilter filter = new PropertyDetailAggregationFilter(builder, HttpClient.create(),
+                factory, objectMapper, "http://listing-service", "http://booking-service", 2000, 800, 800, 180);
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/views/properties/p-1"));
+        filter.filter(exchange, e -> Mono.empty()).block();
+        return exchange;
+    }
+
+    private static final class PassThroughBreaker implements ReactiveCircuitBreaker {
+
+        @Override
+        public <T> Mono<T> run(Mono<T> toRun, Function<Throwable, Mono<T>> fallback) {
+            return toRun.onErrorResume(fallback);
+        }
+
+        @Override
+        public <T> Flux<T> run(Flux<T> toRun, Function<Throwable, Flux<T>> fallback) {
+            return toRun.onErrorResume(fallback);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ma.fstt.gateway.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResponseCacheFilterTest {
+
+    private static HttpHeaders cacheable(String... vary) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("public, max-age=60");
+        for (String value : vary) {
+            headers.add(HttpHeaders.VARY, value);
+        }
+        return headers;
+    }
+
+    @Test
+    void publicResponseIsCacheable() {
+        assertEquals(60, ResponseCacheFilter.sharedTtlSeconds(cacheable()));
+    }
+
+    @Test
+    void corsAndCompressionVaryDoNotPreventCaching() {
+        // Vary ajoutés par CorsWebFilter et CompressionFilter
+        assertEquals(60, ResponseCacheFilter.sharedTtlSeconds(cacheable("Origin")));
+        assertEquals(60, ResponseCacheFilter.sharedTtlSeconds(cacheable("Accept-Encoding")));
+        assertEquals(60, ResponseCacheFilter.sharedTtlSeconds(
+                cacheable("Origin, Access-Control-Request-Method, Access-Control-Request-Headers", "Accept-Encoding")));
+    }
+
+    @Test
+    void contentVaryPreventsCaching() {
+        assertEquals(0, ResponseCacheFilter.sharedTtlSeconds(cacheable("Authorization")));
+        assertEquals(0, ResponseCacheFilter.sharedTtlSeconds(cacheable("Origin, Accept-Language")));
+        assertEquals(0, ResponseCacheFilter.sharedTtlSeconds(cacheable("*")));
+    }
+
+    @Test
+    void setCookiePreventsCaching() {
+        HttpHeaders headers = cacheable();
+        headers.add(HttpHeaders.SET_COOKIE, "session=abc");
+        assertEquals(0, ResponseCacheFilter.sharedTtlSeconds(headers));
+    }
+
+    @Test
+    void privateOrNonPublicResponseIsNotCached() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("private, max-age=60");
+        assertEquals(0, ResponseCacheFilter.sharedTtlSeconds(headers));
+
+        headers.setCacheControl("max-age=60");
+        assertEquals(0, ResponseCacheFilter.sharedTtlSeconds(headers));
+
+        headers.setCacheControl("public, no-store");
+        assertEquals(0, ResponseCacheFilter.sharedTtlSeconds(headers));
+
+        assertEquals(0, ResponseCacheFilter.sharedTtlSeconds(new HttpHeaders()));
+    }
+
+    @Test
+    void sharedMaxAgeWinsOverMaxAge() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("public, max-age=60, s-maxage=300");
+        assertEquals(300, ResponseCacheFilter.sharedTtlSeconds(headers));
+    }
+}
@@ -0,0 +1,51 @@
+package ma.fstt.gateway.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ResponseCacheStoreTest {
+
+    private static final String PATH = "/api/listings/properties/search";
+
+    @Test
+    void parameterOrderDoesNotChangeTheKey() {
+        assertEquals(key("?city=Paris&size=20"), key("?size=20&city=Paris"));
+    }
+
+    @Test
+    void encodedDelimitersDoNotCollideWithRealParameters() {
+        // Empoisonnement : une requête ne doit pas remplir l'entrée d'une autre
+        assertNotEquals(key("?city=a&page=2"), key("?city=a%26page%3D2"));
+        assertNotEquals(key("?city=a&page=2"), key("?city%3Da%26page=2"));
+    }
+
+    @Test
+    void blankAndMissingValuesStayDistinct() {
+        assertNotEquals(key("?city=Paris"), key("?city=Paris&type="));
+        assertNotEquals(key("?type="), key("?type"));
+        assertNotEquals(key("?city=Paris"), key("?city=%20Paris"));
+    }
+
+    @Test
+    void repeatedValuesKeepTheirOrder() {
+        assertNotEquals(key("?type=A&type=B"), key("?type=B&type=A"));
+        assertEquals(key("?type=A&city=X&type=B"), key("?city=X&type=A&type=B"));
+    }
+
+    @Test
+    void sameDecodedQueryGivesSameKey() {
+        assertEquals(key("?city=F%C3%A8s"), key("?city=F%c3%a8s"));
+        assertEquals(PATH, key(""));
+    }
+
+    private static String key(String query) {
+        MockServerHttpRequest request = MockServerHttpRequest.method(HttpMethod.GET, URI.create(PATH + query)).build();
+        return ResponseCacheStore.key(PATH, request.getQueryParams());
+    }
+}
@@ -0,0 +1,139 @@
+package ma.fstt.gateway.compression;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ✅ Micro-benchmark de la compression au Gateway : octets sur le fil et temps CPU par réponse,
+ * identity vs gzip vs brotli à plusieurs niveaux, pour des pages de cartes property de tailles variées.
+ *
+ * Le corps est découpé en chunks de 8 Ko compressés un par un (sync flush), comme dans CompressionFilter.
+ * Le temps CPU est celui du thread courant (ThreadMXBean), hors allocation des buffers Netty.
+ *
+ * Lancer avec : mvn test -Dtest=CompressionBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CompressionBenchmarkTest {
+
+    private static final int[] PAGE_SIZES = {1, 20, 100, 500};
+    private static final int CHUNK_SIZE = 8192;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int ROUNDS = 500;
+
+    private record Setting(String label, ContentEncoding encoding, int level) {
+    }
+
+    @Test
+    void compareEncodingsAcrossPageSizes() {
+        List<Setting> settings = new ArrayList<>(List.of(
+                new Setting("gzip-1", ContentEncoding.GZIP, 1),
+                new Setting("gzip-5 (défaut)", ContentEncoding.GZIP, 5),
+                new Setting("gzip-9", ContentEncoding.GZIP, 9)));
+        if (ContentEncoding.BR.isAvailable()) {
+            settings.add(new Setting("br-1", ContentEncoding.BR, 1));
+            settings.add(new Setting("br-4 (défaut)", ContentEncoding.BR, 4));
+            settings.add(new Setting("br-6", ContentEncoding.BR, 6));
+            settings.add(new Setting("br-11", ContentEncoding.BR, 11));
+        } else {
+            System.out.println("brotli indisponible sur cette plateforme : gzip uniquement");
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        for (int pageSize : PAGE_SIZES) {
+            byte[] body = page(pageSize);
+            List<byte[]> chunks = chunks(body);
+            System.out.printf("%n--- page de %d cartes : %d octets identity ---%n", pageSize, body.length);
+
+            for (Setting setting : settings) {
+                long wireBytes = 0;
+                for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                    wireBytes = compress(setting, chunks);
+                }
+                long cpuStart = threads.getCurrentThreadCpuTime();
+                long wallStart = System.nanoTime();
+                for (int round = 0; round < ROUNDS; round++) {
+                    wireBytes = compress(setting, chunks);
+                }
+                long cpu = threads.getCurrentThreadCpuTime() - cpuStart;
+                long wall = System.nanoTime() - wallStart;
+
+                System.out.printf("%-18s %9d octets  %5.1f %%  cpu %8.1f µs/réponse  (mur %8.1f µs)%n",
+                        setting.label(), wireBytes, 100.0 * wireBytes / body.length,
+                        cpu / 1000.0 / ROUNDS, wall / 1000.0 / ROUNDS);
+
+                // Au-delà du seuil (1 Ko par défaut), la compression doit réduire la taille
+                if (body.length >= 1024) {
+                    assertTrue(wireBytes < body.length, setting.label() + " sur " + pageSize + " cartes");
+                }
+            }
+        }
+    }
+
+    private static long compress(Setting setting, List<byte[]> chunks) {
+        long wireBytes = 0;
+        try (StreamingCompressor compressor = new StreamingCompressor(setting.encoding(), setting.level())) {
+            for (byte[] chunk : chunks) {
+                wireBytes += compressor.compress(chunk).length;
+            }
+            wireBytes += compressor.finish().length;
+        }
+        return wireBytes;
+    }
+
+    private static List<byte[]> chunks(byte[] body) {
+        List<byte[]> chunks = new ArrayList<>();
+        for (int offset = 0; offset < body.length; offset += CHUNK_SIZE) {
+            chunks.add(Arrays.copyOfRange(body, offset, Math.min(body.length, offset + CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    /**
+     * Page Spring Data de PropertyCardView sérialisée comme par le listing-service
+     */
+    private static byte[] page(int size) {
+        Random random = new Random(42);
+        String[] cities = {"Marrakech", "Casablanca", "Tanger", "Fès", "Agadir", "Rabat"};
+        String[] types = {"APARTMENT", "HOUSE", "VILLA", "RIAD"};
+        StringBuilder json = new StringBuilder("{\"content\":[");
+        for (int i = 0; i < size; i++) {
+            String id = Long.toHexString(random.nextLong());
+            String city = cities[random.nextInt(cities.length)];
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"propertyId\":\"").append(id)
+                    .append("\",\"ownerId\":\"").append(Long.toHexString(random.nextLong()))
+                    .append("\",\"title\":\"Logement ").append(i).append(" à ").append(city)
+                    .append("\",\"type\":\"").append(types[random.nextInt(types.length)])
+                    .append("\",\"city\":\"").append(city)
+                    .append("\",\"country\":\"Maroc\",\"latitude\":").append(30 + random.nextDouble() * 5)
+                    .append(",\"longitude\":").append(-9 + random.nextDouble() * 4)
+                    .append(",\"pricePerNight\":").append(200 + random.nextInt(4000)).append(".00")
+                    .append(",\"nbOfGuests\":").append(1 + random.nextInt(10))
+                    .append(",\"nbOfBedrooms\":").append(1 + random.nextInt(5))
+                    .append(",\"nbOfBeds\":").append(1 + random.nextInt(6))
+                    .append(",\"nbOfBathrooms\":").append(1 + random.nextInt(3))
+                    .append(",\"status\":\"ACTIVE\"")
+                    .append(",\"coverImageUrl\":\"https://cdn.example.com/properties/").append(id).append("/original/0.jpg\"")
+                    .append(",\"coverThumbUrl\":\"https://cdn.example.com/properties/").append(id).append("/thumb/0.jpg\"")
+                    .append(",\"coverCardUrl\":\"https://cdn.example.com/properties/").append(id).append("/card/0.jpg\"")
+                    .append(",\"createdAt\":\"2026-0").append(1 + random.nextInt(9)).append("-1").append(random.nextInt(10))
+                    .append("T10:15:30\",\"lastUpdateAt\":\"2026-10-0").append(1 + random.nextInt(9)).append("T08:00:00\"}");
+        }
+        json.append("],\"totalElements\":").append(size * 7)
+                .append(",\"totalPages\":7,\"size\":").append(size)
+                .append(",\"number\":0,\"first\":true,\"last\":false,\"empty\":").append(size == 0).append('}');
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
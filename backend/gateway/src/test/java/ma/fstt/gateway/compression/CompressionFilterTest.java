@@ -0,0 +1,92 @@
+package ma.fstt.gateway.compression;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressionFilterTest {
+
+    private static final byte[] BODY = "{\"propertyId\":\"p-1\",\"title\":\"Riad\"},".repeat(64)
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final CompressionFilter filter = new CompressionFilter(true, 1024, 5, 4, false);
+
+    @Test
+    void compressedResponseGetsWeakETagAndVary() throws IOException {
+        MockServerWebExchange exchange = exchange();
+        filter.filter(exchange, upstream("\"abc123\"", BODY)).block();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("W/\"abc123\"", headers.getETag());
+        assertTrue(headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING));
+        assertArrayEquals(BODY, gunzip(body(exchange)));
+    }
+
+    @Test
+    void weakETagIsKeptAsIs() {
+        MockServerWebExchange exchange = exchange();
+        filter.filter(exchange, upstream("W/\"abc123\"", BODY)).block();
+
+        assertEquals("W/\"abc123\"", exchange.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void uncompressedResponseKeepsStrongETag() {
+        // Sous le seuil : octets identiques à ceux de l'amont
+        byte[] small = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+        MockServerWebExchange exchange = exchange();
+        filter.filter(exchange, upstream("\"abc123\"", small)).block();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertNull(headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"abc123\"", headers.getETag());
+        assertArrayEquals(small, body(exchange));
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/listings/properties")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+    }
+
+    private static GatewayFilterChain upstream(String etag, byte[] body) {
+        return exchange -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().setContentLength(body.length);
+            response.getHeaders().setETag(etag);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        };
+    }
+
+    private static byte[] body(MockServerWebExchange exchange) {
+        DataBuffer joined = DataBufferUtils.join(exchange.getResponse().getBody()).block();
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        DataBufferUtils.release(joined);
+        return bytes;
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ma.fstt.gateway.compression;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StreamingCompressorTest {
+
+    private static final byte[] CHUNK = "{\"propertyId\":\"p-1\",\"title\":\"Riad\"},".repeat(64)
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void gzipChunksConcatenateToValidStream() throws IOException {
+        StreamingCompressor compressor = new StreamingCompressor(ContentEncoding.GZIP, 5);
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        wire.write(compressor.compress(CHUNK));
+        wire.write(compressor.compress(CHUNK));
+        wire.write(compressor.finish());
+
+        byte[] expected = new byte[CHUNK.length * 2];
+        System.arraycopy(CHUNK, 0, expected, 0, CHUNK.length);
+        System.arraycopy(CHUNK, 0, expected, CHUNK.length, CHUNK.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(wire.toByteArray()))) {
+            assertArrayEquals(expected, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void closeBeforeFinishReleasesWithoutError() {
+        // Réponse annulée au milieu du corps
+        StreamingCompressor compressor = new StreamingCompressor(ContentEncoding.GZIP, 5);
+        compressor.compress(CHUNK);
+        assertDoesNotThrow(compressor::close);
+        assertDoesNotThrow(compressor::close);
+        assertEquals(0, compressor.compress(CHUNK).length);
+        assertEquals(0, compressor.finish().length);
+    }
+
+    @Test
+    void closeAfterFinishIsNoOp() {
+        StreamingCompressor compressor = new StreamingCompressor(ContentEncoding.GZIP, 5);
+        compressor.compress(CHUNK);
+        compressor.finish();
+        assertDoesNotThrow(compressor::close);
+    }
+}
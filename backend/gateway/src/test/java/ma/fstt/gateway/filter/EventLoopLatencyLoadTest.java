@@ -0,0 +1,189 @@
+package ma.fstt.gateway.filter;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoop;
+import ma.fstt.gateway.util.LogSampler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ✅ Test de charge : latence de la boucle d'événements avec l'ancien logging console
+ * (System.out / System.err synchronisés) puis avec SLF4J + AsyncAppender + LogSampler.
+ *
+ * Les requêtes sont injectées à débit fixe sur 4 boucles Netty ; une sonde planifie une tâche vide
+ * toutes les 500 µs et mesure son délai d'exécution (ce qu'attendrait la requête suivante).
+ * La sortie console est simulée par un flux lent (~20 µs par écriture, pipe vers un collecteur de logs).
+ *
+ * Lancer avec : mvn test -Dtest=EventLoopLatencyLoadTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EventLoopLatencyLoadTest {
+
+    private static final int EVENT_LOOPS = 4;
+    private static final int REQUESTS_PER_MS = 20;
+    private static final Duration RUN = Duration.ofSeconds(5);
+    private static final long PROBE_INTERVAL_MICROS = 500;
+    private static final long SINK_WRITE_NANOS = 20_000;
+
+    // 10 % de tokens refusés (expirés, malformés...)
+    private static final int REJECTION_EVERY = 10;
+
+    @Test
+    void eventLoopLatencyBeforeAndAfter() throws Exception {
+        PrintStream console = new PrintStream(new SlowOutputStream(), true);
+        long[] before = run("System.out / System.err (avant)", requestId -> {
+            if (requestId % REJECTION_EVERY == 0) {
+                console.println("❌ Token expiré: JWT expired at 2026-10-19T10:00:00Z");
+                String body = String.format("{\"timestamp\":\"%s\",\"status\":%d,\"error\":\"%s\",\"message\":\"%s\",\"path\":\"%s\"}",
+                        "2026-10-19T10:00:00Z", 401, "Unauthorized", "Token expiré", "/api/bookings");
+                console.println("❌ Erreur Gateway [401]: Token expiré | Path: /api/bookings" + body.length());
+            } else {
+                console.println("✅ Token validé avec succès");
+                console.println("✅ Token validé pour l'utilisateur: user" + requestId + " | Roles: [CLIENT]");
+            }
+        });
+
+        LoggerContext context = new LoggerContext();
+        Logger log = asyncLogger(context);
+        LogSampler sampler = new LogSampler(20, Duration.ofSeconds(1));
+        long[] after = run("SLF4J async + échantillonnage (après)", requestId -> {
+            if (requestId % REJECTION_EVERY == 0) {
+                if (sampler.tryAcquire()) {
+                    log.warn("❌ Requête refusée [{}] | Path: {} | Cause: {} | Refus non journalisés: {}",
+                            401, "/api/bookings", "Token expiré", sampler.drainSuppressed());
+                }
+            } else {
+                log.debug("Token validé pour l'utilisateur: {} | Roles: {}", "user" + requestId, "[CLIENT]");
+            }
+        });
+        context.stop();
+
+        // Le chemin asynchrone ne doit pas être plus lent au p99
+        assertTrue(after[1] <= before[1], "p99 after=" + after[1] + "µs, before=" + before[1] + "µs");
+    }
+
+    /**
+     * @return {p50, p99, max} du délai de la sonde en µs
+     */
+    private static long[] run(String label, RequestWork work) throws InterruptedException {
+        DefaultEventLoopGroup loops = new DefaultEventLoopGroup(EVENT_LOOPS);
+        ScheduledExecutorService driver = Executors.newScheduledThreadPool(2);
+        AtomicInteger requestIds = new AtomicInteger();
+        int maxProbes = (int) (RUN.toNanos() / TimeUnit.MICROSECONDS.toNanos(PROBE_INTERVAL_MICROS)) + 16;
+        long[] delays = new long[maxProbes];
+        AtomicInteger probes = new AtomicInteger();
+
+        driver.scheduleAtFixedRate(() -> {
+            for (int i = 0; i < REQUESTS_PER_MS; i++) {
+                int requestId = requestIds.incrementAndGet();
+                loops.next().execute(() -> work.handle(requestId));
+            }
+        }, 0, 1, TimeUnit.MILLISECONDS);
+
+        driver.scheduleAtFixedRate(() -> {
+            EventLoop loop = loops.next();
+            long scheduled = System.nanoTime();
+            loop.execute(() -> {
+                int slot = probes.getAndIncrement();
+                if (slot < delays.length) {
+                    delays[slot] = System.nanoTime() - scheduled;
+                }
+            });
+        }, 0, PROBE_INTERVAL_MICROS, TimeUnit.MICROSECONDS);
+
+        Thread.sleep(RUN.toMillis());
+        driver.shutdownNow();
+        driver.awaitTermination(1, TimeUnit.SECONDS);
+        loops.shutdownGracefully(0, 0, TimeUnit.SECONDS).awaitUninterruptibly();
+
+        long[] sorted = Arrays.copyOf(delays, Math.min(probes.get(), delays.length));
+        Arrays.sort(sorted);
+        long[] result = {
+                percentileMicros(sorted, 0.50),
+                percentileMicros(sorted, 0.99),
+                sorted.length == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(sorted[sorted.length - 1])
+        };
+        System.out.printf("%-40s requests=%d probes=%d p50=%dµs p99=%dµs max=%dµs%n",
+                label, requestIds.get(), sorted.length, result[0], result[1], result[2]);
+        return result;
+    }
+
+    private static long percentileMicros(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return TimeUnit.NANOSECONDS.toMicros(sorted[Math.max(0, index)]);
+    }
+
+    /**
+     * Même configuration que logback-spring.xml (file 8192, neverBlock), sur le flux lent
+     */
+    private static Logger asyncLogger(LoggerContext context) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %level %logger - %msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(new SlowOutputStream());
+        sink.start();
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(1638);
+        async.setNeverBlock(true);
+        async.setIncludeCallerData(false);
+        async.addAppender(sink);
+        async.start();
+
+        ch.qos.logback.classic.Logger logger = context.getLogger("ma.fstt.gateway.filter.JwtAuthenticationFilter");
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(async);
+        return logger;
+    }
+
+    @FunctionalInterface
+    private interface RequestWork {
+        void handle(int requestId);
+    }
+
+    /**
+     * Écriture bloquante d'environ 20 µs (stdout d'un conteneur lu par un collecteur)
+     */
+    private static final class SlowOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+            LockSupport.parkNanos(SINK_WRITE_NANOS);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            LockSupport.parkNanos(SINK_WRITE_NANOS);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ma.fstt.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class IdentityHeadersFilterTest {
+
+    private final IdentityHeadersFilter filter = new IdentityHeadersFilter();
+
+    @Test
+    void stripsClientSuppliedIdentityHeaders() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/listings/properties/pending")
+                .header("X-User-Id", "victim")
+                .header("X-Roles", "ADMIN")
+                .header("X-User-Roles", "ADMIN")
+                .header("X-User-Types", "HOST")
+                .header(HttpHeaders.ACCEPT, "application/json"));
+
+        AtomicReference<HttpHeaders> forwarded = new AtomicReference<>();
+        filter.filter(exchange, e -> {
+            forwarded.set(e.getRequest().getHeaders());
+            return Mono.empty();
+        }).block();
+
+        for (String header : IdentityHeadersFilter.IDENTITY_HEADERS) {
+            assertFalse(forwarded.get().containsKey(header), header);
+        }
+        assertEquals("application/json", forwarded.get().getFirst(HttpHeaders.ACCEPT));
+    }
+}
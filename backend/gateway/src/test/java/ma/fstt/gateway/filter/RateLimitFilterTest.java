@@ -0,0 +1,98 @@
+package ma.fstt.gateway.filter;
+
+import ma.fstt.gateway.ratelimit.LocalTokenBuckets;
+import ma.fstt.gateway.ratelimit.RateLimitStore;
+import ma.fstt.gateway.security.VerifiedToken;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class RateLimitFilterTest {
+
+    private static final Route LOGIN = route("auth_public");
+    private static final Route SEARCH = route("listing_public_read");
+
+    private final RateLimitFilter filter = filter("10.244.0.0/16");
+
+    @Test
+    void verifiedUserIsKeyedByUserId() {
+        MockServerWebExchange exchange = exchange(SEARCH, "203.0.113.9", null);
+        exchange.getAttributes().put(JwtAuthenticationFilter.VERIFIED_TOKEN_ATTR,
+                new VerifiedToken("u-42", "alice", List.of("CLIENT"), List.of(), Long.MAX_VALUE));
+        assertEquals("user", filter.policy(exchange).name());
+        assertEquals("user:u-42", filter.key(exchange, filter.policy(exchange)));
+    }
+
+    @Test
+    void loginRoutesUseTheAuthPolicy() {
+        MockServerWebExchange exchange = exchange(LOGIN, "203.0.113.9", null);
+        assertEquals("auth", filter.policy(exchange).name());
+        assertEquals("auth:203.0.113.9", filter.key(exchange, filter.policy(exchange)));
+    }
+
+    @Test
+    void anonymousClientsBehindTheIngressGetTheirOwnBucket() {
+        MockServerWebExchange first = exchange(SEARCH, "10.244.1.7", "198.51.100.1");
+        MockServerWebExchange second = exchange(SEARCH, "10.244.1.7", "198.51.100.2");
+        assertEquals("public:198.51.100.1", filter.key(first, filter.policy(first)));
+        assertEquals("public:198.51.100.2", filter.key(second, filter.policy(second)));
+    }
+
+    @Test
+    void directClientCannotChooseItsKey() {
+        MockServerWebExchange exchange = exchange(LOGIN, "203.0.113.9", "1.2.3.4");
+        assertEquals("auth:203.0.113.9", filter.key(exchange, filter.policy(exchange)));
+    }
+
+    @Test
+    void rejectsOverCapacityWith429AndRetryAfter() {
+        for (int i = 0; i < 2; i++) {
+            MockServerWebExchange exchange = exchange(LOGIN, "10.244.1.7", "198.51.100.1");
+            filter.filter(exchange, e -> Mono.empty()).block();
+            assertNull(exchange.getResponse().getStatusCode());
+        }
+        MockServerWebExchange rejected = exchange(LOGIN, "10.244.1.7", "198.51.100.1");
+        filter.filter(rejected, e -> Mono.empty()).block();
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst("Retry-After"));
+
+        // Autre client derrière le même ingress : non affecté
+        MockServerWebExchange other = exchange(LOGIN, "10.244.1.7", "198.51.100.2");
+        filter.filter(other, e -> Mono.empty()).block();
+        assertNull(other.getResponse().getStatusCode());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RateLimitFilter filter(String trustedProxyCidrs) {
+        ObjectProvider<RateLimitStore> noSharedStore = mock(ObjectProvider.class);
+        return new RateLimitFilter(new LocalTokenBuckets(1000, 600), noSharedStore, true, trustedProxyCidrs,
+                2, 1, 100, 20, 200, 50);
+    }
+
+    private static MockServerWebExchange exchange(Route route, String peer, String forwardedFor) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.post("/api/auth/users/login")
+                .remoteAddress(new InetSocketAddress(peer, 443));
+        if (forwardedFor != null) {
+            request.header("X-Forwarded-For", forwardedFor);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    private static Route route(String id) {
+        return Route.async().id(id).uri("http://auth-service:8080").predicate(exchange -> true).build();
+    }
+}
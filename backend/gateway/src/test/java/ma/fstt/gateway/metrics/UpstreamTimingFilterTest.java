@@ -0,0 +1,68 @@
+package ma.fstt.gateway.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class UpstreamTimingFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final UpstreamTimingFilter filter = new UpstreamTimingFilter(new RouteMeters(registry, 1, 30000));
+
+    private final Route route = Route.async()
+            .id("listing_public_read")
+            .uri("http://listing-service:8080")
+            .predicate(exchange -> true)
+            .build();
+
+    @Test
+    void recordsSuccessfulAttempt() {
+        filter.filter(exchange(), e -> Mono.empty()).block();
+        assertEquals(1, count("SUCCESS"));
+        assertEquals(0, count("ERROR"));
+    }
+
+    @Test
+    void recordsFailedAttempt() {
+        // Connexion refusée / timeout amont : avant, aucune mesure
+        filter.filter(exchange(), e -> Mono.error(new ConnectException("Connection refused")))
+                .onErrorResume(e -> Mono.empty())
+                .block();
+        assertEquals(1, count("ERROR"));
+        assertEquals(0, count("SUCCESS"));
+    }
+
+    @Test
+    void recordsCancelledAttempt() {
+        filter.filter(exchange(), e -> Mono.never())
+                .timeout(Duration.ofMillis(10), Mono.empty())
+                .block();
+        assertEquals(1, count("CANCELLED"));
+    }
+
+    private ServerWebExchange exchange() {
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/listings/properties/p-1"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    private long count(String outcome) {
+        Timer timer = registry.find("gateway.upstream.requests")
+                .tag("route", "listing_public_read")
+                .tag("upstream", "listing-service")
+                .tag("outcome", outcome)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
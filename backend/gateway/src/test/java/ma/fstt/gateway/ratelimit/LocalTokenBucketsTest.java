@@ -0,0 +1,56 @@
+package ma.fstt.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalTokenBucketsTest {
+
+    private final LocalTokenBuckets buckets = new LocalTokenBuckets(1000, 600);
+
+    @Test
+    void policyExpressesTokenBucketAsGcra() {
+        RateLimitPolicy policy = new RateLimitPolicy("auth", 10, 0.2);
+        assertEquals(TimeUnit.SECONDS.toNanos(5), policy.emissionIntervalNanos());
+        assertEquals(TimeUnit.SECONDS.toNanos(50), policy.burstNanos());
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitPolicy("bad", 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitPolicy("bad", 1, 0));
+    }
+
+    @Test
+    void fullBucketAllowsCapacityThenAsksToWaitOneInterval() {
+        RateLimitPolicy policy = new RateLimitPolicy("auth", 3, 1);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, buckets.tryAcquire("auth:1.2.3.4", policy), "request " + i);
+        }
+        long waitMillis = buckets.tryAcquire("auth:1.2.3.4", policy);
+        // Prochain jeton dans ~1 s (moins le temps écoulé depuis la première requête)
+        assertTrue(waitMillis > 500 && waitMillis <= 1000, "wait=" + waitMillis);
+    }
+
+    @Test
+    void rejectionDoesNotConsumeATokenAndRefillIsProgressive() throws InterruptedException {
+        RateLimitPolicy policy = new RateLimitPolicy("public", 2, 50);
+        assertEquals(0, buckets.tryAcquire("k", policy));
+        assertEquals(0, buckets.tryAcquire("k", policy));
+        assertTrue(buckets.tryAcquire("k", policy) > 0);
+        assertTrue(buckets.tryAcquire("k", policy) > 0);
+
+        // 50 jetons/s : un jeton toutes les 20 ms, les refus précédents n'ont rien décompté
+        Thread.sleep(30);
+        assertEquals(0, buckets.tryAcquire("k", policy));
+        assertTrue(buckets.tryAcquire("k", policy) > 0);
+    }
+
+    @Test
+    void keysHaveIndependentBuckets() {
+        RateLimitPolicy policy = new RateLimitPolicy("auth", 1, 0.2);
+        assertEquals(0, buckets.tryAcquire("auth:1.1.1.1", policy));
+        assertTrue(buckets.tryAcquire("auth:1.1.1.1", policy) > 0);
+        assertEquals(0, buckets.tryAcquire("auth:2.2.2.2", policy));
+    }
+}
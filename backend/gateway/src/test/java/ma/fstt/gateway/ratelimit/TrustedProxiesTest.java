@@ -0,0 +1,58 @@
+package ma.fstt.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.net.InetSocketAddress;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TrustedProxiesTest {
+
+    private final TrustedProxies ingress = new TrustedProxies("10.244.0.0/16, fd00::/8");
+
+    @Test
+    void untrustedPeerIgnoresForwardedFor() {
+        assertEquals("203.0.113.9", ingress.clientIp(request("203.0.113.9", "1.2.3.4")));
+        assertEquals("10.244.1.7", new TrustedProxies("").clientIp(request("10.244.1.7", "1.2.3.4")));
+    }
+
+    @Test
+    void trustedPeerUsesLastUntrustedHop() {
+        assertEquals("198.51.100.4", ingress.clientIp(request("10.244.1.7", "198.51.100.4")));
+        // Entrée de gauche écrite par le client : ignorée
+        assertEquals("198.51.100.4", ingress.clientIp(request("10.244.1.7", "6.6.6.6, 198.51.100.4")));
+        // Chaîne de proxys internes
+        assertEquals("198.51.100.4", ingress.clientIp(request("10.244.1.7", "198.51.100.4, 10.244.3.2")));
+    }
+
+    @Test
+    void trustedPeerWithoutOrInvalidForwardedForUsesPeer() {
+        assertEquals("10.244.1.7", ingress.clientIp(request("10.244.1.7", null)));
+        assertEquals("10.244.1.7", ingress.clientIp(request("10.244.1.7", "not-an-ip")));
+    }
+
+    @Test
+    void prefixBoundariesAndIpv6() {
+        TrustedProxies proxies = new TrustedProxies("10.0.0.0/9");
+        assertEquals("1.2.3.4", proxies.clientIp(request("10.127.255.255", "1.2.3.4")));
+        assertEquals("10.128.0.1", proxies.clientIp(request("10.128.0.1", "1.2.3.4")));
+        assertEquals("1.2.3.4", ingress.clientIp(request("fd12::1", "1.2.3.4")));
+    }
+
+    @Test
+    void rejectsInvalidCidr() {
+        assertThrows(IllegalArgumentException.class, () -> new TrustedProxies("10.0.0.0/33"));
+        assertThrows(IllegalArgumentException.class, () -> new TrustedProxies("ingress.local/16"));
+    }
+
+    private static MockServerHttpRequest request(String peer, String forwardedFor) {
+        MockServerHttpRequest.BaseBuilder<?> builder = MockServerHttpRequest.get("/api/auth/users/login")
+                .remoteAddress(new InetSocketAddress(peer, 443));
+        if (forwardedFor != null) {
+            builder.header("X-Forwarded-For", forwardedFor);
+        }
+        return builder.build();
+    }
+}
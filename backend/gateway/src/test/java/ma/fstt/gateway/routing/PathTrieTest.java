@@ -0,0 +1,63 @@
+package ma.fstt.gateway.routing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PathTrieTest {
+
+    private final PathTrie<String> trie = new PathTrie<String>()
+            .add("/api/listings/properties", "list")
+            .add("/api/listings/properties/{propertyId}", "detail")
+            .add("/api/listings/properties/my-properties", "mine")
+            .add("/api/listings/properties/{propertyId}/submit", "submit")
+            .add("/api/listings/properties/owner/{ownerId}/count", "ownerCount");
+
+    @Test
+    void matchesLiteralPath() {
+        assertEquals("list", trie.match("/api/listings/properties"));
+    }
+
+    @Test
+    void variableMatchesOneSegment() {
+        assertEquals("detail", trie.match("/api/listings/properties/p-123"));
+        assertEquals("submit", trie.match("/api/listings/properties/p-123/submit"));
+    }
+
+    @Test
+    void literalWinsOverVariable() {
+        assertEquals("mine", trie.match("/api/listings/properties/my-properties"));
+    }
+
+    @Test
+    void backtracksToVariableWhenLiteralBranchDoesNotMatch() {
+        // "owner" existe comme littéral, mais seulement pour /owner/{ownerId}/count
+        assertEquals("detail", trie.match("/api/listings/properties/owner"));
+        assertEquals("ownerCount", trie.match("/api/listings/properties/owner/u1/count"));
+    }
+
+    @Test
+    void ignoresEmptySegments() {
+        assertEquals("submit", trie.match("//api/listings//properties/p-123/submit/"));
+    }
+
+    @Test
+    void returnsNullForPrefixOrLongerPaths() {
+        assertNull(trie.match("/api/listings"));
+        assertNull(trie.match("/api/listings/properties/p-123/images/1"));
+        assertNull(trie.match("/"));
+    }
+
+    @Test
+    void rejectsSamePatternWithAnotherValue() {
+        assertThrows(IllegalStateException.class, () -> trie.add("/api/listings/properties/{id}", "other"));
+    }
+
+    @Test
+    void acceptsSamePatternWithSameValue() {
+        trie.add("/api/listings/properties/{id}", "detail");
+        assertEquals("detail", trie.match("/api/listings/properties/p-1"));
+    }
+}
@@ -0,0 +1,182 @@
+package ma.fstt.gateway.routing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.http.HttpMethod.DELETE;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.PATCH;
+import static org.springframework.http.HttpMethod.POST;
+import static org.springframework.http.HttpMethod.PUT;
+
+/**
+ * ✅ Micro-benchmark du routage : PathTrie par méthode (RouteTable) vs prédicats path() + method()
+ * évalués dans l'ordre de déclaration (comportement du Gateway avant RouteTable).
+ * Table = routes de GatewayConfig, mélange de chemins pondéré comme le trafic (lecture de properties majoritaire).
+ *
+ * Lancer avec : mvn test -Dtest=RouteMatchingBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RouteMatchingBenchmarkTest {
+
+    private static final int PATHS = 4096;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int ROUNDS = 1000;
+
+    private record Route(String id, Set<HttpMethod> methods, String... patterns) {
+    }
+
+    private record Request(HttpMethod method, String path) {
+    }
+
+    private record Sequential(String id, Set<HttpMethod> methods, List<PathPattern> patterns) {
+    }
+
+    private static final List<Route> ROUTES = List.of(
+            new Route("auth_public", Set.of(POST), "/api/auth/users", "/api/auth/users/login",
+                    "/api/auth/users/verify-otp", "/api/auth/users/resend-otp",
+                    "/api/auth/users/forgot-password", "/api/auth/users/reset-password"),
+            new Route("auth_admin", Set.of(GET, POST, DELETE), "/api/auth/users/admin/agents",
+                    "/api/auth/users/admin/agents/{agentId}"),
+            new Route("auth_admin_delete_user", Set.of(DELETE), "/api/auth/users/{id}"),
+            new Route("auth_user", Set.of(GET, PUT), "/api/auth/users/{id}", "/api/auth/users/{userId}/wallet/status"),
+            new Route("auth_wallet", Set.of(POST, DELETE), "/api/auth/users/{userId}/wallet/connect",
+                    "/api/auth/users/{userId}/wallet/disconnect"),
+            new Route("listing_owner_read", Set.of(GET), "/api/listings/properties/my-properties",
+                    "/api/listings/properties/my-properties/price-suggestions", "/api/listings/properties/owner/{ownerId}",
+                    "/api/listings/properties/owner/{ownerId}/property-ids",
+                    "/api/listings/properties/{propertyId}/pricing/rules", "/api/listings/owners/{userId}"),
+            new Route("listing_admin_read", Set.of(GET), "/api/listings/properties/pending", "/api/listings/owners"),
+            new Route("listing_public_read", Set.of(GET), "/api/listings/properties", "/api/listings/properties/search",
+                    "/api/listings/properties/nearby", "/api/listings/properties/{propertyId}",
+                    "/api/listings/properties/{propertyId}/pricing/calendar",
+                    "/api/listings/properties/{propertyId}/wallet-address", "/api/listings/characteristics",
+                    "/api/listings/characteristics/{id}", "/api/listings/type-caracteristiques",
+                    "/api/listings/type-caracteristiques/{id}", "/api/listings/owners/check/{userId}"),
+            new Route("listing_public_post", Set.of(POST), "/api/listings/properties/pricing/quote",
+                    "/api/listings/properties/batch"),
+            new Route("listing_owner_write", Set.of(POST), "/api/listings/properties",
+                    "/api/listings/properties/{propertyId}/submit", "/api/listings/properties/{propertyId}/hide",
+                    "/api/listings/properties/{propertyId}/show", "/api/listings/properties/{propertyId}/images",
+                    "/api/listings/properties/{propertyId}/images/presign",
+                    "/api/listings/properties/{propertyId}/images/complete",
+                    "/api/listings/properties/price-suggestion", "/api/listings/properties/price-suggestion/batch"),
+            new Route("listing_owner_update", Set.of(PUT, PATCH, DELETE), "/api/listings/properties/{propertyId}",
+                    "/api/listings/properties/{propertyId}/pricing/rules", "/api/listings/properties/{propertyId}/status",
+                    "/api/listings/properties/{propertyId}/status/v2"),
+            new Route("listing_admin_write", Set.of(POST), "/api/listings/properties/{propertyId}/validate",
+                    "/api/listings/properties/{propertyId}/reject", "/api/listings/characteristics",
+                    "/api/listings/type-caracteristiques"),
+            new Route("listing_admin_update", Set.of(PUT, DELETE), "/api/listings/characteristics/{id}"),
+            new Route("booking", Set.of(GET), "/api/bookings/my-bookings", "/api/bookings/{bookingId}",
+                    "/api/bookings/host", "/api/bookings/host/{hostId}", "/api/bookings/host/{userId}/future-count",
+                    "/api/bookings/client/{userId}/active-count"),
+            new Route("booking_write", Set.of(POST, PATCH), "/api/bookings", "/api/bookings/{bookingId}/cancel"),
+            new Route("view_property_detail", Set.of(GET), "/api/views/properties/{propertyId}"),
+            new Route("payment_health", Set.of(GET), "/api/payments/health"),
+            new Route("payment", Set.of(GET, POST), "/api/payments/validate", "/api/payments/booking/{bookingId}")
+    );
+
+    @Test
+    void compareRouteMatching() {
+        Map<HttpMethod, PathTrie<String>> tries = new HashMap<>();
+        List<Sequential> sequential = new ArrayList<>();
+        for (Route route : ROUTES) {
+            List<PathPattern> patterns = new ArrayList<>();
+            for (String pattern : route.patterns()) {
+                patterns.add(PathPatternParser.defaultInstance.parse(pattern));
+                for (HttpMethod method : route.methods()) {
+                    tries.computeIfAbsent(method, m -> new PathTrie<>()).add(pattern, route.id());
+                }
+            }
+            sequential.add(new Sequential(route.id(), route.methods(), patterns));
+        }
+
+        Request[] requests = pathMix();
+
+        // Mêmes routes résolues des deux côtés sur ce mélange
+        for (Request request : requests) {
+            assertEquals(matchSequential(sequential, request), matchTrie(tries, request), request.toString());
+        }
+
+        run("Prédicats séquentiels (PathPattern)", requests, request -> matchSequential(sequential, request));
+        run("RouteTable (PathTrie par méthode)", requests, request -> matchTrie(tries, request));
+    }
+
+    private static String matchTrie(Map<HttpMethod, PathTrie<String>> tries, Request request) {
+        PathTrie<String> trie = tries.get(request.method());
+        return trie != null ? trie.match(request.path()) : null;
+    }
+
+    private static String matchSequential(List<Sequential> routes, Request request) {
+        PathContainer path = PathContainer.parsePath(request.path());
+        for (Sequential route : routes) {
+            if (!route.methods().contains(request.method())) {
+                continue;
+            }
+            for (PathPattern pattern : route.patterns()) {
+                if (pattern.matches(path)) {
+                    return route.id();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void run(String label, Request[] requests, Function<Request, String> matcher) {
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (Request request : requests) {
+                String id = matcher.apply(request);
+                sink += id == null ? 0 : id.length();
+            }
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (Request request : requests) {
+                String id = matcher.apply(request);
+                sink += id == null ? 0 : id.length();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-40s %8.1f ns/match (sink=%d)%n", label, (double) elapsed / ((long) ROUNDS * requests.length), sink);
+    }
+
+    /**
+     * Mélange pondéré : fiches property et recherches en tête, puis réservations, auth, paiements
+     */
+    private static Request[] pathMix() {
+        Random random = new Random(42);
+        Request[] requests = new Request[PATHS];
+        for (int i = 0; i < PATHS; i++) {
+            String id = Long.toHexString(random.nextLong());
+            int roll = random.nextInt(100);
+            requests[i] = roll < 35 ? new Request(GET, "/api/listings/properties/" + id)
+                    : roll < 45 ? new Request(GET, "/api/listings/properties/search")
+                    : roll < 50 ? new Request(GET, "/api/listings/properties/" + id + "/pricing/calendar")
+                    : roll < 60 ? new Request(GET, "/api/views/properties/" + id)
+                    : roll < 65 ? new Request(POST, "/api/listings/properties/pricing/quote")
+                    : roll < 70 ? new Request(GET, "/api/listings/properties/my-properties")
+                    : roll < 78 ? new Request(GET, "/api/bookings/my-bookings")
+                    : roll < 83 ? new Request(POST, "/api/bookings")
+                    : roll < 88 ? new Request(POST, "/api/auth/users/login")
+                    : roll < 92 ? new Request(GET, "/api/auth/users/" + id)
+                    : roll < 96 ? new Request(GET, "/api/payments/booking/" + id)
+                    : new Request(GET, "/api/unknown/" + id);
+        }
+        return requests;
+    }
+}
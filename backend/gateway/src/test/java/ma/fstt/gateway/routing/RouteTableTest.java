@@ -0,0 +1,113 @@
+package ma.fstt.gateway.routing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.URI;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.POST;
+import static org.springframework.http.HttpMethod.PUT;
+
+class RouteTableTest {
+
+    private final RouteTable routes = new RouteTable();
+
+    private final Predicate<ServerWebExchange> authPublic = routes.route("auth_public", Set.of(POST),
+            "/api/auth/users", "/api/auth/users/login");
+    private final Predicate<ServerWebExchange> authUser = routes.route("auth_user", Set.of(GET, PUT),
+            "/api/auth/users/{id}");
+    private final Predicate<ServerWebExchange> listingRead = routes.route("listing_public_read", Set.of(GET),
+            "/api/listings/properties/{propertyId}");
+    private final Predicate<ServerWebExchange> ownerRead = routes.route("listing_owner_read", Set.of(GET),
+            "/api/listings/properties/my-properties");
+    private final Predicate<ServerWebExchange> adminRead = routes.route("listing_admin_read", Set.of(GET),
+            "/api/listings/properties/pending");
+
+    @Test
+    void resolvesByMethodAndPath() {
+        assertEquals("auth_public", routes.resolve(MockServerWebExchange.from(MockServerHttpRequest.post("/api/auth/users/login"))));
+        assertEquals("auth_user", routes.resolve(MockServerWebExchange.from(MockServerHttpRequest.get("/api/auth/users/login"))));
+    }
+
+    @Test
+    void methodIsPartOfTheKey() {
+        // PUT /login n'est pas public : il tombe sur auth_user (protégée par JWT)
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.put("/api/auth/users/login"));
+        assertFalse(authPublic.test(exchange));
+        assertTrue(authUser.test(exchange));
+    }
+
+    @Test
+    void literalRouteWinsRegardlessOfDeclarationOrder() {
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/listings/properties/my-properties"));
+        assertFalse(listingRead.test(exchange));
+        assertTrue(ownerRead.test(exchange));
+    }
+
+    @Test
+    void unknownMethodOrPathHasNoRoute() {
+        assertNull(routes.resolve(MockServerWebExchange.from(MockServerHttpRequest.delete("/api/auth/users/1"))));
+        assertNull(routes.resolve(MockServerWebExchange.from(MockServerHttpRequest.get("/api/unknown"))));
+    }
+
+    @Test
+    void resolutionIsCachedOnTheExchange() {
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/listings/properties/p1"));
+        assertTrue(listingRead.test(exchange));
+
+        // Une route déclarée après coup ne change pas le résultat déjà calculé pour cet exchange
+        routes.route("late", Set.of(GET), "/api/listings/properties/p1");
+        assertEquals("listing_public_read", routes.resolve(exchange));
+    }
+
+    @Test
+    void rejectsPatternTakenByAnotherRoute() {
+        assertThrows(IllegalStateException.class,
+                () -> routes.route("duplicate", Set.of(GET), "/api/auth/users/{userId}"));
+    }
+
+    @Test
+    void encodedLiteralResolvesLikeTheDecodedPath() {
+        // ListingService décode "%70ending" en "pending" : la route publique {propertyId} ne doit pas la capter
+        ServerWebExchange exchange = raw("/api/listings/properties/%70ending");
+        assertTrue(adminRead.test(exchange));
+        assertFalse(listingRead.test(exchange));
+        assertEquals("listing_owner_read", routes.resolve(raw("/api/listings/properties/my%2Dproperties")));
+        assertEquals("listing_public_read", routes.resolve(raw("/api/listings/properties/p%2D1")));
+    }
+
+    @Test
+    void pathParametersAreIgnoredLikeTheServletContainer() {
+        assertEquals("listing_admin_read", routes.resolve(raw("/api/listings/properties/pending;x=1")));
+        assertEquals("listing_owner_read", routes.resolve(raw("/api/listings/properties;a/my-properties")));
+    }
+
+    @Test
+    void encodedSeparatorOrDotSegmentsHaveNoRoute() {
+        assertNull(routes.resolve(raw("/api/listings/properties/a%2Fpending")));
+        assertNull(routes.resolve(raw("/api/listings/properties/a%2fb")));
+        assertNull(routes.resolve(raw("/api/listings/properties/a%5Cpending")));
+        assertNull(routes.resolve(raw("/api/listings/properties/x/../pending")));
+        assertNull(routes.resolve(raw("/api/listings/properties/%2E%2E/pending")));
+    }
+
+    @Test
+    void normalizedPathKeepsPlainPathsUntouched() {
+        assertEquals("/api/listings/properties/p1", RouteTable.normalizedPath("/api/listings/properties/p1"));
+        assertEquals("/api/listings/properties/pending", RouteTable.normalizedPath("/api/%6Cistings//properties/pending;v"));
+    }
+
+    private static ServerWebExchange raw(String rawPath) {
+        return MockServerWebExchange.from(MockServerHttpRequest.method(GET, URI.create(rawPath)));
+    }
+}
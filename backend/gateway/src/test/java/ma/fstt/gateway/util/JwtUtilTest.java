@@ -0,0 +1,87 @@
+package ma.fstt.gateway.util;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import ma.fstt.gateway.security.VerifiedToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-with-at-least-256-bits-for-hs256!!";
+    private static final String OTHER_SECRET = "another-secret-with-at-least-256-bits-for-hs256";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", SECRET);
+        ReflectionTestUtils.setField(util, "cacheMaxSize", 100L);
+        util.init();
+        // Spy : compte les vérifications réelles (getAllClaims) derrière le cache
+        jwtUtil = spy(util);
+    }
+
+    @Test
+    void cachedEntryIsNotUsedPastExp() throws InterruptedException {
+        // exp à la seconde (précision JWT), au moins une seconde dans le futur
+        long expMillis = (System.currentTimeMillis() / 1000 + 2) * 1000;
+        String token = token(SECRET, new Date(expMillis - 60_000), new Date(expMillis));
+
+        VerifiedToken first = jwtUtil.verify(token);
+        assertSame(first, jwtUtil.verify(token));
+        verify(jwtUtil, times(1)).getAllClaims(anyString());
+
+        Thread.sleep(Math.max(0, expMillis - System.currentTimeMillis()) + 50);
+
+        // Entrée encore présente ou non dans Caffeine : elle ne doit plus être servie
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.verify(token));
+        verify(jwtUtil, times(2)).getAllClaims(anyString());
+    }
+
+    @Test
+    void forgedSignatureWithSameHeaderAndPayloadMissesTheCache() {
+        Date issuedAt = new Date((System.currentTimeMillis() / 1000) * 1000);
+        Date expiration = new Date(issuedAt.getTime() + 3_600_000);
+        String token = token(SECRET, issuedAt, expiration);
+        String forged = token(OTHER_SECRET, issuedAt, expiration);
+
+        String prefix = token.substring(0, token.lastIndexOf('.') + 1);
+        assertEquals(prefix, forged.substring(0, forged.lastIndexOf('.') + 1));
+        assertNotEquals(token, forged);
+
+        jwtUtil.verify(token);
+        assertThrows(JwtException.class, () -> jwtUtil.verify(forged));
+        verify(jwtUtil, times(2)).getAllClaims(anyString());
+    }
+
+    private static String token(String secret, Date issuedAt, Date expiration) {
+        return Jwts.builder()
+                .setSubject("host@example.com")
+                .claim("userId", "u-1")
+                .claim("roles", List.of("USER"))
+                .claim("types", List.of("HOST"))
+                .setIssuedAt(issuedAt)
+                .setExpiration(expiration)
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
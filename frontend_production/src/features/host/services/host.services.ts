@@ -10,7 +10,8 @@ import {
     PropertyCreateResponse,
     PropertyActionResponse,
     PropertyCountResponse,
-    ImageUploadResponse
+    ImageUploadResponse,
+    PresignedUpload
 } from "../types/host.types";
 import { PROPERTY_VALIDATION, PROPERTY_STATUS_DETAILS } from "@/constants/host.constants";
 
@@ -275,9 +276,10 @@ export const HostService = {
     // ==================== IMAGE MANAGEMENT ====================
 
     /**
-     * UPLOAD PROPERTY IMAGES
-     * POST /api/listings/properties/{propertyId}/images
-     * Content-Type: multipart/form-data
+     * UPLOAD PROPERTY IMAGES (direct-to-S3)
+     * POST /api/listings/properties/{propertyId}/images/presign
+     * PUT  <presigned S3 URL> (one per image, bytes never go through the gateway)
+     * POST /api/listings/properties/{propertyId}/images/complete
      * 
      * Business Logic:
      * - Upload images AFTER property creation
@@ -297,21 +299,45 @@ export const HostService = {
                 throw new Error(validationError);
             }
 
-            const formData = new FormData();
-            images.forEach((image, index) => {
-                formData.append('images', image);
-            });
-
-            const response = await privateApiClient.post(
-                `/listings/properties/${propertyId}/images`,
-                formData,
+            // ✅ Upload direct vers S3 : 1) URLs présignées, 2) PUT navigateur → S3, 3) confirmation
+            const { data: uploads } = await privateApiClient.post<PresignedUpload[]>(
+                `/listings/properties/${propertyId}/images/presign`,
                 {
-                    headers: {
-                        'Content-Type': 'multipart/form-data',
-                    },
+                    files: images.map((image) => ({
+                        fileName: image.name,
+                        contentType: image.type,
+                        size: image.size,
+                    })),
                 }
             );
-            return response.data;
+
+            await Promise.all(
+                uploads.map(async (upload, index) => {
+                    // Content-Length est fixé par le navigateur (header interdit en fetch)
+                    const headers = Object.fromEntries(
+                        Object.entries(upload.headers || {}).filter(
+                            ([name]) => name.toLowerCase() !== 'content-length'
+                        )
+                    );
+                    const res = await fetch(upload.uploadUrl, {
+                        method: 'PUT',
+                        headers,
+                        body: images[index],
+                    });
+                    if (!res.ok) {
+                        throw new Error(`Upload failed for ${images[index].name} (${res.status})`);
+                    }
+                })
+            );
+
+            const response = await privateApiClient.post(
+                `/listings/properties/${propertyId}/images/complete`,
+                { keys: uploads.map((upload) => upload.key) }
+            );
+            return {
+                message: response.data.message,
+                imagePaths: response.data.addedImages || [],
+            };
         } catch (error: any) {
             console.error("Failed to upload images:", error);
 
@@ -74,6 +74,15 @@ export interface ImageUploadResponse {
     imagePaths: string[];
 }
 
+// ✅ URL PUT présignée renvoyée par POST /images/presign
+export interface PresignedUpload {
+    key: string;
+    uploadUrl: string;
+    publicUrl: string;
+    headers: Record<string, string>;
+    expiresAt: string;
+}
+
 export interface PropertyCountResponse {
     count: number;
 }
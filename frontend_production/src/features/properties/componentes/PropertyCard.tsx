@@ -18,9 +18,12 @@ export const PropertyCardVertical: React.FC<PropertyCardProps> = ({
 }) => {
     const [currentImage, setCurrentImage] = useState(0);
     const ethPrice = (property.pricePerNight / 1000).toFixed(3);
-    const images = property.images?.length
-        ? property.images
-        : [(property as any).imageFolderPath?.[0]];
+    // ✅ Variante "card" (~640px) si disponible, sinon l'original
+    const images = property.imageVariants?.length
+        ? property.imageVariants.map((variant) => variant.cardUrl)
+        : property.images?.length
+            ? property.images
+            : [(property as any).imageFolderPath?.[0]];
 
     const nextImage = () => setCurrentImage((prev) => (prev + 1) % images.length);
 
@@ -122,9 +125,12 @@ export const PropertyCardHorizontal: React.FC<PropertyCardProps> = ({
 }) => {
     const [currentImage, setCurrentImage] = useState(0);
     const ethPrice = (property.pricePerNight / 1000).toFixed(3);
-    const images = property.images?.length
-        ? property.images
-        : [(property as any).imageFolderPath?.[0]];
+    // ✅ Variante "card" (~640px) si disponible, sinon l'original
+    const images = property.imageVariants?.length
+        ? property.imageVariants.map((variant) => variant.cardUrl)
+        : property.images?.length
+            ? property.images
+            : [(property as any).imageFolderPath?.[0]];
 
     return (
         <div
@@ -10,7 +10,8 @@ import {
     Characteristic,
     CharacteristicType,
     PropertyWithDistance,
-    PropertyStatusHelper
+    PropertyStatusHelper,
+    BookedRange
 } from '../types/properties.types';
 import { PROPERTY_STATUS_LABELS } from '@/constants/properties.constants';
 
@@ -19,6 +20,8 @@ interface PropertiesStore {
     properties: PropertySummary[];
     nearbyProperties: PropertyWithDistance[];
     currentProperty: Property | null;
+    currentBookedRanges: BookedRange[] | null;
+    currentOwnerWallet: string | null;
     characteristics: Characteristic[];
     characteristicTypes: CharacteristicType[];
     groupedCharacteristics: Record<string, Characteristic[]>;
@@ -66,6 +69,8 @@ export const usePropertiesStore = create<PropertiesStore>((set, get) => ({
     properties: [],
     nearbyProperties: [],
     currentProperty: null,
+    currentBookedRanges: null,
+    currentOwnerWallet: null,
     characteristics: [],
     characteristicTypes: [],
     groupedCharacteristics: {},
@@ -156,9 +161,12 @@ export const usePropertiesStore = create<PropertiesStore>((set, get) => ({
     fetchPropertyById: async (id: string) => {
         set({ loading: true, error: null });
         try {
-            const property = await PropertiesService.getPropertyById(id);
+            // One gateway call: property + booked dates + owner wallet
+            const view = await PropertiesService.getPropertyDetailView(id);
             set({
-                currentProperty: property,
+                currentProperty: view.property,
+                currentBookedRanges: view.availability?.bookedRanges ?? null,
+                currentOwnerWallet: view.walletAddress,
                 loading: false
             });
         } catch (error: any) {
@@ -219,7 +227,7 @@ export const usePropertiesStore = create<PropertiesStore>((set, get) => ({
     setError: (error) => set({ error }),
     setSearchQuery: (query) => set({ searchQuery: query }),
     setCurrentFilters: (filters) => set({ currentFilters: filters }),
-    resetCurrentProperty: () => set({ currentProperty: null }),
+    resetCurrentProperty: () => set({ currentProperty: null, currentBookedRanges: null, currentOwnerWallet: null }),
     clearProperties: () => set({ properties: [] }),
     clearNearbyProperties: () => set({ nearbyProperties: [] }),
 
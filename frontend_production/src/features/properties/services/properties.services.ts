@@ -10,7 +10,8 @@ import {
     CharacteristicType,
     ApiErrorResponse,
     PropertyCountResponse,
-    PropertyWithDistance
+    PropertyWithDistance,
+    PropertyDetailView
 } from "../types/properties.types";
 import { privateApiClient } from "@/lib/api/privateApiClient";
 
@@ -99,6 +100,48 @@ export const PropertiesService = {
         }
     },
 
+    /**
+     * 2a. GET PROPERTY DETAIL PAGE DATA IN ONE CALL
+     * GET /api/views/properties/{propertyId}
+     *
+     * Business Logic:
+     * - Gateway fans out to the property, its booked dates and the owner's wallet
+     * - availability / walletAddress are null if their service timed out (partial = true)
+     */
+    getPropertyDetailView: async (propertyId: string): Promise<PropertyDetailView> => {
+        try {
+            const response = await publicApiClient.get<PropertyDetailView>(`/views/properties/${propertyId}`);
+            return response.data;
+        } catch (error: any) {
+            if (error.response?.status === 404) {
+                throw new Error("Property not found");
+            }
+            console.error("Failed to fetch property details:", error);
+            throw new Error(error.response?.data?.message || "Failed to fetch property details");
+        }
+    },
+
+    /**
+     * 2b. GET SEVERAL PROPERTIES IN ONE CALL
+     * POST /api/listings/properties/batch
+     *
+     * Business Logic:
+     * - Same payload as getPropertyById, in the order of the given IDs
+     * - Unknown IDs are skipped
+     */
+    getPropertiesByIds: async (propertyIds: string[]): Promise<Property[]> => {
+        if (propertyIds.length === 0) {
+            return [];
+        }
+        try {
+            const response = await publicApiClient.post<Property[]>(`/listings/properties/batch`, { propertyIds });
+            return response.data;
+        } catch (error: any) {
+            console.error("Failed to fetch properties:", error);
+            throw new Error(error.response?.data?.message || "Failed to fetch properties");
+        }
+    },
+
     /**
      * 3. SEARCH PROPERTIES WITH FILTERS
      * GET /api/listings/properties/search?city=Casablanca&type=VILLA&...
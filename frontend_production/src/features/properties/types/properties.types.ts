@@ -33,6 +33,7 @@ export interface Property {
 
     // Media
     imageFolderPath: string[];
+    imageVariants?: ImageVariant[]; // ✅ Versions redimensionnées (générées en asynchrone)
     characteristics: Characteristic[];
 
     // Timestamps
@@ -66,6 +67,7 @@ export interface PropertySummary {
     nbOfBathrooms: number;
     status: PropertyStatus;
     images: string[];
+    imageVariants?: ImageVariant[];
     characteristics: Characteristic[];
     ownerId: string;
     createdAt: string;
@@ -73,6 +75,15 @@ export interface PropertySummary {
     distance?: number; // ✅ ADDED: For nearby search results
 }
 
+// ✅ Variantes d'une image originale (thumb ≈ 320px, card ≈ 640px, full ≈ 1600px)
+export interface ImageVariant {
+    originalUrl: string;
+    thumbUrl: string;
+    cardUrl: string;
+    fullUrl: string;
+    format: string;
+}
+
 // ✅ Characteristic interface matches database schema
 export interface Characteristic {
     id: number;
@@ -155,6 +166,27 @@ export interface PaginatedResponse<T> {
     last: boolean;
 }
 
+// ==================== DETAIL VIEW (GATEWAY COMPOSITION) ====================
+
+// Booked period; endDate = checkout day (exclusive)
+export interface BookedRange {
+    startDate: string;
+    endDate: string;
+}
+
+// GET /api/views/properties/{id}: optional parts are null when their service did not answer in time
+export interface PropertyDetailView {
+    property: Property;
+    availability: {
+        from: string;
+        to: string;
+        bookedRanges: BookedRange[];
+    } | null;
+    walletAddress: string | null;
+    partial: boolean;
+    unavailable: Array<'availability' | 'wallet'>;
+}
+
 // ==================== CREATE & UPDATE TYPES ====================
 
 // ✅ Create property DTO matches backend expectation exactly
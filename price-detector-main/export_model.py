@@ -0,0 +1,85 @@
+"""
+Export du pipeline entraîné (optimized_price_model.joblib) au format JSON
+chargé par ListingService (PriceSuggestionModel) pour le scoring en Java.
+
+Usage : python export_model.py [sortie]
+        (défaut : ../backend/ListingService/src/main/resources/models/price_model.json)
+
+Seul le pipeline de model.py est supporté :
+  ColumnTransformer(num = SimpleImputer(median) + StandardScaler,
+                    cat = SimpleImputer(constant) + OneHotEncoder(handle_unknown='ignore'))
+  -> SelectKBest -> GradientBoostingRegressor (loss squared_error)
+"""
+import json
+import os
+import sys
+
+import joblib
+
+BASE_DIR = os.path.dirname(os.path.abspath(__file__))
+MODEL_PATH = os.path.join(BASE_DIR, "optimized_price_model.joblib")
+DEFAULT_OUTPUT = os.path.join(
+    BASE_DIR, "..", "backend", "ListingService", "src", "main", "resources", "models", "price_model.json"
+)
+
+
+def export(pipeline):
+    preprocessor = pipeline.named_steps["preprocessor"]
+    selector = pipeline.named_steps["feature_selection"]
+    regressor = pipeline.named_steps["regressor"]
+
+    num_pipeline = preprocessor.named_transformers_["num"]
+    cat_pipeline = preprocessor.named_transformers_["cat"]
+    num_columns = next(cols for name, _, cols in preprocessor.transformers_ if name == "num")
+    cat_columns = next(cols for name, _, cols in preprocessor.transformers_ if name == "cat")
+
+    imputer = num_pipeline.named_steps["imputer"]
+    scaler = num_pipeline.named_steps["scaler"]
+    numeric = [
+        {
+            "name": name,
+            "median": float(imputer.statistics_[i]),
+            "mean": float(scaler.mean_[i]),
+            "scale": float(scaler.scale_[i]),
+        }
+        for i, name in enumerate(num_columns)
+    ]
+
+    encoder = cat_pipeline.named_steps["onehot"]
+    missing = cat_pipeline.named_steps["imputer"].fill_value
+    categorical = [
+        {"name": name, "missing": missing, "categories": [str(c) for c in encoder.categories_[i]]}
+        for i, name in enumerate(cat_columns)
+    ]
+
+    # Index des arbres = colonnes APRÈS sélection : on les ramène aux colonnes du preprocessor
+    support = [int(i) for i in selector.get_support(indices=True)]
+
+    trees = []
+    for estimator in regressor.estimators_[:, 0]:
+        tree = estimator.tree_
+        trees.append({
+            "feature": [support[f] if left != -1 else -1
+                        for f, left in zip(tree.feature.tolist(), tree.children_left.tolist())],
+            "threshold": tree.threshold.tolist(),
+            "left": tree.children_left.tolist(),
+            "right": tree.children_right.tolist(),
+            "value": tree.value[:, 0, 0].tolist(),
+        })
+
+    return {
+        "format": "sklearn-gbr-v1",
+        "numeric": numeric,
+        "categorical": categorical,
+        "init": float(regressor.init_.constant_[0][0]),
+        "learningRate": float(regressor.learning_rate),
+        "trees": trees,
+    }
+
+
+if __name__ == "__main__":
+    output = sys.argv[1] if len(sys.argv) > 1 else DEFAULT_OUTPUT
+    os.makedirs(os.path.dirname(os.path.abspath(output)), exist_ok=True)
+    with open(output, "w") as f:
+        json.dump(export(joblib.load(MODEL_PATH)), f)
+    print(f"Modèle exporté : {output}")